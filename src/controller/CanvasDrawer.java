@@ -8,6 +8,7 @@ import javafx.scene.transform.Affine;
 import model.Board;
 import model.DynamicBoard;
 import model.GameOfLife;
+import model.RowCursor;
 
 /**
  * The CanvasDrawer handles all drawing to the applications canvases, and handles functionality allowing the user
@@ -32,9 +33,9 @@ class CanvasDrawer {
     private double yOnStartDrag = 0;
 
     /**
-     * The main method for drawing the cell grid onto the canvas. Iterates through each element of the play board and
-     * draws it on the canvas if it is a live cell, relative to the offset created by dragging or zooming on the
-     * play board. It will also draw a grid around each cell, dead or alive, should the grid parameter be true.
+     * The main method for drawing the cell grid onto the canvas. Iterates through each element of the play board that
+     * can be seen on the canvas and draws it if it is a live cell, relative to the offset created by dragging or
+     * zooming on the play board. It will also draw a grid around each cell, dead or alive, should the grid parameter be true.
      * Should the board have a pattern loaded from file or URL, it will call the drawLoadedPattern() method.
      * @param canvas The canvas to be drawn upon.
      * @param board The active board to be drawn
@@ -51,9 +52,11 @@ class CanvasDrawer {
      * @see #drawLoadedPattern(GraphicsContext, byte[][], int[])
      * @see Board#getWidth()
      * @see Board#getHeight()
-     * @see Board#getCellState(int, int)
+     * @see Board#rowCursor()
      * @see DynamicBoard#hasExpandedUp
      * @see DynamicBoard#hasExpandedLeft
+     * @see DynamicBoard#getShrunkLeft()
+     * @see DynamicBoard#getShrunkUp()
      */
     void drawBoard(Canvas canvas, Board board, GraphicsContext gc,
                    Color cellColor, Color backgroundColor, boolean grid) {
@@ -71,15 +74,26 @@ class CanvasDrawer {
             yZoomOffset -= cellDrawSize;
         }
 
-        //Iterates through the board and draws active cells.
+        //Likewise adjusts the offset by the number of columns and rows removed if the board has shrunk.
+        if (board instanceof DynamicBoard) {
+            xZoomOffset += ((DynamicBoard) board).getShrunkLeft() * cellDrawSize;
+            yZoomOffset += ((DynamicBoard) board).getShrunkUp() * cellDrawSize;
+        }
+
+        //Iterates through the rows of the board that can be seen on the canvas and draws their active cells.
         double xOffset = xZoomOffset + xDragOffset;
         double yOffset = yZoomOffset + yDragOffset;
-        for (int x = 0; x < board.getWidth(); x++) {
-            for (int y = 0; y < board.getHeight(); y++) {
-                if (board.getCellState(x,y) == 1) {
-                    gc.fillRect(x * cellDrawSize + xOffset, y * cellDrawSize + yOffset,
-                            cellDrawSize, cellDrawSize);
-                }
+        int xFirst = Math.max(0, (int) Math.floor(-xOffset / cellDrawSize));
+        int yFirst = Math.max(0, (int) Math.floor(-yOffset / cellDrawSize));
+        int xLast = Math.min(board.getWidth(), (int) Math.ceil((canvas.getWidth() - xOffset) / cellDrawSize));
+        int yLast = Math.min(board.getHeight(), (int) Math.ceil((canvas.getHeight() - yOffset) / cellDrawSize));
+        RowCursor cursor = board.rowCursor();
+        cursor.moveTo(yFirst);
+        while (cursor.next() && cursor.getY() < yLast) {
+            int y = cursor.getY();
+            for (int x = cursor.nextActive(xFirst); x < xLast; x = cursor.nextActive(x + 1)) {
+                gc.fillRect(x * cellDrawSize + xOffset, y * cellDrawSize + yOffset,
+                        cellDrawSize, cellDrawSize);
             }
         }
 
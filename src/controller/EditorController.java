@@ -2,6 +2,8 @@ package controller;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.canvas.Canvas;
@@ -20,7 +22,8 @@ import java.io.IOException;
  * The EditorController handles all user-interaction within the export/editor window.
  * It contains the methods and parameters linked to the graphical user interface elements
  * that the user can interact with, and handles the changes that happen based on what the
- * user does within the application.
+ * user does within the application. It contains two nested classes, GifTask and GifService for exporting gifs
+ * concurrently.
  *
  * @author Oscar Vladau-Husevold
  * @version 1.0
@@ -35,6 +38,7 @@ public class EditorController implements Initializable {
     @FXML TextField ruleInputField;
     @FXML TextField fpsInputField;
     @FXML TextField numFramesInputField;
+    @FXML TextField generationsInputField;
     @FXML TextField resizeBoardInput;
     @FXML CheckBox dateCheckBox;
     @FXML ColorPicker cellColorPicker;
@@ -42,6 +46,10 @@ public class EditorController implements Initializable {
     @FXML Canvas strip;
     @FXML ChoiceBox chooseSizeBox;
     @FXML ChoiceBox chooseDrawBox;
+    @FXML Button saveGifButton;
+    @FXML Button cancelGifButton;
+    @FXML ProgressBar gifProgressBar;
+    @FXML Label gifLabel;
 
     private Board exportBoard;
     private Board stripBoard;
@@ -53,6 +61,9 @@ public class EditorController implements Initializable {
     private boolean grid = false;
     private int gifSize;
     private boolean drawEntireBoard = true;
+    private final GifService gifService = new GifService();
+    private GifConstructor gifConstructor;
+    private String gifFilePath;
     private final ObservableList<String> chooseSizeList = FXCollections.observableArrayList("640x640", "800x800",
             "1024x1024", "1200x1200", "1600x1600", "1920x1920", "2880x2880", "3840x3840");
     private final ObservableList<String> chooseDrawList = FXCollections.observableArrayList("Entire Board",
@@ -72,8 +83,10 @@ public class EditorController implements Initializable {
      * @see #resizeBoardInput
      * @see #fpsInputField
      * @see #numFramesInputField
+     * @see #generationsInputField
      * @see #chooseSizeBox
      * @see #chooseDrawBox
+     * @see #gifService
      */
     public void initialize(java.net.URL location, java.util.ResourceBundle resources) {
 
@@ -98,6 +111,10 @@ public class EditorController implements Initializable {
             change.setText(change.getText().replaceAll("[^\\d]", ""));
             return change;
         });
+        TextFormatter<String> generationsFormatter = new TextFormatter<>(change -> {
+            change.setText(change.getText().replaceAll("[^\\d]", ""));
+            return change;
+        });
         TextFormatter<String> boardResizeFormatter = new TextFormatter<>(change -> {
             change.setText(change.getText().replaceAll("[^\\d]", ""));
             return change;
@@ -106,6 +123,14 @@ public class EditorController implements Initializable {
         resizeBoardInput.setTextFormatter(boardResizeFormatter);
         fpsInputField.setTextFormatter(fpsFormatter);
         numFramesInputField.setTextFormatter(numFramesFormatter);
+        generationsInputField.setTextFormatter(generationsFormatter);
+
+        //Shows the progress of a gif export, and only lets the user start one export at a time.
+        gifProgressBar.progressProperty().bind(gifService.progressProperty());
+        gifProgressBar.visibleProperty().bind(gifService.runningProperty());
+        gifLabel.textProperty().bind(gifService.messageProperty());
+        saveGifButton.disableProperty().bind(gifService.runningProperty());
+        cancelGifButton.disableProperty().bind(gifService.runningProperty().not());
     }
 
     /**
@@ -148,10 +173,13 @@ public class EditorController implements Initializable {
     }
 
     /**
-     * Method to exit the application. Is called when the user clicks on the "exit"-button.
+     * Method to exit the application. Is called when the user clicks on the "exit"-button. Stops any gif export
+     * in progress.
      * @see #editorCanvas
+     * @see #gifService
      */
     public void closeClick() {
+        gifService.cancel();
         Stage currentStage = (Stage) editorCanvas.getScene().getWindow();
         currentStage.close();
     }
@@ -369,8 +397,9 @@ public class EditorController implements Initializable {
 
         //Lets the user choose a file path to save the file to.
         FileChooser fileChooser = new FileChooser();
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Run-length encoding",
-                "*.rle"));
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Run-length encoding", "*.rle"),
+                new FileChooser.ExtensionFilter("Compressed run-length encoding", "*.rle.gz"));
         File file = fileChooser.showSaveDialog(new Stage());
 
         if (file == null) {
@@ -388,24 +417,27 @@ public class EditorController implements Initializable {
      * Method called when the user clicks the export GIF button. Does several checks on the value of the input
      * fields, to check that they are valid, producing a warning if not. Gathers statistics for 50 iterations
      * to check if there is a high probability of the pattern repeating itself, and asks the user if they want
-     * to use that number of iterations to potentially create a endless loop. Creates a new GifConstructor
-     * object with the relevant data, and calls exportGif() to write the gif file to disk.
+     * to use the number of frames it takes to get back to the first one to potentially create a endless loop, which
+     * is fewer than the period if several generations are made between each frame. Creates a new GifConstructor
+     * object with the relevant data, and starts the gifService to write the gif file to disk in the background.
      * @see #drawEntireBoard
      * @see #gifSize
      * @see #numFramesInputField
      * @see #fpsInputField
+     * @see #generationsInputField
      * @see #gameOfLife
      * @see Board#getWidth()
      * @see Board#getHeight()
      * @see PopUpAlerts#sizeBoardError()
      * @see PopUpAlerts#gifFramesAlert()
      * @see PopUpAlerts#gifFPSAlert()
+     * @see PopUpAlerts#gifGenerationsAlert()
      * @see PopUpAlerts#gifSimilarityAlert(int)
-     * @see Statistics#getStatistics(GameOfLife, int)
-     * @see Statistics#getHighestSimilarity(int[][])
+     * @see Statistics#getRepeatPeriod(GameOfLife, int)
      * @see GameOfLife#clone()
      * @see GifConstructor#GifConstructor(GameOfLife, int, int, boolean, Color, Color, int)
-     * @see GifConstructor#exportGif(String)
+     * @see GifConstructor#setGenerationsPerFrame(int)
+     * @see #gifService
      */
     public void saveGifClick() {
 
@@ -415,11 +447,11 @@ public class EditorController implements Initializable {
             PopUpAlerts.sizeBoardError();
         }
 
-        //Checks that the number of images is valid, and between 1 and 400. Produces a warning if not.
+        //Checks that the number of images is valid, and between 1 and 1000. Produces a warning if not.
         int counter = 20;
         if (!numFramesInputField.getText().isEmpty()) {
             counter = Integer.parseInt(numFramesInputField.getText());
-            if (counter < 1 || counter > 400) {
+            if (counter < 1 || counter > 1000) {
                 PopUpAlerts.gifFramesAlert();
                 return;
             }
@@ -435,16 +467,25 @@ public class EditorController implements Initializable {
             }
         }
 
-        //Gathers statistics and informs the user if there is a high probability of a repeating pattern.
-        //Sets that as the number of iterations if the user chooses to do so.
+        //Checks that the number of generations between frames is between 1 and 100, produces a warning if not.
+        int generationsPerFrame = 1;
+        if (!generationsInputField.getText().isEmpty()) {
+            generationsPerFrame = Integer.parseInt(generationsInputField.getText());
+            if (generationsPerFrame < 1 || generationsPerFrame > 100) {
+                PopUpAlerts.gifGenerationsAlert();
+                return;
+            }
+        }
+
+        //Runs the pattern to find out if it returns to its current state, and informs the user if it does.
+        //Sets the period as the number of iterations if the user chooses to do so.
         Statistics statistics = new Statistics();
-        int[][] stat = statistics.getStatistics(gameOfLife, 50);
-        int repeat = statistics.getHighestSimilarity(stat);
+        int repeat = statistics.getRepeatPeriod(gameOfLife, 100);
 
         if (repeat != 0) {
             boolean b = PopUpAlerts.gifSimilarityAlert(repeat);
             if (b) {
-                counter = repeat;
+                counter = repeat / gcd(repeat, generationsPerFrame);
             }
         }
 
@@ -460,11 +501,37 @@ public class EditorController implements Initializable {
         String filePath = file.getPath();
 
         GameOfLife gifGol = (GameOfLife)gameOfLife.clone();
-        GifConstructor gifConstructor = new GifConstructor(gifGol, counter, fps, drawEntireBoard,
+        gifConstructor = new GifConstructor(gifGol, counter, fps, drawEntireBoard,
                 currentBackgroundColor, currentCellColor, gifSize);
+        gifConstructor.setGenerationsPerFrame(generationsPerFrame);
+        gifFilePath = filePath;
+
+        //Starts the export of the gif.
+        gifService.restart();
+    }
+
+    /**
+     * Method that returns the greatest common divisor of two numbers.
+     * @param a The first number, at least 1.
+     * @param b The second number, at least 1.
+     * @return gcd - The greatest common divisor.
+     */
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
 
-        //Calls the method to export the gif.
-        gifConstructor.exportGif(filePath);
+    /**
+     * Method called when the user clicks the cancel button during a gif export. Stops the export, and the
+     * unfinished file is deleted.
+     * @see #gifService
+     */
+    public void cancelGifClick() {
+        gifService.cancel();
     }
 
     /**
@@ -484,4 +551,74 @@ public class EditorController implements Initializable {
     public void setGameOfLife(GameOfLife gOL) {
         this.gameOfLife = gOL;
     }
-}
\ No newline at end of file
+
+    /**
+     * GifTask is a nested class within the EditorController that extends the Task class in the javafx.concurrent
+     * package. It exports the gif set up by saveGifClick(), reporting the number of frames written as it goes.
+     * The class is nested because it is only used within the EditorController.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     **/
+    private class GifTask extends Task<Boolean> {
+        private final GifConstructor taskConstructor = gifConstructor;
+        private final String taskFilePath = gifFilePath;
+
+        /**
+         * This Method will run when the service is started. Exports the gif, until done or cancelled.
+         * @return done - True if the gif was written.
+         * @exception IOException - Thrown if the gif cannot be written.
+         */
+        @Override
+        public Boolean call() throws IOException {
+            updateMessage("Exporting..");
+            return taskConstructor.exportGif(taskFilePath, (frame, total) -> {
+                updateMessage("Frame " + frame + "/" + total);
+                updateProgress(frame, total);
+            }, this::isCancelled);
+        }
+
+        /**
+         * This Method will run if the task is succeeded.
+         */
+        @Override
+        protected void succeeded() {
+            super.succeeded();
+            updateMessage(getValue() ? "GIF saved" : "Export stopped");
+        }
+
+        /**
+         * This Method will run if the task is cancelled.
+         */
+        @Override
+        protected void cancelled() {
+            super.cancelled();
+            updateMessage("Export stopped");
+        }
+
+        /**
+         * This Method will run if the task is failed. Shows a popup to the user explaining what went wrong.
+         */
+        @Override
+        protected void failed() {
+            super.failed();
+            updateMessage("Export failed");
+            PopUpAlerts.ioeSaveError();
+        }
+    }
+
+    /**
+     * GifService is a nested class within the EditorController that extends Service in the javafx.concurrent
+     * package. An object of GifService holds an instance of GifTask. The class is nested because it is only used
+     * within the EditorController.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     **/
+    private class GifService extends Service<Boolean> {
+        @Override
+        protected Task<Boolean> createTask() {
+            return new GifTask();
+        }
+    }
+}
@@ -4,6 +4,8 @@ import javafx.animation.*;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Cursor;
@@ -31,7 +33,8 @@ import java.util.Optional;
  * The Controller class handles user-interaction within the main window of the application.
  * It contains the methods and parameters linked to the graphical user interface elements
  * that the user can interact with, and handles the changes that happen based on what the
- * user does within the application.
+ * user does within the application. It contains four nested classes, PngTask and PngService for exporting
+ * pictures of the board concurrently, and AnalysisTask and AnalysisService for analysing the pattern concurrently.
  *
  * @author Oscar Vladau-Husevold
  * @author Henrik Finnerud Larsen
@@ -53,6 +56,7 @@ public class MainWindowController implements Initializable {
     @FXML private Button startButton;
     @FXML private Button centerButton;
     @FXML private Button resetButton;
+    @FXML private Button fastForwardButton;
     @FXML private Button gridToggleButton;
 
     //List of all traversable nodes
@@ -66,6 +70,12 @@ public class MainWindowController implements Initializable {
     private final FileHandler fileHandler = new FileHandler();
     private final ThreadWorker threadWorker = ThreadWorker.getInstance();
     private Timeline timeline;
+    private final CycleDetector cycleDetector = new CycleDetector();
+
+    //Whether the user has been told about the cycle the board is in, and the hash of the board at the time, so that
+    //the game keeps running without stopping again should the user start it anyway.
+    private boolean cycleReported = false;
+    private long cycleHash;
     private boolean gridToggle = true;
     private boolean isRunning = false;
     private boolean isMovable = false;
@@ -77,6 +87,12 @@ public class MainWindowController implements Initializable {
     private ProgressController progressController;
 
     private final TextInputDialog textInputDialogStatistics = new TextInputDialog();
+    private final TextInputDialog textInputDialogCellSize = new TextInputDialog("4");
+    private final TextInputDialog textInputDialogFastForward = new TextInputDialog("100");
+    private final PngService pngService = new PngService();
+    private final AnalysisService analysisService = new AnalysisService();
+    private PngExporter pngExporter;
+    private File pngFile;
     private final ObservableList<String> chooseRulesList = FXCollections.observableArrayList("Life", "Replicator",
             "Seeds", "Life Without Death", "34 Life", "Diamoeba", "2x2", "Highlife", "Day & Night", "Morley", "Anneal");
 
@@ -120,6 +136,13 @@ public class MainWindowController implements Initializable {
 
         gOL.setThreadWorkers(threadWorker);
 
+        //Lets the board give back inactive borders while running, so it does not keep growing behind spaceships,
+        //and grow in chunks rather than one cell at a time.
+        if (board instanceof DynamicBoard) {
+            ((DynamicBoard) board).setShrinkable(true);
+            ((DynamicBoard) board).setExpansionChunk(8);
+        }
+
         //Sets the current board and gol to be linked with the file handler
         fileHandler.setBoard(board);
         fileHandler.setGol(gOL);
@@ -136,6 +159,14 @@ public class MainWindowController implements Initializable {
             return change;
         });
         textInputDialogStatistics.getEditor().setTextFormatter(onlyNumbers);
+        textInputDialogCellSize.getEditor().setTextFormatter(new TextFormatter<String>(change -> {
+            change.setText(change.getText().replaceAll("[^\\d/]", ""));
+            return change;
+        }));
+        textInputDialogFastForward.getEditor().setTextFormatter(new TextFormatter<String>(change -> {
+            change.setText(change.getText().replaceAll("[^\\d]", ""));
+            return change;
+        }));
 
         //Sets initial values for the choiceBoxes and colorPickers.
         chooseRulesBox.setItems(chooseRulesList);
@@ -144,7 +175,7 @@ public class MainWindowController implements Initializable {
         backgroundColorPicker.setValue(currentBackgroundColor);
 
         Node[] traversableNodes = {canvasArea, speedSlider, cellColorPicker, backgroundColorPicker, startButton,
-                ruleInputField, chooseRulesBox, centerButton, resetButton, gridToggleButton};
+                ruleInputField, chooseRulesBox, centerButton, resetButton, fastForwardButton, gridToggleButton};
         nodes.addAll(Arrays.asList(traversableNodes));
         setFocusTraversable(true);
 
@@ -163,6 +194,8 @@ public class MainWindowController implements Initializable {
      * @see GameOfLife#getGenCounter()
      * @see GameOfLife#nextGeneration()
      * @see Board#getCellsAlive()
+     * @see CycleDetector#update(Board, int)
+     * @see PopUpAlerts#cycleAlert(int, int, int)
      */
     private KeyFrame addNewKeyFrame(){
         return new KeyFrame(Duration.millis(1000), e -> {
@@ -185,9 +218,30 @@ public class MainWindowController implements Initializable {
             gOL.incrementGenCounter();
             generationLabel.setText(Integer.toString(gOL.getGenCounter()));
             aliveLabel.setText(Integer.toString(board.getCellsAlive()));
+
+            //Pauses the game once it has reached a still life or a cycle, as nothing new will happen.
+            if (!cycleReported && cycleDetector.update(board, gOL.getGenCounter())) {
+                cycleReported = true;
+                cycleHash = board.getHash();
+                startClick();
+                int period = cycleDetector.getPeriod();
+                int firstRepeat = cycleDetector.getFirstRepeat();
+                Platform.runLater(() -> PopUpAlerts.cycleAlert(period, firstRepeat, board.getCellsAlive()));
+            }
         });
     }
 
+    /**
+     * Method that makes the cycle detector forget the generations it has seen, used when the board or the rules
+     * have been changed by the user.
+     * @see #cycleDetector
+     * @see #cycleReported
+     */
+    private void resetCycleDetector() {
+        cycleDetector.reset();
+        cycleReported = false;
+    }
+
     /**
      * A method that calls CanvasDrawers drawBoard with the parameters relevant to the main window.
      * @see #canvasArea
@@ -249,6 +303,7 @@ public class MainWindowController implements Initializable {
      * @see #isMovable
      * @see #aliveLabel
      * @see #timeline
+     * @see #resetCycleDetector()
      * @see Board#finalizeBoard()
      * @see Board#getCellsAlive()
      */
@@ -258,6 +313,11 @@ public class MainWindowController implements Initializable {
             isRunning = true;
             isMovable = false;
             board.finalizeBoard();
+
+            //Looks for cycles again, unless the board is still in the cycle the user has been told about.
+            if (!cycleReported || board.getHash() != cycleHash) {
+                resetCycleDetector();
+            }
             setFocusTraversable(true);
             aliveLabel.setText(Integer.toString(board.getCellsAlive()));
             draw();
@@ -325,6 +385,55 @@ public class MainWindowController implements Initializable {
         draw();
     }
 
+    /**
+     * Method called when the user clicks the "Fast-forward" button. Pauses the game and opens a text input dialog
+     * for the user to choose how many generations to skip, which are made at once by nextGenerations() without
+     * drawing each of them. The board is then drawn, and the cycle detector starts over, as it has not seen the
+     * generations that were skipped.
+     * @see #timeline
+     * @see #textInputDialogFastForward
+     * @see #resetCycleDetector()
+     * @see #draw()
+     * @see GameOfLife#nextGenerations(int)
+     * @see GameOfLife#incrementGenCounter(int)
+     * @see Board#finalizeBoard()
+     * @see PopUpAlerts#fastForwardAlert()
+     */
+    public void fastForwardClick() {
+        timeline.pause();
+        startButton.setText("Start");
+        isRunning = false;
+        isMovable = false;
+        board.finalizeBoard();
+
+        textInputDialogFastForward.setHeaderText("Fast-forward");
+        textInputDialogFastForward.setContentText("Enter number of generations");
+        Optional<String> result = textInputDialogFastForward.showAndWait();
+        if (!result.isPresent() || result.get().isEmpty()) {
+            return;
+        }
+
+        //Checks that the number of generations is within the valid range, and shows a warning if not.
+        int generations;
+        try {
+            generations = Integer.parseInt(result.get());
+        } catch (NumberFormatException nfe) {
+            generations = 0;
+        }
+        if (generations < 1 || generations > 5000) {
+            PopUpAlerts.fastForwardAlert();
+            return;
+        }
+
+        gOL.nextGenerations(generations);
+        gOL.incrementGenCounter(generations);
+        resetCycleDetector();
+        generationLabel.setText(Integer.toString(gOL.getGenCounter()));
+        aliveLabel.setText(Integer.toString(board.getCellsAlive()));
+        setFocusTraversable(true);
+        draw();
+    }
+
     /**
      * Method to exit the application. Is called when the user clicks on the "exit"-button.
      */
@@ -360,6 +469,7 @@ public class MainWindowController implements Initializable {
     public void mousePressed(MouseEvent mouseEvent) {
         if (mouseEvent.isPrimaryButtonDown()) {
             canvasDrawer.drawPressed(mouseEvent, board, true);
+            resetCycleDetector();
             aliveLabel.setText("" + board.getCellsAlive());
         }else if (mouseEvent.isSecondaryButtonDown()) {
             canvasDrawer.setOriginalDrag(mouseEvent);
@@ -384,6 +494,7 @@ public class MainWindowController implements Initializable {
     public void mouseDragged(MouseEvent mouseEvent) {
         if (mouseEvent.isPrimaryButtonDown()) {
             canvasDrawer.drawDragged(mouseEvent, board, true);
+            resetCycleDetector();
             aliveLabel.setText("" + board.getCellsAlive());
         } else if (mouseEvent.isSecondaryButtonDown()) {
             canvasDrawer.setDragOffset(mouseEvent);
@@ -415,6 +526,7 @@ public class MainWindowController implements Initializable {
         try {
             String ruleString = ruleInputField.getText().toUpperCase();
             gOL.setRuleString(ruleString);
+            resetCycleDetector();
             ruleLabel.setText(gOL.getRuleString().toUpperCase());
             ruleInputField.setText("");
 
@@ -445,6 +557,7 @@ public class MainWindowController implements Initializable {
         String rules = (String)chooseRulesBox.getValue();
         try{
             gOL.setRuleString(rules);
+            resetCycleDetector();
         }catch (RulesFormatException rfee) {
             PopUpAlerts.ruleAlert2();
         }
@@ -542,8 +655,8 @@ public class MainWindowController implements Initializable {
 
     /**
      * Method that allows for importing an RLE-file from disk. Lets the user choose a file-path to load and
-     * if valid will load that file through the FileHandler object. Will produce a warning if the file location
-     * is invalid.
+     * if valid will load that file through the FileHandler object. Macrocell files, gzip-compressed files and
+     * zip archives are accepted as well. Will produce a warning if the file location is invalid.
      * @see #timeline
      * @see #generationLabel
      * @see #aliveLabel
@@ -563,8 +676,11 @@ public class MainWindowController implements Initializable {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Open Resource File");
         fileChooser.setInitialDirectory(new File(System.getProperty("user.dir")));
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Run-length encoding",
-                "*.rle"));
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("All patterns", "*.rle", "*.rle.gz", "*.mc", "*.mc.gz", "*.zip"),
+                new FileChooser.ExtensionFilter("Run-length encoding", "*.rle", "*.rle.gz"),
+                new FileChooser.ExtensionFilter("Macrocell", "*.mc", "*.mc.gz"),
+                new FileChooser.ExtensionFilter("Zip archive", "*.zip"));
         File file = fileChooser.showOpenDialog(new Stage());
 
         //If a file was chosen, will stop the game and set the generation to 0 and try to load the file.
@@ -653,9 +769,11 @@ public class MainWindowController implements Initializable {
 
     /**
      * Method called when the user clicks the view metadata button. Calls the metaData method
-     * from PopUpAlerts to produce a popup window containing a description of the selected rules.
+     * from PopUpAlerts to produce a popup window containing a description of the selected rules, followed by the
+     * analysis of the pattern if it has been analysed.
      * @see FileHandler#getMetaTitle()
      * @see FileHandler#getMetaData()
+     * @see FileHandler#getMetaAnalysis()
      * @see PopUpAlerts#metaData(String, String)
      */
     public void showMetadata() {
@@ -671,9 +789,27 @@ public class MainWindowController implements Initializable {
         } else {
             description = fileHandler.metaData;
         }
+        if (!fileHandler.metaAnalysis.equals("")) {
+            description += "\n\n" + fileHandler.metaAnalysis;
+        }
         PopUpAlerts.metaData(title, description);
     }
 
+    /**
+     * Method called when the user clicks the analyse pattern menu item. Pauses the game and starts the
+     * analysisService, which finds out whether the pattern is a still life, an oscillator or a spaceship.
+     * @see #timeline
+     * @see #analysisService
+     * @see Board#finalizeBoard()
+     */
+    public void analysePatternClick() {
+        timeline.pause();
+        startButton.setText("Start");
+        isRunning = false;
+        board.finalizeBoard();
+        analysisService.restart();
+    }
+
     /**
      * Method called when the user presses the "export" button. Pauses the game and opens the export/editor window.
      * Sets the GameOfLife and Board objects, and re-sizes the board if it is non-quadratically and instance of
@@ -757,9 +893,10 @@ public class MainWindowController implements Initializable {
      * @see #textInputDialogStatistics
      * @see #progressStage
      * @see #progressController
-     * @see StatisticsController#makeChart()
+     * @see StatisticsController#startChart()
      * @see ProgressController#setIterations(int)
      * @see ProgressController#setGameOfLife(GameOfLife)
+     * @see ProgressController#start()
      * @see PopUpAlerts#ioAlertFXML()
      */
     public void showStatistic() {
@@ -792,6 +929,7 @@ public class MainWindowController implements Initializable {
                 //Sets iterations and the GameOfLife object to be considered.
                 progressController.setIterations(iterations);
                 progressController.setGameOfLife(gOL);
+                progressController.start();
 
                 //Opens and waits
                 progressStage.setTitle("Loading statistics..");
@@ -805,6 +943,65 @@ public class MainWindowController implements Initializable {
         }
     }
 
+    /**
+     * Method called when the user presses the "Open statistic" button. Pauses the game and lets the user choose the
+     * statistics of an earlier run, which are shown in a statistics window of their own, from where they can be
+     * exported again.
+     * @see #timeline
+     * @see #startButton
+     * @see #isRunning
+     * @see StatisticsController#RUNS_DIRECTORY
+     * @see StatisticsController#showStore(StatisticsStore)
+     * @see PopUpAlerts#ioAlertFromDisk()
+     * @see PopUpAlerts#ioAlertFXML()
+     */
+    public void openStatistic() {
+        timeline.pause();
+        startButton.setText("Start");
+        isRunning = false;
+
+        //Lets the user choose a run, starting in the directory the runs are kept in.
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Game of Life statistics", "*.gols"));
+        if (StatisticsController.RUNS_DIRECTORY.isDirectory()) {
+            fileChooser.setInitialDirectory(StatisticsController.RUNS_DIRECTORY);
+        }
+        File file = fileChooser.showOpenDialog(new Stage());
+        if (file == null) {
+            return;
+        }
+
+        StatisticsStore store;
+        try {
+            store = StatisticsStore.open(file.toPath());
+        } catch (IOException ioe) {
+            //Shows a warning should the file not be a store.
+            PopUpAlerts.ioAlertFromDisk();
+            return;
+        }
+
+        try {
+            Stage statisticStage = new Stage();
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/Statistics.fxml"));
+            Parent root = loader.load();
+            StatisticsController statisticsController = loader.getController();
+            statisticsController.showStore(store);
+
+            statisticStage.setTitle("GameOfLife statistics - " + file.getName());
+            statisticStage.setScene(new Scene(root, 800, 600));
+            statisticStage.setOnHidden(event -> statisticsController.closeStore());
+            statisticStage.show();
+        } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            //Shows a warning should the store not be read, closing it again.
+            try {
+                store.close();
+            } catch (IOException ioe) {
+                //The store was only read from.
+            }
+            PopUpAlerts.ioAlertFromDisk();
+        }
+    }
+
     /**
      * Method called when the user presses the "Import from Preset" button. Pauses the game and opens the import
      * from preset.
@@ -836,7 +1033,7 @@ public class MainWindowController implements Initializable {
 
             //Opens and waits
             patternSelectStage.setTitle("GameOfLife");
-            patternSelectStage.setScene(new Scene(root, 600, 400));
+            patternSelectStage.setScene(new Scene(root, 600, 560));
             patternSelectStage.showAndWait();
 
             //Resets and redraws when the window is closed.
@@ -874,4 +1071,155 @@ public class MainWindowController implements Initializable {
             PopUpAlerts.ioAlertFXML();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Method called when the user presses the "Export as PNG" button. Pauses the game, lets the user choose the
+     * size of the cells in pixels and a file, and starts the pngService to write a picture of the entire board in
+     * the background. A size such as "1/4" draws a square of four by four cells as one pixel, for boards too large
+     * for one pixel per cell. The picture is made from a copy of the board, so the game can go on while it is
+     * written. Should the cell size be invalid, a popup window will be shown.
+     * @see #timeline
+     * @see #startButton
+     * @see #isRunning
+     * @see #textInputDialogCellSize
+     * @see #pngService
+     * @see PngExporter#PngExporter(Board, int, int, Color, Color)
+     * @see Board#clone()
+     * @see PopUpAlerts#pngCellSizeAlert()
+     */
+    public void exportPngClick() {
+        timeline.pause();
+        startButton.setText("Start");
+        isRunning = false;
+
+        //Lets the user choose the size of each cell in the picture.
+        textInputDialogCellSize.setHeaderText("Export as PNG");
+        textInputDialogCellSize.setContentText("Enter cell size in pixels, or 1/n for n cells per pixel");
+        Optional<String> result = textInputDialogCellSize.showAndWait();
+        if (!result.isPresent() || result.get().isEmpty()) {
+            return;
+        }
+
+        try {
+            String[] sizes = result.get().split("/", -1);
+            if (sizes.length > 2) {
+                throw new IllegalArgumentException("Invalid cell size " + result.get());
+            }
+            int cellSize = Integer.parseInt(sizes[0]);
+            int cellsPerPixel = sizes.length > 1 ? Integer.parseInt(sizes[1]) : 1;
+
+            //Exports a copy of the board, as the board may change while the picture is written.
+            pngExporter = new PngExporter((Board) board.clone(), cellSize, cellsPerPixel, currentBackgroundColor,
+                    currentCellColor);
+        } catch (IllegalArgumentException iae) {
+            PopUpAlerts.pngCellSizeAlert();
+            return;
+        }
+
+        //Lets the user choose an output path for the picture.
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Portable Network Graphics",
+                "*.png"));
+        pngFile = fileChooser.showSaveDialog(new Stage());
+        if (pngFile != null) {
+            pngService.restart();
+        }
+    }
+
+    /**
+     * PngTask is a nested class within the MainWindowController that extends the Task class in the
+     * javafx.concurrent package. It writes the picture set up by exportPngClick(). The class is nested because it
+     * is only used within the MainWindowController.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     **/
+    private class PngTask extends Task<Boolean> {
+        private final PngExporter taskExporter = pngExporter;
+        private final File taskFile = pngFile;
+
+        /**
+         * This Method will run when the service is started. Writes the picture, until done or cancelled.
+         * @return done - True if the picture was written.
+         * @exception IOException - Thrown if the picture cannot be written.
+         */
+        @Override
+        public Boolean call() throws IOException {
+            return taskExporter.exportPng(taskFile, (row, total) -> updateProgress(row, total), this::isCancelled);
+        }
+
+        /**
+         * This Method will run if the task is failed. Shows a popup to the user explaining what went wrong.
+         */
+        @Override
+        protected void failed() {
+            super.failed();
+            PopUpAlerts.ioeSaveError();
+        }
+    }
+
+    /**
+     * PngService is a nested class within the MainWindowController that extends Service in the javafx.concurrent
+     * package. An object of PngService holds an instance of PngTask. The class is nested because it is only used
+     * within the MainWindowController.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     **/
+    private class PngService extends Service<Boolean> {
+        @Override
+        protected Task<Boolean> createTask() {
+            return new PngTask();
+        }
+    }
+
+    /**
+     * AnalysisTask is a nested class within the MainWindowController that extends the Task class in the
+     * javafx.concurrent package. It analyses a copy of the game, taken when the task is created, and stores the
+     * result as metadata of the pattern. The class is nested because it is only used within the
+     * MainWindowController.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     **/
+    private class AnalysisTask extends Task<PatternAnalyser.Analysis> {
+        private final GameOfLife taskGame = (GameOfLife) gOL.clone();
+
+        /**
+         * This Method will run when the service is started. Analyses the pattern.
+         * @return analysis - The result of the analysis.
+         * @see PatternAnalyser#analyse(GameOfLife)
+         */
+        @Override
+        public PatternAnalyser.Analysis call() {
+            return new PatternAnalyser().analyse(taskGame);
+        }
+
+        /**
+         * This Method will run when the analysis is done. Stores the analysis as metadata and shows it to the user.
+         * @see FileHandler#setMetaAnalysis(String)
+         * @see PopUpAlerts#metaData(String, String)
+         */
+        @Override
+        protected void succeeded() {
+            super.succeeded();
+            fileHandler.setMetaAnalysis(getValue().toString());
+            PopUpAlerts.metaData("Pattern analysis", getValue().toString());
+        }
+    }
+
+    /**
+     * AnalysisService is a nested class within the MainWindowController that extends Service in the
+     * javafx.concurrent package. An object of AnalysisService holds an instance of AnalysisTask. The class is nested
+     * because it is only used within the MainWindowController.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     **/
+    private class AnalysisService extends Service<PatternAnalyser.Analysis> {
+        @Override
+        protected Task<PatternAnalyser.Analysis> createTask() {
+            return new AnalysisTask();
+        }
+    }
+}
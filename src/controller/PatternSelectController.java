@@ -1,24 +1,42 @@
 package controller;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextArea;
-import javafx.scene.image.Image;
+import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.Stage;
 import model.FileHandler;
+import model.PackedPattern;
+import model.PatternCache;
+import model.PatternCatalog;
 import model.PatternFormatException;
 import model.RulesFormatException;
 import java.io.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * The PatternSelectController allows the user to choose from a variety of predetermined patterns to load into
  * the board. It is mostly controlled by a choice box, which updates all relevant fields on the window with
- * information about the pattern in question.
+ * information about the pattern in question. The user can also open a collection of RLE-files, which is indexed
+ * in the background by a PatternCatalog, and search it through the search field. It contains two nested classes,
+ * CatalogTask and CatalogService for indexing the collection concurrently. Patterns are decoded through the
+ * PatternCache, which also renders the thumbnail shown for the pattern.
  * @author Oscar Vladau-Husevold
  * @version 1.0
  */
@@ -33,9 +51,22 @@ public class PatternSelectController implements Initializable {
     @FXML Label authorLabel;
     @FXML Label discoveredLabel;
     @FXML TextArea descriptionArea;
+    @FXML TextField searchField;
+    @FXML ListView<PatternCatalog.Entry> catalogList;
+    @FXML Label catalogLabel;
 
     private FileHandler fileHandler;
-    private InputStreamReader loadedStream;
+
+    //The pattern being decoded or decoded for the current choice, loaded when the user clicks Load Pattern.
+    private CompletableFuture<PackedPattern> loadedPattern;
+    private final PatternCache patternCache = PatternCache.getInstance();
+
+    //The width and height of the thumbnails.
+    private static final int THUMBNAIL_SIZE = 200;
+
+    //The opened collection.
+    private PatternCatalog catalog;
+    private final CatalogService catalogService = new CatalogService();
 
     //The items to be set in the choice box
     private final ObservableList<String> choosePatternList = FXCollections.observableArrayList("Glider", "Acorn",
@@ -45,35 +76,58 @@ public class PatternSelectController implements Initializable {
 
     /**
      * A concrete implementation of the method in interface Initializable.
-     * Initializes the pattern selector window, setting the items of the choice box and selecting an item.
+     * Initializes the pattern selector window, setting the items of the choice box and selecting an item. Binds
+     * the search field and catalog list, and reopens the collection that was opened the last time, if any.
      * @param location The location used to resolve relative paths for the root object,
      *                 or null if the location is not known.
      * @param resources The resources used to localize the root object, or null if the root object was not localized.
      * @see #choosePatternList
      * @see #patternSelect
+     * @see #openCollection(File)
+     * @see PatternCatalog#lastCollection()
      */
     public void initialize(java.net.URL location, java.util.ResourceBundle resources) {
         patternSelect.setItems(choosePatternList);
         patternSelect.getSelectionModel().selectFirst();
+
+        catalogLabel.textProperty().bind(catalogService.messageProperty());
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> updateCatalogList());
+        catalogList.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue != null) {
+                catalogEntryInfo(newValue);
+            }
+        });
+
+        File lastCollection = PatternCatalog.lastCollection();
+        if (lastCollection != null) {
+            openCollection(lastCollection);
+        }
     }
 
     /**
-     * Method that calls FileHandler's readGameBoardFromDisk() method with a reader using the loadedStream
-     * as the resource. Will load the pattern and close the window if successful, otherwise it
-     * will produce a warning to the user.
-     * @see #loadedStream
-     * @see FileHandler#readGameBoardFromDisk(File)
+     * Method that calls FileHandler's applyPattern() method with the decoded pattern of the current choice, waiting
+     * for it to finish decoding if necessary. Will load the pattern and close the window if successful, otherwise
+     * it will produce a warning to the user.
+     * @see #loadedPattern
+     * @see FileHandler#applyPattern(PackedPattern)
      * @see PopUpAlerts#ioAlertFromDisk()
      */
     public void loadPatternClick() {
         try {
-            fileHandler.readGameBoard(new BufferedReader(loadedStream));
+            fileHandler.applyPattern(loadedPattern.get());
+            catalogService.cancel();
             Stage currentStage = (Stage) imageView.getScene().getWindow();
             currentStage.close();
-        } catch (IOException ie) {
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof PatternFormatException) {
+                PopUpAlerts.patternFormatAlert();
+            } else {
+                PopUpAlerts.ioAlertFromDisk();
+            }
+        } catch (InterruptedException ie) {
             PopUpAlerts.ioAlertFromDisk();
-        } catch (PatternFormatException pfe) {
-            PopUpAlerts.patternFormatAlert();
+        } catch (ArrayIndexOutOfBoundsException aiobe) {
+            PopUpAlerts.outOfBounds();
         } catch (RulesFormatException rfe) {
             PopUpAlerts.ruleAlert2();
         }
@@ -83,6 +137,7 @@ public class PatternSelectController implements Initializable {
      * Method called when the user clicks the Cancel button. Will close the window.
      */
     public void cancelClick() {
+        catalogService.cancel();
         Stage currentStage = (Stage) imageView.getScene().getWindow();
         currentStage.close();
     }
@@ -95,9 +150,138 @@ public class PatternSelectController implements Initializable {
      */
     public void patternSelectClick() {
         String pattern = (String)patternSelect.getValue();
+        catalogList.getSelectionModel().clearSelection();
         newPatternInfo(pattern);
     }
 
+    /**
+     * Method called when the user clicks the Open Collection button. Lets the user choose a directory of RLE-files
+     * or zip archives, which is then indexed and remembered for the next time the window is opened.
+     * @see #openCollection(File)
+     * @see PatternCatalog#setLastCollection(File)
+     */
+    public void openCollectionClick() {
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle("Open Pattern Collection");
+        File directory = directoryChooser.showDialog(imageView.getScene().getWindow());
+        if (directory == null) {
+            return;
+        }
+
+        try {
+            PatternCatalog.setLastCollection(directory);
+        } catch (IOException ioe) {
+            //The collection can still be used, it is just not reopened automatically.
+        }
+        openCollection(directory);
+    }
+
+    /**
+     * Method that opens a collection and starts indexing it in the background.
+     * @param directory The directory holding the collection.
+     * @see #catalog
+     * @see #catalogService
+     */
+    private void openCollection(File directory) {
+        catalogService.cancel();
+        catalog = new PatternCatalog(directory);
+        catalogList.getItems().clear();
+        catalogService.restart();
+    }
+
+    /**
+     * Method that updates the catalog list with the entries matching the text of the search field.
+     * @see #catalog
+     * @see PatternCatalog#search(String)
+     */
+    private void updateCatalogList() {
+        if (catalog != null) {
+            catalogList.setItems(FXCollections.observableArrayList(catalog.search(searchField.getText())));
+        }
+    }
+
+    /**
+     * Method that updates all information fields in the window with the metadata of a catalog entry, and sets the
+     * entry as the pattern to be loaded. Should the entry be missing from its zip archive, the collection is indexed
+     * again.
+     * @param entry The entry chosen from the catalog list.
+     * @see #showPattern(String, Callable)
+     * @see #catalogService
+     */
+    private void catalogEntryInfo(PatternCatalog.Entry entry) {
+        titleLabel.setText(entry.getName());
+        rulesLabel.setText(entry.getRule());
+        sizeLabel.setText(entry.getWidth() + "x" + entry.getHeight());
+        cellsLabel.setText(Long.toString(entry.getPopulation()));
+        authorLabel.setText(entry.getAuthor());
+        discoveredLabel.setText("");
+        descriptionArea.setText(entry.getComment());
+
+        File file = entry.getFile();
+        String member = entry.getMember();
+        String location = PatternCache.locationKey(file, member);
+        if (member == null) {
+            showPattern(location, () -> FileHandler.openPatternStream(new FileInputStream(file)));
+        } else {
+            showPattern(location, () -> {
+                ZipFile zipFile = new ZipFile(file);
+                ZipEntry zipEntry = zipFile.getEntry(member);
+
+                //The archive has changed since it was indexed, so it is indexed again and the pattern fails to
+                //load, which shows a warning should the user try to load it.
+                if (zipEntry == null) {
+                    zipFile.close();
+                    Platform.runLater(catalogService::restart);
+                    throw new FileNotFoundException(member + " is no longer in " + file);
+                }
+
+                //Closing the stream of the member closes the archive as well.
+                InputStream memberStream = zipFile.getInputStream(zipEntry);
+                return FileHandler.openPatternStream(new FilterInputStream(memberStream) {
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        zipFile.close();
+                    }
+                });
+            });
+        }
+    }
+
+    /**
+     * Method that sets a pattern from the resources as the pattern to be loaded, and shows its thumbnail.
+     * @param resource The path of the RLE-file among the resources.
+     * @see #showPattern(String, Callable)
+     */
+    private void showPattern(String resource) {
+        showPattern("resource:" + resource, () -> getClass().getResourceAsStream(resource));
+    }
+
+    /**
+     * Method that decodes a pattern through the PatternCache and sets it as the pattern to be loaded. When it has
+     * been decoded, a thumbnail is rendered and shown in the image view, unless the user has chosen another pattern
+     * in the meantime. Both steps are instant for patterns that have been viewed before.
+     * @param location The key of where the pattern is read from.
+     * @param content Opens the uncompressed content of the pattern file.
+     * @see #loadedPattern
+     * @see PatternCache#decode(String, Callable)
+     * @see PatternCache#thumbnail(PackedPattern, int)
+     */
+    private void showPattern(String location, Callable<InputStream> content) {
+        imageView.setImage(null);
+        CompletableFuture<PackedPattern> pattern = patternCache.decode(location, content);
+        loadedPattern = pattern;
+        pattern.thenCompose(decoded -> patternCache.thumbnail(decoded, THUMBNAIL_SIZE))
+                .thenAccept(pixels -> Platform.runLater(() -> {
+                    if (loadedPattern == pattern) {
+                        WritableImage thumbnail = new WritableImage(THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+                        thumbnail.getPixelWriter().setPixels(0, 0, THUMBNAIL_SIZE, THUMBNAIL_SIZE,
+                                PixelFormat.getIntArgbInstance(), pixels, 0, THUMBNAIL_SIZE);
+                        imageView.setImage(thumbnail);
+                    }
+                }));
+    }
+
     /**
      * Method that updates all information about a pattern and sets the current file to be the relevant file on
      * the disk. Consists of a switch-statement going through all possible options.
@@ -116,9 +300,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("The glider is the smallest, most common, and first-discovered spaceship." +
                         " It travels diagonally across the Life grid. The glider is often produced by " +
                         "randomly-generated starting patterns.");
-                Image gliderImage = new Image(getClass().getResource("/resources/images/glider.png").toString());
-                imageView.setImage(gliderImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/glider.rle"));
+                showPattern("/resources/rlefiles/glider.rle");
                 break;
 
             case "Gosper Glider Gun":
@@ -131,10 +313,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("The Gosper glider gun is the first known gun, and indeed the first " +
                         "known finite pattern with unbounded growth, found by Bill Gosper in November 1970. " +
                         "It consists of two queen bee shuttles stabilized by two blocks.");
-                Image gggImage = new Image(getClass().getResource("/resources/images/gosper.png").toString());
-                imageView.setImage(gggImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "gosperglidergun.rle"));
+                showPattern("/resources/rlefiles/gosperglidergun.rle");
                 break;
 
             case "Achim's p16":
@@ -146,10 +325,7 @@ public class PatternSelectController implements Initializable {
                 discoveredLabel.setText("1994");
                 descriptionArea.setText("Achim's p16 is a period 16 oscillator that was found by Achim Flammenkamp " +
                         "on July 27, 1994. With only 32 cells, it is the smallest known period 16 oscillator.");
-                Image p16Image = new Image(getClass().getResource("/resources/images/p16.png").toString());
-                imageView.setImage(p16Image);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "achimsp16.rle"));
+                showPattern("/resources/rlefiles/achimsp16.rle");
                 break;
 
             case "Acorn":
@@ -162,9 +338,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("Acorn is a methuselah found by Charles Corderman. It was discovered no " +
                         "later than 1971, though its exact year of discovery is unknown. Its maximum population, " +
                         "1057, occurs in generation 4408.");
-                Image acornImage = new Image(getClass().getResource("/resources/images/acorn.png").toString());
-                imageView.setImage(acornImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/acorn.rle"));
+                showPattern("/resources/rlefiles/acorn.rle");
                 break;
 
             case "Penny lane":
@@ -176,10 +350,7 @@ public class PatternSelectController implements Initializable {
                 discoveredLabel.setText("1972");
                 descriptionArea.setText("Penny lane is a period 4 oscillator that was found by David " +
                         "Buckingham in 1972. It uses two blocks and a tub as induction coils.");
-                Image pennyImage = new Image(getClass().getResource("/resources/images/penny.png").toString());
-                imageView.setImage(pennyImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "pennylane.rle"));
+                showPattern("/resources/rlefiles/pennylane.rle");
                 break;
 
             case "Switch Engine":
@@ -192,10 +363,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("A switch engine is a methuselah that was found by Charles Corderman " +
                         "in 1971. It produces a copy of itself after 48 generation, glide-reflected 4 cells " +
                         "northwest, along with some active junk.");
-                Image switchImage = new Image(getClass().getResource("/resources/images/switch.png").toString());
-                imageView.setImage(switchImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "switchengine.rle"));
+                showPattern("/resources/rlefiles/switchengine.rle");
                 break;
 
             case "112P51":
@@ -208,9 +376,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("112P51 is an unnamed period-51 oscillator. It was the first non-trivial " +
                         "period-51 oscillator to be found, all previously known period-51 oscillators being made " +
                         "up of disjoint period-3 and period-17 oscillators.");
-                Image p51Image = new Image(getClass().getResource("/resources/images/112p51.png").toString());
-                imageView.setImage(p51Image);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/112p51.rle"));
+                showPattern("/resources/rlefiles/112p51.rle");
                 break;
 
             case "Flower of Eden":
@@ -223,10 +389,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("Flower of Eden, otherwise known as the Garden of Eden 5, was the " +
                         "smallest known Garden of Eden until December 2011. A Garden of Eden is " +
                         "a pattern that has no parents and thus can only occur in generation 0.");
-                Image flowerImage = new Image(getClass().getResource("/resources/images/flower.png").toString());
-                imageView.setImage(flowerImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "flowerofeden.rle"));
+                showPattern("/resources/rlefiles/flowerofeden.rle");
                 break;
 
             case "Period-45 glider gun":
@@ -239,11 +402,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("Period-45 glider gun is a true period 45 gun discovered by Matthias " +
                         "Merzenich in 2010, with improvements by Adam P. Goucher and Dave Greene. " +
                         "It consists of an object hassled by pentadecathlons.");
-                Image gliderGun45Image = new Image(getClass().getResource("/resources/images/period45gun." +
-                        "png").toString());
-                imageView.setImage(gliderGun45Image);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "period45glidergun.rle"));
+                showPattern("/resources/rlefiles/period45glidergun.rle");
                 break;
 
             case "56P6H1V0":
@@ -256,10 +415,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("56P6H1V0 is a spaceship discovered by Hartmut Holzwart in April 2009 " +
                         "that travels at a speed of c/6 orthogonally. With 56 cells it is currently the smallest " +
                         "known orthogonal c/6 spaceship, surpassing dragon with 102 cells.");
-                Image p6h1Image = new Image(getClass().getResource("/resources/images/56P6H1V0.png").toString());
-                imageView.setImage(p6h1Image);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "56p6h1v0.rle"));
+                showPattern("/resources/rlefiles/56p6h1v0.rle");
                 break;
 
             case "Primer":
@@ -272,9 +428,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("Primer is a pattern that was constructed by Dean Hickerson on November " +
                         "1, 1991 that produces a stream of lightweight spaceships representing prime numbers. " +
                         "It was the first pattern created that computes prime numbers.");
-                Image primerImage = new Image(getClass().getResource("/resources/images/primer.png").toString());
-                imageView.setImage(primerImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/primer.rle"));
+                showPattern("/resources/rlefiles/primer.rle");
                 break;
 
             case "Sidecar Gun":
@@ -287,11 +441,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("Sidecar gun is a period 60 gun that was constructed by Jason Summers " +
                         "on March 7, 2000 to fire sidecars. It works by using several variants of the Gosper " +
                         "glider gun to construct the necessary heavyweight spaceship and sidecar via glider synthesis.");
-                Image sidecarImage = new Image(getClass().getResource("/resources/images/" +
-                        "sidecargun.png").toString());
-                imageView.setImage(sidecarImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "sidecargun.rle"));
+                showPattern("/resources/rlefiles/sidecargun.rle");
                 break;
 
             case "Star Gate":
@@ -304,10 +454,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("Star gate is a pattern based on the Fast Forward Force Field that was " +
                         "created on October 26, 1996 by Dietrich Leithner. It is a period 60 oscillator that " +
                         "allows lightweight spaceships to jump forward at the superluminous speed of 15c/14.");
-                Image sgImage = new Image(getClass().getResource("/resources/images/stargate.png").toString());
-                imageView.setImage(sgImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "stargate.rle"));
+                showPattern("/resources/rlefiles/stargate.rle");
                 break;
 
             case "Moving Sawtooth":
@@ -320,10 +467,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("Moving sawtooth is an orthogonal sawtooth with expansion factor 3. " +
                         "Its minimum infinite repeating population is 1239, and it is notable because it " +
                         "and its slight modifications are the only known sawtooths that move.");
-                Image msImage = new Image(getClass().getResource("/resources/images/sawtooth.png").toString());
-                imageView.setImage(msImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "movingsawtooth.rle"));
+                showPattern("/resources/rlefiles/movingsawtooth.rle");
                 break;
 
             case "p690 60P5H2V0 gun":
@@ -336,10 +480,7 @@ public class PatternSelectController implements Initializable {
                 descriptionArea.setText("p690 60P5H2V0 gun is a period 690 gun that was constructed to fire copies " +
                         "of the 60P5H2V0 spaceship. It works by using several variants twin bees shuttle collisions " +
                         "to construct the necessary glider synthesis");
-                Image p690Image = new Image(getClass().getResource("/resources/images/p690.png").toString());
-                imageView.setImage(p690Image);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "p69060p5h2v0gun.rle"));
+                showPattern("/resources/rlefiles/p69060p5h2v0gun.rle");
                 break;
 
             case "Turing Machine":
@@ -354,10 +495,7 @@ public class PatternSelectController implements Initializable {
                         "construction was completed on April 2, 2000. \nWARNING: The application might run slower " +
                         "because of the size of the Turing Machine. If you experience lag, try lowering the FPS" +
                         " and turn off the grid.");
-                Image turingImage = new Image(getClass().getResource("/resources/images/turing.png").toString());
-                imageView.setImage(turingImage);
-                loadedStream = new InputStreamReader(getClass().getResourceAsStream("/resources/rlefiles/" +
-                        "turingmachine.rle"));
+                showPattern("/resources/rlefiles/turingmachine.rle");
                 break;
         }
     }
@@ -370,4 +508,68 @@ public class PatternSelectController implements Initializable {
     public void setFileHandler(FileHandler fh) {
         fileHandler = fh;
     }
-}
\ No newline at end of file
+
+    /**
+     * CatalogTask is a nested class within the PatternSelectController that extends the Task class in the
+     * javafx.concurrent package. It reads the index of the opened collection, and then scans the collection for
+     * new or changed files, reporting its progress as it goes. The class is nested because it is only used within
+     * the PatternSelectController.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     **/
+    private class CatalogTask extends Task<Void> {
+        private final PatternCatalog taskCatalog = catalog;
+
+        /**
+         * This Method will run when the service is started. Loads the index, showing its entries at once, before
+         * scanning the collection.
+         */
+        @Override
+        public Void call() throws IOException {
+            if (taskCatalog.load()) {
+                Platform.runLater(PatternSelectController.this::updateCatalogList);
+            }
+            updateMessage("Indexing..");
+            taskCatalog.scan((done, total) -> {
+                updateMessage("Indexing.. " + done + "/" + total);
+                updateProgress(done, total);
+            }, this::isCancelled);
+            updateMessage(taskCatalog.getEntries().size() + " patterns");
+            return null;
+        }
+
+        /**
+         * This Method will run if the task is succeeded. Shows the entries matching the search field.
+         */
+        @Override
+        protected void succeeded() {
+            super.succeeded();
+            updateCatalogList();
+        }
+
+        /**
+         * This Method will run if the task is failed.
+         */
+        @Override
+        protected void failed() {
+            super.failed();
+            updateMessage("Indexing failed");
+        }
+    }
+
+    /**
+     * CatalogService is a nested class within the PatternSelectController that extends Service in the
+     * javafx.concurrent package. An object of CatalogService holds an instance of CatalogTask. The class is nested
+     * because it is only used within the PatternSelectController.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     **/
+    private class CatalogService extends Service<Void> {
+        @Override
+        protected Task<Void> createTask() {
+            return new CatalogTask();
+        }
+    }
+}
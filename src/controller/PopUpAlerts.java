@@ -119,18 +119,55 @@ public class PopUpAlerts {
     }
 
     /**
-     * Creates a warning when trying to set the number of iterations of a gif to either 0 or above 400, telling the user
-     * to select a valid value.
+     * Creates a warning when trying to set the number of iterations of a gif to either 0 or above 1000, telling the
+     * user to select a valid value.
      */
     public static void gifFramesAlert () {
         Alert counterAlert = new Alert(Alert.AlertType.WARNING);
         counterAlert.setTitle("Error");
         counterAlert.setHeaderText("Too many iterations!");
         counterAlert.setContentText("The number of iterations you have entered is too high. " +
-                "Please keep it between 1 and 400");
+                "Please keep it between 1 and 1000");
         counterAlert.showAndWait();
     }
 
+    /**
+     * Creates a warning when trying to fast-forward either 0 or more than 5000 generations, telling the user to
+     * select a valid value.
+     */
+    public static void fastForwardAlert () {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Error");
+        alert.setHeaderText("Invalid number of generations!");
+        alert.setContentText("Please keep the number of generations to fast-forward between 1 and 5000");
+        alert.showAndWait();
+    }
+
+    /**
+     * Creates a warning when trying to set the number of generations between the frames of a gif to either 0 or
+     * above 100, telling the user to select a valid value.
+     */
+    public static void gifGenerationsAlert () {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Error");
+        alert.setHeaderText("Invalid number of generations!");
+        alert.setContentText("Please keep the number of generations per frame between 1 and 100");
+        alert.showAndWait();
+    }
+
+    /**
+     * Creates a warning when the cell size of a PNG export is either 0 or makes the picture too large, telling the
+     * user to select a valid value.
+     */
+    public static void pngCellSizeAlert () {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Error");
+        alert.setHeaderText("Invalid cell size!");
+        alert.setContentText("The cell size must be a whole number of pixels, or 1/n for n cells per pixel, " +
+                "and small enough for the picture to be saved. Please try a smaller cell size.");
+        alert.showAndWait();
+    }
+
     /**
      * Creates a warning when trying to set the fps of a gif above 50, telling the user to select a valid value.
      */
@@ -180,6 +217,32 @@ public class PopUpAlerts {
         edgeAlert.showAndWait();
     }
 
+    /**
+     * Creates a popup when the game has been paused because the board has reached a still life or a cycle,
+     * informing the user of the period and the generation where the board first repeated itself.
+     * @param period The number of generations before the board repeats.
+     * @param firstRepeat The first generation equal to an earlier one.
+     * @param cellsAlive The number of active cells on the board.
+     */
+    public static void cycleAlert(int period, int firstRepeat, int cellsAlive) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Game paused");
+        if (cellsAlive == 0) {
+            alert.setHeaderText("All cells have died!");
+            alert.setContentText("There have been no active cells left since generation " + (firstRepeat - 1) +
+                    ".");
+        } else if (period == 1) {
+            alert.setHeaderText("Still life reached!");
+            alert.setContentText("The board has not changed since generation " + (firstRepeat - 1) + ". Press " +
+                    "start to keep running it anyway.");
+        } else {
+            alert.setHeaderText("Cycle reached!");
+            alert.setContentText("The board repeats itself every " + period + " generations, first repeating in " +
+                    "generation " + firstRepeat + ". Press start to keep running it anyway.");
+        }
+        alert.showAndWait();
+    }
+
     /**
      * Creates a popup window containing the description of the current playing rules.
      * @param ruleName The name of the rules.
@@ -208,20 +271,19 @@ public class PopUpAlerts {
     }
 
     /**
-     * Creates a popup when trying to save a gif, and the statistics have identified a high probability of a repeating
-     * pattern. It informs the user that the pattern is likely to repeat after n-number of iterations, and asks
-     * if it should set the number of images to that number. Returns true if yes or false if no.
+     * Creates a popup when trying to save a gif, and the pattern has been found to return to its current state. It
+     * informs the user that the pattern repeats after n-number of iterations, and asks if it should set the number
+     * of images to that number. Returns true if yes or false if no.
      * @param iterations The number of iterations identified as a possible pattern repeat.
      * @return b - The users answer.
      */
     public static boolean gifSimilarityAlert(int iterations) {
         Alert gifSimilarityConfirmation = new Alert(Alert.AlertType.CONFIRMATION);
         gifSimilarityConfirmation.setTitle("Message");
-        gifSimilarityConfirmation.setHeaderText("High probability of pattern repeat!");
-        gifSimilarityConfirmation.setContentText("It seems to be a high probability that the pattern on the board" +
-                " will be repeated in "+iterations+" iteration(s)! If this is true, we can create an endless looping " +
-                "gif with "+iterations+" images, provided our calculations are correct. Do you want to try with " +
-                iterations+", and see if it works?");
+        gifSimilarityConfirmation.setHeaderText("The pattern repeats!");
+        gifSimilarityConfirmation.setContentText("The pattern on the board returns to its current state every " +
+                iterations + " iteration(s), so we can create an endless looping gif with " + iterations +
+                " images. Do you want to use " + iterations + " images?");
         Optional<ButtonType> result = gifSimilarityConfirmation.showAndWait();
 
         boolean b = false;
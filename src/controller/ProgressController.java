@@ -1,5 +1,6 @@
 package controller;
 
+import javafx.application.Platform;
 import javafx.concurrent.Service;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
@@ -13,14 +14,28 @@ import javafx.scene.layout.GridPane;
 import javafx.stage.Stage;
 import model.GameOfLife;
 import model.Statistics;
+import model.StatisticsStore;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
  * The ProgressController handles all interaction within the progressbar window. It is responsible for displaying
  * and updating a progress bar while calculating the generations and statistics when the user opens the
- * statistics window. It contains the methods and parameters linked to the graphical user interface elements. It also
- * contains two nested classes, MyTask and TaskService for running tasks concurrently.
+ * statistics window. The statistics window is opened at once, and each generation is added to its chart as soon as
+ * it has been calculated. The statistics are recorded into a StatisticsStore in the user's home directory rather
+ * than kept in memory, and the store is handed to the statistics window once finished, so it can be exported. The
+ * file of the store is kept, so the run can be opened again later. It contains the
+ * methods and parameters linked to the graphical user interface elements. It also contains two nested classes,
+ * MyTask and TaskService for running tasks concurrently.
  *
  * @author Henrik Finnerud Larsen
  * @version 1.0
@@ -30,16 +45,23 @@ public class ProgressController implements Initializable {
     @FXML private Label progressLabel;
     @FXML private ProgressBar progressBar;
 
-    private int[][] stat;
     private int iterations;
 
     private GameOfLife gameOfLife;
     private final Statistics statistics = new Statistics();
     private TaskService taskService;
+    private StatisticsController statisticsController;
+    private Path storeFile;
+    private StatisticsStore store;
+
+    //The generations calculated but not yet added to the chart, and whether adding them has been scheduled.
+    private final Queue<int[]> pendingRows = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
 
     /**
      * A concrete implementation of the method in initialize.
-     * Initializes the progressbar window, binding the GUI with the taskService.
+     * Initializes the progressbar window, binding the GUI with the taskService. The service is started by
+     * start(), once the game and the number of iterations have been set.
      * @param location The location used to resolve relative paths for the root object,
      *                 or null if the location is not known.
      * @param resources The resources used to localize the root object, or null if the root object was not localized.
@@ -56,9 +78,90 @@ public class ProgressController implements Initializable {
             // bind the progressProperty to a ProgressBar in JavaFX
             progressBar.progressProperty().bind(taskService.progressProperty());
         }
+    }
+
+    /**
+     * Method that opens the statistics window with an empty chart, creates the store the statistics are recorded
+     * into, named after the time of the run, and starts calculating the statistics. Closing the statistics window
+     * stops the calculation and closes the store.
+     * @see #taskService
+     * @see #store
+     * @see StatisticsController#RUNS_DIRECTORY
+     * @see StatisticsController#startChart()
+     * @see StatisticsController#closeStore()
+     * @see PopUpAlerts#ioAlertFXML()
+     * @see PopUpAlerts#ioeSaveError()
+     */
+    public void start() {
+        try{
+            Path directory = Files.createDirectories(StatisticsController.RUNS_DIRECTORY.toPath());
+            storeFile = directory.resolve("statistics-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())
+                    + ".gols");
+            store = StatisticsStore.create(storeFile, 3, 0);
+        }catch (IOException ioe){
+            //Shows a warning should the store not be created.
+            PopUpAlerts.ioeSaveError();
+            return;
+        }
+
+        try{
+            Stage statisticStage = new Stage();
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/Statistics.fxml"));
+            Parent root = loader.load();
+            statisticsController = loader.getController();
+            statisticsController.startChart();
+
+            //Opens without waiting, so the chart can be filled in while it is shown.
+            statisticStage.setTitle("GameOfLife statistics");
+            statisticStage.setScene(new Scene(root, 800, 600));
+            statisticStage.setOnHidden(event -> {
+                taskService.cancel();
+                statisticsController.closeStore();
+            });
+            statisticStage.show();
+        }catch (IOException ioe){
+            //Shows a warning should the loading of the FXML fail.
+            PopUpAlerts.ioAlertFXML();
+            closeStore(true);
+            return;
+        }
         taskService.start();
     }
 
+    /**
+     * Method that closes the store, used when it is not handed to the statistics window. The store of a run that
+     * was cancelled is kept with the generations recorded so far, while that of a run that failed is deleted.
+     * @param delete True if the file of the store should be deleted.
+     * @see #store
+     */
+    private void closeStore(boolean delete) {
+        try {
+            store.close();
+            if (delete) {
+                Files.deleteIfExists(storeFile);
+            }
+        } catch (IOException ioe) {
+            //A store that cannot be deleted is left behind, and can still be opened.
+        }
+    }
+
+    /**
+     * Method that adds the generations calculated so far to the chart. Runs on the JavaFX application thread.
+     * @see #pendingRows
+     * @see StatisticsController#addRows(List)
+     */
+    private void drainRows() {
+        drainScheduled.set(false);
+        List<int[]> rows = new ArrayList<>();
+        int[] row;
+        while ((row = pendingRows.poll()) != null) {
+            rows.add(row);
+        }
+        if (!rows.isEmpty()) {
+            statisticsController.addRows(rows);
+        }
+    }
+
     /**
      * Method which handles the Cancel button click action.
      */
@@ -95,73 +198,62 @@ public class ProgressController implements Initializable {
     private class MyTask extends Task<Void> {
 
         /**
-         * This Method will run when a MyTask object is created. Updates the progressbar and progressLabel, while
-         * getting the statistics.
+         * This Method will run when a MyTask object is created. Runs the game once while recording the statistics,
+         * handing each generation to the chart and updating the progressbar and progressLabel as it goes. The store
+         * is closed here should the task be cancelled, once nothing more is written to it.
+         * @exception IOException - Thrown if the store cannot be written to.
          */
         @Override
-        public Void call() {
-            final int max = 100;
-            for (int i = 1; i <= max; i++) {
-                if (isCancelled()){
-                    break;
+        public Void call() throws IOException {
+            try {
+                statistics.recordStatistics(gameOfLife, iterations, store, (row, generation) -> {
+                    pendingRows.add(new int[]{generation, row[0], row[1], row[2]});
+                    if (!drainScheduled.getAndSet(true)) {
+                        Platform.runLater(ProgressController.this::drainRows);
+                    }
+                    updateMessage("Loading.. " + generation + "/" + iterations);
+                    updateProgress(generation + 1, iterations + 1);
+                }, this::isCancelled);
+            } finally {
+                if (isCancelled()) {
+                    closeStore(false);
                 }
-
-                do{
-                    stat = statistics.getStatistics(gameOfLife, iterations);
-                }while(i == 0);
-
-                updateMessage("Loading.." + " " + i + "%");
-                updateProgress(i, max);
             }
             return null;
         }
 
         /**
-         * This Method will run if the task is succeeded. Opens the statistics window.
-         * for the user to choose how many iterations to show statistics for.
+         * This Method will run if the task is succeeded. Adds the last generations to the chart, hands the store to
+         * the statistics window and closes the progressbar window.
          */
         @Override
         protected void succeeded() {
             super.succeeded();
-            try{
-                Stage statisticStage = new Stage();
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/Statistics.fxml"));
-                Parent root = loader.load();
-                StatisticsController statisticsController = loader.getController();
-
-                //Sets the statistics data to be considered, and creates a chart of the results.
-                statisticsController.setStat(stat);
-                statisticsController.makeChart();
-
-                //Opens and waits
-                statisticStage.setTitle("GameOfLife statistics");
-                statisticStage.setScene(new Scene(root, 800, 600));
-                statisticStage.showAndWait();
-            }catch (IOException ioe){
-                //Shows a warning should the loading of the FXML fail.
-                PopUpAlerts.ioAlertFXML();
-            }
-
+            drainRows();
+            statisticsController.setStore(store);
             Stage currentStage = (Stage) gridPane.getScene().getWindow();
             currentStage.close();
         }
 
         /**
-         * This Method will run if the task is cancelled. Closes the stage of the progressbar.
+         * This Method will run if the task is cancelled. Closes the stage of the progressbar, leaving the
+         * generations calculated so far in the chart.
          */
         @Override
         protected void cancelled() {
             super.cancelled();
+            drainRows();
             updateMessage("Loading stopped");
             Stage currentStage = (Stage) gridPane.getScene().getWindow();
             currentStage.close();
         }
         /**
-         * This Method will run if the task is failed.
+         * This Method will run if the task is failed. Deletes the store, as it cannot be completed.
          */
         @Override protected void failed() {
             super.failed();
             updateMessage("Loading failed");
+            closeStore(true);
         }
     }
 
@@ -2,22 +2,62 @@ package controller;
 
 import javafx.fxml.FXML;
 import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import model.StatisticsStore;
+import model.TimeSeries;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The StatisticsController handles all user-interaction within the statistics window.
  * It contains the methods and parameters linked to the graphical user interface elements
  * that the user can interact with, and handles the changes that happen based on what the
- * user does within the application.
+ * user does within the application. The chart can either be made from finished statistics, or be filled in
+ * generation by generation while the statistics are being calculated. The generations are kept in a TimeSeries,
+ * and the chart only shows about one point per pixel of the generations in view, picked so the lines keep their
+ * shape. Scrolling over the chart zooms in and out, and a double click shows every generation again. Once every
+ * generation has been recorded, the store they were recorded into can be exported to a CSV-file from the context
+ * menu of the chart. The stores are kept in the user's home directory, so a run can be opened again later.
  *
  * @author Henrik Finnerud Larsen
  * @version 1.0
  */
 public class StatisticsController{
-    @FXML private LineChart<String, Number> lineChart;
+    @FXML private LineChart<Number, Number> lineChart;
+    @FXML private NumberAxis xAxis;
 
     private int[][] stat;
 
+    //The directory the stores of the runs are kept in.
+    static final File RUNS_DIRECTORY = new File(new File(System.getProperty("user.home"), ".gameoflife"), "statistics");
+
+    //The store the generations were recorded into, set once every generation is recorded.
+    private StatisticsStore store;
+    private final MenuItem exportItem = new MenuItem("Export to CSV");
+
+    //The most generations read from a store at a time when it is opened again.
+    private static final int READ_ROWS = 1 << 16;
+
+    //Every generation added, each row being the number of the generation followed by the three statistics.
+    private final TimeSeries timeSeries = new TimeSeries(4);
+
+    //The series of the chart, created by startChart(), in the same order as the columns of the time series.
+    private final List<XYChart.Series<Number, Number>> chartSeries = new ArrayList<>();
+
+    //The fewest points drawn for each series, and how much one scroll zooms in.
+    private static final int MIN_POINTS = 100;
+    private static final double ZOOM_FACTOR = 0.8;
+
     /**
      * Method that sets the statistics data to be drawn on the chart.
      * @param s Array containing the statistics
@@ -29,23 +69,217 @@ public class StatisticsController{
 
     /**
      * Method that makes the chart with the data
+     * @see #startChart()
+     * @see #addRows(List)
      */
     public void makeChart(){
-        // Chart setup
-        XYChart.Series<String, Number> cellsAliveSeries = new XYChart.Series<>();
-        XYChart.Series<String, Number> cellsDiffSeries = new XYChart.Series<>();
-        XYChart.Series<String, Number> similarityMeasureSeries = new XYChart.Series<>();
-        cellsAliveSeries.setName("Cells alive");
-        cellsDiffSeries.setName("Cells difference");
-        similarityMeasureSeries.setName("Similarity measure");
+        startChart();
 
         // Adds the data to the chart
+        List<int[]> rows = new ArrayList<>(stat[0].length);
         for(int i = 0; i < stat[0].length; i++){
-            cellsAliveSeries.getData().add(new XYChart.Data(Integer.toString(i), stat[0][i]));
-            cellsDiffSeries.getData().add(new XYChart.Data(Integer.toString(i), stat[1][i]));
-            similarityMeasureSeries.getData().add(new XYChart.Data(Integer.toString(i), stat[2][i]));
+            rows.add(new int[]{i, stat[0][i], stat[1][i], stat[2][i]});
+        }
+        addRows(rows);
+    }
+
+    /**
+     * Method that sets up an empty chart, ready to have generations added to it. Animations and symbols are turned
+     * off, as the chart may be updated many times a second, and the chart is redrawn when it is resized, scrolled
+     * or double clicked.
+     * @see #addRows(List)
+     * @see #zoom(ScrollEvent)
+     * @see #resetZoom(MouseEvent)
+     */
+    public void startChart(){
+        // Chart setup
+        timeSeries.clear();
+        chartSeries.clear();
+        for (String name : new String[]{"Cells alive", "Cells difference", "Similarity measure"}) {
+            XYChart.Series<Number, Number> series = new XYChart.Series<>();
+            series.setName(name);
+            chartSeries.add(series);
+        }
+
+        lineChart.setAnimated(false);
+        lineChart.setCreateSymbols(false);
+        lineChart.getData().setAll(chartSeries);
+        lineChart.widthProperty().addListener((observable, oldWidth, newWidth) -> redraw());
+        lineChart.setOnScroll(this::zoom);
+        lineChart.setOnMouseClicked(this::resetZoom);
+
+        exportItem.setDisable(true);
+        exportItem.setOnAction(event -> exportCsv());
+        ContextMenu contextMenu = new ContextMenu(exportItem);
+        lineChart.setOnContextMenuRequested(event -> contextMenu.show(lineChart, event.getScreenX(),
+                event.getScreenY()));
+    }
+
+    /**
+     * Method that hands over the store every generation has been recorded into, allowing it to be exported. The
+     * store is closed by closeStore(), leaving its file so the run can be opened again.
+     * @param store The store of the generations.
+     * @see #closeStore()
+     */
+    public void setStore(StatisticsStore store) {
+        this.store = store;
+        exportItem.setDisable(false);
+    }
+
+    /**
+     * Method that makes the chart from a store recorded earlier, reading every generation of it a part at a time,
+     * and hands the store over so it can be exported again.
+     * @param store The store of the generations.
+     * @exception IOException - Thrown if the store cannot be read.
+     * @exception IllegalArgumentException - Thrown if the store does not hold the three statistics.
+     * @see #startChart()
+     * @see #addRows(List)
+     * @see #setStore(StatisticsStore)
+     */
+    public void showStore(StatisticsStore store) throws IOException {
+        if (store.getColumns() != 3) {
+            throw new IllegalArgumentException("Invalid store of " + store.getColumns() + " columns");
+        }
+        startChart();
+        int[][] values = new int[3][];
+        for (long from = 0; from < store.size(); from += READ_ROWS) {
+            int count = (int) Math.min(READ_ROWS, store.size() - from);
+            long generation = store.getFirstGeneration() + from;
+            for (int column = 0; column < 3; column++) {
+                values[column] = new int[count];
+                store.read(column, generation, values[column]);
+            }
+            List<int[]> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(new int[]{(int) (generation + i), values[0][i], values[1][i], values[2][i]});
+            }
+            addRows(rows);
+        }
+        setStore(store);
+    }
+
+    /**
+     * Method that closes the store, used when the statistics window is closed. The file of the store is kept.
+     * @see #store
+     */
+    public void closeStore() {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.close();
+        } catch (IOException ioe) {
+            //Every row is already in the mapped file, so nothing is lost.
+        }
+        store = null;
+        exportItem.setDisable(true);
+    }
+
+    /**
+     * Method called when the user chooses to export the statistics. Lets the user choose a file, and writes every
+     * generation of the store to it as CSV.
+     * @see StatisticsStore#exportCsv(java.nio.file.Path, String...)
+     * @see PopUpAlerts#ioeSaveError()
+     */
+    private void exportCsv() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Comma-separated values", "*.csv"));
+        File file = fileChooser.showSaveDialog(new Stage());
+
+        if (file == null || store == null) {
+            return;
+        }
+
+        try {
+            store.exportCsv(file.toPath(), "Cells alive", "Cells difference", "Similarity measure");
+        } catch (IOException ioe) {
+            PopUpAlerts.ioeSaveError();
+        }
+    }
+
+    /**
+     * Method that adds generations to the chart, all at once, and redraws the generations in view.
+     * @param rows The generations to add, each being the number of the generation followed by the cells alive,
+     *             the cells difference and the similarity measure.
+     * @see #redraw()
+     */
+    public void addRows(List<int[]> rows){
+        for (int[] row : rows) {
+            timeSeries.add(row[0], row[1], row[2], row[3]);
+        }
+        redraw();
+    }
+
+    /**
+     * Method that fills the series of the chart with the generations in view, downsampled to about one point per
+     * pixel. When zoomed in, one generation on each side of the view is included so the lines reach the edges.
+     * @see TimeSeries#downsample(int, int, int, int, int)
+     */
+    private void redraw() {
+        if (chartSeries.isEmpty()) {
+            return;
+        }
+        int from = 0;
+        int to = timeSeries.size();
+        if (!xAxis.isAutoRanging()) {
+            from = Math.max(timeSeries.lowerBound(0, xAxis.getLowerBound()) - 1, 0);
+            to = Math.min(timeSeries.lowerBound(0, xAxis.getUpperBound()) + 1, timeSeries.size());
+        }
+        int threshold = Math.max((int) lineChart.getWidth(), MIN_POINTS);
+
+        for (int column = 1; column < timeSeries.getColumns(); column++) {
+            int[] indexes = timeSeries.downsample(0, column, from, to, threshold);
+            List<XYChart.Data<Number, Number>> points = new ArrayList<>(indexes.length);
+            for (int index : indexes) {
+                points.add(new XYChart.Data<>(timeSeries.get(0, index), timeSeries.get(column, index)));
+            }
+            chartSeries.get(column - 1).getData().setAll(points);
+        }
+    }
+
+    /**
+     * Method called when the user scrolls over the chart. Zooms the generations in view in or out around the
+     * generation under the mouse, showing every generation again once zoomed out that far.
+     * @param event The scroll event.
+     * @see #redraw()
+     */
+    private void zoom(ScrollEvent event) {
+        if (timeSeries.size() < 2 || event.getDeltaY() == 0) {
+            return;
+        }
+        double first = timeSeries.get(0, 0);
+        double last = timeSeries.get(0, timeSeries.size() - 1);
+        double lower = xAxis.isAutoRanging() ? first : xAxis.getLowerBound();
+        double upper = xAxis.isAutoRanging() ? last : xAxis.getUpperBound();
+        double factor = event.getDeltaY() > 0 ? ZOOM_FACTOR : 1 / ZOOM_FACTOR;
+
+        double center = xAxis.getValueForDisplay(xAxis.sceneToLocal(event.getSceneX(), event.getSceneY()).getX())
+                .doubleValue();
+        center = Math.min(Math.max(center, lower), upper);
+        double newLower = Math.max(center - (center - lower) * factor, first);
+        double newUpper = Math.min(center + (upper - center) * factor, last);
+
+        if (newLower <= first && newUpper >= last) {
+            xAxis.setAutoRanging(true);
+        } else if (newUpper - newLower >= 2) {
+            xAxis.setAutoRanging(false);
+            xAxis.setLowerBound(Math.floor(newLower));
+            xAxis.setUpperBound(Math.ceil(newUpper));
+            xAxis.setTickUnit(Math.max(Math.ceil((newUpper - newLower) / 10), 1));
         }
+        redraw();
+        event.consume();
+    }
 
-        lineChart.getData().addAll(cellsAliveSeries, cellsDiffSeries, similarityMeasureSeries);
+    /**
+     * Method called when the user clicks the chart. A double click shows every generation again.
+     * @param event The mouse event.
+     * @see #redraw()
+     */
+    private void resetZoom(MouseEvent event) {
+        if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
+            xAxis.setAutoRanging(true);
+            redraw();
+        }
     }
-}
\ No newline at end of file
+}
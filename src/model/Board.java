@@ -1,5 +1,7 @@
 package model;
 
+import java.util.Arrays;
+
 /**
  * The Board class is the abstract superclass for the concrete classes StaticBoard and DynamicBoard.
  * The Board classes handles the playing board of the game, containing the current generations cells
@@ -17,50 +19,83 @@ public abstract class Board {
     private byte[][] loadedPattern;
     private int[] loadedPatternBoundingBox;
 
+    //The hash of the active cells, and whether it is up to date. While the game is running, GameOfLife keeps the
+    //hash up to date from the cells that change, any other change to the cells makes it calculated again when asked.
+    private long hash;
+    private boolean hashValid = false;
+
     /**
      * A method that creates a 2D-array the size of the cell grid for counting neighbours.
      * Iterates through the entire current cell grid and calls setNeighbours if the cell is active for it
      * to add 1 to each surrounding cell. Returns the 2D-array with the neighbour count for each cell.
      * @return neighbours - 2D-array with neighbours counted for each cell.
-     * @see #getCellState(int, int)
+     * @see #rowCursor()
      * @see #setNeighbours(byte[][], int, int)
      */
     public byte[][] countNeighbours() {
         //new 2D-array the size of the current cell grid.
         byte[][] neighbours = new byte[getWidth()][getHeight()];
 
-        //Iterates through the cell grid and checks whether the current cell is active.
-        for (int x = 0; x < getWidth(); x++) {
-            for (int y = 0; y < getHeight(); y++) {
-                if (getCellState(x,y) == 1) {
-                    setNeighbours(neighbours, x, y);
-                }
+        //Iterates through the cell grid row by row and checks whether the current cell is active.
+        RowCursor cursor = rowCursor();
+        while (cursor.next()) {
+            for (int x = cursor.nextActive(0); x < getWidth(); x = cursor.nextActive(x + 1)) {
+                setNeighbours(neighbours, x, cursor.getY());
             }
         }
         return neighbours;
     }
 
     /**
-     * A method that iterates through and counts neighbours for the current cell grid concurrently. The
-     * neighbours 2D-byte array is split up according to how many active threads there are, and each thread
-     * iterates through its portion of the array. Calls setNeighbours if the cell is active for it
-     * to add 1 to each surrounding cell. Returns the 2D-array with the neighbour count for each cell.
+     * A method that counts neighbours for a band of rows of the current cell grid concurrently. The rows are split up
+     * according to how many active threads there are, and each thread goes through its band of rows. Rather than
+     * adding 1 around every active cell, which would have the threads writing into each other's rows, each cell
+     * sums the active cells of the columns left of, on and right of it in the rows above, on and below it. The rows
+     * are read in the order they are stored, three at a time, so the cell grid is only read row by row.
      * @param neighbours 2D-byte array where new neighbours are set.
      * @param curIndex The current thread's index.
      * @param rowsPerWorker The number of rows each thread should consider.
      * @return neighbours - 2D-array with neighbours counted for each cell.
-     * @see #getCellState(int, int)
-     * @see #setNeighbours(byte[][], int, int)
+     * @see #readRow(int, byte[])
      */
     public byte[][] countNeighboursConcurrent(byte[][] neighbours, int curIndex, int rowsPerWorker) {
-        //Iterates through the cell grid and checks whether the current cell is active.
-        for (int x = rowsPerWorker*curIndex; x < (curIndex+1)*rowsPerWorker && x < getWidth(); x++) {
-            for (int y = 0; y < getHeight(); y++) {
+        int width = getWidth();
+        int firstRow = rowsPerWorker*curIndex;
+        int lastRow = Math.min((curIndex+1)*rowsPerWorker, getHeight());
+        if (firstRow >= lastRow || width == 0) {
+            return neighbours;
+        }
 
-                //If active, it calls setNeighbours to assign value to nearby cells.
-                if (getCellState(x,y) == 1) {
-                    setNeighbours(neighbours, x, y);
-                }
+        //The rows above, on and below the current row. The rows outside of the cell grid are inactive.
+        byte[] above = new byte[width];
+        byte[] current = new byte[width];
+        byte[] below = new byte[width];
+        if (firstRow > 0) {
+            readRow(firstRow - 1, current);
+        }
+        readRow(firstRow, below);
+
+        for (int y = firstRow; y < lastRow; y++) {
+            //Moves the rows up one row, and reads the row below the current row into the array no longer needed.
+            byte[] free = above;
+            above = current;
+            current = below;
+            below = free;
+            if (y + 1 < getHeight()) {
+                readRow(y + 1, below);
+            } else {
+                Arrays.fill(below, (byte)0);
+            }
+
+            //Sums the columns of the three rows, and each cell's neighbours from the column sums left of, on and
+            //right of it, leaving out the cell itself.
+            int left = 0;
+            int middle = above[0] + current[0] + below[0];
+            for (int x = 0; x < width; x++) {
+                int right = x + 1 < width ? above[x + 1] + current[x + 1] + below[x + 1] : 0;
+                neighbours[x][y] = (byte)(left + middle + right - current[x]);
+                left = middle;
+                middle = right;
             }
         }
         return neighbours;
@@ -124,8 +159,8 @@ public abstract class Board {
      * @see #discardPattern()
      */
     public void resetBoard() {
-        for (int x = 0; x < getWidth(); x++) {
-            for (int y = 0; y < getHeight(); y++) {
+        for (int y = 0; y < getHeight(); y++) {
+            for (int x = 0; x < getWidth(); x++) {
                 setCellState(x,y, (byte)0);
             }
         }
@@ -134,14 +169,14 @@ public abstract class Board {
     }
 
     /**
-     * A method for setting the cell grid from an existing 2D-array. Iterates through newGrid and sets the cells
-     * of the corresponding places in the cell grid to be equal to those of newGrid.
+     * A method for setting the cell grid from an existing 2D-array. Iterates through newGrid row by row and sets
+     * the cells of the corresponding places in the cell grid to be equal to those of newGrid.
      * @param newGrid The grid to be placed in the current cell grid.
      * @see #setCellState(int, int, byte)
      */
     public void setBoard(byte[][] newGrid) {
-        for (int x = 0; x < newGrid.length; x++) {
-            for (int y = 0; y < newGrid[0].length; y++) {
+        for (int y = 0; y < newGrid[0].length; y++) {
+            for (int x = 0; x < newGrid.length; x++) {
                 setCellState(x,y, newGrid[x][y]);
             }
         }
@@ -149,8 +184,8 @@ public abstract class Board {
 
     /**
      * A method for setting the cell grid from an existing 2D-array concurrently.
-     * The new grid is split into as many parts as there are threads, and each thread iterates through
-     * it's portion of the newGrid and sets the cells of the corresponding (x,y)-coordinates in the cell grid to be
+     * The rows of the new grid are split into as many bands as there are threads, and each thread iterates through
+     * its band row by row and sets the cells of the corresponding (x,y)-coordinates in the cell grid to be
      * equal to those of newGrid.
      * @param newGrid The grid to be placed in the current cell grid.
      * @param curIndex The current thread's index.
@@ -158,44 +193,43 @@ public abstract class Board {
      * @see #setCellState(int, int, byte)
      */
     public void setBoardConcurrent(byte[][] newGrid, int curIndex, int rowsPerWorker) {
-        for (int x = rowsPerWorker*curIndex; x < (curIndex+1)*rowsPerWorker && x < newGrid.length; x++) {
-            for (int y = 0; y < newGrid[0].length; y++) {
+        for (int y = rowsPerWorker*curIndex; y < (curIndex+1)*rowsPerWorker && y < newGrid[0].length; y++) {
+            for (int x = 0; x < newGrid.length; x++) {
                 setCellState(x,y, newGrid[x][y]);
             }
         }
     }
 
     /**
-     * A method for counting the current live cells. Iterates through the cell grid and adds 1 to the counter
-     * for every active cell, before returning the counter.
+     * A method for counting the current live cells. Iterates through the cell grid row by row and adds 1 to the
+     * counter for every active cell, before returning the counter.
      * @return count - The final count of active cells.
-     * @see #getCellState(int, int)
+     * @see #rowCursor()
      */
     public int countCellsAlive(){
         int count = 0;
-        for (int x = 0; x < getWidth(); x++) {
-            for (int y = 0; y < getHeight(); y++){
-                if(getCellState(x,y) == 1){
-                    count++;
-                }
+        RowCursor cursor = rowCursor();
+        while (cursor.next()) {
+            byte[] row = cursor.getRow();
+            for (int x = 0; x < getWidth(); x++) {
+                count += row[x];
             }
         }
         return count;
     }
 
     /**
-     * A method that returns the sum of all active cells x and y coordinates. Iterates through the cell grid and
-     * adds the x and y value to the sum for each active cell.
+     * A method that returns the sum of all active cells x and y coordinates. Iterates through the cell grid row by
+     * row and adds the x and y value to the sum for each active cell.
      * @return xySum - The sum of all active cells x and y coordinates.
-     * @see #getCellState(int, int)
+     * @see #rowCursor()
      */
     public int getSumXYCoordinates(){
         int xySum = 0;
-        for(int x = 0; x < getWidth(); x++){
-            for(int y = 0; y < getHeight(); y++){
-                if(getCellState(x,y) == 1){
-                    xySum += x + y;
-                }
+        RowCursor cursor = rowCursor();
+        while (cursor.next()) {
+            for (int x = cursor.nextActive(0); x < getWidth(); x = cursor.nextActive(x + 1)) {
+                xySum += x + cursor.getY();
             }
         }
         return xySum;
@@ -206,7 +240,7 @@ public abstract class Board {
      * around the active cells of the cell grid, and is represented by 4 values, the minimum and maximum of rows and
      * columns. Returns an int array.
      * @return boundingBox - An int array containing the minimum and maximum values for rows and columns.
-     * @see #getCellState(int, int)
+     * @see #rowCursor()
      */
     public int[] getBoundingBox() {
 
@@ -218,24 +252,27 @@ public abstract class Board {
         boundingBox[2] = getHeight();
         boundingBox[3] = 0;
 
-        //Iterates through the cell grid and updates the bounding box array if a cell is active.
-        for(int x = 0; x < getWidth(); x++) {
-            for(int y = 0; y < getHeight(); y++) {
-                if(getCellState(x,y) == 0) {
-                    continue;
-                }
-                if(x < boundingBox[0]) {
-                    boundingBox[0] = x;
-                }
-                if(x > boundingBox[1]) {
-                    boundingBox[1] = x;
-                }
-                if(y < boundingBox[2]) {
-                    boundingBox[2] = y;
-                }
-                if(y > boundingBox[3]) {
-                    boundingBox[3] = y;
-                }
+        //Iterates through the cell grid row by row, and updates the bounding box array from the first and last
+        //active cell of each row that has any.
+        RowCursor cursor = rowCursor();
+        while (cursor.next()) {
+            int first = cursor.nextActive(0);
+            if (first == getWidth()) {
+                continue;
+            }
+            int last = cursor.previousActive(getWidth() - 1);
+            int y = cursor.getY();
+            if(first < boundingBox[0]) {
+                boundingBox[0] = first;
+            }
+            if(last > boundingBox[1]) {
+                boundingBox[1] = last;
+            }
+            if(y < boundingBox[2]) {
+                boundingBox[2] = y;
+            }
+            if(y > boundingBox[3]) {
+                boundingBox[3] = y;
             }
         }
         return boundingBox;
@@ -288,7 +325,7 @@ public abstract class Board {
      * Then it iterates through the current cell grid with the values of the bounding box and sets each cell
      * in the new 2D-array to be the same as the cell grid in that area.
      * @return trimmedBoard - The smallest possible 2D-array containing all active cells from the current cell grid.
-     * @see #getCellState(int, int)
+     * @see #rowCursor()
      * @see #getBoundingBox()
      */
     public byte[][] trim() {
@@ -303,16 +340,19 @@ public abstract class Board {
         int trimmedX = 0;
         int trimmedY = 0;
 
-        //Iterates through the cell grid with coordinates set by the bounding box.
-        for (int i = boundingBox[0]; i <= boundingBox[1]; i++) {
-            for (int j = boundingBox[2]; j <= boundingBox[3]; j++) {
-                if (getCellState(i,j) == 1) {
+        //Iterates through the rows of the cell grid within the bounding box.
+        RowCursor cursor = rowCursor();
+        cursor.moveTo(boundingBox[2]);
+        while (cursor.next() && cursor.getY() <= boundingBox[3]) {
+            byte[] row = cursor.getRow();
+            for (int i = boundingBox[0]; i <= boundingBox[1]; i++) {
+                if (row[i] == 1) {
                     trimmedBoard[trimmedX][trimmedY] = 1;
                 }
-                trimmedY++;
+                trimmedX++;
             }
-            trimmedX++;
-            trimmedY = 0;
+            trimmedX = 0;
+            trimmedY++;
         }
 
         return trimmedBoard;
@@ -321,41 +361,33 @@ public abstract class Board {
     /**
      * A method that sets loadedPattern and loadedPatternBoundingBox from a loaded pattern. The bounding box
      * of the loaded pattern is initially set so that the pattern will be placed in the middle of the
-     * current cell grid.
+     * current cell grid. Only the pattern itself is examined, so the cost does not depend on the size of the board.
      * @param importedBoard The grid that has been loaded, and is to be set.
      * @see #loadedPattern
      * @see #loadedPatternBoundingBox
      * @see #getBoundingBox(byte[][])
+     * @exception ArrayIndexOutOfBoundsException - Thrown if the pattern is larger than the cell grid.
      */
     public void setBoardFromRLE (byte[][] importedBoard) {
+        if (importedBoard.length > getWidth() || importedBoard[0].length > getHeight()) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
         loadedPattern = importedBoard;
 
-        //Creates a new 2D-Array the length and width of the cell grid when the pattern was loaded for the
-        //sake of centering the pattern in the middle of the board.
-        byte[][] boardSizeAtLoad = new byte[getWidth()][getHeight()];
-        int startX = 0;
-        int startY = 0;
-
-        //If the width of the pattern is smaller than the width of the cell grid, it sets the start x-coordinate
-        //of the pattern so that the pattern will be placed in the middle of the board.
-        if (loadedPattern.length < boardSizeAtLoad.length) {
-            startX = (boardSizeAtLoad.length - loadedPattern.length) / 2;
-        }
+        //Sets the start coordinates of the pattern so that the pattern will be placed in the middle of the board.
+        int startX = (getWidth() - loadedPattern.length) / 2;
+        int startY = (getHeight() - loadedPattern[0].length) / 2;
 
-        //If the height of the pattern is smaller than the height of the cell grid, it sets the start x-coordinate
-        //of the pattern so that the pattern will be placed in the middle of the board.
-        if (loadedPattern[0].length < boardSizeAtLoad[0].length) {
-            startY = (boardSizeAtLoad[0].length - loadedPattern[0].length) / 2;
-        }
+        //Sets loadedPatternBoundingBox to be the bounding box of the pattern, moved to where it is placed.
+        int[] patternBoundingBox = getBoundingBox(loadedPattern);
+        if (patternBoundingBox[0] > patternBoundingBox[1]) {
 
-        //Places the pattern in the 2D-array the size of the grid at load, and sets loadedPatternBoundingBox
-        //to be equal to the patterns bounding box within boardSizeAtLoad
-        for (int x = 0; x < loadedPattern.length; x++) {
-            for (int y = 0; y < loadedPattern[0].length; y++) {
-                boardSizeAtLoad[startX+x][startY+y] = loadedPattern[x][y];
-            }
+            //A pattern without any active cells gets the same bounding box as an empty cell grid.
+            loadedPatternBoundingBox = new int[]{getWidth(), 0, getHeight(), 0};
+        } else {
+            loadedPatternBoundingBox = new int[]{patternBoundingBox[0] + startX, patternBoundingBox[1] + startX,
+                    patternBoundingBox[2] + startY, patternBoundingBox[3] + startY};
         }
-        loadedPatternBoundingBox = getBoundingBox(boardSizeAtLoad);
     }
 
     /**
@@ -447,84 +479,54 @@ public abstract class Board {
 
     /**
      * Method for rotating the loaded pattern within the cell grid. Takes a parameter which indicates if it should
-     * be rotated clockwise or counter clockwise, in which the order of operations is different.
+     * be rotated clockwise or counter clockwise. The new bounding box is set first, and the pattern is only
+     * rotated if the rotation is allowed.
      * @param clockwise A boolean describing whether of not the pattern should be rotated clockwise.
      * @see #loadedPattern
      * @see #loadedPatternBoundingBox
-     * @see #transposePattern(byte[][])
-     * @see #reverseRows(byte[][])
+     * @see #rotatePattern(byte[][], boolean)
      * @see #setNewBoundingBox()
      */
     public void rotate(boolean clockwise){
+        int[] newBoundingBox = setNewBoundingBox();
 
-        //If rotating clockwise, the pattern needs to be transposed, its rows reversed, and a new bounding box be set.
-        if (clockwise) {
-            byte[][] transposedPattern = transposePattern(loadedPattern);
-            byte[][] rotatedPattern = reverseRows(transposedPattern);
-            int[] newBoundingBox = setNewBoundingBox();
-
-            //If newBoundingBox returns a valid array, loadedPattern and loadedPatternBoundingBox is set.
-            if (newBoundingBox != null) {
-                loadedPatternBoundingBox = newBoundingBox;
-                loadedPattern = rotatedPattern;
-            }
-
-        //If rotating counterclockwise, it needs to reverse rows before transposing, and then set a new bounding box.
-        } else if (!clockwise){
-            byte[][] reversedPattern = reverseRows(loadedPattern);
-            byte[][] rotatedPattern = transposePattern(reversedPattern);
-            int[] newBoundingBox = setNewBoundingBox();
-
-            //If newBoundingBox returns a valid array, loadedPattern and loadedPatternBoundingBox is set.
-            if (newBoundingBox != null) {
-                loadedPatternBoundingBox = newBoundingBox;
-                loadedPattern = rotatedPattern;
-            }
+        //If newBoundingBox returns a valid array, loadedPattern and loadedPatternBoundingBox is set.
+        if (newBoundingBox != null) {
+            loadedPatternBoundingBox = newBoundingBox;
+            loadedPattern = rotatePattern(loadedPattern, clockwise);
         }
     }
 
     /**
-     * Method that transposes a pattern by making the rows columns and vice versa. Takes a pattern
-     * as parameter and returns a transposed version of its 2D-array.
-     * @param patternGrid The 2D-array to be transposed.
-     * @return transposedPattern - The transposed 2D-array.
-     */
-    private byte[][] transposePattern(byte[][] patternGrid) {
-
-        //Creates a new 2D-array with the originals height as width, and width as height.
-        byte[][] transposedPattern = new byte[patternGrid[0].length][patternGrid.length];
-
-        //Places the cells of the y,x coordinates of the original grid in the x,y coordinates of the new grid.
-        for (int x = 0; x < patternGrid[0].length; x++) {
-            for (int y = 0; y < patternGrid.length; y++){
-                transposedPattern[x][y] = patternGrid[y][x];
-            }
-        }
-        return transposedPattern;
-    }
-
-    /**
-     * Method that reverses each row of a 2D-array, so that the last element is placed first etc. Needed
-     * for rotating a pattern.
-     * @param patternGrid The 2D-array to be reversed.
-     * @return reversedPattern - The reversed 2D-array.
+     * Method that rotates a pattern a quarter turn in a single pass over its active cells. The result is the same
+     * as transposing the pattern and mirroring its columns within the bounding box of its active cells, in that
+     * order when rotating clockwise, and in the opposite order when rotating counter clockwise.
+     * @param patternGrid The 2D-array to be rotated.
+     * @param clockwise A boolean describing whether of not the pattern should be rotated clockwise.
+     * @return rotatedPattern - The rotated 2D-array, with the originals height as width, and width as height.
      * @see #getBoundingBox(byte[][])
      */
-    private byte[][] reverseRows(byte[][] patternGrid) {
-
-        //Creates a new 2D-array with the dimensions of the original grid.
-        byte[][] reversedPattern = new byte[patternGrid.length][patternGrid[0].length];
-
+    private byte[][] rotatePattern(byte[][] patternGrid, boolean clockwise) {
+        byte[][] rotatedPattern = new byte[patternGrid[0].length][patternGrid.length];
         int[] boundingBox = getBoundingBox(patternGrid);
-        int xBack = 0;
 
+        //The sums of the bounding box edges, which mirrors a coordinate within the bounding box.
+        int xMirror = boundingBox[0] + boundingBox[1];
+        int yMirror = boundingBox[2] + boundingBox[3];
+
+        //Only the cells within the bounding box can be active.
         for (int x = boundingBox[0]; x <= boundingBox[1]; x++) {
             for (int y = boundingBox[2]; y <= boundingBox[3]; y++) {
-                reversedPattern[x][y] = patternGrid[boundingBox[1] - xBack][y];
+                if (patternGrid[x][y] == 1) {
+                    if (clockwise) {
+                        rotatedPattern[yMirror - y][x] = 1;
+                    } else {
+                        rotatedPattern[y][xMirror - x] = 1;
+                    }
+                }
             }
-            xBack++;
         }
-        return reversedPattern;
+        return rotatedPattern;
     }
 
     /**
@@ -617,36 +619,128 @@ public abstract class Board {
 
     /**
      * Method that places the loaded pattern permanently into the current cell grid, and sets
-     * loadedPattern and loadedPatternBoundingBox to null and does a new count of active cells.
+     * loadedPattern and loadedPatternBoundingBox to null. The cells of the pattern are added with
+     * orPattern(), and cellsAlive is increased by the number of cells that became active, so the cost only
+     * depends on the size of the pattern. Should there be no loaded pattern, a new count of active cells is done.
      * @see #loadedPattern
      * @see #loadedPatternBoundingBox
      * @see #cellsAlive
-     * @see #setCellState(int, int, byte)
+     * @see #orPattern(byte[][], int, int, int, int)
+     * @see #countCellsAlive()
+     * @see #invalidateHash()
      */
     public void finalizeBoard() {
 
         //Checks if loadedPattern and loadedPatternBoundingBox is null.
         if (loadedPattern != null && loadedPatternBoundingBox != null) {
-            int xLoaded = 0;
-            int yLoaded = 0;
+            int width = loadedPatternBoundingBox[1] - loadedPatternBoundingBox[0] + 1;
+            int height = loadedPatternBoundingBox[3] - loadedPatternBoundingBox[2] + 1;
 
             //Sets each cell contained in the loaded pattern into the current cell grid.
-            for (int x = loadedPatternBoundingBox[0]; x <= loadedPatternBoundingBox[1]; x++) {
-                for (int y = loadedPatternBoundingBox[2]; y <= loadedPatternBoundingBox[3]; y++) {
-                    if (loadedPattern[xLoaded][yLoaded] == 1) {
-                        setCellState(x, y, (byte)1);
-                    }
-                    yLoaded++;
-                }
-                xLoaded++;
-                yLoaded = 0;
+            if (width > 0 && height > 0) {
+                cellsAlive += orPattern(loadedPattern, loadedPatternBoundingBox[0], loadedPatternBoundingBox[2],
+                        width, height);
             }
+        } else {
+            cellsAlive = countCellsAlive();
         }
 
-        //Sets loadedPattern and its bounding box to null, and does a fresh count of active cells.
+        //Sets loadedPattern and its bounding box to null.
         loadedPattern = null;
         loadedPatternBoundingBox = null;
-        cellsAlive = countCellsAlive();
+        invalidateHash();
+    }
+
+    /**
+     * Method that sets the active cells of a pattern into the current cell grid, leaving the cells that are
+     * already active as they are. The upper left width x height cells of the pattern are placed with their upper
+     * left corner at (xStart, yStart). Subclasses override this with a version working directly on their cell grid,
+     * this version goes through getCellState() and setCellState().
+     * @param pattern The pattern to be placed, indexed [x][y].
+     * @param xStart The x coordinate of the upper left corner in the cell grid.
+     * @param yStart The y coordinate of the upper left corner in the cell grid.
+     * @param width The number of columns of the pattern to place.
+     * @param height The number of rows of the pattern to place.
+     * @return born - The number of cells that became active.
+     * @see #getCellState(int, int)
+     * @see #setCellState(int, int, byte)
+     */
+    protected int orPattern(byte[][] pattern, int xStart, int yStart, int width, int height) {
+        int born = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (pattern[x][y] == 1) {
+                    if (getCellState(xStart + x, yStart + y) == 0) {
+                        born++;
+                    }
+                    setCellState(xStart + x, yStart + y, (byte)1);
+                }
+            }
+        }
+        return born;
+    }
+
+    /**
+     * Method that packs the cells of the cell grid into rows of bits, the cell (x, y) being bit x % 64 of long
+     * rows[(firstRow + y) * words + x / 64]. Only sets the bits of active cells, so the rows should be cleared
+     * first. Subclasses override this with a version working directly on their cell grid, this version goes through
+     * the rows of a row cursor.
+     * @param rows The rows to pack the cells into.
+     * @param words The number of longs in each row, at least (width + 63) / 64.
+     * @param firstRow The row the upper row of the cell grid is packed into.
+     * @see #rowCursor()
+     * @see #unpackRows(long[], int, int)
+     */
+    protected void packRows(long[] rows, int words, int firstRow) {
+        RowCursor cursor = rowCursor();
+        while (cursor.next()) {
+            int index = (firstRow + cursor.getY()) * words;
+            for (int x = cursor.nextActive(0); x < getWidth(); x = cursor.nextActive(x + 1)) {
+                rows[index + (x >>> 6)] |= 1L << x;
+            }
+        }
+    }
+
+    /**
+     * Method that sets every cell of the cell grid from rows of bits, packed as by packRows(). Subclasses override
+     * this with a version working directly on their cell grid, this version goes through setCellState().
+     * @param rows The rows to set the cells from.
+     * @param words The number of longs in each row.
+     * @param firstRow The row holding the upper row of the cell grid.
+     * @see #setCellState(int, int, byte)
+     * @see #packRows(long[], int, int)
+     */
+    protected void unpackRows(long[] rows, int words, int firstRow) {
+        for (int y = 0; y < getHeight(); y++) {
+            for (int x = 0; x < getWidth(); x++) {
+                setCellState(x, y, (byte)(rows[(firstRow + y) * words + (x >>> 6)] >>> x & 1));
+            }
+        }
+    }
+
+    /**
+     * Method that returns a row cursor over the cell grid, which goes through the rows from the top, reading each
+     * row into an array. Scans of the whole cell grid go through a row cursor, so that the cells are read in the
+     * order they are stored in memory rather than one column at a time.
+     * @return cursor - A row cursor placed before the upper row.
+     * @see #readRow(int, byte[])
+     */
+    public RowCursor rowCursor() {
+        return new RowCursor(this);
+    }
+
+    /**
+     * Method that reads the states of the cells of a row into an array, used by the row cursor. Subclasses override
+     * this with a version copying the row directly from their cell grid, this version goes through getCellState().
+     * @param y The y coordinate of the row.
+     * @param row The array to read the row into, at least as long as the width of the cell grid.
+     * @see #getCellState(int, int)
+     * @see RowCursor#next()
+     */
+    protected void readRow(int y, byte[] row) {
+        for (int x = 0; x < getWidth(); x++) {
+            row[x] = getCellState(x, y);
+        }
     }
 
     /**
@@ -721,19 +815,107 @@ public abstract class Board {
         }
     }
 
+    /**
+     * Method that returns a hash of the active cells, which is equal for boards with the same active cells. The
+     * hash of each active cell is found from its position on the endless plane, so that boards that have grown or
+     * shrunk are still compared by their cells alone, and the hashes of all active cells are combined with XOR.
+     * Should the hash not be up to date, it is calculated from the whole board.
+     * @return hash - The hash of the active cells.
+     * @see #cellHash(int, int)
+     * @see #getWorldX()
+     * @see #getWorldY()
+     */
+    public long getHash() {
+        if (!hashValid) {
+            long newHash = 0;
+            RowCursor cursor = rowCursor();
+            while (cursor.next()) {
+                for (int x = cursor.nextActive(0); x < getWidth(); x = cursor.nextActive(x + 1)) {
+                    newHash ^= cellHash(x + getWorldX(), cursor.getY() + getWorldY());
+                }
+            }
+            hash = newHash;
+            hashValid = true;
+        }
+        return hash;
+    }
+
+    /**
+     * Method that returns whether the hash is up to date, without calculating it.
+     * @return hashValid - True if the hash is up to date.
+     * @see #hashValid
+     */
+    boolean isHashValid() {
+        return hashValid;
+    }
+
+    /**
+     * Method used by GameOfLife to set the hash after a generation, having updated it from the cells that changed.
+     * @param newHash The hash of the active cells.
+     * @see #hash
+     */
+    void setHash(long newHash) {
+        hash = newHash;
+        hashValid = true;
+    }
+
+    /**
+     * Method that marks the hash as out of date, so that it is calculated again when asked for. Called by any
+     * method changing the cells.
+     * @see #hashValid
+     */
+    protected void invalidateHash() {
+        hashValid = false;
+    }
+
+    /**
+     * Method that returns the hash of an active cell at a position on the endless plane. The position is mixed so
+     * that every bit of the hash depends on both coordinates, making it unlikely that two different boards have
+     * the same hash.
+     * @param x The x-coordinate of the cell on the endless plane.
+     * @param y The y-coordinate of the cell on the endless plane.
+     * @return cellHash - The hash of the cell.
+     */
+    public static long cellHash(int x, int y) {
+        long z = ((long) x << 32 | (y & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Method that returns the x-coordinate of the leftmost column of the board on the endless plane. Is 0 unless
+     * the board can move its borders.
+     * @return worldX - The x-coordinate of the leftmost column.
+     */
+    public int getWorldX() {
+        return 0;
+    }
+
+    /**
+     * Method that returns the y-coordinate of the upper row of the board on the endless plane. Is 0 unless the
+     * board can move its borders.
+     * @return worldY - The y-coordinate of the upper row.
+     */
+    public int getWorldY() {
+        return 0;
+    }
+
     /**
      * Method that returns a string representation of the current cell grid, placing each cell in a long
      * string of 1s and 0s. Overrides Objects toString method.
      * @return str.toString - The string representation of the current cellGrid.
-     * @see #getCellState(int, int)
+     * @see #rowCursor()
      * @see Object#toString()
      */
     @Override
     public String toString(){
-        StringBuilder str = new StringBuilder();
-        for (int y = 0; y < getHeight(); y++) {
+        StringBuilder str = new StringBuilder(getWidth() * getHeight());
+        RowCursor cursor = rowCursor();
+        while (cursor.next()) {
+            byte[] row = cursor.getRow();
             for (int x = 0; x < getWidth(); x++) {
-                if (getCellState(x,y) == 1) {
+                if (row[x] == 1) {
                     str.append("1");
                 } else {
                     str.append("0");
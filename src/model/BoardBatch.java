@@ -0,0 +1,376 @@
+package model;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The BoardBatch class runs 64 small boards of the same size side by side, for searches that need to run many
+ * independent boards, such as collisions or rules. Each cell position is stored as one long, with bit i holding the
+ * cell of board i, so the 64 boards are called lanes. The neighbours of a cell position in all 64 lanes are added at
+ * once with bitwise full adders, so one generation of the batch costs about as much as one generation of a single
+ * board would with the same logic.
+ *
+ * <p>As on a StaticBoard, the cells outside of the boards are always dead. The cells are stored with a border of
+ * dead cells around them, so every cell position has eight neighbours to read. A lane stops once it dies, becomes
+ * still or oscillates with a period of two, and is then left as it is while the other lanes keep running.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ * @see RuleExplorer#nextGeneration(long[], long[], int, int, int, RuleKernel)
+ * @see RuleCompiler#getKernel(int)
+ */
+public class BoardBatch {
+    private final int width, height;
+
+    //The cells of the previous, current and next generation, one row of width + 2 longs per row of the boards with
+    //a row of dead cells above and below. Cell (x, y) of lane i is bit i of cells[(y + 1) * stride + x + 1].
+    private final int stride;
+    private long[] previous, cells, next;
+
+    //The kernel of the rule, and whether cells are born without neighbours.
+    private final RuleKernel kernel;
+    private final boolean emptyStaysEmpty;
+
+    //The lanes that have stopped, the lanes whose previous generation is known, and when and how each lane stopped.
+    private long stopped = 0;
+    private long previousKnown = 0;
+    private final int[] stopGeneration = new int[LANES];
+    private final int[] stopPeriod = new int[LANES];
+    private int generation = 0;
+
+    //The number of boards in a batch.
+    public static final int LANES = 64;
+
+    /**
+     * Constructor that creates a batch of 64 empty boards.
+     * @param width The width of each board.
+     * @param height The height of each board.
+     * @param rule The rule number the boards are run with.
+     * @exception IllegalArgumentException - Thrown if the width or height is less than 1, or the rule is not a
+     *                                       rule number.
+     * @see RuleExplorer#toRule(String, String)
+     */
+    public BoardBatch(int width, int height, int rule) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Invalid board size " + width + "x" + height);
+        }
+        if (rule < 0 || rule >= RuleExplorer.RULE_COUNT) {
+            throw new IllegalArgumentException("Invalid rule " + rule);
+        }
+        this.width = width;
+        this.height = height;
+        this.stride = width + 2;
+        this.previous = new long[stride * (height + 2)];
+        this.cells = new long[previous.length];
+        this.next = new long[previous.length];
+        this.kernel = RuleCompiler.getKernel(rule);
+        this.emptyStaysEmpty = (rule & 1) == 0;
+        Arrays.fill(stopGeneration, -1);
+    }
+
+    /**
+     * Method that sets a lane to the cells of a board, starting it again. The board is placed in the upper left
+     * corner of the lane, and the rest of the lane is cleared.
+     * @param lane The lane to set.
+     * @param board The board to copy the cells of.
+     * @exception IllegalArgumentException - Thrown if the board is larger than the boards of the batch.
+     * @exception IndexOutOfBoundsException - Thrown if the lane is not between 0 and 63.
+     */
+    public void setLane(int lane, Board board) {
+        checkLane(lane);
+        if (board.getWidth() > width || board.getHeight() > height) {
+            throw new IllegalArgumentException("Board of " + board.getWidth() + "x" + board.getHeight()
+                    + " does not fit in " + width + "x" + height);
+        }
+        clearLane(lane);
+        long bit = 1L << lane;
+        RowCursor cursor = board.rowCursor();
+        while (cursor.next()) {
+            for (int x = cursor.nextActive(0); x < board.getWidth(); x = cursor.nextActive(x + 1)) {
+                cells[(cursor.getY() + 1) * stride + x + 1] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Method that clears every cell of a lane and starts it again.
+     * @param lane The lane to clear.
+     * @exception IndexOutOfBoundsException - Thrown if the lane is not between 0 and 63.
+     */
+    public void clearLane(int lane) {
+        checkLane(lane);
+        long keep = ~(1L << lane);
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] &= keep;
+        }
+        stopped &= keep;
+        previousKnown &= keep;
+        stopGeneration[lane] = -1;
+        stopPeriod[lane] = 0;
+    }
+
+    /**
+     * Method that copies a lane into a new board of the same size as the boards of the batch.
+     * @param lane The lane to copy.
+     * @return board - A new board with the cells of the lane.
+     * @exception IndexOutOfBoundsException - Thrown if the lane is not between 0 and 63.
+     */
+    public Board getLane(int lane) {
+        checkLane(lane);
+        Board board = new DynamicBoard(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if ((cells[(y + 1) * stride + x + 1] >>> lane & 1) != 0) {
+                    board.setCellState(x, y, (byte)1);
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Method that returns the state of a cell in a lane.
+     * @param lane The lane of the cell.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return state - 1 if the cell is alive, 0 if not.
+     * @exception IndexOutOfBoundsException - Thrown if the lane or the cell is outside of the batch.
+     */
+    public byte getCellState(int lane, int x, int y) {
+        return (byte)(cells[index(lane, x, y)] >>> lane & 1);
+    }
+
+    /**
+     * Method that sets the state of a cell in a lane. Does not start the lane again, so a stopped lane should be
+     * set with setLane instead.
+     * @param lane The lane of the cell.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param state 1 to make the cell alive, 0 to make it dead.
+     * @exception IndexOutOfBoundsException - Thrown if the lane or the cell is outside of the batch.
+     * @see #setLane(int, Board)
+     */
+    public void setCellState(int lane, int x, int y, byte state) {
+        int index = index(lane, x, y);
+        if (state == 1) {
+            cells[index] |= 1L << lane;
+        } else {
+            cells[index] &= ~(1L << lane);
+        }
+    }
+
+    /**
+     * Method that makes the next generation of every lane that has not stopped, then stops the lanes that did not
+     * change since the current or the previous generation.
+     * @see #getStoppedLanes()
+     */
+    public void nextGeneration() {
+        long running = ~stopped;
+        long changed = 0;
+        long changedSincePrevious = 0;
+
+        for (int y = 1; y <= height; y++) {
+            int row = y * stride;
+            for (int i = row + 1; i <= row + width; i++) {
+                long cell = cells[i];
+                long northWest = cells[i - stride - 1];
+                long north = cells[i - stride];
+                long northEast = cells[i - stride + 1];
+                long west = cells[i - 1];
+                long east = cells[i + 1];
+                long southWest = cells[i + stride - 1];
+                long south = cells[i + stride];
+                long southEast = cells[i + stride + 1];
+
+                //Empty space stays empty in every lane, unless cells are born without neighbours.
+                if (emptyStaysEmpty && (cell | northWest | north | northEast | west | east | southWest | south
+                        | southEast) == 0) {
+                    next[i] = 0;
+                    changedSincePrevious |= previous[i];
+                    continue;
+                }
+
+                //Adds the neighbours of each row with full adders, then the sums and carries of the three rows,
+                //giving the count of neighbours in every lane as four bits.
+                long northSum = northWest ^ north ^ northEast;
+                long northCarry = (northWest & north) | (northEast & (northWest ^ north));
+                long middleSum = west ^ east;
+                long middleCarry = west & east;
+                long southSum = southWest ^ south ^ southEast;
+                long southCarry = (southWest & south) | (southEast & (southWest ^ south));
+
+                long s0 = northSum ^ middleSum ^ southSum;
+                long onesCarry = (northSum & middleSum) | (southSum & (northSum ^ middleSum));
+                long pairA = northCarry ^ middleCarry;
+                long pairB = southCarry ^ onesCarry;
+                long s1 = pairA ^ pairB;
+                long bothA = northCarry & middleCarry;
+                long bothB = southCarry & onesCarry;
+                long s2 = (bothA ^ bothB) | (pairA & pairB);
+                long s3 = bothA & bothB;
+
+                //Stopped lanes keep their cells.
+                long state = (kernel.nextCells(cell, s0, s1, s2, s3) & running) | (cell & ~running);
+                next[i] = state;
+                changed |= state ^ cell;
+                changedSincePrevious |= state ^ previous[i];
+            }
+        }
+        generation++;
+
+        //Lanes that did not change are still or dead, and lanes that are back to the previous generation oscillate
+        //with a period of two.
+        long still = ~changed & running;
+        long oscillating = ~changedSincePrevious & changed & previousKnown & running;
+        for (long lanes = still | oscillating; lanes != 0; lanes &= lanes - 1) {
+            int lane = Long.numberOfTrailingZeros(lanes);
+            stopGeneration[lane] = generation;
+            stopPeriod[lane] = (still >>> lane & 1) != 0 ? 1 : 2;
+        }
+        stopped |= still | oscillating;
+        previousKnown = -1L;
+
+        long[] swap = previous;
+        previous = cells;
+        cells = next;
+        next = swap;
+    }
+
+    /**
+     * Method that makes generations until every lane has stopped, a number of generations have been made, or it is
+     * cancelled.
+     * @param generations The largest number of generations to make.
+     * @param cancelled Returns true when the batch should stop.
+     * @return made - The number of generations made.
+     * @see #nextGeneration()
+     */
+    public int run(int generations, BooleanSupplier cancelled) {
+        int made = 0;
+        while (made < generations && stopped != -1L && !cancelled.getAsBoolean()) {
+            nextGeneration();
+            made++;
+        }
+        return made;
+    }
+
+    /**
+     * Method that counts the living cells of every lane.
+     * @return populations - The population of each lane, indexed by lane.
+     */
+    public int[] getPopulations() {
+        int[] populations = new int[LANES];
+        for (long cell : cells) {
+            for (; cell != 0; cell &= cell - 1) {
+                populations[Long.numberOfTrailingZeros(cell)]++;
+            }
+        }
+        return populations;
+    }
+
+    /**
+     * Method that counts the living cells of a lane.
+     * @param lane The lane to count.
+     * @return population - The number of living cells in the lane.
+     * @exception IndexOutOfBoundsException - Thrown if the lane is not between 0 and 63.
+     */
+    public int getPopulation(int lane) {
+        checkLane(lane);
+        int population = 0;
+        for (long cell : cells) {
+            population += (int)(cell >>> lane & 1);
+        }
+        return population;
+    }
+
+    /**
+     * Method that returns which lanes have stopped, as a mask with bit i set if lane i has stopped.
+     * @return stopped - The mask of stopped lanes.
+     */
+    public long getStoppedLanes() {
+        return stopped;
+    }
+
+    /**
+     * Method that returns whether a lane has stopped.
+     * @param lane The lane.
+     * @return isStopped - True if the lane has stopped.
+     * @exception IndexOutOfBoundsException - Thrown if the lane is not between 0 and 63.
+     */
+    public boolean isStopped(int lane) {
+        checkLane(lane);
+        return (stopped >>> lane & 1) != 0;
+    }
+
+    /**
+     * Method that returns the generation a lane stopped in, counted from the creation of the batch.
+     * @param lane The lane.
+     * @return generation - The generation the lane stopped in, or -1 if it has not stopped.
+     * @exception IndexOutOfBoundsException - Thrown if the lane is not between 0 and 63.
+     */
+    public int getStopGeneration(int lane) {
+        checkLane(lane);
+        return stopGeneration[lane];
+    }
+
+    /**
+     * Method that returns the period a lane stopped with, 1 for still or dead lanes and 2 for lanes that oscillate.
+     * @param lane The lane.
+     * @return period - The period of the lane, or 0 if it has not stopped.
+     * @exception IndexOutOfBoundsException - Thrown if the lane is not between 0 and 63.
+     */
+    public int getStopPeriod(int lane) {
+        checkLane(lane);
+        return stopPeriod[lane];
+    }
+
+    /**
+     * Method that returns the number of generations made since the batch was created.
+     * @return generation - The number of generations.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Method that returns the width of each board.
+     * @return width - The width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Method that returns the height of each board.
+     * @return height - The height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Method that returns the index of a cell in the arrays of cells.
+     * @param lane The lane of the cell.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return index - The index of the cell.
+     * @exception IndexOutOfBoundsException - Thrown if the lane or the cell is outside of the batch.
+     */
+    private int index(int lane, int x, int y) {
+        checkLane(lane);
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Cell " + x + "," + y + " is outside of " + width + "x" + height);
+        }
+        return (y + 1) * stride + x + 1;
+    }
+
+    /**
+     * Method that checks that a lane is between 0 and 63.
+     * @param lane The lane.
+     * @exception IndexOutOfBoundsException - Thrown if the lane is not between 0 and 63.
+     */
+    private static void checkLane(int lane) {
+        if (lane < 0 || lane >= LANES) {
+            throw new IndexOutOfBoundsException("Invalid lane " + lane);
+        }
+    }
+}
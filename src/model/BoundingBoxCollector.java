@@ -0,0 +1,67 @@
+package model;
+
+/**
+ * The BoundingBoxCollector class finds the bounding box of the cells alive in the next generation, in the same form
+ * as Board's getBoundingBox().
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ * @see Board#getBoundingBox()
+ */
+public class BoundingBoxCollector implements MetricCollector {
+    private int minX;
+    private int maxX;
+    private int minY;
+    private int maxY;
+
+    /**
+     * Sole constructor, creating an empty collector.
+     */
+    public BoundingBoxCollector() {
+        reset();
+    }
+
+    @Override
+    public MetricCollector newPartial() {
+        return new BoundingBoxCollector();
+    }
+
+    @Override
+    public void reset() {
+        minX = Integer.MAX_VALUE;
+        maxX = Integer.MIN_VALUE;
+        minY = Integer.MAX_VALUE;
+        maxY = Integer.MIN_VALUE;
+    }
+
+    @Override
+    public void accept(int x, int y, byte oldState, byte newState) {
+        if (newState == 0) {
+            return;
+        }
+        if (x < minX) minX = x;
+        if (x > maxX) maxX = x;
+        if (y < minY) minY = y;
+        if (y > maxY) maxY = y;
+    }
+
+    @Override
+    public void merge(MetricCollector partial) {
+        BoundingBoxCollector other = (BoundingBoxCollector) partial;
+        minX = Math.min(minX, other.minX);
+        maxX = Math.max(maxX, other.maxX);
+        minY = Math.min(minY, other.minY);
+        maxY = Math.max(maxY, other.maxY);
+    }
+
+    /**
+     * Method that returns the bounding box of the cells alive in the last generation made.
+     * @return boundingBox - The minimum and maximum x and y, respectively, or null if no cells are alive.
+     */
+    public int[] getBoundingBox() {
+        if (maxX < minX) {
+            return null;
+        }
+        return new int[]{minX, maxX, minY, maxY};
+    }
+}
@@ -0,0 +1,68 @@
+package model;
+
+/**
+ * The CentroidCollector class sums the coordinates of the cells alive in the next generation, giving the centre of
+ * the pattern as well as the sum used by the similarity measure of the statistics.
+ *
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ * @see Board#getSumXYCoordinates()
+ */
+public class CentroidCollector implements MetricCollector {
+    private long sumX;
+    private long sumY;
+    private int count;
+
+    @Override
+    public MetricCollector newPartial() {
+        return new CentroidCollector();
+    }
+
+    @Override
+    public void reset() {
+        sumX = 0;
+        sumY = 0;
+        count = 0;
+    }
+
+    @Override
+    public void accept(int x, int y, byte oldState, byte newState) {
+        if (newState == 1) {
+            sumX += x;
+            sumY += y;
+            count++;
+        }
+    }
+
+    @Override
+    public void merge(MetricCollector partial) {
+        CentroidCollector other = (CentroidCollector) partial;
+        sumX += other.sumX;
+        sumY += other.sumY;
+        count += other.count;
+    }
+
+    /**
+     * Method that returns the sum of the x and y coordinates of every cell alive in the last generation made.
+     * @return xySum - The sum of the coordinates.
+     */
+    public long getSumXY() {
+        return sumX + sumY;
+    }
+
+    /**
+     * Method that returns the mean x-coordinate of the cells alive in the last generation made.
+     * @return centroidX - The mean x-coordinate, or NaN if no cells are alive.
+     */
+    public double getCentroidX() {
+        return count == 0 ? Double.NaN : (double) sumX / count;
+    }
+
+    /**
+     * Method that returns the mean y-coordinate of the cells alive in the last generation made.
+     * @return centroidY - The mean y-coordinate, or NaN if no cells are alive.
+     */
+    public double getCentroidY() {
+        return count == 0 ? Double.NaN : (double) sumY / count;
+    }
+}
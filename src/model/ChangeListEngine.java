@@ -0,0 +1,247 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The ChangeListEngine class makes generations of a board of fixed size by keeping a list of the cells that changed
+ * in the last generation, and only applying the rule to the cells around them. A cell whose state and neighbours are
+ * the same as in the last generation becomes what it became then, which is what it already is, so only the cells in
+ * the 3 by 3 squares around the changes can change. The number of neighbours of each cell is kept as well, and
+ * updated for the neighbours of each change, rather than counted again for every cell as by countNeighbours().
+ *
+ * <p>A generation costs as much as the number of cells that changed, so it pays off for boards that are mostly
+ * still, with a few moving parts such as spaceships and oscillators. After the board is loaded or the rule is set,
+ * every cell is looked at in the first generation. As on a StaticBoard, the cells outside of the board are always
+ * dead.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ * @see Board#countNeighbours()
+ */
+public class ChangeListEngine {
+    private final int width, height;
+    private String ruleString;
+    private int rule;
+
+    //The cells and numbers of neighbours, with cell x, y stored at (y + 1) * stride + x + 1, so that the cells
+    //around the board are always dead and every cell on the board has neighbours to be read.
+    private final int stride;
+    private final byte[] cells;
+    private final byte[] neighbours;
+
+    //The generation each cell was last added to the candidates in, the cells around the board being marked with
+    //Integer.MAX_VALUE so that they are never added.
+    private final int[] marks;
+    private int generation;
+
+    //The cells that changed in the last generation, and the cells that may change in the next.
+    private int[] changes = new int[64];
+    private int changeCount;
+    private int[] candidates = new int[64];
+    private boolean allChanged;
+    private int population;
+
+    /**
+     * Constructor that copies the cells of a board and sets the rule the board is stepped with.
+     * @param board The board to copy the cells of, which decides the size of the engine.
+     * @param ruleString The rule, either by name or formatted after RLE standards (Bxxx/Sxxx).
+     * @exception RulesFormatException - Thrown if the rule is formatted wrong.
+     * @see #setRuleString(String)
+     */
+    public ChangeListEngine(Board board, String ruleString) throws RulesFormatException {
+        this.width = board.getWidth();
+        this.height = board.getHeight();
+        this.stride = width + 2;
+        this.cells = new byte[stride * (height + 2)];
+        this.neighbours = new byte[cells.length];
+        this.marks = new int[cells.length];
+        Arrays.fill(marks, Integer.MAX_VALUE);
+        for (int y = 0; y < height; y++) {
+            Arrays.fill(marks, (y + 1) * stride + 1, (y + 1) * stride + 1 + width, -1);
+        }
+        setRuleString(ruleString);
+        load(board);
+    }
+
+    /**
+     * Method that sets the rule the board is stepped with. As the cells may change under the new rule where nothing
+     * changed under the old one, every cell is looked at in the next generation.
+     * @param ruleString The rule, either by name or formatted after RLE standards (Bxxx/Sxxx).
+     * @exception RulesFormatException - Thrown if the rule is formatted wrong.
+     * @see GameOfLife#parseRule(String)
+     */
+    public void setRuleString(String ruleString) throws RulesFormatException {
+        String[] rules = GameOfLife.parseRule(ruleString);
+        this.ruleString = "B" + rules[0] + "/S" + rules[1];
+        this.rule = RuleExplorer.toRule(rules[0], rules[1]);
+        this.allChanged = true;
+    }
+
+    /**
+     * Method that returns the rule string of the rule the board is stepped with.
+     * @return ruleString - The rule string, such as "B3/S23".
+     */
+    public String getRuleString() {
+        return ruleString;
+    }
+
+    /**
+     * Method that copies the cells of a board into the engine and counts the neighbours of every cell. Cells outside
+     * of the engine are left out. Every cell is looked at in the next generation.
+     * @param board The board to copy the cells of.
+     */
+    public void load(Board board) {
+        Arrays.fill(cells, (byte)0);
+        Arrays.fill(neighbours, (byte)0);
+        population = 0;
+        int columns = Math.min(width, board.getWidth());
+        RowCursor cursor = board.rowCursor();
+        while (cursor.next() && cursor.getY() < height) {
+            for (int x = cursor.nextActive(0); x < columns; x = cursor.nextActive(x + 1)) {
+                flip((cursor.getY() + 1) * stride + x + 1);
+            }
+        }
+        changeCount = 0;
+        allChanged = true;
+    }
+
+    /**
+     * Method that copies the cells of the engine into a board, setting every cell the two have in common.
+     * @param board The board to copy the cells into.
+     */
+    public void store(Board board) {
+        for (int y = 0; y < Math.min(height, board.getHeight()); y++) {
+            for (int x = 0; x < Math.min(width, board.getWidth()); x++) {
+                board.setCellState(x, y, getCellState(x, y));
+            }
+        }
+    }
+
+    /**
+     * Method that makes the next generation of the board. The cells around the changes of the last generation are
+     * gathered, each once, and the rule is applied to them from their kept number of neighbours. The cells whose
+     * state changes are then flipped, which updates the neighbours of the cells around them, and become the changes
+     * of this generation.
+     */
+    public void nextGeneration() {
+        generation++;
+        int candidateCount = 0;
+        if (allChanged) {
+            if (candidates.length < width * height) {
+                candidates = new int[width * height];
+            }
+            for (int y = 1; y <= height; y++) {
+                for (int x = 1; x <= width; x++) {
+                    candidates[candidateCount++] = y * stride + x;
+                }
+            }
+            allChanged = false;
+        } else {
+            if (candidates.length < 9 * changeCount) {
+                candidates = new int[Math.min(2 * 9 * changeCount, width * height)];
+            }
+            for (int i = 0; i < changeCount; i++) {
+                int cell = changes[i];
+                for (int dy = -stride; dy <= stride; dy += stride) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int candidate = cell + dy + dx;
+                        if (marks[candidate] < generation) {
+                            marks[candidate] = generation;
+                            candidates[candidateCount++] = candidate;
+                        }
+                    }
+                }
+            }
+        }
+
+        //Finds every change before flipping any, as the flips change the neighbours of the other candidates.
+        changeCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int cell = candidates[i];
+            int alive = cells[cell];
+            if ((rule >>> (9 * alive + neighbours[cell]) & 1) != alive) {
+                if (changeCount == changes.length) {
+                    changes = Arrays.copyOf(changes, 2 * changes.length);
+                }
+                changes[changeCount++] = cell;
+            }
+        }
+        for (int i = 0; i < changeCount; i++) {
+            flip(changes[i]);
+        }
+    }
+
+    /**
+     * Method that makes a number of generations of the board.
+     * @param generations The number of generations to make.
+     * @see #nextGeneration()
+     */
+    public void run(int generations) {
+        for (int i = 0; i < generations; i++) {
+            nextGeneration();
+        }
+    }
+
+    /**
+     * Method that flips the state of a cell, and adds to or subtracts from the neighbours of the 8 cells around it.
+     * @param cell The index of the cell.
+     */
+    private void flip(int cell) {
+        int change = cells[cell] == 0 ? 1 : -1;
+        cells[cell] ^= 1;
+        population += change;
+        for (int dy = -stride; dy <= stride; dy += stride) {
+            neighbours[cell + dy - 1] += change;
+            neighbours[cell + dy] += change;
+            neighbours[cell + dy + 1] += change;
+        }
+        neighbours[cell] -= change;
+    }
+
+    /**
+     * Method that returns the number of cells that changed in the last generation, which the next generation costs
+     * as much as.
+     * @return changeCount - The number of cells that changed.
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Method that returns the state of a cell.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return state - 1 if the cell is alive, 0 if not.
+     * @exception IndexOutOfBoundsException - Thrown if the cell is outside of the board.
+     */
+    public byte getCellState(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Cell " + x + "," + y + " is outside of " + width + "x" + height);
+        }
+        return cells[(y + 1) * stride + x + 1];
+    }
+
+    /**
+     * Method that returns the number of living cells of the board, which is kept as the cells change.
+     * @return population - The number of living cells.
+     */
+    public int getPopulation() {
+        return population;
+    }
+
+    /**
+     * Method that returns the width of the board.
+     * @return width - The width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Method that returns the height of the board.
+     * @return height - The height.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
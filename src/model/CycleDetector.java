@@ -0,0 +1,180 @@
+package model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The CycleDetector class finds out when a running game has reached a still life or a cycle, meaning that a
+ * generation has the exact same active cells as an earlier one. The detector is given the board after every
+ * generation, and remembers the hashes of a limited number of the latest generations. When a hash is seen again,
+ * the active cells are saved, and the cycle is confirmed only if the board is exactly equal to them one period
+ * later. The hashes are kept up to date by GameOfLife from the cells that change, so following a running game costs
+ * little more than a lookup per generation.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ * @see Board#getHash()
+ */
+public class CycleDetector {
+    private final Map<Long, Integer> history;
+
+    //The generation whose hash was seen again, and the active cells of that generation, waiting to be confirmed.
+    private int candidateGeneration;
+    private int candidatePeriod;
+    private long candidateHash;
+    private long[] candidateCells;
+
+    //The confirmed cycle. The period is 0 until a cycle has been confirmed.
+    private int period = 0;
+    private int firstRepeat;
+    private int lastGeneration;
+
+    //The default number of generations to remember, which is also the longest period that can be found.
+    private static final int DEFAULT_HISTORY_SIZE = 1024;
+
+    /**
+     * Constructor that creates a detector remembering the default number of generations.
+     * @see #DEFAULT_HISTORY_SIZE
+     */
+    public CycleDetector() {
+        this(DEFAULT_HISTORY_SIZE);
+    }
+
+    /**
+     * Constructor that creates a detector remembering the given number of generations, which is also the longest
+     * period that can be found.
+     * @param historySize The number of generations to remember.
+     * @exception IllegalArgumentException - Thrown if the history size is less than 1.
+     */
+    public CycleDetector(int historySize) {
+        if (historySize < 1) {
+            throw new IllegalArgumentException("Invalid history size " + historySize);
+        }
+        this.history = new LinkedHashMap<Long, Integer>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                return size() > historySize;
+            }
+        };
+        reset();
+    }
+
+    /**
+     * Method that forgets every generation seen, used when the board has been changed by other means than running
+     * the game.
+     */
+    public void reset() {
+        history.clear();
+        candidateCells = null;
+        period = 0;
+        lastGeneration = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Method that is given the board after each generation. Confirms a waiting candidate once its period has passed,
+     * and otherwise saves the active cells as a candidate if the hash of the board has been seen before. Should the
+     * generations not follow each other, the detector starts over.
+     * @param board The board of the game.
+     * @param generation The number of the generation on the board.
+     * @return found - True if a cycle has been confirmed.
+     * @see #candidateCells
+     * @see Board#getHash()
+     */
+    public boolean update(Board board, int generation) {
+        if (period > 0) {
+            return true;
+        }
+        if (generation != lastGeneration + 1 && lastGeneration != Integer.MIN_VALUE) {
+            reset();
+        }
+        lastGeneration = generation;
+        long hash = board.getHash();
+
+        //Confirms the candidate if the board is exactly the same as one period ago.
+        if (candidateCells != null && generation == candidateGeneration + candidatePeriod) {
+            if (hash == candidateHash && Arrays.equals(candidateCells, activeCells(board))) {
+                period = candidatePeriod;
+                firstRepeat = candidateGeneration;
+                return true;
+            }
+            candidateCells = null;
+        }
+
+        //Moves the hash to the end of the history, saving a candidate if it has been seen before.
+        Integer seen = history.remove(hash);
+        if (seen != null && candidateCells == null) {
+            candidateGeneration = generation;
+            candidatePeriod = generation - seen;
+            candidateHash = hash;
+            candidateCells = activeCells(board);
+        }
+        history.put(hash, generation);
+        return false;
+    }
+
+    /**
+     * Method that returns the positions of the active cells on the endless plane, each packed into a long. The
+     * cells are found row by row through a row cursor, so two boards with the same active cells give equal arrays.
+     * @param board The board to be considered.
+     * @return cells - The packed positions of the active cells.
+     * @see Board#getWorldX()
+     * @see Board#getWorldY()
+     */
+    private static long[] activeCells(Board board) {
+        long[] cells = new long[16];
+        int count = 0;
+        RowCursor cursor = board.rowCursor();
+        while (cursor.next()) {
+            int y = cursor.getY();
+            for (int x = cursor.nextActive(0); x < board.getWidth(); x = cursor.nextActive(x + 1)) {
+                if (count == cells.length) {
+                    cells = Arrays.copyOf(cells, count * 2);
+                }
+                cells[count++] = (long) (x + board.getWorldX()) << 32 | ((y + board.getWorldY()) & 0xFFFFFFFFL);
+            }
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * Method that returns whether a cycle has been confirmed.
+     * @return found - True if a cycle has been confirmed.
+     */
+    public boolean isCycleFound() {
+        return period > 0;
+    }
+
+    /**
+     * Method that returns whether the confirmed cycle is a still life, including a board with no active cells.
+     * @return stillLife - True if the board no longer changes.
+     */
+    public boolean isStillLife() {
+        return period == 1;
+    }
+
+    /**
+     * Method that returns the period of the confirmed cycle.
+     * @return period - The number of generations before the board repeats, or 0 if no cycle has been confirmed.
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Method that returns the first generation that repeated an earlier one.
+     * @return firstRepeat - The number of the generation, or -1 if no cycle has been confirmed.
+     */
+    public int getFirstRepeat() {
+        return period > 0 ? firstRepeat : -1;
+    }
+
+    /**
+     * Method that returns the first generation of the confirmed cycle, which the first repeat is equal to.
+     * @return cycleStart - The number of the generation, or -1 if no cycle has been confirmed.
+     */
+    public int getCycleStart() {
+        return period > 0 ? firstRepeat - period : -1;
+    }
+}
@@ -1,7 +1,7 @@
 package model;
 
 import controller.PopUpAlerts;
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * DynamicBoard is a concrete implementation of the abstract Board class. It handles the playing board of the game,
@@ -11,48 +11,89 @@ import java.util.ArrayList;
  * can make the board by drawing, while runTimeExpansionLimit represents how far the board can expand due to the
  * evolution of a pattern. It should be noted that the board can exceed these limitations when loading in a pattern
  * from an rle-file that is wider og taller than the limit.
+ * The cells are kept in an array with spare room around the board, so growing the board in any direction is
+ * usually done by moving its origin within the array rather than by copying it. A shrinkable board also gives up
+ * inactive columns and rows on its borders during run time, down to the size it was created with.
  *
  * @author Oscar Vladau-Husevold
  * @author Henrik Finnerud Larsen
  * @version 1.0
  */
 public class DynamicBoard extends Board{
-    private ArrayList<ArrayList<Byte>> cellGrid;
+    //The cells are stored in an array of rows with spare capacity on every side, indexed [y][x], so that the cells
+    //of a row lie next to each other in memory. The cell at (0, 0) of the board is stored at (originX, originY) of
+    //the array. Cells outside of the board are always inactive.
+    private byte[][] cellGrid;
+    private int originX, originY;
     private int WIDTH, HEIGHT;
 
+    //The smallest number of columns or rows added to the capacity when the board grows past it.
+    private static final int GROWTH_CHUNK = 16;
+
     //The maximum size the user can expand, and maximum size allowed when expanding during simulation.
     private final int maxSize = 1900;
     private final int runTimeExpansionLimit = 1200;
 
+    //The number of inactive columns or rows kept on each border when shrinking, and how many generations there are
+    //between each time the board checks if it can shrink.
+    private static final int SHRINK_MARGIN = 16;
+    private static final int SHRINK_INTERVAL = 64;
+
     //Boolean value to set whether or not the board is expandable.
     private boolean expandable = true;
 
+    //The number of columns or rows added to a border during run time once a pattern reaches it. Larger chunks let
+    //a pattern growing steadily expand the board only every few generations.
+    private int expansionChunk = 1;
+
+    //Whether or not the board shrinks during run time, and the smallest size it can shrink to.
+    private boolean shrinkable = false;
+    private int minWidth, minHeight;
+    private int generationsSinceShrink = 0;
+
     //Boolean values representing if it should expand in the direction indicated.
     private boolean expandLeft = false;
     private boolean expandRight = false;
     private boolean expandUp = false;
     private boolean expandDown = false;
 
-    //Boolean values representing whether or not the grid has been expanded. Needed to expand dynamically
-    //During game time, so that the CanvasDrawer can adjust its offset.
+    //Boolean values representing whether or not the grid has been expanded by the user drawing past its borders,
+    //so that the CanvasDrawer can adjust its offset. Expansions during game time are counted in shrunkLeft and
+    //shrunkUp instead.
     private boolean hasExpandedLeft = false;
     private boolean hasExpandedUp = false;
 
+    //The number of columns and rows removed from the left and upper borders since the CanvasDrawer last checked,
+    //less those added during run time.
+    private int shrunkLeft = 0;
+    private int shrunkUp = 0;
+
+    //The position of the upper left cell of the board on the endless plane, moved as the board grows and shrinks
+    //on its left and upper borders so that the cells keep their position.
+    private int worldX = 0;
+    private int worldY = 0;
+
     /**
-     * Private Constructor that takes an 2D-ArrayList, width and height as parameters, and sets it as the
+     * Private Constructor that takes a 2D-array with its origin, width and height as parameters, and sets it as the
      * new board with parameters width and height as the width and height.
-     * @param newBoard 2D-ArrayList to be set as the new board
+     * @param newBoard 2D-array of rows to be set as the new board, indexed [y][x]
+     * @param originX The x-index of the upper left cell of the board in the array.
+     * @param originY The y-index of the upper left cell of the board in the array.
      * @param x The width of the playing board.
      * @param y The width of the playing board.
      */
-    private DynamicBoard(ArrayList<ArrayList<Byte>> newBoard, int x, int y){
+    private DynamicBoard(byte[][] newBoard, int originX, int originY, int x, int y){
         this.cellGrid = newBoard;
+        this.originX = originX;
+        this.originY = originY;
         this.WIDTH = x;
         this.HEIGHT = y;
+        this.minWidth = x;
+        this.minHeight = y;
     }
 
     /**
-     * Constructor that takes width and height as parameters, and creates a new 2D-arrayList from those dimensions.
+     * Constructor that takes width and height as parameters, and creates a new cell grid from those dimensions.
      * Sets all elements to be 0 (inactive)
      * @param width The width of the new playing board.
      * @param height The width of the new playing board.
@@ -60,24 +101,21 @@ public class DynamicBoard extends Board{
     public DynamicBoard(int width, int height) {
         WIDTH = width;
         HEIGHT = height;
-        ArrayList<ArrayList<Byte>> newBoard = new ArrayList<>();
-        for (int x = 0; x < width; x++) {
-            newBoard.add(new ArrayList<>());
-            for (int y = 0; y < height; y++) {
-                newBoard.get(x).add(y, (byte)0);
-            }
-        }
-        setBoard(newBoard);
+        minWidth = width;
+        minHeight = height;
+        setGrid(new byte[height][width]);
     }
 
     /**
-     * A method for setting the cell grid from an existing 2D-arrayList. Takes 2D-arrayList as parameter, and sets
-     * cellGrid to be this.
-     * @param newGrid The grid to be placed in the current cell grid.
+     * A method for setting the cell grid from an existing 2D-array. Takes 2D-array as parameter, and sets
+     * cellGrid to be this, with the origin in the upper left corner.
+     * @param newGrid The grid of rows to be placed in the current cell grid, indexed [y][x].
      * @see #cellGrid
      */
-    private void setBoard(ArrayList<ArrayList<Byte>> newGrid) {
+    private void setGrid(byte[][] newGrid) {
         this.cellGrid = newGrid;
+        this.originX = 0;
+        this.originY = 0;
     }
 
     /**
@@ -139,7 +177,8 @@ public class DynamicBoard extends Board{
 
         //Sets the state of the cell if it is of a valid value
         if (state == 1 || state == 0) {
-            cellGrid.get(row).set(column, state);
+            cellGrid[originY + column][originX + row] = state;
+            invalidateHash();
         }
 
         //Checks if an active cell is on the edge of the grid, and marks the grid for expansion during run time.
@@ -158,11 +197,10 @@ public class DynamicBoard extends Board{
      */
     @Override
     public byte getCellState(int x, int y) {
-        try {
-            return cellGrid.get(x).get(y);
-        } catch (IndexOutOfBoundsException indexOutOfBoundsException) {
+        if (x < 0 || y < 0 || x >= WIDTH || y >= HEIGHT) {
             return 0;
         }
+        return cellGrid[originY + y][originX + x];
     }
 
     /**
@@ -187,9 +225,119 @@ public class DynamicBoard extends Board{
         return HEIGHT;
     }
 
+    /**
+     * Method that sets the active cells of a pattern into the cell grid, fetching each row of the cell grid once
+     * instead of once per cell. Active cells placed on the borders mark the grid for expansion, like
+     * setCellState() does. Should the pattern reach outside of the cell grid, it falls back to the version in the
+     * Board class, which expands the grid. Overrides the orPattern method in the Board class.
+     * @param pattern The pattern to be placed, indexed [x][y].
+     * @param xStart The x coordinate of the upper left corner in the cell grid.
+     * @param yStart The y coordinate of the upper left corner in the cell grid.
+     * @param width The number of columns of the pattern to place.
+     * @param height The number of rows of the pattern to place.
+     * @return born - The number of cells that became active.
+     * @see #checkForExpand(int, int)
+     * @see Board#orPattern(byte[][], int, int, int, int)
+     */
+    @Override
+    protected int orPattern(byte[][] pattern, int xStart, int yStart, int width, int height) {
+        if (xStart < 0 || yStart < 0 || xStart + width > getWidth() || yStart + height > getHeight()) {
+            return super.orPattern(pattern, xStart, yStart, width, height);
+        }
+
+        int born = 0;
+        for (int y = 0; y < height; y++) {
+            byte[] gridRow = cellGrid[originY + yStart + y];
+            for (int x = 0; x < width; x++) {
+                if (pattern[x][y] == 1) {
+                    if (gridRow[originX + xStart + x] == 0) {
+                        born++;
+                    }
+                    gridRow[originX + xStart + x] = 1;
+                    checkForExpand(xStart + x, yStart + y);
+                }
+            }
+        }
+        return born;
+    }
+
+    /**
+     * Method that copies a row of the cell grid into an array. Overrides the readRow method in the Board class.
+     * @param y The y coordinate of the row.
+     * @param row The array to read the row into.
+     * @see Board#readRow(int, byte[])
+     */
+    @Override
+    protected void readRow(int y, byte[] row) {
+        System.arraycopy(cellGrid[originY + y], originX, row, 0, WIDTH);
+    }
+
+    /**
+     * Method that packs the cells of the cell grid into rows of bits, fetching each row of the cell grid once.
+     * Overrides the packRows method in the Board class.
+     * @param rows The rows to pack the cells into.
+     * @param words The number of longs in each row, at least (width + 63) / 64.
+     * @param firstRow The row the upper row of the cell grid is packed into.
+     * @see Board#packRows(long[], int, int)
+     */
+    @Override
+    protected void packRows(long[] rows, int words, int firstRow) {
+        for (int y = 0; y < getHeight(); y++) {
+            byte[] gridRow = cellGrid[originY + y];
+            int index = (firstRow + y) * words;
+            for (int x = 0; x < getWidth(); x++) {
+                if (gridRow[originX + x] == 1) {
+                    rows[index + (x >>> 6)] |= 1L << x;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that sets every cell of the cell grid from rows of bits, fetching each row of the cell grid once.
+     * Active cells on the borders mark the grid for expansion, like setCellState() does. Overrides the unpackRows
+     * method in the Board class.
+     * @param rows The rows to set the cells from.
+     * @param words The number of longs in each row.
+     * @param firstRow The row holding the upper row of the cell grid.
+     * @see #checkForExpand(int, int)
+     * @see Board#unpackRows(long[], int, int)
+     */
+    @Override
+    protected void unpackRows(long[] rows, int words, int firstRow) {
+        for (int y = 0; y < getHeight(); y++) {
+            byte[] gridRow = cellGrid[originY + y];
+            int index = (firstRow + y) * words;
+            for (int x = 0; x < getWidth(); x++) {
+                gridRow[originX + x] = (byte)(rows[index + (x >>> 6)] >>> x & 1);
+            }
+        }
+
+        //Only the cells on the borders can mark the grid for expansion.
+        for (int x = 0; x < getWidth(); x++) {
+            if (getCellState(x, 0) == 1) {
+                checkForExpand(x, 0);
+            }
+            if (getCellState(x, getHeight() - 1) == 1) {
+                checkForExpand(x, getHeight() - 1);
+            }
+        }
+        for (int y = 0; y < getHeight(); y++) {
+            if (getCellState(0, y) == 1) {
+                checkForExpand(0, y);
+            }
+            if (getCellState(getWidth() - 1, y) == 1) {
+                checkForExpand(getWidth() - 1, y);
+            }
+        }
+        invalidateHash();
+    }
+
     /**
      * Concrete implementation of clone in the Board class. Does a deep copy of the current DynamicBoard and
-     * returns it. Overrides the clone method in the Object class.
+     * returns it, along with its position on the plane, the borders it has been marked to expand on and how it
+     * shrinks.
+     * Overrides the clone method in the Object class.
      * @return dynamicBoardClone - The deep copy of the board.
      * @see Board#getCellsAlive()
      * @see Board#clone()
@@ -197,25 +345,38 @@ public class DynamicBoard extends Board{
      */
     @Override
     public Object clone(){
-        ArrayList<ArrayList<Byte>> cloneGrid = new ArrayList<>();
-        for (int x = 0; x < getWidth(); x++) {
-            cloneGrid.add(new ArrayList<>());
-            for (int y = 0; y < getHeight(); y++) {
-                cloneGrid.get(x).add(y, getCellState(x,y));
-            }
+        byte[][] cloneGrid = new byte[getHeight()][];
+        for (int y = 0; y < getHeight(); y++) {
+            cloneGrid[y] = Arrays.copyOfRange(cellGrid[originY + y], originX, originX + getWidth());
         }
-        DynamicBoard dynamicBoardClone = new DynamicBoard(cloneGrid, getWidth(), getHeight());
+        DynamicBoard dynamicBoardClone = new DynamicBoard(cloneGrid, 0, 0, getWidth(), getHeight());
         dynamicBoardClone.setCellsAlive(countCellsAlive());
+        dynamicBoardClone.worldX = worldX;
+        dynamicBoardClone.worldY = worldY;
+
+        //Active cells on the borders have marked the board for expansion, and the board may shrink at its own pace,
+        //which the clone needs to make the same generations.
+        dynamicBoardClone.expandable = expandable;
+        dynamicBoardClone.expansionChunk = expansionChunk;
+        dynamicBoardClone.shrinkable = shrinkable;
+        dynamicBoardClone.minWidth = minWidth;
+        dynamicBoardClone.minHeight = minHeight;
+        dynamicBoardClone.generationsSinceShrink = generationsSinceShrink;
+        dynamicBoardClone.expandLeft = expandLeft;
+        dynamicBoardClone.expandRight = expandRight;
+        dynamicBoardClone.expandUp = expandUp;
+        dynamicBoardClone.expandDown = expandDown;
         return dynamicBoardClone;
     }
 
     /**
-     * Method to resize the grid size quadratically. Takes a size parameter, and creates a new 2D-arrayList of
-     * that dimension filled with inactive cells and sets it as the new cellGrid.
+     * Method to resize the grid size quadratically. Takes a size parameter, and creates a new 2D-array of
+     * that dimension filled with inactive cells and sets it as the new cellGrid. The new size is also the smallest
+     * size the board can shrink to.
      * @param size The size the quadratic grid should be.
      * @see #WIDTH
      * @see #HEIGHT
-     * @see #setBoard(ArrayList)
+     * @see #setGrid(byte[][])
      */
     public void setGridSize(int size) {
         //Check that the size is larger than 0 and returns if it is.
@@ -225,14 +386,23 @@ public class DynamicBoard extends Board{
 
         WIDTH = size;
         HEIGHT = size;
-        ArrayList<ArrayList<Byte>> newBoard = new ArrayList<>();
-        for (int x = 0; x < size; x++) {
-            newBoard.add(new ArrayList<>());
-            for (int y = 0; y < size; y++) {
-                newBoard.get(x).add(y, (byte)0);
-            }
-        }
-        setBoard(newBoard);
+        minWidth = size;
+        minHeight = size;
+        generationsSinceShrink = 0;
+        worldX = 0;
+        worldY = 0;
+
+        //Forgets the expansions and shrinks the CanvasDrawer has not yet adjusted for, as it resets its offset.
+        shrunkLeft = 0;
+        shrunkUp = 0;
+        hasExpandedLeft = false;
+        hasExpandedUp = false;
+        expandLeft = false;
+        expandRight = false;
+        expandUp = false;
+        expandDown = false;
+        setGrid(new byte[size][size]);
+        invalidateHash();
     }
 
     /**
@@ -272,10 +442,14 @@ public class DynamicBoard extends Board{
 
     /**
      * Method to expand the board during run time. Checks whether or not the board is within the limits of
-     * expansions, and if it is expandable. Checks each boolean for expansion, and expands if true.
-     * If it has expanded upward or left, it will set the corresponding "hasExpanded" boolean to true, so
-     * that the CanvasDrawer can check to adjust its offset.
+     * expansions, and if it is expandable. Checks each boolean for expansion, and expands by expansionChunk
+     * columns or rows if true, or as far as the limit allows.
+     * If it has expanded upward or left, the column or row is counted as a negative shrink, so that the
+     * CanvasDrawer adjusts its offset by every expansion made since it last drew, even when several generations
+     * are made between two drawings.
      * @see #runTimeExpansionLimit
+     * @see #expansionChunk
+     * @see #shrinkToFit(int)
      * @see #expandLeft
      * @see #expandRight
      * @see #expandUp
@@ -284,45 +458,110 @@ public class DynamicBoard extends Board{
      * @see #getHeight()
      */
     public void expandBoardDuringRunTime() {
+        //Removes inactive borders every SHRINK_INTERVAL generations, if the board is allowed to shrink.
+        if (shrinkable && expandable && ++generationsSinceShrink >= SHRINK_INTERVAL) {
+            shrinkToFit(SHRINK_MARGIN);
+            generationsSinceShrink = 0;
+        }
+
         //Checks if the board is non-expandable or bigger than the runtime-expansion limit and returns if yes.
         if ((getHeight() >= runTimeExpansionLimit && getWidth() >= runTimeExpansionLimit) || !expandable) {
             return;
         }
 
-        //Checks that width is within run-time expansion limit, and expands if the corresponding boolean is true.
+        //Checks that width is within run-time expansion limit, and expands by a chunk, or up to the limit, if the
+        //corresponding boolean is true.
         if (getWidth() < runTimeExpansionLimit) {
+            int expansion = Math.min(expansionChunk, runTimeExpansionLimit - getWidth());
             if (expandLeft) {
-                expandWidthLeft(1);
-                hasExpandedLeft = true;
+                expandWidthLeft(expansion);
+                shrunkLeft -= expansion;
                 expandLeft = false;
             }
             if (expandRight) {
-                expandWidthRight(1);
+                expandWidthRight(expansion);
                 expandRight = false;
             }
         }
 
-        //Checks that height is within run-time expansion limit, and expands if the corresponding boolean is true.
+        //Checks that height is within run-time expansion limit, and expands by a chunk, or up to the limit, if the
+        //corresponding boolean is true.
         if (getHeight() < runTimeExpansionLimit) {
+            int expansion = Math.min(expansionChunk, runTimeExpansionLimit - getHeight());
             if (expandUp) {
-                expandHeightUp(1);
+                expandHeightUp(expansion);
+                shrunkUp -= expansion;
                 expandUp = false;
-                hasExpandedUp = true;
             }
             if (expandDown) {
-                expandHeightDown(1);
+                expandHeightDown(expansion);
                 expandDown = false;
             }
         }
     }
 
+    /**
+     * Method to expand the board before several generations are made at once, rather than one border at a time
+     * before each generation. The board is expanded on each side until there are at least as many inactive columns
+     * or rows between the active cells and the border as there are generations. As the cells can not spread more
+     * than one cell each generation, the generations can then be made with the borders of the board as walls and
+     * give the same cells as on the endless plane. The columns and rows added to the left and upper borders are
+     * counted as negative shrinks, so that the CanvasDrawer moves its offset by all of them.
+     * Should the board not be allowed to grow that much within the run-time expansion limit, it is left as it is and
+     * false is returned, so that the generations can be made one at a time. A board that is not expandable keeps
+     * its borders as walls, as it does for each generation.
+     * @param generations The number of generations to make room for.
+     * @return expanded - True if the generations can be made without expanding the board again.
+     * @see #expandBoardDuringRunTime()
+     * @see #runTimeExpansionLimit
+     * @see #shrinkToFit(int)
+     * @see Board#getBoundingBox()
+     */
+    public boolean expandForGenerations(int generations) {
+        if (!expandable) {
+            return true;
+        }
+
+        //Removes inactive borders once every SHRINK_INTERVAL generations, if the board is allowed to shrink.
+        generationsSinceShrink += shrinkable ? generations : 0;
+        if (generationsSinceShrink >= SHRINK_INTERVAL) {
+            shrinkToFit(Math.max(SHRINK_MARGIN, generations));
+            generationsSinceShrink = 0;
+        }
+
+        int[] boundingBox = getBoundingBox();
+        if (boundingBox[0] == getWidth()) {
+            return true;
+        }
+        int left = Math.max(0, generations - boundingBox[0]);
+        int right = Math.max(0, generations - (getWidth() - 1 - boundingBox[1]));
+        int up = Math.max(0, generations - boundingBox[2]);
+        int down = Math.max(0, generations - (getHeight() - 1 - boundingBox[3]));
+        if ((left + right > 0 && getWidth() + left + right > runTimeExpansionLimit)
+                || (up + down > 0 && getHeight() + up + down > runTimeExpansionLimit)) {
+            return false;
+        }
+
+        expandWidthLeft(left);
+        expandWidthRight(right);
+        expandHeightUp(up);
+        expandHeightDown(down);
+        shrunkLeft -= left;
+        shrunkUp -= up;
+        expandLeft = false;
+        expandRight = false;
+        expandUp = false;
+        expandDown = false;
+        return true;
+    }
+
     /**
      * Method to expand the board in the right border. Checks that the expansion parameter is of a valid value,
-     * and adds a list for each row and fills the list with empty elements. Then calls increaseWidth to
-     * add the expansion to WIDTH.
+     * and makes sure the cell grid has room for the new columns, which are already inactive. Then calls
+     * increaseWidth to add the expansion to WIDTH.
      * @param expansion The number of rows to be added.
      * @see #getWidth()
-     * @see #getHeight()
+     * @see #ensureCapacity(int, int, int, int)
      * @see #increaseWidth(int)
      */
     public void expandWidthRight(int expansion) {
@@ -330,22 +569,17 @@ public class DynamicBoard extends Board{
             return;
         }
 
-        for (int x = getWidth(); x < getWidth()+expansion; x++) {
-            cellGrid.add(new ArrayList<>());
-            for (int y = 0; y < getHeight(); y++) {
-                cellGrid.get(x).add(y, (byte)0);
-            }
-        }
+        ensureCapacity(0, expansion, 0, 0);
         increaseWidth(expansion);
     }
 
     /**
      * Method to expand the board in the left border. Checks that the expansion parameter is of a valid value,
-     * and adds a list for each row on index 0 and fills the list with empty elements. Then calls increaseWidth to
-     * add the expansion to WIDTH.
+     * and makes sure the cell grid has room for the new columns before moving the origin left. Then calls
+     * increaseWidth to add the expansion to WIDTH.
      * @param expansion The number of rows to be added.
      * @see #getWidth()
-     * @see #getHeight()
+     * @see #ensureCapacity(int, int, int, int)
      * @see #increaseWidth(int)
      */
     public void expandWidthLeft(int expansion) {
@@ -353,22 +587,19 @@ public class DynamicBoard extends Board{
             return;
         }
 
-        for (int x = 0; x < expansion; x++) {
-            cellGrid.add(0, new ArrayList<>());
-            for (int y = 0; y < getHeight(); y++) {
-                cellGrid.get(0).add(y, (byte)0);
-            }
-        }
+        ensureCapacity(expansion, 0, 0, 0);
+        originX -= expansion;
+        worldX -= expansion;
         increaseWidth(expansion);
     }
 
     /**
      * Method to expand the board in the lower border. Checks that the expansion parameter is of a valid value,
-     * and adds the right number of elements to each row. Then calls increaseHeight to
-     * add the expansion to HEIGHT.
+     * and makes sure the cell grid has room for the new rows, which are already inactive. Then calls
+     * increaseHeight to add the expansion to HEIGHT.
      * @param expansion The number of rows to be added.
-     * @see #getWidth()
      * @see #getHeight()
+     * @see #ensureCapacity(int, int, int, int)
      * @see #increaseHeight(int)
      */
     public void expandHeightDown(int expansion) {
@@ -376,21 +607,17 @@ public class DynamicBoard extends Board{
             return;
         }
 
-        for (int x = 0; x < getWidth(); x++) {
-            for (int y = getHeight(); y < getHeight()+expansion; y++) {
-                cellGrid.get(x).add(y, (byte)0);
-            }
-        }
+        ensureCapacity(0, 0, 0, expansion);
         increaseHeight(expansion);
     }
 
     /**
      * Method to expand the board in the upper border. Checks that the expansion parameter is of a valid value,
-     * and adds the right number of elements to each row from index 0. Then calls increaseHeight to
-     * add the expansion to HEIGHT.
+     * and makes sure the cell grid has room for the new rows before moving the origin up. Then calls
+     * increaseHeight to add the expansion to HEIGHT.
      * @param expansion The number of rows to be added.
-     * @see #getWidth()
      * @see #getHeight()
+     * @see #ensureCapacity(int, int, int, int)
      * @see #increaseHeight(int)
      */
     public void expandHeightUp(int expansion) {
@@ -398,12 +625,105 @@ public class DynamicBoard extends Board{
             return;
         }
 
-        for (int x = 0; x < getWidth(); x++) {
-            for (int y = 0; y < expansion; y++) {
-                cellGrid.get(x).add(0, (byte)0);
+        ensureCapacity(0, 0, expansion, 0);
+        originY -= expansion;
+        worldY -= expansion;
+        increaseHeight(expansion);
+    }
+
+    /**
+     * Method that makes sure the cell grid has room for the given number of columns and rows outside each border of
+     * the board. Should there not be enough spare capacity on a side, the cell grid is copied into a larger array,
+     * adding at least half the current size on that side, so that the board can grow one cell at a time with only
+     * an occasional copy.
+     * @param left The number of columns needed to the left of the board.
+     * @param right The number of columns needed to the right of the board.
+     * @param up The number of rows needed above the board.
+     * @param down The number of rows needed below the board.
+     * @see #GROWTH_CHUNK
+     */
+    private void ensureCapacity(int left, int right, int up, int down) {
+        int capacityHeight = cellGrid.length;
+        int capacityWidth = capacityHeight == 0 ? WIDTH : cellGrid[0].length;
+        int spareRight = capacityWidth - originX - WIDTH;
+        int spareDown = capacityHeight - originY - HEIGHT;
+        if (originX >= left && spareRight >= right && originY >= up && spareDown >= down) {
+            return;
+        }
+
+        //Adds room on the sides that are short of it, leaving the other sides as they are.
+        int growX = Math.max(GROWTH_CHUNK, WIDTH / 2);
+        int growY = Math.max(GROWTH_CHUNK, HEIGHT / 2);
+        int newOriginX = originX >= left ? originX : left + growX;
+        int newOriginY = originY >= up ? originY : up + growY;
+        int newSpareRight = spareRight >= right ? spareRight : right + growX;
+        int newSpareDown = spareDown >= down ? spareDown : down + growY;
+
+        byte[][] newGrid = new byte[newOriginY + HEIGHT + newSpareDown][newOriginX + WIDTH + newSpareRight];
+        for (int y = 0; y < HEIGHT; y++) {
+            System.arraycopy(cellGrid[originY + y], originX, newGrid[newOriginY + y], newOriginX, WIDTH);
+        }
+        cellGrid = newGrid;
+        originX = newOriginX;
+        originY = newOriginY;
+    }
+
+    /**
+     * Method that shrinks the board by removing inactive columns and rows on its borders, keeping the given number
+     * of inactive columns and rows around the active cells. The board never shrinks below the size it had when it
+     * was created or last resized, and an empty board is left as it is. Should the cell grid have far more room
+     * than the board needs after shrinking, it is copied into a smaller array.
+     * @param margin The number of inactive columns and rows to keep on each border, at least 1.
+     * @see #minWidth
+     * @see #minHeight
+     * @see #shrunkLeft
+     * @see #shrunkUp
+     */
+    public void shrinkToFit(int margin) {
+        margin = Math.max(1, margin);
+
+        //Finds the bounding box of the active cells.
+        int minX = WIDTH, maxX = -1, minY = HEIGHT, maxY = -1;
+        for (int y = 0; y < HEIGHT; y++) {
+            byte[] row = cellGrid[originY + y];
+            for (int x = 0; x < WIDTH; x++) {
+                if (row[originX + x] == 1) {
+                    minX = Math.min(minX, x);
+                    maxX = Math.max(maxX, x);
+                    minY = Math.min(minY, y);
+                    maxY = y;
+                }
             }
         }
-        increaseHeight(expansion);
+        if (maxX < 0) {
+            return;
+        }
+
+        //Removes what lies beyond the margin on each border, as long as the board stays above its minimum size.
+        int left = Math.min(Math.max(0, minX - margin), Math.max(0, WIDTH - minWidth));
+        int right = Math.min(Math.max(0, WIDTH - 1 - maxX - margin), Math.max(0, WIDTH - minWidth - left));
+        int up = Math.min(Math.max(0, minY - margin), Math.max(0, HEIGHT - minHeight));
+        int down = Math.min(Math.max(0, HEIGHT - 1 - maxY - margin), Math.max(0, HEIGHT - minHeight - up));
+        originX += left;
+        originY += up;
+        WIDTH -= left + right;
+        HEIGHT -= up + down;
+        shrunkLeft += left;
+        shrunkUp += up;
+        worldX += left;
+        worldY += up;
+
+        //Gives back memory when less than a quarter of the cell grid is in use.
+        long capacity = (long) cellGrid.length * cellGrid[0].length;
+        if (capacity > 4L * (WIDTH + 2 * GROWTH_CHUNK) * (HEIGHT + 2 * GROWTH_CHUNK)) {
+            byte[][] newGrid = new byte[HEIGHT + 2 * GROWTH_CHUNK][WIDTH + 2 * GROWTH_CHUNK];
+            for (int y = 0; y < HEIGHT; y++) {
+                System.arraycopy(cellGrid[originY + y], originX, newGrid[GROWTH_CHUNK + y], GROWTH_CHUNK, WIDTH);
+            }
+            cellGrid = newGrid;
+            originX = GROWTH_CHUNK;
+            originY = GROWTH_CHUNK;
+        }
     }
 
     /**
@@ -462,6 +782,32 @@ public class DynamicBoard extends Board{
         hasExpandedLeft = true;
     }
 
+    /**
+     * Method that sets whether or not the board shrinks during run time. The current size of the board becomes the
+     * smallest size it can shrink to.
+     * @param shrinkable True if the board should shrink.
+     * @see #shrinkToFit(int)
+     */
+    public void setShrinkable(boolean shrinkable) {
+        this.shrinkable = shrinkable;
+        minWidth = WIDTH;
+        minHeight = HEIGHT;
+        generationsSinceShrink = 0;
+    }
+
+    /**
+     * Method that sets the number of columns or rows added to a border during run time once a pattern reaches it.
+     * @param expansionChunk The number of columns or rows, 1 to grow one cell at a time.
+     * @exception IllegalArgumentException - Thrown if the number is less than 1.
+     * @see #expandBoardDuringRunTime()
+     */
+    public void setExpansionChunk(int expansionChunk) {
+        if (expansionChunk < 1) {
+            throw new IllegalArgumentException("Invalid expansion chunk " + expansionChunk);
+        }
+        this.expansionChunk = expansionChunk;
+    }
+
     /**
      * Method that sets boolean expandable, which determines whether or not the grid can be expanded, to false.
      * @see #expandable
@@ -493,4 +839,52 @@ public class DynamicBoard extends Board{
         hasExpandedUp = false;
         return returnValue;
     }
-}
\ No newline at end of file
+
+    /**
+     * Method that returns the x-coordinate of the leftmost column of the board on the endless plane, which moves
+     * as the board grows and shrinks on its left border. Overrides the getWorldX method in the Board class.
+     * @return worldX - The x-coordinate of the leftmost column.
+     * @see #worldX
+     * @see Board#getWorldX()
+     */
+    @Override
+    public int getWorldX() {
+        return worldX;
+    }
+
+    /**
+     * Method that returns the y-coordinate of the upper row of the board on the endless plane, which moves as the
+     * board grows and shrinks on its upper border. Overrides the getWorldY method in the Board class.
+     * @return worldY - The y-coordinate of the upper row.
+     * @see #worldY
+     * @see Board#getWorldY()
+     */
+    @Override
+    public int getWorldY() {
+        return worldY;
+    }
+
+    /**
+     * Method that returns the number of columns removed from the left border since the last call, and then sets it
+     * to 0. Needed for CanvasDrawer to be able to adjust offset if the grid has shrunk.
+     * @return returnValue - The number of columns removed.
+     * @see #shrunkLeft
+     */
+    public int getShrunkLeft() {
+        int returnValue = shrunkLeft;
+        shrunkLeft = 0;
+        return returnValue;
+    }
+
+    /**
+     * Method that returns the number of rows removed from the upper border since the last call, and then sets it
+     * to 0. Needed for CanvasDrawer to be able to adjust offset if the grid has shrunk.
+     * @return returnValue - The number of rows removed.
+     * @see #shrunkUp
+     */
+    public int getShrunkUp() {
+        int returnValue = shrunkUp;
+        shrunkUp = 0;
+        return returnValue;
+    }
+}
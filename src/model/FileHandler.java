@@ -9,13 +9,18 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Enumeration;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.*;
 
 /**
  * The FileHandler class handles the reading and writing of RLE-files from and to disk. It also contains
- * the metadata of a loaded file.
+ * the metadata of a loaded file. Macrocell files, gzip-compressed files and zip archives can be read as well,
+ * and are decoded while they are streamed from disk.
  *
  * @author Oscar Vladau-Husevold
  * @author Henrik Finnerud Larsen
@@ -29,11 +34,28 @@ public class FileHandler {
     public String metaTitle = "";
     public String metaData = "";
 
+    //The analysis of the current pattern, kept apart from the metadata read from the file.
+    public String metaAnalysis = "";
+
+    //The header line of an RLE-file, with the width, height and optional rules as groups.
+    static final Pattern RLE_HEADER =
+            Pattern.compile("x(?: )=(?: )(\\d+),(?: )y(?: )=(?: )(\\d+)(?:,(?: )rule(?: )=(?: )(\\S\\d*[/]\\S\\d*))?");
+
+    //The first two bytes of gzip-compressed files and zip archives.
+    private static final int GZIP_MAGIC = 0x1f8b;
+    private static final int ZIP_MAGIC = 0x504b;
+
+    //Size of the buffers used when streaming files.
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
     /**
      * Method to read a file from a disk. Calls the readGameBoard method, and catches several exceptions,
-     * giving a popup alert for many errors, explaining to the user what is wrong.
+     * giving a popup alert for many errors, explaining to the user what is wrong. The file is opened through
+     * openPatternStream(), so gzip-compressed files (.rle.gz, .mc.gz) and zip archives are decompressed
+     * transparently while they are being decoded.
      * @param file The file to be read from disk.
      * @see #readGameBoard(Reader)
+     * @see #openPatternStream(InputStream)
      * @see PopUpAlerts#patternFormatAlert()
      * @see PopUpAlerts#outOfBounds()
      * @see PopUpAlerts#ruleAlert2()
@@ -41,7 +63,36 @@ public class FileHandler {
      */
     public void readGameBoardFromDisk(File file) throws IOException{
         try {
-            readGameBoard(new FileReader(file));
+            readGameBoard(new InputStreamReader(openPatternStream(new FileInputStream(file))));
+        } catch (PatternFormatException pfe) {
+            PopUpAlerts.patternFormatAlert();
+        } catch (ArrayIndexOutOfBoundsException aiobe) {
+            PopUpAlerts.outOfBounds();
+        } catch (RulesFormatException rfe) {
+            PopUpAlerts.ruleAlert2();
+        }
+    }
+
+    /**
+     * Method to read a single member of a zip archive from disk. Only the requested member is inflated, and it
+     * is streamed straight into readGameBoard without being extracted first. Catches the same exceptions as
+     * readGameBoardFromDisk(), giving a popup alert explaining to the user what is wrong.
+     * @param zip The zip archive to read from.
+     * @param member The name of the member inside the archive, as returned by listZipPatterns().
+     * @see #readGameBoard(Reader)
+     * @see #listZipPatterns(File)
+     * @see PopUpAlerts#patternFormatAlert()
+     * @see PopUpAlerts#outOfBounds()
+     * @see PopUpAlerts#ruleAlert2()
+     * @exception IOException - Thrown if the archive cannot be read, or the member does not exist.
+     */
+    public void readGameBoardFromZip(File zip, String member) throws IOException {
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            ZipEntry entry = zipFile.getEntry(member);
+            if (entry == null) {
+                throw new FileNotFoundException(member);
+            }
+            readGameBoard(new InputStreamReader(openPatternStream(zipFile.getInputStream(entry))));
         } catch (PatternFormatException pfe) {
             PopUpAlerts.patternFormatAlert();
         } catch (ArrayIndexOutOfBoundsException aiobe) {
@@ -51,11 +102,35 @@ public class FileHandler {
         }
     }
 
+    /**
+     * Method that lists the names of all pattern files (.rle, .mc and their gzip-compressed versions) contained
+     * in a zip archive. Only the central directory of the archive is read.
+     * @param zip The zip archive to list.
+     * @return patterns - The names of the pattern members, in the order they appear in the archive.
+     * @see #isPatternFileName(String)
+     * @exception IOException - Thrown if the archive cannot be read.
+     */
+    public static List<String> listZipPatterns(File zip) throws IOException {
+        List<String> patterns = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && isPatternFileName(entry.getName())) {
+                    patterns.add(entry.getName());
+                }
+            }
+        }
+        return patterns;
+    }
+
     /**
      * Method to read a file from an URL. Calls the readGameBoard method, and catches several exceptions,
-     * giving a popup alert for many errors, explaining to the user what is wrong.
+     * giving a popup alert for many errors, explaining to the user what is wrong. Compressed files are
+     * decompressed transparently.
      * @param url The url to the file to be read from disk.
      * @see #readGameBoard(Reader)
+     * @see #openPatternStream(InputStream)
      * @see PopUpAlerts#patternFormatAlert()
      * @see PopUpAlerts#outOfBounds()
      * @see PopUpAlerts#ruleAlert2()
@@ -65,7 +140,7 @@ public class FileHandler {
         URL destination = new URL(url);
         URLConnection conn = destination.openConnection();
         try {
-            readGameBoard(new InputStreamReader(conn.getInputStream()));
+            readGameBoard(new InputStreamReader(openPatternStream(conn.getInputStream())));
         } catch (PatternFormatException pfe) {
             PopUpAlerts.patternFormatAlert();
         } catch (ArrayIndexOutOfBoundsException aiobe) {
@@ -76,17 +151,65 @@ public class FileHandler {
     }
 
     /**
-     * Method that reads a pattern from a file. Goes through the file line for line and updates the metaData
-     * and metaTitle as well as sending a pattern to the Board. Heavy use of regular expressions to ensure
-     * that the file is formatted correctly, and that all necessary information is covered.
+     * Method that wraps an input stream so that compressed pattern files can be read as if they were plain text.
+     * Peeks at the first bytes of the stream: a gzip header results in a GZIPInputStream, and a zip header results
+     * in a ZipInputStream positioned at the first pattern member of the archive. Anything else is returned
+     * buffered but otherwise untouched. Decompression happens while the decoder reads, so the file is never
+     * inflated into memory or a temporary file first.
+     * @param in The raw input stream.
+     * @return stream - A stream delivering the uncompressed pattern file.
+     * @see #GZIP_MAGIC
+     * @see #ZIP_MAGIC
+     * @exception IOException - Thrown if the stream cannot be read, or a zip archive contains no patterns.
+     */
+    public static InputStream openPatternStream(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, STREAM_BUFFER_SIZE);
+
+        //Reads the first two bytes and resets, so that the stream is untouched for the decoder.
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        int magic = (first << 8) | second;
+
+        if (magic == GZIP_MAGIC) {
+            return new BufferedInputStream(new GZIPInputStream(buffered, STREAM_BUFFER_SIZE), STREAM_BUFFER_SIZE);
+        }
+        if (magic == ZIP_MAGIC) {
+            ZipInputStream zipStream = new ZipInputStream(buffered);
+
+            //Skips forward to the first member that is a pattern file.
+            ZipEntry entry;
+            while ((entry = zipStream.getNextEntry()) != null) {
+                if (!entry.isDirectory() && isPatternFileName(entry.getName())) {
+                    return openPatternStream(zipStream);
+                }
+            }
+            throw new FileNotFoundException("The archive does not contain any pattern files");
+        }
+        return buffered;
+    }
+
+    /**
+     * Method that checks whether a file name has one of the pattern file extensions this class can read,
+     * optionally followed by .gz.
+     * @param name The file name to check.
+     * @return boolean - True if the name ends with .rle, .mc, .rle.gz or .mc.gz.
+     */
+    public static boolean isPatternFileName(String name) {
+        String lower = name.toLowerCase();
+        if (lower.endsWith(".gz")) {
+            lower = lower.substring(0, lower.length() - 3);
+        }
+        return lower.endsWith(".rle") || lower.endsWith(".mc");
+    }
+
+    /**
+     * Method that reads a pattern from a file and sends it to the Board. Decodes the file with readPattern(), and
+     * hands the result to applyPattern(), which updates the metaData, metaTitle and rules.
      * @param reader the reader that will iterate through the file.
-     * @see #reviseRLEString(String)
-     * @see #boardFromFile(String, int, int)
-     * @see #formatMetadata(StringBuilder)
-     * @see GameOfLife#setRuleString(String)
-     * @see Board#getWidth()
-     * @see Board#getHeight()
-     * @see Board#setBoardFromRLE(byte[][])
+     * @see #readPattern(Reader)
+     * @see #applyPattern(PackedPattern)
      * @exception IOException - Thrown if the file cannot be found, or the url is invalid.
      * @exception PatternFormatException - Thrown if the formatting of the file is incorrect
      * @exception ArrayIndexOutOfBoundsException - Thrown if the board is static, and the pattern exceeds its borders.
@@ -94,52 +217,102 @@ public class FileHandler {
      */
     public void readGameBoard(Reader reader) throws IOException, PatternFormatException,
             ArrayIndexOutOfBoundsException, RulesFormatException{
-        BufferedReader br = new BufferedReader(reader);
+        applyPattern(readPattern(reader));
+    }
 
-        StringBuilder stringBuilder = new StringBuilder();
-        StringBuilder metaDataRaw = new StringBuilder();
+    /**
+     * Method that sets a decoded pattern as the current pattern. Sets metaData and metaTitle, tries to set the
+     * rules of the pattern, and sends the pattern to the Board.
+     * @param pattern The decoded pattern.
+     * @see #placeLoadedPattern(byte[][])
+     * @see GameOfLife#setRuleString(String)
+     * @exception ArrayIndexOutOfBoundsException - Thrown if the board is static, and the pattern exceeds its borders.
+     * @exception RulesFormatException - Thrown if the read rules are incorrectly formatted
+     */
+    public void applyPattern(PackedPattern pattern) throws ArrayIndexOutOfBoundsException, RulesFormatException {
+        this.metaTitle = pattern.getMetaTitle();
+        this.metaData = pattern.getMetaData();
+        this.metaAnalysis = "";
 
-        //Reads entire file, and adds it to stringBuilder and metaDataRaw
-        String line;
-        while((line = br.readLine()) != null) {
-            stringBuilder.append(line).append("\n");
-            if (line.startsWith("#") || line.startsWith("x")) {
-                metaDataRaw.append(line).append("\n");
-            }
-        }
-        br.close();
+        //Tries to set the read rules
+        gameOfLife.setRuleString(pattern.getRules());
 
-        //Trims the entire string to size, removing unnecessary whitespace.
-        stringBuilder.trimToSize();
+        placeLoadedPattern(pattern.toArray());
+    }
 
-        //Calls formatMetadata to format the read metadata and set it as current metadata.
-        formatMetadata(metaDataRaw);
+    /**
+     * Method that decodes a pattern from a file, without changing the Board, rules or metadata. Reads the file line
+     * for line until the header line, formatting the metadata, and then streams the encoded pattern straight into
+     * a 2D-array the size of the header. Regular expressions are used on the header to ensure that the file
+     * is formatted correctly, and that all necessary information is covered. Should the first line of the file
+     * be a Macrocell header ([M2]), the file is handed to readMacrocell() instead. As the method has no side
+     * effects, it may be called from any thread.
+     * @param reader the reader that will iterate through the file.
+     * @return pattern - The decoded pattern along with its metadata and rules.
+     * @see #decodeRLE(Reader, int, int)
+     * @see #readMacrocell(BufferedReader)
+     * @see #formatMetadata(StringBuilder)
+     * @exception IOException - Thrown if the file cannot be found, or the url is invalid.
+     * @exception PatternFormatException - Thrown if the formatting of the file is incorrect
+     */
+    public static PackedPattern readPattern(Reader reader) throws IOException, PatternFormatException {
+        try (BufferedReader br = new BufferedReader(reader, STREAM_BUFFER_SIZE)) {
+
+            //Peeks at the first characters to decide which format the file is in.
+            char[] signature = new char[4];
+            br.mark(signature.length);
+            int signatureLength = br.read(signature, 0, signature.length);
+            br.reset();
+            if (signatureLength == signature.length && new String(signature).equals("[M2]")) {
+                br.readLine();
+                return readMacrocell(br);
+            }
 
-        //Creates a Pattern based on a regular expression to get all necessary information from the string
-        String regex = ("x(?: )=(?: )(\\d+),(?: )y(?: )=(?: )(\\d+)(?:,(?: )rule(?: )=(?: )(\\S\\d*[/]\\S\\d*))?\n(.*)");
-        Pattern rlePattern = Pattern.compile(regex,Pattern.MULTILINE | Pattern.DOTALL);
+            //Reads the metadata lines up to and including the header line.
+            StringBuilder metaDataRaw = new StringBuilder();
+            Matcher headerMatcher = null;
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    metaDataRaw.append(line).append("\n");
+                } else if (line.startsWith("x")) {
+                    metaDataRaw.append(line).append("\n");
+                    headerMatcher = RLE_HEADER.matcher(line);
+                    break;
+                }
+            }
 
-        //Matches the pattern to the string. Throws PatternFormatException if the Matcher can't find what it wants.
-        Matcher rleMatcher = rlePattern.matcher(stringBuilder);
-        if(!rleMatcher.find()){
-            throw new PatternFormatException();
-        }
+            //Calls formatMetadata to format the read metadata.
+            String[] metadata = formatMetadata(metaDataRaw);
 
-        //Creates variables based on the groups found from the matcher.
-        int x = Integer.parseInt(rleMatcher.group(1));
-        int y = Integer.parseInt(rleMatcher.group(2));
-        String loadedRules = rleMatcher.group(3);
-        String str = rleMatcher.group(4);
+            //Throws PatternFormatException if the header is missing or does not match what is expected.
+            if (headerMatcher == null || !headerMatcher.matches()) {
+                throw new PatternFormatException();
+            }
 
-        //Tries to set the read rules
-        gameOfLife.setRuleString(loadedRules);
+            //Creates variables based on the groups found from the matcher.
+            int x = Integer.parseInt(headerMatcher.group(1));
+            int y = Integer.parseInt(headerMatcher.group(2));
+            String loadedRules = headerMatcher.group(3);
 
-        //Does necessary operations on the RLE-pattern string to decode it to regular "linear" string.
-        String rleString = str.replaceAll("[\r\n]+", "");
-        String revisedRleString = reviseRLEString(rleString);
+            //Decodes the rest of the stream directly into a 2D-array with the dimensions of the pattern.
+            byte[][] newBoard = decodeRLE(br, x, y);
+            return new PackedPattern(newBoard, metadata[0], metadata[1], loadedRules);
+        }
+    }
 
-        //Creates a 2D-array based on the revisedRleString and the dimensions of the pattern.
-        byte[][] newBoard = boardFromFile(revisedRleString, x, y);
+    /**
+     * Method that hands a decoded pattern to the Board as its loaded pattern. If the pattern is bigger than the
+     * current board, a DynamicBoard is expanded to fit it, while a StaticBoard throws an exception.
+     * @param newBoard The decoded pattern.
+     * @see Board#setBoardFromRLE(byte[][])
+     * @see DynamicBoard#expandHeightDown(int)
+     * @see DynamicBoard#expandWidthRight(int)
+     * @exception ArrayIndexOutOfBoundsException - Thrown if the board is static, and the pattern exceeds its borders.
+     */
+    private void placeLoadedPattern(byte[][] newBoard) {
+        int x = newBoard.length;
+        int y = newBoard[0].length;
 
         //If the pattern is bigger than the board, and the board is Static, it throws an ArrayIndexOutOfBoundsException.
         if ((newBoard.length > playBoard.getWidth() || newBoard[0].length > playBoard.getHeight())
@@ -160,100 +333,297 @@ public class FileHandler {
     }
 
     /**
-     * Method that revises an RLE string, and creates a long string without leading numbers, only containing
-     * o, b, $ and !.
-     * @param rleString The string to be revised.
-     * @see #decodeRLEtoStandardString(String, int)
-     * @exception PatternFormatException - Thrown if the formatting of the file is incorrect
+     * Method that decodes the body of an RLE file straight from the reader into a 2D-array the size of its x and
+     * y parameters. The body is read in blocks, and runs of live cells are written as they are decoded, so
+     * the pattern is never expanded into an intermediate string. Line breaks are ignored, and decoding stops at
+     * the first '!'.
+     * @param reader The reader positioned at the first line after the header.
+     * @param x The width of the new grid.
+     * @param y The height of the new grid.
+     * @return loadedBoard - The board created from the stream.
+     * @exception IOException - Thrown if the stream cannot be read.
+     * @exception PatternFormatException - Thrown if the body contains unexpected characters or no end marker.
+     * @exception ArrayIndexOutOfBoundsException - Thrown if the body does not fit within the x and y of the header.
      */
-    private String reviseRLEString(String rleString) throws PatternFormatException {
+    private static byte[][] decodeRLE(Reader reader, int x, int y) throws IOException, PatternFormatException {
+        byte[][] loadedBoard = new byte[x][y];
+        char[] buffer = new char[STREAM_BUFFER_SIZE];
         int leadingNumber = 0;
-        StringBuilder returnString = new StringBuilder();
-        for(int i = 0; i < rleString.length(); i++) {
+        int column = 0, row = 0;
 
-            char currentChar = rleString.charAt(i);
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char currentChar = buffer[i];
+                int run = leadingNumber == 0 ? 1 : leadingNumber;
 
-            //Updates leading number to reflect the number read.
-            if(Character.isDigit(currentChar)) {
-                leadingNumber = (10 * leadingNumber) + (currentChar - '0');
+                //Updates leading number to reflect the number read.
+                if (currentChar >= '0' && currentChar <= '9') {
+                    leadingNumber = (10 * leadingNumber) + (currentChar - '0');
+                    continue;
+                }
 
-            //Calls decodeRLEtoStandardString for its respective character and appends it to the returnString.
-            } else if (currentChar == 'o') {
-                returnString.append(decodeRLEtoStandardString("1", leadingNumber));
-                leadingNumber = 0;
-            } else if (currentChar == 'b'){
-                returnString.append(decodeRLEtoStandardString("0", leadingNumber));
-                leadingNumber = 0;
-            } else if (currentChar == '$') {
-                returnString.append(decodeRLEtoStandardString("$", leadingNumber));
+                //Sets a run of live cells, skips a run of dead cells, or moves down a number of rows.
+                if (currentChar == 'o') {
+                    if (column + run > x || row >= y) {
+                        throw new ArrayIndexOutOfBoundsException();
+                    }
+                    for (int c = column; c < column + run; c++) {
+                        loadedBoard[c][row] = 1;
+                    }
+                    column += run;
+                } else if (currentChar == 'b') {
+                    if (column + run > x || row >= y) {
+                        throw new ArrayIndexOutOfBoundsException();
+                    }
+                    column += run;
+                } else if (currentChar == '$') {
+                    row += run;
+                    column = 0;
+
+                //Returns when it encounters '!', as it marks the end of the RLE-file.
+                } else if (currentChar == '!') {
+                    return loadedBoard;
+
+                //Line breaks are allowed anywhere in the body, and do not reset the leading number.
+                } else if (currentChar == '\n' || currentChar == '\r') {
+                    continue;
+
+                //Throws a PatternFormatException if it encounters characters other than the expected.
+                } else {
+                    throw new PatternFormatException();
+                }
                 leadingNumber = 0;
+            }
+        }
+
+        //Throws a PatternFormatException if it does not encounter "!" at the end of the stream.
+        throw new PatternFormatException();
+    }
+
+    /**
+     * Method that reads a pattern in Golly's Macrocell format, a quadtree where each line is either an 8x8 leaf
+     * made of '.', '*' and '$', or a node "level nw ne sw se" referring to earlier lines by number. The bounding
+     * box of the live cells is computed bottom-up for every node, so only an array the size of the pattern itself
+     * is allocated, no matter how large the quadtree is. Only two-state patterns are supported.
+     * @param br The reader positioned after the [M2] line.
+     * @return pattern - The decoded pattern along with its metadata and rules.
+     * @see #formatMetadata(StringBuilder)
+     * @exception IOException - Thrown if the stream cannot be read.
+     * @exception PatternFormatException - Thrown if a line is not a valid leaf or node.
+     */
+    private static PackedPattern readMacrocell(BufferedReader br) throws IOException, PatternFormatException {
+        StringBuilder metaDataRaw = new StringBuilder();
+        String loadedRules = null;
 
-            //Returns when it encounters '!', as it marks the end of the RLE-file.
-            } else if (currentChar == '!') {
-                return returnString.toString();
+        //Node number 0 is the empty node, so the lists start with a placeholder.
+        List<long[]> nodes = new ArrayList<>();
+        nodes.add(null);
 
-            //Throws a PatternFormatException if it encounters characters other than the expected.
+        String line;
+        while ((line = br.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            char first = line.charAt(0);
+            if (first == '#') {
+                if (line.startsWith("#R")) {
+                    loadedRules = line.substring(2).trim();
+                } else if (!line.startsWith("#G")) {
+                    metaDataRaw.append(line).append("\n");
+                }
+            } else if (first == '.' || first == '*' || first == '$') {
+                nodes.add(parseMacrocellLeaf(line));
+            } else if (Character.isDigit(first)) {
+                nodes.add(parseMacrocellNode(line, nodes.size()));
             } else {
                 throw new PatternFormatException();
             }
         }
+        if (nodes.size() < 2) {
+            throw new PatternFormatException();
+        }
+
+        //Computes the bounding box of every node. Children always come before their parents in the file.
+        int count = nodes.size();
+        long[][] boxes = new long[count][];
+        for (int i = 1; i < count; i++) {
+            boxes[i] = macrocellBoundingBox(nodes.get(i), boxes);
+        }
+        long[] rootBox = boxes[count - 1];
+        if (rootBox == null) {
+            throw new PatternFormatException();
+        }
+        long width = rootBox[1] - rootBox[0] + 1;
+        long height = rootBox[3] - rootBox[2] + 1;
+        if (width > Integer.MAX_VALUE || height > Integer.MAX_VALUE) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
 
-        //Returns null if it does not encounter "!" at the end of the String.
-        return null;
+        //Adds a header line to the metadata so that it is presented in the same way as for RLE-files.
+        metaDataRaw.append("x = ").append(width).append(", y = ").append(height);
+        if (loadedRules != null) {
+            metaDataRaw.append(", rule = ").append(loadedRules);
+        }
+        String[] metadata = formatMetadata(metaDataRaw.append("\n"));
+
+        byte[][] newBoard = new byte[(int) width][(int) height];
+        paintMacrocellNode(nodes, count - 1, -rootBox[0], -rootBox[2], newBoard);
+        return new PackedPattern(newBoard, metadata[0], metadata[1], loadedRules);
     }
 
     /**
-     * Method that takes a leading number and a character, and returns a string of that character times leading number.
-     * @param s The character to be repeated.
-     * @param i The number of repetitions.
+     * Method that parses a Macrocell leaf line into a node. The 64 cells of the 8x8 leaf are stored as the bits
+     * of a single long, row by row.
+     * @param line The leaf line.
+     * @return node - An array with level 3 in the first entry and the cell bits in the second.
+     * @exception PatternFormatException - Thrown if the leaf contains other characters or is larger than 8x8.
      */
-    private String decodeRLEtoStandardString(String s, int i) {
-        if (i == 0) {
-            i = 1;
+    private static long[] parseMacrocellLeaf(String line) throws PatternFormatException {
+        long bits = 0;
+        int column = 0, row = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '$') {
+                row++;
+                column = 0;
+            } else if (c == '.' || c == '*') {
+                if (column > 7 || row > 7) {
+                    throw new PatternFormatException();
+                }
+                if (c == '*') {
+                    bits |= 1L << (row * 8 + column);
+                }
+                column++;
+            } else {
+                throw new PatternFormatException();
+            }
         }
+        return new long[]{3, bits};
+    }
 
-        StringBuilder deadOrAlive = new StringBuilder();
-        for (int x = 0; x < i; x++) {
-            deadOrAlive.append(s);
+    /**
+     * Method that parses a Macrocell node line on the form "level nw ne sw se".
+     * @param line The node line.
+     * @param index The number this node will get, children must refer to lower numbers.
+     * @return node - An array with the level in the first entry followed by the four children.
+     * @exception PatternFormatException - Thrown if the line is not a valid node.
+     */
+    private static long[] parseMacrocellNode(String line, int index) throws PatternFormatException {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length != 5) {
+            throw new PatternFormatException();
+        }
+        long[] node = new long[5];
+        try {
+            for (int i = 0; i < 5; i++) {
+                node[i] = Long.parseLong(parts[i]);
+            }
+        } catch (NumberFormatException nfe) {
+            throw new PatternFormatException();
+        }
+        if (node[0] < 4 || node[0] > 62) {
+            throw new PatternFormatException();
+        }
+        for (int i = 1; i < 5; i++) {
+            if (node[i] < 0 || node[i] >= index) {
+                throw new PatternFormatException();
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Method that computes the bounding box of the live cells of a Macrocell node relative to its own upper left
+     * corner, from the already computed bounding boxes of its children.
+     * @param node The node to consider.
+     * @param boxes The bounding boxes of all lower numbered nodes, null for empty nodes.
+     * @return boundingBox - min x, max x, min y and max y, or null if the node is empty.
+     */
+    private static long[] macrocellBoundingBox(long[] node, long[][] boxes) {
+        long[] box = null;
+        if (node[0] == 3) {
+            for (int bit = 0; bit < 64; bit++) {
+                if ((node[1] >>> bit & 1) == 1) {
+                    box = extendBox(box, bit % 8, bit / 8, bit % 8, bit / 8);
+                }
+            }
+            return box;
         }
 
-        return deadOrAlive.toString();
+        long half = 1L << (node[0] - 1);
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            long[] childBox = boxes[(int) node[quadrant + 1]];
+            if (childBox != null) {
+                long xOffset = (quadrant & 1) * half;
+                long yOffset = (quadrant >> 1) * half;
+                box = extendBox(box, childBox[0] + xOffset, childBox[2] + yOffset,
+                        childBox[1] + xOffset, childBox[3] + yOffset);
+            }
+        }
+        return box;
     }
 
     /**
-     * Method that creates a 2D-array the size of its x and y parameters, and puts the cell states from the string
-     * into the 2D-array.
-     * @param s The string to be converted to a cell grid
-     * @param x The width of the new grid.
-     * @param y The height of the new grid.
-     * @return loadedBoard - The board created from the string.
+     * Method that extends a bounding box so that it covers the given area, creating it if it is null.
+     * @param box The bounding box to extend, or null.
+     * @param minX The left edge of the area.
+     * @param minY The top edge of the area.
+     * @param maxX The right edge of the area.
+     * @param maxY The bottom edge of the area.
+     * @return box - The extended bounding box.
      */
-    private byte[][] boardFromFile(String s, int x, int y){
-        byte[][] loadedBoard = new byte[x][y];
+    private static long[] extendBox(long[] box, long minX, long minY, long maxX, long maxY) {
+        if (box == null) {
+            return new long[]{minX, maxX, minY, maxY};
+        }
+        box[0] = Math.min(box[0], minX);
+        box[1] = Math.max(box[1], maxX);
+        box[2] = Math.min(box[2], minY);
+        box[3] = Math.max(box[3], maxY);
+        return box;
+    }
 
-        int column = 0, row = 0;
-        for (int i = 0; i < s.length(); i++) {
-            char c = s.charAt(i);
-            if (c == '0') {
-                loadedBoard[column++][row] = 0;
-            } else if (c == '1') {
-                loadedBoard[column++][row] = 1;
-            } else if (c == '$') {
-                column = 0;
-                row++;
+    /**
+     * Method that writes the live cells of a Macrocell node into the pattern array, recursing into its children.
+     * @param nodes All nodes of the file.
+     * @param index The number of the node to paint.
+     * @param xOffset The x coordinate of the node's upper left corner within the pattern array.
+     * @param yOffset The y coordinate of the node's upper left corner within the pattern array.
+     * @param pattern The array to paint into.
+     */
+    private static void paintMacrocellNode(List<long[]> nodes, int index, long xOffset, long yOffset,
+                                           byte[][] pattern) {
+        long[] node = nodes.get(index);
+        if (node[0] == 3) {
+            long bits = node[1];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                pattern[(int) (xOffset + bit % 8)][(int) (yOffset + bit / 8)] = 1;
+                bits &= bits - 1;
+            }
+            return;
+        }
+
+        long half = 1L << (node[0] - 1);
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            int child = (int) node[quadrant + 1];
+            if (child != 0) {
+                paintMacrocellNode(nodes, child, xOffset + (quadrant & 1) * half,
+                        yOffset + (quadrant >> 1) * half, pattern);
             }
         }
-        return loadedBoard;
     }
 
     /**
      * Method that formats the read metadata into a coherent string. Removes the annotations (#C etc) and
-     * adds descriptions of the lines such as title, etc, and sets metaTitle and metaData accordingly.
+     * adds descriptions of the lines such as title, etc.
      * @param meta The metadata that has been read by the reader.
+     * @return metadata - The formatted title in the first entry, and the formatted metadata in the second.
      * @see #metaTitle
      * @see #metaData
      */
-    private void formatMetadata(StringBuilder meta) {
+    private static String[] formatMetadata(StringBuilder meta) {
         StringBuilder metaData = new StringBuilder();
         StringBuilder metaDataTitle = new StringBuilder();
 
@@ -283,19 +653,19 @@ public class FileHandler {
         String formattedMetaTitle = metaTitleString.replaceAll("[#]\\S\\s","");
         String formattedMetadata = metaDataString.replaceAll("[#]\\S\\s","");
 
-        //Sets metaTitle and metaData from the formatted metadata.
-        this.metaTitle = formattedMetaTitle;
-        this.metaData = formattedMetadata;
+        return new String[]{formattedMetaTitle, formattedMetadata};
     }
 
     /**
-     * Method that resets the metadata and title.
+     * Method that resets the metadata, title and analysis.
      * @see #metaTitle
      * @see #metaData
+     * @see #metaAnalysis
      */
     public void resetMetaData() {
         metaTitle = "";
         metaData = "";
+        metaAnalysis = "";
     }
 
     /**
@@ -362,7 +732,8 @@ public class FileHandler {
 
     /**
      * A method for writing an RLE file to disk using a PrintWriter. Takes all metadata and the RLE file
-     * and revise it to fit into the RLE standard, such as annotating metadata.
+     * and revise it to fit into the RLE standard, such as annotating metadata. If the file name ends with .gz,
+     * the file is gzip-compressed as it is written.
      * @param file The file to be written to.
      * @param x The width of the pattern.
      * @param y The height of the pattern.
@@ -378,7 +749,11 @@ public class FileHandler {
                            CheckBox dateCheckBox, TextArea commentField, String splitString) throws IOException{
         DateFormat dateFormat = new SimpleDateFormat("dd/MM/yy HH:mm:ss");
         Date date = new Date();
-        PrintWriter printWriter = new PrintWriter(file);
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        if (file.getName().toLowerCase().endsWith(".gz")) {
+            out = new GZIPOutputStream(out);
+        }
+        PrintWriter printWriter = new PrintWriter(new OutputStreamWriter(out));
 
         //Checks each metadata field and writes it to the file if it exists.
         if (!titleField.getText().equals(""))
@@ -442,4 +817,23 @@ public class FileHandler {
     public String getMetaData() {
         return metaData;
     }
+
+    /**
+     * Method that sets the analysis of the current pattern, replacing any earlier analysis.
+     * @param analysis The analysis as text.
+     * @see #metaAnalysis
+     * @see PatternAnalyser.Analysis#toString()
+     */
+    public void setMetaAnalysis(String analysis) {
+        this.metaAnalysis = analysis;
+    }
+
+    /**
+     * Method that returns the analysis of the current pattern.
+     * @return metaAnalysis - The analysis as text, or an empty string if the pattern has not been analysed.
+     * @see #metaAnalysis
+     */
+    public String getMetaAnalysis() {
+        return metaAnalysis;
+    }
 }
\ No newline at end of file
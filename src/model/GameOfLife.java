@@ -2,6 +2,7 @@ package model;
 
 import controller.PopUpAlerts;
 
+import java.util.Arrays;
 import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -29,12 +30,44 @@ public class GameOfLife {
     //The number of rows each thread should operate on when running concurrently.
     private int rowsPerWorker;
 
+    //The collectors measuring each generation as it is made, and one partial of each collector per thread, indexed
+    //[thread][collector]. The partials are made again whenever the collectors change.
+    private MetricCollector[] collectors = new MetricCollector[0];
+    private MetricCollector[][] partialCollectors;
+
+    //The combined hashes of the cells that change in the generation being made, in total and for each thread, and
+    //the position of the board on the endless plane the hashes are calculated on.
+    private long hashChanges;
+    private long[] threadHashChanges;
+
+    //The number of cells alive in the rows made by each thread, when making a generation on rows of bits.
+    private int[] threadCellsAlive;
+    private int worldX, worldY;
+
     //Data fields related to the current rules.
     private String ruleString = "B3/S23";
     private String bornRules = "3";
     private String surviveRules = "23";
     private String ruleName = "Life";
     private String ruleDescription = "";
+    private int rule = RuleExplorer.toRule("3", "23");
+    private RuleKernel kernel;
+
+    //Whether nextGeneration() makes generations on rows of bits, 64 cells at a time, and the rows it uses. Each row
+    //has a dead column to its right, and there is a dead row above and below the board.
+    private boolean packedKernel = true;
+    private long[] packedCells = new long[0];
+    private long[] packedNext = new long[0];
+
+    //The number of generations nextGenerations() makes in each pass over a band of rows, and the number of rows in
+    //each band, not counting the rows around the band it reads.
+    private int blockGenerations = 8;
+    private static final int BLOCK_ROWS = 32;
+
+    //The patterns a rule string must follow, as checked by setRuleSet().
+    private static final Pattern RULE_CHARACTERS = Pattern.compile("[^sSbB012345678/]",
+            Pattern.MULTILINE | Pattern.DOTALL);
+    private static final Pattern RULE_FORMAT = Pattern.compile("^[bB][0-8]*/[sS][0-8]*$");
 
     /**
      * Sole constructor, sets the parameter board as the current board.
@@ -45,15 +78,21 @@ public class GameOfLife {
     }
 
     /**
-     * Sets the next generation of cells as the current play board.
-     * Calls on Boards countNeighbours() and sets it as a 2D-array.
+     * Sets the next generation of cells as the current play board. The generation of an IntervalBoard is made by
+     * nextGenerationIntervals(). Unless the packed kernel has been turned off, the generation of other boards is made
+     * by nextGenerationPacked(). Otherwise it calls on Boards countNeighbours() and sets it as a 2D-array.
      * If the Board is an instance of DynamicBoard it checks if it needs to expand, and expands if yes.
-     * Calls on enforceRules() and finally sets the new generation as the current play board.
+     * Calls on enforceRules() and finally sets the new generation as the current play board. Should the hash of the
+     * board be up to date, it is updated from the cells that changed.
+     * @see #nextGenerationPacked()
+     * @see #nextGenerationIntervals()
      * @see #enforceRules()
      * @see #neighbourCount
      * @see #newGenerationCells
+     * @see #hashChanges
      * @see Board#resetCellsAlive()
      * @see Board#setBoard(byte[][])
+     * @see Board#getHash()
      * @see Board#countNeighbours()
      * @see DynamicBoard#expandBoardDuringRunTime()
      */
@@ -64,24 +103,422 @@ public class GameOfLife {
         if (playBoard instanceof DynamicBoard) {
             ((DynamicBoard)playBoard).expandBoardDuringRunTime();
         }
+        if (playBoard instanceof IntervalBoard) {
+            nextGenerationIntervals();
+            return;
+        }
+        if (packedKernel) {
+            nextGenerationPacked();
+            return;
+        }
 
         //Does the three main tasks of each generation: Counts neighbours, compares them to the rules and sets board.
+        boolean hashed = playBoard.isHashValid();
+        long hash = hashed ? playBoard.getHash() : 0;
         neighbourCount = playBoard.countNeighbours();
         enforceRules();
         playBoard.setBoard(newGenerationCells);
+        if (hashed) {
+            playBoard.setHash(hash ^ hashChanges);
+        }
+    }
+
+    /**
+     * Makes the next generation on rows of bits, 64 cells at a time, rather than one cell at a time. The board is
+     * packed into rows of longs, the neighbours of 64 cells are added at once by the kernel of the RuleExplorer with
+     * the rule compiled by the RuleCompiler, and the rows are unpacked into the board again. The cells that are alive
+     * in either generation are then handed to the collectors and the cells that changed update the hash, both found
+     * from the bits rather than by going through every cell. The rows have a dead column and dead rows around the
+     * board, which are cleared after the generation, so the borders of the board are dead as they are for
+     * countNeighbours().
+     * @see RuleExplorer#nextGeneration(long[], long[], int, int, int, RuleKernel)
+     * @see RuleCompiler#getKernel(int)
+     * @see Board#packRows(long[], int, int)
+     * @see Board#unpackRows(long[], int, int)
+     * @see Board#setCellsAlive(int)
+     */
+    private void nextGenerationPacked() {
+        int width = playBoard.getWidth();
+        int height = playBoard.getHeight();
+        int words = (width >>> 6) + 1;
+        int length = (height + 2) * words;
+        if (packedCells.length != length) {
+            packedCells = new long[length];
+            packedNext = new long[length];
+        } else {
+            Arrays.fill(packedCells, 0);
+        }
+        playBoard.packRows(packedCells, words, 1);
+        if (kernel == null) {
+            kernel = RuleCompiler.getKernel(rule);
+        }
+        RuleExplorer.nextGeneration(packedCells, packedNext, words, 1, height + 1, kernel);
+
+        for (MetricCollector collector : collectors) {
+            collector.reset();
+        }
+        worldX = playBoard.getWorldX();
+        worldY = playBoard.getWorldY();
+        boolean hashed = playBoard.isHashValid();
+        long hash = hashed ? playBoard.getHash() : 0;
+        threadHashChanges = new long[1];
+        threadCellsAlive = new int[1];
+        finishPackedRows(0, height, words, hashed, collectors, 0);
+
+        playBoard.unpackRows(packedNext, words, 1);
+        playBoard.setCellsAlive(threadCellsAlive[0]);
+        if (hashed) {
+            playBoard.setHash(hash ^ threadHashChanges[0]);
+        }
+    }
+
+    /**
+     * Makes the next generation on rows of bits like nextGenerationPacked(), with the rows split into a band for
+     * each thread of the ThreadWorker. Each thread makes the rows of its band with the kernel, which only reads the
+     * rows above and below the band, and goes through the cells of its band for the collectors and the hash. The
+     * board is packed before and unpacked after the threads run.
+     * @see #nextGenerationPacked()
+     * @see #finishPackedRows(int, int, int, boolean, MetricCollector[], int)
+     * @see RuleExplorer#nextGeneration(long[], long[], int, int, int, RuleKernel)
+     * @see ThreadWorker#runWorkers(Callable)
+     */
+    private void nextGenerationPackedConcurrent() {
+        int width = playBoard.getWidth();
+        int height = playBoard.getHeight();
+        int words = (width >>> 6) + 1;
+        int length = (height + 2) * words;
+        if (packedCells.length != length) {
+            packedCells = new long[length];
+            packedNext = new long[length];
+        } else {
+            Arrays.fill(packedCells, 0);
+        }
+        playBoard.packRows(packedCells, words, 1);
+        if (kernel == null) {
+            kernel = RuleCompiler.getKernel(rule);
+        }
+        RuleKernel ruleKernel = kernel;
+
+        resetPartialCollectors();
+        worldX = playBoard.getWorldX();
+        worldY = playBoard.getWorldY();
+        boolean hashed = playBoard.isHashValid();
+        long hash = hashed ? playBoard.getHash() : 0;
+        threadHashChanges = new long[workers.getNumWorkers()];
+        threadCellsAlive = new int[workers.getNumWorkers()];
+        rowsPerWorker = (int)Math.ceil((double)height/(double) workers.getNumWorkers());
+
+        workers.runWorkers(() -> {
+            int index = workers.getThreadIndex();
+            int fromRow = Math.min(index * rowsPerWorker, height);
+            int toRow = Math.min(fromRow + rowsPerWorker, height);
+            if (fromRow < toRow) {
+                RuleExplorer.nextGeneration(packedCells, packedNext, words, fromRow + 1, toRow + 1, ruleKernel);
+                finishPackedRows(fromRow, toRow, words, hashed,
+                        collectors.length == 0 ? collectors : partialCollectors[index], index);
+            }
+            return null;
+        });
+        mergePartialCollectors();
+
+        playBoard.unpackRows(packedNext, words, 1);
+        int cellsAlive = 0;
+        for (int i = 0; i < threadCellsAlive.length; i++) {
+            cellsAlive += threadCellsAlive[i];
+            hash ^= threadHashChanges[i];
+        }
+        playBoard.setCellsAlive(cellsAlive);
+        if (hashed) {
+            playBoard.setHash(hash);
+        }
+    }
+
+    /**
+     * Method that finishes a band of rows made on rows of bits. Clears the cells born in the dead column, counts the
+     * cells alive and goes through the cells that are alive in either generation, or that changed, handing them to
+     * the collectors and combining the hashes of those that changed. The results are kept in the entries of the
+     * band in threadCellsAlive and threadHashChanges.
+     * @param fromRow The first row of the band, as a row of the board.
+     * @param toRow The row after the last row of the band.
+     * @param words The number of longs in each row.
+     * @param hashed Whether the hashes of the cells that change are needed.
+     * @param sinks The collectors measuring the cells.
+     * @param index The index of the band in threadCellsAlive and threadHashChanges.
+     * @see #threadCellsAlive
+     * @see #threadHashChanges
+     */
+    private void finishPackedRows(int fromRow, int toRow, int words, boolean hashed, MetricCollector[] sinks,
+                                  int index) {
+        long lastWordMask = (1L << (playBoard.getWidth() & 63)) - 1;
+        int cellsAlive = 0;
+        long changes = 0;
+        for (int y = fromRow; y < toRow; y++) {
+            int row = (y + 1) * words;
+            packedNext[row + words - 1] &= lastWordMask;
+            for (int w = 0; w < words; w++) {
+                long oldCells = packedCells[row + w];
+                long newCells = packedNext[row + w];
+                cellsAlive += Long.bitCount(newCells);
+                long visit = hashed ? oldCells ^ newCells : 0;
+                if (sinks.length > 0) {
+                    visit = oldCells | newCells;
+                }
+                for (; visit != 0; visit &= visit - 1) {
+                    int bit = Long.numberOfTrailingZeros(visit);
+                    int x = w * 64 + bit;
+                    byte oldState = (byte)(oldCells >>> bit & 1);
+                    byte newState = (byte)(newCells >>> bit & 1);
+                    for (MetricCollector sink : sinks) {
+                        sink.accept(x, y, oldState, newState);
+                    }
+                    if (oldState != newState) {
+                        changes ^= Board.cellHash(x + worldX, y + worldY);
+                    }
+                }
+            }
+        }
+        threadCellsAlive[index] = cellsAlive;
+        threadHashChanges[index] = changes;
+    }
+
+    /**
+     * Makes the next generation of an IntervalBoard by merging the intervals of its rows. The cells that changed are
+     * found by merging the old and new intervals of each row, so the hash and the collectors only go through the
+     * intervals rather than every cell.
+     * @see IntervalBoard#nextRows(int)
+     * @see IntervalBoard#merge(int[], int[], int)
+     */
+    private void nextGenerationIntervals() {
+        IntervalBoard intervalBoard = (IntervalBoard)playBoard;
+        int[][] oldRows = intervalBoard.getRows();
+        int[][] newRows = intervalBoard.nextRows(rule);
+
+        for (MetricCollector collector : collectors) {
+            collector.reset();
+        }
+        worldX = playBoard.getWorldX();
+        worldY = playBoard.getWorldY();
+        boolean hashed = playBoard.isHashValid();
+        long hash = hashed ? playBoard.getHash() : 0;
+
+        int cellsAlive = 0;
+        for (int y = 0; y < newRows.length; y++) {
+            cellsAlive += IntervalBoard.length(newRows[y]);
+            if (collectors.length > 0) {
+                int[] visit = IntervalBoard.merge(oldRows[y], newRows[y], IntervalBoard.UNION);
+                for (int i = 0; i < visit.length; i += 2) {
+                    for (int x = visit[i]; x < visit[i + 1]; x++) {
+                        byte oldState = IntervalBoard.contains(oldRows[y], x) ? (byte)1 : (byte)0;
+                        byte newState = IntervalBoard.contains(newRows[y], x) ? (byte)1 : (byte)0;
+                        for (MetricCollector collector : collectors) {
+                            collector.accept(x, y, oldState, newState);
+                        }
+                    }
+                }
+            }
+            if (hashed && oldRows[y] != newRows[y]) {
+                int[] changed = IntervalBoard.merge(oldRows[y], newRows[y], IntervalBoard.DIFFERENCE);
+                for (int i = 0; i < changed.length; i += 2) {
+                    for (int x = changed[i]; x < changed[i + 1]; x++) {
+                        hash ^= Board.cellHash(x + worldX, y + worldY);
+                    }
+                }
+            }
+        }
+
+        intervalBoard.setRows(newRows);
+        playBoard.setCellsAlive(cellsAlive);
+        if (hashed) {
+            playBoard.setHash(hash);
+        }
+    }
+
+    /**
+     * Method that sets whether nextGeneration() makes generations on rows of bits, 64 cells at a time, or one cell
+     * at a time by counting neighbours. Both give the same generations, the latter is kept for comparison.
+     * @param packedKernel True to make generations on rows of bits.
+     * @see #nextGenerationPacked()
+     */
+    public void setPackedKernel(boolean packedKernel) {
+        this.packedKernel = packedKernel;
+    }
+
+    /**
+     * Makes a number of generations, giving the same board as calling nextGeneration() as many times. The board is
+     * packed into rows of bits once, and made in bands of BLOCK_ROWS rows. Each band is copied along with
+     * blockGenerations rows above and below it, which are enough to make blockGenerations generations of the band
+     * without reading anything else, as each generation makes one row less at either end. The band is therefore made
+     * several generations at a time while it is in the cache, rather than the whole board being read once per
+     * generation. The hash is updated from the cells that changed over all the generations.
+     * A DynamicBoard is expanded before every blockGenerations generations, so that the pattern can not reach its
+     * borders during them, and is packed for each of these passes. The cells and the hash are the same as when the
+     * board expands before each generation, though the board may end up larger. Should the board not be allowed to
+     * grow that much, the generations of the pass are made one at a time.
+     * Generations are made one at a time by nextGeneration() should the board be an IntervalBoard, which changes in
+     * its own way between generations, should there be collectors to hand every generation to, should the packed
+     * kernel be turned off, or should a DynamicBoard have a rule where cells are born with no neighbours, which
+     * would fill the whole plane.
+     * @param generations The number of generations to make.
+     * @see #setBlockGenerations(int)
+     * @see #nextGenerationPacked()
+     * @see #makeGenerations(int)
+     * @see DynamicBoard#expandForGenerations(int)
+     */
+    public void nextGenerations(int generations) {
+        if (playBoard instanceof IntervalBoard || collectors.length > 0 || !packedKernel || blockGenerations == 1
+                || (playBoard instanceof DynamicBoard && (rule & 1) != 0)) {
+            for (int i = 0; i < generations; i++) {
+                nextGeneration();
+            }
+            return;
+        }
+        if (!(playBoard instanceof DynamicBoard)) {
+            makeGenerations(generations);
+            return;
+        }
+
+        DynamicBoard dynamicBoard = (DynamicBoard)playBoard;
+        for (int made = 0; made < generations; ) {
+            int passGenerations = Math.min(blockGenerations, generations - made);
+            if (dynamicBoard.expandForGenerations(passGenerations)) {
+                makeGenerations(passGenerations);
+            } else {
+                for (int i = 0; i < passGenerations; i++) {
+                    nextGeneration();
+                }
+            }
+            made += passGenerations;
+        }
+    }
+
+    /**
+     * Makes a number of generations of the board as it is, with its borders as walls, in bands of rows made
+     * blockGenerations generations at a time as described by nextGenerations().
+     * @param generations The number of generations to make.
+     * @see #nextGenerations(int)
+     * @see RuleExplorer#nextGeneration(long[], long[], int, int, int, RuleKernel)
+     */
+    private void makeGenerations(int generations) {
+        int width = playBoard.getWidth();
+        int height = playBoard.getHeight();
+        int words = (width >>> 6) + 1;
+        int length = (height + 2) * words;
+        if (packedCells.length != length) {
+            packedCells = new long[length];
+            packedNext = new long[length];
+        } else {
+            Arrays.fill(packedCells, 0);
+        }
+        playBoard.resetCellsAlive();
+        playBoard.packRows(packedCells, words, 1);
+        if (kernel == null) {
+            kernel = RuleCompiler.getKernel(rule);
+        }
+        boolean hashed = playBoard.isHashValid();
+        long hash = hashed ? playBoard.getHash() : 0;
+        long[] firstCells = hashed ? packedCells.clone() : null;
+
+        //Row i of a band holds row top - generations + i of the board.
+        long lastWordMask = (1L << (width & 63)) - 1;
+        long[] band = new long[(BLOCK_ROWS + 2 * blockGenerations) * words];
+        long[] bandNext = new long[band.length];
+        for (int made = 0; made < generations; ) {
+            int passGenerations = Math.min(blockGenerations, generations - made);
+            for (int top = 0; top < height; top += BLOCK_ROWS) {
+                int bandRows = Math.min(BLOCK_ROWS, height - top) + 2 * passGenerations;
+                int firstRow = top - passGenerations;
+                for (int i = 0; i < bandRows; i++) {
+                    if (firstRow + i >= 0 && firstRow + i < height) {
+                        System.arraycopy(packedCells, (firstRow + i + 1) * words, band, i * words, words);
+                    } else {
+                        Arrays.fill(band, i * words, (i + 1) * words, 0);
+                    }
+                }
+
+                //Each generation makes one row less at either end, and clears the cells born in the dead column or
+                //in the rows outside of the board.
+                for (int generation = 1; generation <= passGenerations; generation++) {
+                    RuleExplorer.nextGeneration(band, bandNext, words, generation, bandRows - generation, kernel);
+                    for (int i = generation; i < bandRows - generation; i++) {
+                        if (firstRow + i >= 0 && firstRow + i < height) {
+                            bandNext[i * words + words - 1] &= lastWordMask;
+                        } else {
+                            Arrays.fill(bandNext, i * words, (i + 1) * words, 0);
+                        }
+                    }
+                    long[] swap = band;
+                    band = bandNext;
+                    bandNext = swap;
+                }
+                System.arraycopy(band, passGenerations * words, packedNext, (top + 1) * words,
+                        (bandRows - 2 * passGenerations) * words);
+            }
+            long[] swap = packedCells;
+            packedCells = packedNext;
+            packedNext = swap;
+            made += passGenerations;
+        }
+
+        int cellsAlive = 0;
+        worldX = playBoard.getWorldX();
+        worldY = playBoard.getWorldY();
+        for (int y = 0; y < height; y++) {
+            for (int w = 0; w < words; w++) {
+                int index = (y + 1) * words + w;
+                cellsAlive += Long.bitCount(packedCells[index]);
+                for (long changed = hashed ? firstCells[index] ^ packedCells[index] : 0; changed != 0;
+                     changed &= changed - 1) {
+                    hash ^= Board.cellHash(w * 64 + Long.numberOfTrailingZeros(changed) + worldX, y + worldY);
+                }
+            }
+        }
+        playBoard.unpackRows(packedCells, words, 1);
+        playBoard.setCellsAlive(cellsAlive);
+        if (hashed) {
+            playBoard.setHash(hash);
+        }
+    }
+
+    /**
+     * Method that sets the number of generations nextGenerations() makes of each band of rows while it is in the
+     * cache. More generations read more rows around each band, so the number that pays off depends on the cache.
+     * @param blockGenerations The number of generations, 1 to make one generation at a time.
+     * @exception IllegalArgumentException - Thrown if the number is less than 1.
+     * @see #nextGenerations(int)
+     */
+    public void setBlockGenerations(int blockGenerations) {
+        if (blockGenerations < 1) {
+            throw new IllegalArgumentException("Invalid number of generations " + blockGenerations);
+        }
+        this.blockGenerations = blockGenerations;
+    }
+
+    /**
+     * Method that returns the number of generations nextGenerations() makes of each band of rows at a time.
+     * @return blockGenerations - The number of generations.
+     * @see #setBlockGenerations(int)
+     */
+    public int getBlockGenerations() {
+        return blockGenerations;
     }
 
     /**
      * Sets the next generation of cells as the current play board concurrently. If the Board is an instance of
-     * DynamicBoard it checks if it needs to expand, and expands if yes. Calculates the number of rows
+     * DynamicBoard it checks if it needs to expand, and expands if yes. The generation of an IntervalBoard is made by
+     * nextGenerationIntervals(), and unless the packed kernel has been turned off, the generation of other boards is
+     * made on rows of bits by nextGenerationPackedConcurrent(). Otherwise it calculates the number of rows
      * each thread should consider, and calls generateCallables() to update the Callable objects for this generation.
      * Because of how Board's countNeighbours method works, it needs to make sure that the neighbours have been
      * counted before enforcing the rules and setting the new board. Therefore there are two calls to ThreadWorker'
-     * runWorkers() method, which will execute all threads and wait for them to finish.
+     * runWorkers() method, which will execute all threads and wait for them to finish. Should the hash of the board
+     * be up to date, it is updated from the cells that changed, as found by each thread.
      * @see #newGenerationCells
+     * @see #threadHashChanges
      * @see #rowsPerWorker
      * @see #neighbourCount
      * @see #generateCallables()
+     * @see #nextGenerationPackedConcurrent()
+     * @see #nextGenerationIntervals()
      * @see ThreadWorker#runWorkers(Callable)
      * @see Board#resetCellsAlive()
      * @see DynamicBoard#expandBoardDuringRunTime()
@@ -91,20 +528,101 @@ public class GameOfLife {
         if (playBoard instanceof DynamicBoard) {
             ((DynamicBoard)playBoard).expandBoardDuringRunTime();
         }
+        if (playBoard instanceof IntervalBoard) {
+            nextGenerationIntervals();
+            return;
+        }
+        if (packedKernel) {
+            nextGenerationPackedConcurrent();
+            return;
+        }
 
         //Creates two new 2D-Arrays the size of the current cellGrid.
         newGenerationCells = new byte[playBoard.getWidth()][playBoard.getHeight()];
         neighbourCount = new byte[playBoard.getWidth()][playBoard.getHeight()];
 
         //Calculates how many rows each thread will operate on.
-        rowsPerWorker = (int)Math.ceil((double)playBoard.getWidth()/(double) workers.getNumWorkers());
+        rowsPerWorker = (int)Math.ceil((double)playBoard.getHeight()/(double) workers.getNumWorkers());
 
         //Updates the Callable objects for this generation
         generateCallables();
+        resetPartialCollectors();
+        boolean hashed = playBoard.isHashValid();
+        long hash = hashed ? playBoard.getHash() : 0;
+        threadHashChanges = new long[workers.getNumWorkers()];
+        worldX = playBoard.getWorldX();
+        worldY = playBoard.getWorldY();
 
         //Runs both Callable objects and waits till all threads are done before continuing.
         workers.runWorkers(countNeighboursCallable);
         workers.runWorkers(enforceAndSetCallable);
+        mergePartialCollectors();
+        if (hashed) {
+            for (long changes : threadHashChanges) {
+                hash ^= changes;
+            }
+            playBoard.setHash(hash);
+        }
+    }
+
+    /**
+     * Method that empties the partial collectors of every thread before a generation is made concurrently, making
+     * them first if the collectors have changed or the number of threads is different.
+     * @see #partialCollectors
+     * @see MetricCollector#newPartial()
+     */
+    private void resetPartialCollectors() {
+        if (collectors.length == 0) {
+            return;
+        }
+        if (partialCollectors == null || partialCollectors.length != workers.getNumWorkers()) {
+            partialCollectors = new MetricCollector[workers.getNumWorkers()][collectors.length];
+            for (MetricCollector[] threadCollectors : partialCollectors) {
+                for (int i = 0; i < collectors.length; i++) {
+                    threadCollectors[i] = collectors[i].newPartial();
+                }
+            }
+        }
+        for (MetricCollector[] threadCollectors : partialCollectors) {
+            for (MetricCollector partial : threadCollectors) {
+                partial.reset();
+            }
+        }
+    }
+
+    /**
+     * Method that merges the partial collectors of every thread into the collectors, once all threads are done.
+     * @see #collectors
+     * @see MetricCollector#merge(MetricCollector)
+     */
+    private void mergePartialCollectors() {
+        for (int i = 0; i < collectors.length; i++) {
+            collectors[i].reset();
+            for (MetricCollector[] threadCollectors : partialCollectors) {
+                collectors[i].merge(threadCollectors[i]);
+            }
+        }
+    }
+
+    /**
+     * Method that adds a collector, which will measure every generation made from now on.
+     * @param collector The collector to be added.
+     * @see MetricCollector
+     */
+    public void addMetricCollector(MetricCollector collector) {
+        MetricCollector[] added = Arrays.copyOf(collectors, collectors.length + 1);
+        added[collectors.length] = collector;
+        collectors = added;
+        partialCollectors = null;
+    }
+
+    /**
+     * Method that removes a collector, which will no longer measure the generations made.
+     * @param collector The collector to be removed.
+     */
+    public void removeMetricCollector(MetricCollector collector) {
+        collectors = Arrays.stream(collectors).filter(c -> c != collector).toArray(MetricCollector[]::new);
+        partialCollectors = null;
     }
 
     /**
@@ -136,58 +654,82 @@ public class GameOfLife {
     }
 
     /**
-     * A method for enforcing the rules of the game. Iterates throughout the entire cell grid and
-     * calls updateNewGenerationCells() to enforce the rules of the game.
+     * A method for enforcing the rules of the game. Iterates throughout the entire cell grid row by row and
+     * calls updateNewGenerationCells() to enforce the rules of the game, handing the cells to the collectors and
+     * combining the hashes of the cells that change.
      * @see #newGenerationCells
-     * @see Board#getWidth()
-     * @see Board#getHeight()
+     * @see #collectors
+     * @see #hashChanges
+     * @see Board#rowCursor()
      */
     public void enforceRules() {
         //Creates a new byte[][] with the same dimensions as the current board.
         newGenerationCells = new byte[playBoard.getWidth()][playBoard.getHeight()];
+        for (MetricCollector collector : collectors) {
+            collector.reset();
+        }
+        worldX = playBoard.getWorldX();
+        worldY = playBoard.getWorldY();
 
-        for (int x = 0; x < playBoard.getWidth(); x++) {
-            for (int y = 0; y < playBoard.getHeight(); y++) {
-                updateNewGenerationCells(x, y);
+        long changes = 0;
+        RowCursor cursor = playBoard.rowCursor();
+        while (cursor.next()) {
+            byte[] row = cursor.getRow();
+            for (int x = 0; x < playBoard.getWidth(); x++) {
+                changes ^= updateNewGenerationCells(x, cursor.getY(), row[x], collectors);
             }
         }
+        hashChanges = changes;
     }
 
     /**
-     * A method for concurrently enforcing the rules of the game. Iterates through a portion of the current cell grid
-     * based on the current cells index and rowsPerWorker, and calls updateNewGenerationCells() to enforce the
-     * rules of the game.
+     * A method for concurrently enforcing the rules of the game. Iterates through a band of rows of the current cell
+     * grid based on the current thread's index and rowsPerWorker, reading the rows through a row cursor of its own,
+     * and calls updateNewGenerationCells() to enforce the rules of the game. The cells are handed to the partial
+     * collectors of the thread, and the hashes of the cells that change are combined into the thread's entry of
+     * threadHashChanges.
      * @param curIndex The current thread's index.
      * @see #rowsPerWorker
-     * @see Board#getWidth()
-     * @see Board#getHeight()
+     * @see #partialCollectors
+     * @see #threadHashChanges
+     * @see Board#rowCursor()
      */
     private void enforceRulesConcurrent(int curIndex) {
-        for (int x = rowsPerWorker*curIndex; x < (curIndex+1)*rowsPerWorker && x < playBoard.getWidth(); x++) {
-            for (int y = 0; y < playBoard.getHeight(); y++) {
-                updateNewGenerationCells(x,y);
+        MetricCollector[] threadCollectors = collectors.length == 0 ? collectors : partialCollectors[curIndex];
+        long changes = 0;
+        RowCursor cursor = playBoard.rowCursor();
+        cursor.moveTo(rowsPerWorker*curIndex);
+        while (cursor.getY() + 1 < (curIndex+1)*rowsPerWorker && cursor.next()) {
+            byte[] row = cursor.getRow();
+            for (int x = 0; x < playBoard.getWidth(); x++) {
+                changes ^= updateNewGenerationCells(x, cursor.getY(), row[x], threadCollectors);
             }
         }
+        threadHashChanges[curIndex] = changes;
     }
 
     /**
      * Compares the current cell with the neighbour count up against the current rules, and enforces the
-     * rules of the game, setting the cell state of that cell in the newGenerationCells 2D-array.
+     * rules of the game, setting the cell state of that cell in the newGenerationCells 2D-array. Hands the cell to
+     * the collectors if it is alive in either generation.
      * @param x The x-coordinate of the current cell.
      * @param y The y-coordinate of the current cell.
+     * @param oldState The state of the current cell, as read from its row.
+     * @param sinks The collectors measuring the cell.
+     * @return hashChange - The hash of the cell if it changes, or 0 if it stays the same.
+     * @see Board#cellHash(int, int)
      * @see #newGenerationCells
      * @see #neighbourCount
      * @see #bornRules
      * @see #surviveRules
-     * @see Board#getCellState(int, int)
      * @see Board#increaseCellsAlive()
      */
-    private void updateNewGenerationCells(int x, int y) {
+    private long updateNewGenerationCells(int x, int y, byte oldState, MetricCollector[] sinks) {
         //Creates a string containing the number of neighbours for the current cell.
         String neighbours = ""+neighbourCount[x][y];
 
         //Checks if the current cell is alive
-        if (playBoard.getCellState(x, y) == 1) {
+        if (oldState == 1) {
 
             //Checks if the surviveRules contain the number of neighbours. If yes, the cell survives.
             if (surviveRules.contains(neighbours)) {
@@ -199,12 +741,21 @@ public class GameOfLife {
         }
 
         //Else it checks if the bornRules contain the number of neighbours. If yes, the cell is born.
-        else if (playBoard.getCellState(x,y) == 0) {
+        else if (oldState == 0) {
             if (bornRules.contains(neighbours)) {
                 newGenerationCells[x][y] = 1;
                 playBoard.increaseCellsAlive();
             }
         }
+
+        //Hands the cell to the collectors, unless it is dead in both generations.
+        byte newState = newGenerationCells[x][y];
+        if (sinks.length > 0 && (oldState | newState) != 0) {
+            for (MetricCollector sink : sinks) {
+                sink.accept(x, y, oldState, newState);
+            }
+        }
+        return oldState == newState ? 0 : Board.cellHash(x + worldX, y + worldY);
     }
 
     /**
@@ -214,100 +765,22 @@ public class GameOfLife {
      * @see #ruleString
      * @see #ruleDescription
      * @see #ruleName
+     * @see #getPreset(String)
      * @see #setRuleSet(String)
      * @exception RulesFormatException - Thrown if the rules are formatted wrong.
      */
     public void setRuleString(String input) throws RulesFormatException{
         if(input != null){
-            switch (input) {
-                case "Life":
-                case "B3/S23":
-                    ruleString = "B3/S23";
-                    ruleDescription = "The original rules for Conway's Game of Life. A chaotic rule that is by " +
-                            "far the most well-known and well-studied. It exhibits highly complex behavior.";
-                    ruleName = "Life";
-                    break;
-                case "Replicator":
-                case "B1357/S1357":
-                    ruleString = "B1357/S1357";
-                    ruleDescription = "Edward Fredkin's replicating automaton: every pattern is eventually " +
-                            "replaced by multiple copies of itself.";
-                    ruleName = "Replicator";
-                    break;
-                case "Seeds":
-                case "B2/S":
-                    ruleString = "B2/S";
-                    ruleDescription = "All patterns are phoenixes, meaning that every live cell immediately " +
-                            "dies, and many patterns lead to explosive chaotic growth. However, some engineered " +
-                            "patterns with complex behavior are known.";
-                    ruleName = "Seeds";
-                    break;
-                case "Life Without Death":
-                case "B3/S012345678":
-                    ruleString = "B3/S012345678";
-                    ruleDescription = "Also known as Inkspot or Flakes. Cells that become alive never die. " +
-                            "It combines chaotic growth with more structured ladder-like patterns that can be " +
-                            "used to simulate arbitrary Boolean circuits.";
-                    ruleName = "Life Without Death";
-                    break;
-                case "34 Life":
-                case "B34/S34":
-                    ruleString = "B34/S34";
-                    ruleDescription = "Was initially thought to be a stable alternative to Life, until " +
-                            "computer simulation found that larger patterns tend to explode. Has many small " +
-                            "oscillators and spaceships.";
-                    ruleName = "34 Life";
-                    break;
-                case "Diamoeba":
-                case "B35678/S5678":
-                    ruleString = "B35678/S5678";
-                    ruleDescription = "Forms large diamonds with chaotically fluctuating boundaries. First " +
-                            "studied by Dean Hickerson, who in 1993 offered a $50 prize to find a pattern that " +
-                            "fills space with live cells; the prize was won in 1999 by David Bell.";
-                    ruleName = "Diamoeba";
-                    break;
-                case "2x2":
-                case "B36/S125":
-                    ruleString = "B36/S125";
-                    ruleDescription = "If a pattern is composed of 2x2 blocks, it will continue to evolve " +
-                            "in the same form; grouping these blocks into larger powers of two leads to the " +
-                            "same behavior, but slower. Has complex oscillators of high periods as well as " +
-                            "a small glider.";
-                    ruleName = "2x2";
-                    break;
-                case "Highlife":
-                case "B36/S23":
-                    ruleString = "B36/S23";
-                    ruleDescription = "Similar to Life but with a small self-replicating pattern.";
-                    ruleName = "Highlife";
-                    break;
-                case "Day & Night":
-                case "B3678/S34678":
-                    ruleString = "B3678/S34678";
-                    ruleDescription = "Symmetric under on-off reversal. Has engineered patterns with highly " +
-                            "complex behavior.";
-                    ruleName = "Day & Night";
-                    break;
-                case "Morley":
-                case "B368/S245":
-                    ruleString = "B368/S245";
-                    ruleDescription = "Named after Stephen Morley; also called Move. Supports very high-period and " +
-                            "slow spaceships.";
-                    ruleName = "Morley";
-                    break;
-                case "Anneal":
-                case "B4678/S35678":
-                    ruleString = "B4678/S35678";
-                    ruleDescription = "Also called the twisted majority rule. Symmetric under on-off reversal. " +
-                            "Approximates the curve-shortening flow on the boundaries between live and dead cells.";
-                    ruleName = "Anneal";
-                    break;
-                default:
-                    //If input does not match any of the above cases, sets this as the default values
-                    ruleString = input;
-                    ruleDescription = "No description";
-                    ruleName = "No name";
-                    break;
+            String[] preset = getPreset(input);
+            if (preset != null) {
+                ruleString = preset[0];
+                ruleName = preset[1];
+                ruleDescription = preset[2];
+            } else {
+                //If input does not match any of the presets, sets this as the default values
+                ruleString = input;
+                ruleDescription = "No description";
+                ruleName = "No name";
             }
         }
 
@@ -320,29 +793,114 @@ public class GameOfLife {
     }
 
     /**
-     * Method to set the rules from a string. Does a check for the right formatting and sets the ruleString,
-     * surviveRules and bornRules if the string contains valid information. If not, it shows a popup explaining
-     * to the user that the rules are formatted wrongly, and sets the rules to the standard Life rules.
-     * @param rules The string containing the rules formatted in the RLE-style (Bxxx/Sxxx).
-     * @see #ruleString
-     * @see #bornRules
-     * @see #surviveRules
-     * @see PopUpAlerts#ruleAlert1()
+     * Method that looks up one of the preset rules, either by its name or by its rule string.
+     * @param input The name of the rule, or the rule formatted after RLE standards.
+     * @return preset - The rule string, the name and the description of the rule, or null if it is not a preset.
      */
-    public void setRuleSet(String rules) {
-
-        //Creates patterns and matcher to check for correct formatting of the rules.
-        Pattern rulePattern = Pattern.compile("[^sSbB012345678/]",Pattern.MULTILINE | Pattern.DOTALL);
-        Pattern formatPattern = Pattern.compile("^[bB][0-8]*/[sS][0-8]*$");
+    private static String[] getPreset(String input) {
+        switch (input) {
+            case "Life":
+            case "B3/S23":
+                return new String[]{"B3/S23", "Life",
+                        "The original rules for Conway's Game of Life. A chaotic rule that is by " +
+                        "far the most well-known and well-studied. It exhibits highly complex behavior."};
+            case "Replicator":
+            case "B1357/S1357":
+                return new String[]{"B1357/S1357", "Replicator",
+                        "Edward Fredkin's replicating automaton: every pattern is eventually " +
+                        "replaced by multiple copies of itself."};
+            case "Seeds":
+            case "B2/S":
+                return new String[]{"B2/S", "Seeds",
+                        "All patterns are phoenixes, meaning that every live cell immediately " +
+                        "dies, and many patterns lead to explosive chaotic growth. However, some engineered " +
+                        "patterns with complex behavior are known."};
+            case "Life Without Death":
+            case "B3/S012345678":
+                return new String[]{"B3/S012345678", "Life Without Death",
+                        "Also known as Inkspot or Flakes. Cells that become alive never die. " +
+                        "It combines chaotic growth with more structured ladder-like patterns that can be " +
+                        "used to simulate arbitrary Boolean circuits."};
+            case "34 Life":
+            case "B34/S34":
+                return new String[]{"B34/S34", "34 Life",
+                        "Was initially thought to be a stable alternative to Life, until " +
+                        "computer simulation found that larger patterns tend to explode. Has many small " +
+                        "oscillators and spaceships."};
+            case "Diamoeba":
+            case "B35678/S5678":
+                return new String[]{"B35678/S5678", "Diamoeba",
+                        "Forms large diamonds with chaotically fluctuating boundaries. First " +
+                        "studied by Dean Hickerson, who in 1993 offered a $50 prize to find a pattern that " +
+                        "fills space with live cells; the prize was won in 1999 by David Bell."};
+            case "2x2":
+            case "B36/S125":
+                return new String[]{"B36/S125", "2x2",
+                        "If a pattern is composed of 2x2 blocks, it will continue to evolve " +
+                        "in the same form; grouping these blocks into larger powers of two leads to the " +
+                        "same behavior, but slower. Has complex oscillators of high periods as well as " +
+                        "a small glider."};
+            case "Highlife":
+            case "B36/S23":
+                return new String[]{"B36/S23", "Highlife",
+                        "Similar to Life but with a small self-replicating pattern."};
+            case "Day & Night":
+            case "B3678/S34678":
+                return new String[]{"B3678/S34678", "Day & Night",
+                        "Symmetric under on-off reversal. Has engineered patterns with highly " +
+                        "complex behavior."};
+            case "Morley":
+            case "B368/S245":
+                return new String[]{"B368/S245", "Morley",
+                        "Named after Stephen Morley; also called Move. Supports very high-period and " +
+                        "slow spaceships."};
+            case "Anneal":
+            case "B4678/S35678":
+                return new String[]{"B4678/S35678", "Anneal",
+                        "Also called the twisted majority rule. Symmetric under on-off reversal. " +
+                        "Approximates the curve-shortening flow on the boundaries between live and dead cells."};
+            default:
+                return null;
+        }
+    }
 
-        Matcher ruleMatcher = rulePattern.matcher(rules);
-        Matcher formatMatcher = formatPattern.matcher(rules);
+    /**
+     * Method that checks whether a rule can be set without falling back to the standard Life rules, being either
+     * the name of a preset or a rule string formatted after RLE standards.
+     * @param input The name of the rule, or the rule formatted after RLE standards.
+     * @return valid - True if the rule is a preset or is formatted correctly.
+     * @see #getPreset(String)
+     * @see #setRuleSet(String)
+     */
+    public static boolean isValidRule(String input) {
+        return input != null && (getPreset(input) != null || (!RULE_CHARACTERS.matcher(input).find()
+                && RULE_FORMAT.matcher(input).find()));
+    }
 
-        //Shows a popup to the user if the rules are wrongly formatted, and sets rules to default.
-        if(ruleMatcher.find() || !formatMatcher.find()){
-            PopUpAlerts.ruleAlert1();
-            rules = "B3/S23";
+    /**
+     * Method that finds the digits of a rule without setting it, for the engines that step cells with a rule of
+     * their own rather than through a GameOfLife.
+     * @param input The name of the rule, or the rule formatted after RLE standards.
+     * @return rules - The born digits and the survive digits of the rule, in that order, both ascending.
+     * @exception RulesFormatException - Thrown if the rule is neither a preset nor formatted correctly.
+     * @see #isValidRule(String)
+     * @see RuleExplorer#toRule(String, String)
+     */
+    public static String[] parseRule(String input) throws RulesFormatException {
+        if (!isValidRule(input)) {
+            throw new RulesFormatException();
         }
+        String[] preset = getPreset(input);
+        return splitRule(preset != null ? preset[0] : input);
+    }
+
+    /**
+     * Method that splits a rule formatted after RLE standards into its born and survive digits, removing duplicate
+     * digits and putting them in ascending order.
+     * @param rules The rule formatted in the RLE-style (Bxxx/Sxxx).
+     * @return rules - The born digits and the survive digits of the rule, in that order.
+     */
+    private static String[] splitRule(String rules) {
 
         //Splits the string into two parts
         String[] bothRules = rules.split("[/]");
@@ -370,11 +928,41 @@ public class GameOfLife {
                 bornBuilder.append(i);
             }
         }
+        return new String[]{bornBuilder.toString(), surviveBuilder.toString()};
+    }
+
+    /**
+     * Method to set the rules from a string. Does a check for the right formatting and sets the ruleString,
+     * surviveRules and bornRules if the string contains valid information. If not, it shows a popup explaining
+     * to the user that the rules are formatted wrongly, and sets the rules to the standard Life rules.
+     * @param rules The string containing the rules formatted in the RLE-style (Bxxx/Sxxx).
+     * @see #ruleString
+     * @see #bornRules
+     * @see #surviveRules
+     * @see #splitRule(String)
+     * @see PopUpAlerts#ruleAlert1()
+     */
+    public void setRuleSet(String rules) {
+
+        //Creates matchers to check for correct formatting of the rules.
+        Matcher ruleMatcher = RULE_CHARACTERS.matcher(rules);
+        Matcher formatMatcher = RULE_FORMAT.matcher(rules);
+
+        //Shows a popup to the user if the rules are wrongly formatted, and sets rules to default.
+        if(ruleMatcher.find() || !formatMatcher.find()){
+            PopUpAlerts.ruleAlert1();
+            rules = "B3/S23";
+        }
+
+        //Splits the rules into the born and survive digits.
+        String[] bothRules = splitRule(rules);
 
         //Sets the surviveRules, bornRules and ruleString.
-        surviveRules = surviveBuilder.toString();
-        bornRules = bornBuilder.toString();
+        bornRules = bothRules[0];
+        surviveRules = bothRules[1];
         ruleString = "B" + bornRules + "/S" + surviveRules;
+        rule = RuleExplorer.toRule(bornRules, surviveRules);
+        kernel = null;
     }
 
     /**
@@ -457,6 +1045,17 @@ public class GameOfLife {
         genCounter++;
     }
 
+    /**
+     * Method that adds a number of generations to the generation counter, used when several generations have been
+     * made at once.
+     * @param generations The number of generations to add.
+     * @see #genCounter
+     * @see #nextGenerations(int)
+     */
+    public void incrementGenCounter(int generations) {
+        genCounter += generations;
+    }
+
     /**
      * Method sets the generation counter back to 0.
      * @see #genCounter
@@ -524,6 +1123,10 @@ public class GameOfLife {
         golClone.bornRules = bornRules;
         golClone.surviveRules = surviveRules;
         golClone.ruleString = ruleString;
+        golClone.rule = rule;
+        golClone.kernel = kernel;
+        golClone.packedKernel = packedKernel;
+        golClone.blockGenerations = blockGenerations;
         golClone.ruleName = ruleName;
         golClone.ruleDescription = ruleDescription;
         golClone.workers = workers;
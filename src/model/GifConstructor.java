@@ -1,28 +1,47 @@
 package model;
 
-import controller.PopUpAlerts;
 import javafx.scene.paint.Color;
-import lieng.GIFWriter;
+import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 
 /**
- * The GifConstructor class interacts with lieng.GIFWriter and sends all necessary information in order to create
- * a gif of the current pattern or board. It sets all necessary variables gotten from the export controller
- * and performs the necessary calculations to successfully create a gif.
+ * The GifConstructor class creates a gif of the current pattern or board, using the variables gotten from the export
+ * controller. The gif is made in a pipeline of three stages: one thread steps the game and takes a snapshot of the
+ * board for every frame, a pool of threads draws the snapshots into frames of indexed pixels in parallel, and the
+ * calling thread writes the frames to the file in order through a GifEncoder. The stages are linked by a bounded
+ * queue, so only a few frames are held in memory at any time no matter how long the gif is.
  *
  * @author Oscar Vladau-Husevold
  * @version 1.0
  */
 public class GifConstructor {
-    private double gifCellSize;
     private final int gifSize;
     private final Board gifBoard;
     private final GameOfLife gifGol;
     private final int counter;
     private final int milliseconds;
-    private final java.awt.Color gifBackgroundColor;
-    private final java.awt.Color gifCellColor;
+    private final int backgroundRGB;
+    private final int cellRGB;
     private final boolean drawEntireBoard;
+    private int generationsPerFrame = 1;
+
+    //The number of threads drawing frames, and the number of frames that can be waiting to be written.
+    private static final int RASTERISERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int QUEUE_CAPACITY = 2 * RASTERISERS;
+
+    //The palette indices of the two colours of the gif.
+    private static final byte BACKGROUND_INDEX = 0;
+    private static final byte CELL_INDEX = 1;
 
     /**
      * Sole constructor for a GifConstructor object. Sets all needed parameters to create a
@@ -39,8 +58,8 @@ public class GifConstructor {
      * @see #counter
      * @see #milliseconds
      * @see #drawEntireBoard
-     * @see #gifBackgroundColor
-     * @see #gifCellColor
+     * @see #backgroundRGB
+     * @see #cellRGB
      * @see #gifSize
      */
     public GifConstructor (GameOfLife gol, int iterations, int fps, boolean entireBoardBool, Color backgroundColor,
@@ -50,157 +69,194 @@ public class GifConstructor {
         this.counter = iterations;
         this.milliseconds = 1000/fps;
         this.drawEntireBoard = entireBoardBool;
-        this.gifBackgroundColor = convertToAwtColor(backgroundColor);
-        this.gifCellColor = convertToAwtColor(cellColor);
+        this.backgroundRGB = toRGB(backgroundColor);
+        this.cellRGB = toRGB(cellColor);
         this.gifSize = size;
     }
 
     /**
-     * Method that exports a gif to file by creating a new GIFWriter and calling the writeGoLSequenceToGif method.
-     * Catches an IOException if thrown, and shows a popup to the user explaining what went wrong.
-     * @param filePath The filepath to write the new file in.
-     * @see #writeGoLSequenceToGIF(GIFWriter, GameOfLife, int, java.awt.Color)
-     * @see PopUpAlerts#ioeSaveError()
-     * @see GIFWriter#GIFWriter(int, int, String, int)
-     * @see GIFWriter#setBackgroundColor(java.awt.Color)
+     * Method that sets the number of generations made between each frame of the gif. The generations are made at
+     * once by nextGenerations(), so a gif can show a slow pattern without a frame for every generation.
+     * @param generationsPerFrame The number of generations between each frame.
+     * @exception IllegalArgumentException - Thrown if the number is less than 1.
+     * @see GameOfLife#nextGenerations(int)
      */
-    public void exportGif(String filePath) {
-        try {
-            GIFWriter gifWriter = new GIFWriter(gifSize, gifSize, filePath, milliseconds);
-            gifWriter.setBackgroundColor(gifBackgroundColor);
-            writeGoLSequenceToGIF(gifWriter, gifGol, counter, gifCellColor);
-        } catch (IOException ioe) {
-            PopUpAlerts.ioeSaveError();
+    public void setGenerationsPerFrame(int generationsPerFrame) {
+        if (generationsPerFrame < 1) {
+            throw new IllegalArgumentException("Invalid number of generations " + generationsPerFrame);
         }
+        this.generationsPerFrame = generationsPerFrame;
     }
 
     /**
-     * Method that creates a sequence of images based on the generations of the GameOfLife and inserts them into
-     * the GIFWriter in order to be written to disk. Creates images based on whether or not the entire board
-     * should be drawn, or just the active pattern.
-     * Uses recursion by counting down the number of iterations to be considered, and closes the writer when
-     * the counter reaches 0.
-     * @param writer The GIFWriter to handle the writing to disk.
-     * @param game The GameOfLife object to be considered when creating images.
-     * @param counter The number of iterations to be written.
-     * @param cellColor The color to draw active cells.
-     * @see #drawEntireBoard
-     * @see #drawGifEntireBoard(GIFWriter, java.awt.Color)
-     * @see #drawGifPatternOnly(GIFWriter, java.awt.Color)
-     * @see GameOfLife#nextGeneration()
-     * @see GIFWriter#createNextImage()
-     * @see GIFWriter#insertCurrentImage()
-     * @see GIFWriter#close()
+     * Method that exports a gif to file. Starts a thread taking snapshots of the board, hands the snapshots to the
+     * pool drawing the frames, and writes the frames in order as they are done. Reports the number of frames
+     * written after each frame, and stops as soon as it is cancelled, deleting the unfinished file.
+     * @param filePath The filepath to write the new file in.
+     * @param progress Receives the number of frames written and the total number of frames.
+     * @param cancelled Returns true when the export should stop.
+     * @return done - True if the gif was written, false if the export was cancelled.
+     * @exception IOException - Thrown if the file cannot be written.
+     * @see #produceFrames(ExecutorService, BlockingQueue)
+     * @see GifEncoder#writeFrame(byte[])
      */
-    private void writeGoLSequenceToGIF(GIFWriter writer, GameOfLife game, int counter, java.awt.Color cellColor)
+    public boolean exportGif(String filePath, BiConsumer<Integer, Integer> progress, BooleanSupplier cancelled)
             throws IOException {
-        if (counter == 0) {
-            writer.close();
-            System.out.println("Gif done!");
-        }
-        else {
-            writer.createNextImage();
+        ExecutorService rasterisers = Executors.newFixedThreadPool(RASTERISERS, runnable -> {
+            Thread thread = new Thread(runnable, "GifConstructor rasteriser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        BlockingQueue<Future<byte[]>> frames = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Thread producer = new Thread(() -> produceFrames(rasterisers, frames), "GifConstructor producer");
+        producer.setDaemon(true);
 
-            //Creates image based on whether or not the entire board is to be drawn, or just the active pattern
-            if (drawEntireBoard)
-                drawGifEntireBoard(writer, cellColor);
-            else if (!drawEntireBoard)
-                drawGifPatternOnly(writer, cellColor);
+        File file = new File(filePath);
+        boolean done = false;
+        try (GifEncoder encoder = new GifEncoder(file.toPath(), gifSize, gifSize, backgroundRGB, cellRGB,
+                milliseconds)) {
+            producer.start();
 
-            writer.insertCurrentImage();
-            game.nextGeneration();
-            System.out.println(counter);
-
-            //Recursive call to writeGoLSequenceToGif
-            writeGoLSequenceToGIF(writer, game, counter-1, cellColor);
+            //Writes the frames in the order they were taken, waiting for each one to be drawn.
+            for (int frame = 1; frame <= counter; frame++) {
+                if (cancelled.getAsBoolean()) {
+                    break;
+                }
+                encoder.writeFrame(frames.take().get());
+                progress.accept(frame, counter);
+            }
+            done = !cancelled.getAsBoolean();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof IOException) {
+                throw (IOException) ee.getCause();
+            }
+            throw new IOException(ee.getCause());
+        } finally {
+            producer.interrupt();
+            rasterisers.shutdownNow();
+            if (!done) {
+                file.delete();
+            }
         }
+        return done;
     }
 
     /**
-     * Method that creates an image of the entire cell grid. Sets cell draw size from the width of the board
-     * and constructs an image by iterating through the entire board.
-     * @param writer The GIFWriter to handle the writing to disk.
-     * @param cellColor The color to draw the active cells in.
-     * @see #gifCellSize
-     * @see #gifSize
-     * @see Board#getWidth()
-     * @see Board#getHeight()
-     * @see Board#getCellState(int, int)
-     * @see GIFWriter#fillRect(int, int, int, int, java.awt.Color)
+     * Method run by the producer thread. Takes a snapshot of the board for every frame and hands it to the pool
+     * drawing the frames, making generationsPerFrame generations between each snapshot. Blocks while the queue of
+     * frames is full, and stops when interrupted. Should stepping the game fail, the failure is passed on through
+     * the queue.
+     * @param rasterisers The pool drawing the frames.
+     * @param frames The queue of frames being drawn, in the order they should be written.
+     * @see #snapshot()
+     * @see #rasterise(byte[][], int)
+     * @see #generationsPerFrame
+     * @see GameOfLife#nextGenerations(int)
      */
-    private void drawGifEntireBoard(GIFWriter writer, java.awt.Color cellColor) {
-        gifCellSize = gifSize/gifBoard.getWidth();
-        int cellDrawSize = (int) gifCellSize - 1;
-
-        //Sets the offset to center the drawn elements to the center of the image.
-        int offset = (gifSize - (cellDrawSize * gifBoard.getWidth())) / 2;
-
-        //Iterates through the entire board
-        for (int x = 1; x <= gifBoard.getWidth(); x++) {
-            for (int y = 1; y <= gifBoard.getHeight(); y++) {
-
-                //Checks if cell is active, and draws it according to position and offset.
-                if (gifBoard.getCellState(x - 1,y - 1) == 1) {
-                    writer.fillRect((x * cellDrawSize) - cellDrawSize + offset, (x * cellDrawSize) + offset,
-                            (y * cellDrawSize) - cellDrawSize + offset, (y * cellDrawSize) + offset, cellColor);
-                }
+    private void produceFrames(ExecutorService rasterisers, BlockingQueue<Future<byte[]>> frames) {
+        try {
+            for (int frame = 0; frame < counter; frame++) {
+                byte[][] cells = snapshot();
+                frames.put(rasterisers.submit(() -> rasterise(cells, gifSize)));
+                gifGol.nextGenerations(generationsPerFrame);
+            }
+        } catch (InterruptedException ie) {
+            //The export has stopped.
+        } catch (RuntimeException re) {
+            CompletableFuture<byte[]> failed = new CompletableFuture<>();
+            failed.completeExceptionally(re);
+            try {
+                frames.put(failed);
+            } catch (InterruptedException ie) {
+                //The export has stopped.
             }
         }
     }
 
     /**
-     * Method that creates an image of the active part of the cell grid. It creates a trimmed version of the
-     * board, containing only the active bounding box, and sets cell draw size from the bounding box.
-     * Iterates through the trimmed board and draws the active cells.
-     * @param writer The GIFWriter to handle the writing to disk.
-     * @param cellColor The color to draw the active cells in.
-     * @see #gifCellSize
-     * @see #gifSize
+     * Method that takes a snapshot of the cells to be drawn in the next frame, being either the entire cell grid
+     * or the active pattern only.
+     * @return cells - A copy of the cells, indexed [x][y].
+     * @see #drawEntireBoard
      * @see Board#trim()
-     * @see Board#getCellState(int, int)
-     * @see GIFWriter#fillRect(int, int, int, int, java.awt.Color)
+     * @see Board#rowCursor()
      */
-    private void drawGifPatternOnly(GIFWriter writer, java.awt.Color cellColor) {
-        byte[][] trimmed = gifBoard.trim();
-        int cellDrawSize;
-
-        //Sets the cell draw size based on whether the height or width of the new 2D-array is largest.
-        if (trimmed.length >= trimmed[0].length) {
-            gifCellSize = gifSize/trimmed.length;
-            cellDrawSize = (int) gifCellSize - 1;
-        } else {
-            gifCellSize = gifSize/trimmed[0].length;
-            cellDrawSize = (int) gifCellSize - 1;
+    private byte[][] snapshot() {
+        if (!drawEntireBoard) {
+            return gifBoard.trim();
+        }
+        byte[][] cells = new byte[gifBoard.getWidth()][gifBoard.getHeight()];
+        RowCursor cursor = gifBoard.rowCursor();
+        while (cursor.next()) {
+            for (int x = cursor.nextActive(0); x < cells.length; x = cursor.nextActive(x + 1)) {
+                cells[x][cursor.getY()] = 1;
+            }
         }
+        return cells;
+    }
 
-        //Sets the offset in x and y direction based on the size of the gif and the cells to be drawn, to center
-        //the elements in the image.
-        int offsetX = (gifSize - (cellDrawSize * trimmed.length)) / 2;
-        int offsetY = (gifSize - (cellDrawSize * trimmed[0].length)) / 2;
-
-        //Iterates through the trimmed 2D-array and draws active cells according to position and offset.
-        for (int x = 1; x <= trimmed.length; x++) {
-            for (int y = 1; y <= trimmed[0].length; y++) {
-                if (trimmed[x - 1][y - 1] == 1) {
-                    writer.fillRect((x * cellDrawSize) - cellDrawSize + offsetX, (x * cellDrawSize) + offsetX,
-                            (y * cellDrawSize) - cellDrawSize + offsetY, (y * cellDrawSize) +
-                                    offsetY, cellColor);
+    /**
+     * Method that draws the cells into a square frame of indexed pixels. The cells are scaled to fit the larger of
+     * the width and height in the frame, and centered. Every row of cells is drawn into one line of pixels, which
+     * is then copied for each line of pixels the row covers.
+     * @param cells The cells to be drawn, indexed [x][y].
+     * @param size The width and height of the frame in pixels.
+     * @return pixels - The palette index of every pixel, line by line.
+     */
+    public static byte[] rasterise(byte[][] cells, int size) {
+        byte[] pixels = new byte[size * size];
+        int width = cells.length;
+        int height = width == 0 ? 0 : cells[0].length;
+        if (width == 0 || height == 0) {
+            return pixels;
+        }
+
+        //Sets the cell draw size from the larger side, and the offsets to center the cells in the image.
+        int cellDrawSize = Math.max(1, size / Math.max(width, height) - 1);
+        int offsetX = (size - cellDrawSize * width) / 2;
+        int offsetY = (size - cellDrawSize * height) / 2;
+
+        byte[] line = new byte[size];
+        for (int y = 0; y < height; y++) {
+            int top = Math.max(0, offsetY + y * cellDrawSize);
+            int bottom = Math.min(size, offsetY + (y + 1) * cellDrawSize);
+            if (top >= bottom) {
+                continue;
+            }
+
+            //Draws the active cells of the row into one line of pixels.
+            boolean active = false;
+            Arrays.fill(line, BACKGROUND_INDEX);
+            for (int x = 0; x < width; x++) {
+                if (cells[x][y] == 1) {
+                    int left = Math.max(0, offsetX + x * cellDrawSize);
+                    int right = Math.min(size, offsetX + (x + 1) * cellDrawSize);
+                    if (left < right) {
+                        Arrays.fill(line, left, right, CELL_INDEX);
+                        active = true;
+                    }
+                }
+            }
+
+            //Copies the line to every line of pixels covered by the row.
+            if (active) {
+                for (int py = top; py < bottom; py++) {
+                    System.arraycopy(line, 0, pixels, py * size, size);
                 }
             }
         }
+        return pixels;
     }
 
     /**
-     * Method that converts a javafx color to a java.awt color, by using the rgb values of the color.
+     * Method that converts a javafx color to an integer, by using the rgb values of the color.
      * @param color The javafx color to be converted
-     * @return newColor - The converted color.
+     * @return rgb - The color as RGB.
      */
-    private java.awt.Color convertToAwtColor(Color color) {
-        float red = (float) color.getRed();
-        float green = (float) color.getGreen();
-        float blue = (float) color.getBlue();
-        float opacity = (float) color.getOpacity();
-
-        return new java.awt.Color(red, green, blue, opacity);
+    private static int toRGB(Color color) {
+        return (int) Math.round(color.getRed() * 255) << 16 | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,321 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The GifEncoder class writes animated gifs of two colours, such as the frames of the game. Frames are given as
+ * arrays of palette indices, 0 for the background and 1 for active cells. Only the rectangle that has changed since
+ * the previous frame is written, and the pixels within it that have not changed are written as transparent, so
+ * still lifes, oscillators and guns give small files. The frames are compressed with LZW as they are written, and
+ * the file is written through a FileChannel in large blocks.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class GifEncoder implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final int width;
+    private final int height;
+    private final int delay;
+
+    //The previous frame, used to find the rectangle that has changed. Null before the first frame.
+    private byte[] previous;
+    private int frames;
+
+    //The LZW string table. The code for a string followed by a pixel is found at child[code * 4 + pixel], or 0 if
+    //that string is not yet in the table.
+    private final short[] child = new short[MAX_CODES * PALETTE_SIZE];
+
+    //The state of the sub-block being filled, and the bits not yet written to it.
+    private final byte[] block = new byte[255];
+    private int blockSize;
+    private int bitBuffer;
+    private int bitCount;
+
+    //The palette has a third, unused colour marking transparent pixels, and a fourth to fill it to a power of two.
+    private static final int PALETTE_SIZE = 4;
+    private static final byte TRANSPARENT_INDEX = 2;
+    private static final int MIN_CODE_SIZE = 2;
+    private static final int CLEAR_CODE = 1 << MIN_CODE_SIZE;
+    private static final int END_CODE = CLEAR_CODE + 1;
+    private static final int MAX_CODES = 4096;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Constructor that creates the file and writes the header of the gif, which repeats endlessly.
+     * @param path The path of the file, which is replaced if it exists.
+     * @param width The width of the frames in pixels.
+     * @param height The height of the frames in pixels.
+     * @param backgroundColor The color of the background as RGB.
+     * @param cellColor The color of the active cells as RGB.
+     * @param milliseconds The time each frame is shown.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    public GifEncoder(Path path, int width, int height, int backgroundColor, int cellColor, int milliseconds)
+            throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.width = width;
+        this.height = height;
+        this.delay = Math.max(0, (milliseconds + 5) / 10);
+
+        //Header and logical screen descriptor with a global color table of four colours.
+        put("GIF89a");
+        buffer.putShort((short) width).putShort((short) height);
+        buffer.put((byte) 0x81).put((byte) 0).put((byte) 0);
+        putColor(backgroundColor);
+        putColor(cellColor);
+        putColor(backgroundColor);
+        putColor(backgroundColor);
+
+        //The Netscape application extension, making the gif repeat endlessly.
+        buffer.put((byte) 0x21).put((byte) 0xFF).put((byte) 11);
+        put("NETSCAPE2.0");
+        buffer.put((byte) 3).put((byte) 1).putShort((short) 0).put((byte) 0);
+    }
+
+    /**
+     * Method that writes a frame. Finds the rectangle that differs from the previous frame, and writes the pixels
+     * within it, with those that are unchanged set as transparent. Should nothing have changed, a single
+     * transparent pixel is written so that the frame still takes up its time.
+     * @param pixels The palette index of every pixel, line by line, either 0 or 1.
+     * @exception IOException - Thrown if the file cannot be written.
+     * @exception IllegalArgumentException - Thrown if the frame is of the wrong size.
+     */
+    public void writeFrame(byte[] pixels) throws IOException {
+        if (pixels.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " pixels, got " + pixels.length);
+        }
+
+        //Finds the rectangle of pixels that differ from the previous frame.
+        int left = 0, top = 0, right = width - 1, bottom = height - 1;
+        if (previous != null) {
+            top = height;
+            bottom = -1;
+            left = width;
+            right = -1;
+            for (int y = 0; y < height; y++) {
+                int row = y * width;
+                int x = 0;
+                while (x < width && pixels[row + x] == previous[row + x]) {
+                    x++;
+                }
+                if (x == width) {
+                    continue;
+                }
+                int lastX = width - 1;
+                while (pixels[row + lastX] == previous[row + lastX]) {
+                    lastX--;
+                }
+                top = Math.min(top, y);
+                bottom = y;
+                left = Math.min(left, x);
+                right = Math.max(right, lastX);
+            }
+            if (bottom < 0) {
+                left = right = top = bottom = 0;
+            }
+        }
+
+        //Graphic control extension, leaving each frame in place and marking the transparent index.
+        ensureRoom(32);
+        buffer.put((byte) 0x21).put((byte) 0xF9).put((byte) 4);
+        buffer.put((byte) (previous == null ? 0x04 : 0x05)).putShort((short) delay).put(TRANSPARENT_INDEX);
+        buffer.put((byte) 0);
+
+        //Image descriptor of the rectangle, using the global color table.
+        buffer.put((byte) 0x2C);
+        buffer.putShort((short) left).putShort((short) top);
+        buffer.putShort((short) (right - left + 1)).putShort((short) (bottom - top + 1));
+        buffer.put((byte) 0);
+
+        writeImageData(pixels, left, top, right, bottom);
+
+        if (previous == null) {
+            previous = pixels.clone();
+        } else {
+            System.arraycopy(pixels, 0, previous, 0, pixels.length);
+        }
+        frames++;
+    }
+
+    /**
+     * Method that compresses the pixels of a rectangle with LZW and writes them as sub-blocks. Pixels equal to the
+     * previous frame are written as transparent.
+     * @param pixels The palette index of every pixel of the frame.
+     * @param left The first column of the rectangle.
+     * @param top The first row of the rectangle.
+     * @param right The last column of the rectangle.
+     * @param bottom The last row of the rectangle.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    private void writeImageData(byte[] pixels, int left, int top, int right, int bottom) throws IOException {
+        ensureRoom(1);
+        buffer.put((byte) MIN_CODE_SIZE);
+
+        java.util.Arrays.fill(child, (short) 0);
+        int nextCode = END_CODE + 1;
+        int codeSize = MIN_CODE_SIZE + 1;
+        writeCode(CLEAR_CODE, codeSize);
+
+        int current = -1;
+        for (int y = top; y <= bottom; y++) {
+            int row = y * width;
+            for (int x = left; x <= right; x++) {
+                int pixel = pixels[row + x];
+                if (previous != null && previous[row + x] == pixel) {
+                    pixel = TRANSPARENT_INDEX;
+                }
+                if (current < 0) {
+                    current = pixel;
+                    continue;
+                }
+
+                //Extends the current string if it is in the table, and otherwise writes it and adds the new one.
+                int next = child[current * PALETTE_SIZE + pixel];
+                if (next != 0) {
+                    current = next;
+                    continue;
+                }
+                writeCode(current, codeSize);
+                if (nextCode < MAX_CODES) {
+                    child[current * PALETTE_SIZE + pixel] = (short) nextCode;
+                    if (nextCode == 1 << codeSize) {
+                        codeSize++;
+                    }
+                    nextCode++;
+                } else {
+                    writeCode(CLEAR_CODE, codeSize);
+                    java.util.Arrays.fill(child, (short) 0);
+                    nextCode = END_CODE + 1;
+                    codeSize = MIN_CODE_SIZE + 1;
+                }
+                current = pixel;
+            }
+        }
+        writeCode(current, codeSize);
+        writeCode(END_CODE, codeSize);
+
+        //Writes the remaining bits and the last sub-block, followed by the block terminator.
+        if (bitCount > 0) {
+            putBlockByte(bitBuffer);
+            bitBuffer = 0;
+            bitCount = 0;
+        }
+        flushBlock();
+        ensureRoom(1);
+        buffer.put((byte) 0);
+    }
+
+    /**
+     * Method that adds a code to the bits being written, least significant bit first.
+     * @param code The code to write.
+     * @param codeSize The number of bits in the code.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    private void writeCode(int code, int codeSize) throws IOException {
+        bitBuffer |= code << bitCount;
+        bitCount += codeSize;
+        while (bitCount >= 8) {
+            putBlockByte(bitBuffer);
+            bitBuffer >>>= 8;
+            bitCount -= 8;
+        }
+    }
+
+    /**
+     * Method that adds a byte to the current sub-block, writing the sub-block once it is full.
+     * @param value The byte to add.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    private void putBlockByte(int value) throws IOException {
+        block[blockSize++] = (byte) value;
+        if (blockSize == block.length) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Method that writes the current sub-block, preceded by its size, unless it is empty.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    private void flushBlock() throws IOException {
+        if (blockSize == 0) {
+            return;
+        }
+        ensureRoom(blockSize + 1);
+        buffer.put((byte) blockSize).put(block, 0, blockSize);
+        blockSize = 0;
+    }
+
+    /**
+     * Method that writes the buffer to the file if it does not have room for the given number of bytes.
+     * @param bytes The number of bytes about to be put in the buffer.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Method that writes the content of the buffer to the file.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Method that puts the characters of an ASCII string in the buffer.
+     * @param text The string to put.
+     */
+    private void put(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Method that puts a color in the buffer as three bytes, red, green and blue.
+     * @param rgb The color as RGB.
+     */
+    private void putColor(int rgb) {
+        buffer.put((byte) (rgb >> 16)).put((byte) (rgb >> 8)).put((byte) rgb);
+    }
+
+    /**
+     * Method that returns the number of frames written.
+     * @return frames - The number of frames written.
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Method that writes the trailer of the gif and closes the file.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            ensureRoom(1);
+            buffer.put((byte) 0x3B);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
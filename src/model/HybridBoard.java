@@ -0,0 +1,390 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * HybridBoard is a concrete implementation of the abstract Board class, which splits the board into tiles of 64 by 64
+ * cells and stores each tile the way that suits how many cells are active in it. A tile without active cells takes
+ * no space, a tile with few active cells is stored as a sorted list of their positions, and a tile with many is
+ * stored as a bitmap of one long per row. Patterns such as the sidecar gun, whose streams of gliders cross large empty
+ * areas while the gun itself is dense, would waste space on a bitmap of the whole board or time on a list of every
+ * cell.
+ *
+ * <p>The number of active cells in each tile is kept, and a tile is turned into a bitmap once it has more than
+ * DENSE_LIMIT active cells, when the list would take more space than the bitmap. It is only turned back into a list
+ * once it has less than SPARSE_LIMIT, so that a tile near the limit does not switch for every cell that changes. Like
+ * the StaticBoard, its width and height are final and the cells outside of it are always dead.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class HybridBoard extends Board {
+    private final int width, height;
+    private final int tilesX, tilesY;
+
+    //The tiles, indexed by ty * tilesX + tx. A tile is dense when it has a bitmap, where bit x of long y is the cell
+    //at x, y of the tile, and sparse when it has a list of y * 64 + x for each of its active cells, in increasing
+    //order. An empty tile has neither.
+    private final long[][] denseTiles;
+    private final short[][] sparseTiles;
+    private final int[] tileCounts;
+    private int switchCount;
+
+    //The number of active cells a sparse tile needs to become dense, the size at which the list takes as much space
+    //as the bitmap, and the number a dense tile needs to fall below to become sparse again.
+    static final int DENSE_LIMIT = 256;
+    static final int SPARSE_LIMIT = 64;
+
+    /**
+     * Sole constructor, creates a board of empty tiles.
+     * @param width The width of the playing board.
+     * @param height The height of the playing board.
+     */
+    public HybridBoard(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.tilesX = (width + 63) >>> 6;
+        this.tilesY = (height + 63) >>> 6;
+        this.denseTiles = new long[tilesX * tilesY][];
+        this.sparseTiles = new short[tilesX * tilesY][];
+        this.tileCounts = new int[tilesX * tilesY];
+    }
+
+    /**
+     * Concrete implementation of getWidth in the Board class.
+     * @return width - The width of the board.
+     * @see Board#getWidth()
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Concrete implementation of getHeight in the Board class.
+     * @return height - The height of the board.
+     * @see Board#getHeight()
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Concrete implementation of getCellState in the Board class. Reads the cell from the bitmap of a dense tile, or
+     * finds it in the list of a sparse tile by binary search.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return state - A byte value representing the state of the requested cell.
+     * @exception ArrayIndexOutOfBoundsException - If the cell requested is not within the bounds of the grid.
+     * @see Board#getCellState(int, int)
+     */
+    @Override
+    public byte getCellState(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        int tile = (y >>> 6) * tilesX + (x >>> 6);
+        if (denseTiles[tile] != null) {
+            return (byte)(denseTiles[tile][y & 63] >>> x & 1);
+        }
+        if (sparseTiles[tile] != null) {
+            return Arrays.binarySearch(sparseTiles[tile], 0, tileCounts[tile], key(x, y)) >= 0 ? (byte)1 : (byte)0;
+        }
+        return 0;
+    }
+
+    /**
+     * Concrete implementation of setCellState in the Board class. Sets the cell in its tile, and switches the tile
+     * between sparse and dense should its number of active cells cross the limits.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param state The state the cell should be set to.
+     * @exception ArrayIndexOutOfBoundsException - If the cell requested is not within the bounds of the grid.
+     * @see Board#setCellState(int, int, byte)
+     */
+    @Override
+    public void setCellState(int x, int y, byte state) {
+        if (state == 1 || state == 0) {
+            if (x < 0 || x >= width || y < 0 || y >= height) {
+                throw new ArrayIndexOutOfBoundsException();
+            }
+            if (getCellState(x, y) == state) {
+                return;
+            }
+            int tile = (y >>> 6) * tilesX + (x >>> 6);
+            if (denseTiles[tile] != null) {
+                denseTiles[tile][y & 63] ^= 1L << x;
+                tileCounts[tile] += state == 1 ? 1 : -1;
+            } else if (state == 1) {
+                short[] list = sparseTiles[tile] == null ? new short[8] : sparseTiles[tile];
+                int count = tileCounts[tile];
+                if (count == list.length) {
+                    list = Arrays.copyOf(list, 2 * count);
+                }
+                int index = -Arrays.binarySearch(list, 0, count, key(x, y)) - 1;
+                System.arraycopy(list, index, list, index + 1, count - index);
+                list[index] = key(x, y);
+                sparseTiles[tile] = list;
+                tileCounts[tile]++;
+            } else {
+                short[] list = sparseTiles[tile];
+                int count = tileCounts[tile];
+                int index = Arrays.binarySearch(list, 0, count, key(x, y));
+                System.arraycopy(list, index + 1, list, index, count - index - 1);
+                tileCounts[tile]--;
+            }
+            switchTile(tile);
+            invalidateHash();
+        }
+    }
+
+    /**
+     * Method that switches a tile between sparse and dense storage should its number of active cells have crossed
+     * the limits, and drops the storage of a tile without active cells.
+     * @param tile The index of the tile.
+     * @see #DENSE_LIMIT
+     * @see #SPARSE_LIMIT
+     */
+    private void switchTile(int tile) {
+        int count = tileCounts[tile];
+        if (count == 0) {
+            denseTiles[tile] = null;
+            sparseTiles[tile] = null;
+        } else if (denseTiles[tile] == null && count > DENSE_LIMIT) {
+            long[] bitmap = new long[64];
+            short[] list = sparseTiles[tile];
+            for (int i = 0; i < count; i++) {
+                bitmap[list[i] >>> 6] |= 1L << list[i];
+            }
+            denseTiles[tile] = bitmap;
+            sparseTiles[tile] = null;
+            switchCount++;
+        } else if (denseTiles[tile] != null && count < SPARSE_LIMIT) {
+            sparseTiles[tile] = toList(denseTiles[tile], count);
+            denseTiles[tile] = null;
+            switchCount++;
+        }
+    }
+
+    /**
+     * Method that makes the sorted list of active cells of a bitmap.
+     * @param bitmap The bitmap of the tile.
+     * @param count The number of active cells in the bitmap.
+     * @return list - The list of y * 64 + x for each active cell.
+     */
+    private static short[] toList(long[] bitmap, int count) {
+        short[] list = new short[Math.max(count, 8)];
+        int index = 0;
+        for (int y = 0; y < 64; y++) {
+            for (long cells = bitmap[y]; cells != 0; cells &= cells - 1) {
+                list[index++] = (short)(y << 6 | Long.numberOfTrailingZeros(cells));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Method that returns the position of a cell within its tile, as it is stored in the list of a sparse tile.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return key - y * 64 + x within the tile.
+     */
+    private static short key(int x, int y) {
+        return (short)((y & 63) << 6 | (x & 63));
+    }
+
+    /**
+     * Method that reads a row into an array from the tiles it crosses, skipping empty tiles. Overrides the readRow
+     * method in the Board class.
+     * @param y The y coordinate of the row.
+     * @param row The array to read the row into.
+     * @see Board#readRow(int, byte[])
+     */
+    @Override
+    protected void readRow(int y, byte[] row) {
+        Arrays.fill(row, 0, width, (byte)0);
+        for (int tx = 0; tx < tilesX; tx++) {
+            int tile = (y >>> 6) * tilesX + tx;
+            if (denseTiles[tile] != null) {
+                for (long cells = denseTiles[tile][y & 63]; cells != 0; cells &= cells - 1) {
+                    row[tx * 64 + Long.numberOfTrailingZeros(cells)] = 1;
+                }
+            } else if (sparseTiles[tile] != null) {
+                //The cells of the row follow each other in the list, from the first key not below y * 64.
+                short[] list = sparseTiles[tile];
+                int i = Arrays.binarySearch(list, 0, tileCounts[tile], key(0, y));
+                for (i = i < 0 ? -i - 1 : i; i < tileCounts[tile] && list[i] >>> 6 == (y & 63); i++) {
+                    row[tx * 64 + (list[i] & 63)] = 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that packs the cells into rows of bits, one long of a row being one row of a tile. Overrides the
+     * packRows method in the Board class, copying the bitmaps of dense tiles and setting the bits of sparse tiles.
+     * @param rows The rows to pack the cells into.
+     * @param words The number of longs in each row.
+     * @param firstRow The row to hold the upper row of the cell grid.
+     * @see Board#packRows(long[], int, int)
+     */
+    @Override
+    protected void packRows(long[] rows, int words, int firstRow) {
+        for (int ty = 0; ty < tilesY; ty++) {
+            for (int tx = 0; tx < tilesX; tx++) {
+                int tile = ty * tilesX + tx;
+                int first = (firstRow + ty * 64) * words + tx;
+                if (denseTiles[tile] != null) {
+                    long[] bitmap = denseTiles[tile];
+                    for (int y = 0; y < Math.min(64, height - ty * 64); y++) {
+                        rows[first + y * words] |= bitmap[y];
+                    }
+                } else if (sparseTiles[tile] != null) {
+                    short[] list = sparseTiles[tile];
+                    for (int i = 0; i < tileCounts[tile]; i++) {
+                        rows[first + (list[i] >>> 6) * words] |= 1L << list[i];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that sets every cell from rows of bits, packed as by packRows(). Overrides the unpackRows method in the
+     * Board class. Each tile is counted from its rows and stored again, as dense or sparse by the same limits as
+     * setCellState(), and the rows of an empty tile are only read.
+     * @param rows The rows to set the cells from.
+     * @param words The number of longs in each row.
+     * @param firstRow The row holding the upper row of the cell grid.
+     * @see Board#unpackRows(long[], int, int)
+     */
+    @Override
+    protected void unpackRows(long[] rows, int words, int firstRow) {
+        long lastWordMask = width % 64 == 0 ? -1L : (1L << width % 64) - 1;
+        for (int ty = 0; ty < tilesY; ty++) {
+            int tileHeight = Math.min(64, height - ty * 64);
+            for (int tx = 0; tx < tilesX; tx++) {
+                int tile = ty * tilesX + tx;
+                int first = (firstRow + ty * 64) * words + tx;
+                long mask = tx == tilesX - 1 ? lastWordMask : -1L;
+                int count = 0;
+                for (int y = 0; y < tileHeight; y++) {
+                    count += Long.bitCount(rows[first + y * words] & mask);
+                }
+
+                boolean dense = denseTiles[tile] != null ? count >= SPARSE_LIMIT : count > DENSE_LIMIT;
+                if (count > 0 && dense) {
+                    long[] bitmap = denseTiles[tile] != null ? denseTiles[tile] : new long[64];
+                    for (int y = 0; y < tileHeight; y++) {
+                        bitmap[y] = rows[first + y * words] & mask;
+                    }
+                    if (denseTiles[tile] == null) {
+                        switchCount++;
+                    }
+                    denseTiles[tile] = bitmap;
+                    sparseTiles[tile] = null;
+                } else if (count > 0) {
+                    short[] list = sparseTiles[tile] != null && sparseTiles[tile].length >= count
+                            ? sparseTiles[tile] : new short[Math.max(count, 8)];
+                    int index = 0;
+                    for (int y = 0; y < tileHeight; y++) {
+                        for (long cells = rows[first + y * words] & mask; cells != 0; cells &= cells - 1) {
+                            list[index++] = (short)(y << 6 | Long.numberOfTrailingZeros(cells));
+                        }
+                    }
+                    if (denseTiles[tile] != null) {
+                        switchCount++;
+                    }
+                    denseTiles[tile] = null;
+                    sparseTiles[tile] = list;
+                } else {
+                    denseTiles[tile] = null;
+                    sparseTiles[tile] = null;
+                }
+                tileCounts[tile] = count;
+            }
+        }
+        invalidateHash();
+    }
+
+    /**
+     * Method that counts the active cells from the counts of the tiles. Overrides the countCellsAlive method in the
+     * Board class.
+     * @return count - The number of active cells.
+     * @see Board#countCellsAlive()
+     */
+    @Override
+    public int countCellsAlive() {
+        int count = 0;
+        for (int tileCount : tileCounts) {
+            count += tileCount;
+        }
+        return count;
+    }
+
+    /**
+     * Method that returns the number of tiles stored as bitmaps.
+     * @return denseTileCount - The number of dense tiles.
+     */
+    public int getDenseTileCount() {
+        int count = 0;
+        for (long[] bitmap : denseTiles) {
+            if (bitmap != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method that returns the number of tiles stored as lists of active cells.
+     * @return sparseTileCount - The number of sparse tiles.
+     */
+    public int getSparseTileCount() {
+        int count = 0;
+        for (short[] list : sparseTiles) {
+            if (list != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method that returns the number of tiles without active cells, which are not stored at all.
+     * @return emptyTileCount - The number of empty tiles.
+     */
+    public int getEmptyTileCount() {
+        return tileCounts.length - getDenseTileCount() - getSparseTileCount();
+    }
+
+    /**
+     * Method that returns the number of times a tile has switched between sparse and dense since the board was made.
+     * @return switchCount - The number of switches.
+     */
+    public int getSwitchCount() {
+        return switchCount;
+    }
+
+    /**
+     * Concrete implementation of clone in the Board class. Copies the storage of every tile.
+     * @return hybridBoardClone - The copy of the board.
+     * @see Board#clone()
+     */
+    @Override
+    public Object clone() {
+        HybridBoard hybridBoardClone = new HybridBoard(width, height);
+        for (int tile = 0; tile < tileCounts.length; tile++) {
+            if (denseTiles[tile] != null) {
+                hybridBoardClone.denseTiles[tile] = denseTiles[tile].clone();
+            }
+            if (sparseTiles[tile] != null) {
+                hybridBoardClone.sparseTiles[tile] = sparseTiles[tile].clone();
+            }
+        }
+        System.arraycopy(tileCounts, 0, hybridBoardClone.tileCounts, 0, tileCounts.length);
+        hybridBoardClone.setCellsAlive(getCellsAlive());
+        return hybridBoardClone;
+    }
+}
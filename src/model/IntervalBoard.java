@@ -0,0 +1,478 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+
+/**
+ * IntervalBoard is a concrete implementation of the abstract Board class, which stores each row as a list of the
+ * intervals of active cells rather than as one byte per cell. A row is an array of increasing columns where the cells
+ * change state, so the cells from a[0] up to a[1], from a[2] up to a[3] and so on are active. Engineered patterns
+ * with long solid runs and large empty gaps, such as the Turing machine, take up a few ints per row this way, and
+ * RLE files, being runs themselves, are read and written almost as they are stored.
+ *
+ * <p>The next generation of a row is made by merging the intervals of the row and the rows above and below it. The
+ * state of a cell and its number of neighbours can only change one column before, at or after a column where one of
+ * the three rows changes, so the rule only has to be applied at those columns. The rows are never changed once made,
+ * so a clone only copies the array of rows. Like the StaticBoard, its width and height are final.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class IntervalBoard extends Board {
+    private final int width, height;
+    private int[][] rows;
+
+    //The row without active cells, shared by every empty row.
+    private static final int[] EMPTY = new int[0];
+
+    //The operations of merge(), as the results for a cell active in neither, only the second, only the first or
+    //both of the rows merged.
+    static final int UNION = 0b1110;
+    static final int DIFFERENCE = 0b0110;
+    static final int SUBTRACTION = 0b0100;
+
+    /**
+     * Sole constructor, creates a board of empty rows.
+     * @param width The width of the playing board.
+     * @param height The height of the playing board.
+     */
+    public IntervalBoard(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.rows = new int[height][];
+        Arrays.fill(rows, EMPTY);
+    }
+
+    /**
+     * Concrete implementation of getWidth in the Board class.
+     * @return width - The width of the board.
+     * @see Board#getWidth()
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Concrete implementation of getHeight in the Board class.
+     * @return height - The height of the board.
+     * @see Board#getHeight()
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Concrete implementation of getCellState in the Board class. Finds the cell among the intervals of its row by
+     * binary search.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return state - A byte value representing the state of the requested cell.
+     * @exception ArrayIndexOutOfBoundsException - If the cell requested is not within the bounds of the grid.
+     * @see Board#getCellState(int, int)
+     */
+    @Override
+    public byte getCellState(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        return contains(rows[y], x) ? (byte)1 : (byte)0;
+    }
+
+    /**
+     * Concrete implementation of setCellState in the Board class. Makes a new row with the cell added to or
+     * removed from the intervals.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param state The state the cell should be set to.
+     * @exception ArrayIndexOutOfBoundsException - If the cell requested is not within the bounds of the grid.
+     * @see Board#setCellState(int, int, byte)
+     */
+    @Override
+    public void setCellState(int x, int y, byte state) {
+        if (state == 1 || state == 0) {
+            if (x < 0 || x >= width || y < 0 || y >= height) {
+                throw new ArrayIndexOutOfBoundsException();
+            }
+            if (contains(rows[y], x) != (state == 1)) {
+                rows[y] = merge(rows[y], new int[]{x, x + 1}, DIFFERENCE);
+                invalidateHash();
+            }
+        }
+    }
+
+    /**
+     * Method that reads a row into an array by filling in its intervals. Overrides the readRow method in the Board
+     * class.
+     * @param y The y coordinate of the row.
+     * @param row The array to read the row into.
+     * @see Board#readRow(int, byte[])
+     */
+    @Override
+    protected void readRow(int y, byte[] row) {
+        Arrays.fill(row, 0, width, (byte)0);
+        int[] intervals = rows[y];
+        for (int i = 0; i < intervals.length; i += 2) {
+            Arrays.fill(row, intervals[i], intervals[i + 1], (byte)1);
+        }
+    }
+
+    /**
+     * Method that returns the intervals of active cells in a row.
+     * @param y The y coordinate of the row.
+     * @return intervals - A copy of the columns where the cells of the row change state.
+     */
+    public int[] getRow(int y) {
+        return rows[y].clone();
+    }
+
+    /**
+     * Method that sets the intervals of active cells in a row.
+     * @param y The y coordinate of the row.
+     * @param intervals The columns where the cells of the row change state, an even number of increasing columns.
+     * @exception IllegalArgumentException - Thrown if the columns are not increasing, or not within the board.
+     */
+    public void setRow(int y, int[] intervals) {
+        if (intervals.length % 2 != 0) {
+            throw new IllegalArgumentException("A row needs an even number of columns");
+        }
+        for (int i = 0; i < intervals.length; i++) {
+            if (intervals[i] < 0 || intervals[i] > width || (i > 0 && intervals[i] <= intervals[i - 1])) {
+                throw new IllegalArgumentException("Invalid intervals " + Arrays.toString(intervals));
+            }
+        }
+        rows[y] = intervals.length == 0 ? EMPTY : intervals.clone();
+        invalidateHash();
+    }
+
+    /**
+     * Method that counts the active cells from the lengths of the intervals. Overrides the countCellsAlive method
+     * in the Board class.
+     * @return count - The number of active cells.
+     * @see Board#countCellsAlive()
+     */
+    @Override
+    public int countCellsAlive() {
+        int count = 0;
+        for (int[] row : rows) {
+            count += length(row);
+        }
+        return count;
+    }
+
+    /**
+     * Method that makes the next generation of the board by merging the intervals of every three rows.
+     * @param rule The rule number.
+     * @see #nextRows(int)
+     * @see RuleExplorer#toRule(String, String)
+     */
+    public void nextGeneration(int rule) {
+        rows = nextRows(rule);
+        setCellsAlive(countCellsAlive());
+        invalidateHash();
+    }
+
+    /**
+     * Method that makes the rows of the next generation, without changing the board. Each row is swept from left to
+     * right with a cursor into the row or the rows above and below it for each of the nine cells around a column.
+     * Between the columns where one of the nine cells changes state nothing changes, so the rule is only applied at
+     * those columns, the next of them being the nearest column one of the cursors points to.
+     * @param rule The rule number.
+     * @return rows - The rows of the next generation.
+     */
+    int[][] nextRows(int rule) {
+        int[][] next = new int[height][];
+        boolean emptyStaysEmpty = (rule & 1) == 0;
+        int[][] neighbours = new int[9][];
+        int[] cursors = new int[9];
+        int[] changes = new int[16];
+
+        for (int y = 0; y < height; y++) {
+            int[] above = y > 0 ? rows[y - 1] : EMPTY;
+            int[] row = rows[y];
+            int[] below = y < height - 1 ? rows[y + 1] : EMPTY;
+            if (above.length + row.length + below.length == 0 && emptyStaysEmpty) {
+                next[y] = EMPTY;
+                continue;
+            }
+            //Cursor 3 * (dx + 1) + dy + 1 reads the cell at x + dx in the row at y + dy.
+            for (int i = 0; i < 9; i += 3) {
+                neighbours[i] = above;
+                neighbours[i + 1] = row;
+                neighbours[i + 2] = below;
+            }
+            Arrays.fill(cursors, 0);
+
+            //Applies the rule at a column, then moves on to the first column where one of the nine cells read
+            //changes state, keeping the columns where the next generation changes state.
+            int changeCount = 0;
+            boolean active = false;
+            int x = 0;
+            while (x < width) {
+                int count = 0;
+                int nextX = width;
+                for (int i = 0; i < 9; i++) {
+                    int dx = i / 3 - 1;
+                    int[] neighbour = neighbours[i];
+                    int cursor = advance(neighbour, cursors[i], x + dx);
+                    cursors[i] = cursor;
+                    count += cursor & 1;
+                    if (cursor < neighbour.length && neighbour[cursor] - dx < nextX) {
+                        nextX = neighbour[cursor] - dx;
+                    }
+                }
+                boolean alive = (cursors[4] & 1) != 0;
+                if (alive) {
+                    count--;
+                }
+                boolean nextActive = (rule >> (alive ? 9 + count : count) & 1) != 0;
+                if (nextActive != active) {
+                    if (changeCount == changes.length) {
+                        changes = Arrays.copyOf(changes, 2 * changes.length);
+                    }
+                    changes[changeCount++] = x;
+                    active = nextActive;
+                }
+                x = nextX;
+            }
+            if (active) {
+                if (changeCount == changes.length) {
+                    changes = Arrays.copyOf(changes, 2 * changes.length);
+                }
+                changes[changeCount++] = width;
+            }
+            next[y] = changeCount == 0 ? EMPTY : Arrays.copyOf(changes, changeCount);
+        }
+        return next;
+    }
+
+    /**
+     * Method that returns the rows of the board, used by GameOfLife to compare two generations. The rows must not be
+     * changed.
+     * @return rows - The rows of the board.
+     */
+    int[][] getRows() {
+        return rows;
+    }
+
+    /**
+     * Method used by GameOfLife to set the rows of the next generation, as made by nextRows().
+     * @param newRows The rows of the next generation.
+     * @see #nextRows(int)
+     */
+    void setRows(int[][] newRows) {
+        rows = newRows;
+        invalidateHash();
+    }
+
+    /**
+     * Method that moves a cursor along a row past every column that is not greater than a column, so that the
+     * cursor is odd exactly when the cell in the column is active.
+     * @param row The intervals of the row.
+     * @param cursor The index of the first column not passed.
+     * @param x The column.
+     * @return cursor - The index of the first column greater than x.
+     */
+    private static int advance(int[] row, int cursor, int x) {
+        while (cursor < row.length && row[cursor] <= x) {
+            cursor++;
+        }
+        return cursor;
+    }
+
+    /**
+     * Method that returns whether a cell is active in a row, by binary search.
+     * @param row The intervals of the row.
+     * @param x The column of the cell.
+     * @return contains - True if the cell is within one of the intervals.
+     */
+    static boolean contains(int[] row, int x) {
+        int index = Arrays.binarySearch(row, x);
+        //A column found is the start of an interval when its index is even, otherwise the insertion point is odd
+        //within an interval.
+        return index >= 0 ? index % 2 == 0 : (-index - 1) % 2 != 0;
+    }
+
+    /**
+     * Method that returns the number of active cells in a row.
+     * @param row The intervals of the row.
+     * @return length - The total length of the intervals.
+     */
+    static int length(int[] row) {
+        int length = 0;
+        for (int i = 0; i < row.length; i += 2) {
+            length += row[i + 1] - row[i];
+        }
+        return length;
+    }
+
+    /**
+     * Method that merges the intervals of two rows, walking through the columns where either row changes state. The
+     * operation gives the result for each combination of states, as bit 2 * first + second.
+     * @param first The intervals of the first row.
+     * @param second The intervals of the second row.
+     * @param operation UNION, DIFFERENCE or SUBTRACTION.
+     * @return merged - The intervals of the merged row.
+     */
+    static int[] merge(int[] first, int[] second, int operation) {
+        int[] merged = new int[first.length + second.length];
+        int count = 0;
+        int i = 0, j = 0;
+        int inFirst = 0, inSecond = 0, active = 0;
+        while (i < first.length || j < second.length) {
+            int x = j == second.length || (i < first.length && first[i] < second[j]) ? first[i] : second[j];
+            if (i < first.length && first[i] == x) {
+                inFirst ^= 1;
+                i++;
+            }
+            if (j < second.length && second[j] == x) {
+                inSecond ^= 1;
+                j++;
+            }
+            int nextActive = operation >> (2 * inFirst + inSecond) & 1;
+            if (nextActive != active) {
+                merged[count++] = x;
+                active = nextActive;
+            }
+        }
+        return count == 0 ? EMPTY : Arrays.copyOf(merged, count);
+    }
+
+    /**
+     * Method that reads an RLE file into a new board the size given by its header, turning each run of active
+     * cells straight into an interval.
+     * @param reader The reader of the file.
+     * @return board - The board holding the pattern.
+     * @exception IOException - Thrown if the file cannot be read.
+     * @exception PatternFormatException - Thrown if the header is missing, or the body contains unexpected
+     *                                     characters or no end marker.
+     * @exception ArrayIndexOutOfBoundsException - Thrown if the body does not fit within the x and y of the header.
+     * @see FileHandler#readPattern(Reader)
+     */
+    public static IntervalBoard readRLE(Reader reader) throws IOException, PatternFormatException {
+        BufferedReader br = new BufferedReader(reader);
+        Matcher headerMatcher = null;
+        String line;
+        while ((line = br.readLine()) != null) {
+            if (line.startsWith("x")) {
+                headerMatcher = FileHandler.RLE_HEADER.matcher(line);
+                break;
+            }
+        }
+        if (headerMatcher == null || !headerMatcher.matches()) {
+            throw new PatternFormatException();
+        }
+        IntervalBoard board = new IntervalBoard(Integer.parseInt(headerMatcher.group(1)),
+                Integer.parseInt(headerMatcher.group(2)));
+
+        int[] row = new int[16];
+        int count = 0;
+        int leadingNumber = 0;
+        int column = 0, y = 0;
+        int read;
+        while ((read = br.read()) != -1) {
+            char currentChar = (char)read;
+            int run = leadingNumber == 0 ? 1 : leadingNumber;
+            if (currentChar >= '0' && currentChar <= '9') {
+                leadingNumber = (10 * leadingNumber) + (currentChar - '0');
+                continue;
+            }
+
+            if (currentChar == 'o' || currentChar == 'b') {
+                if (column + run > board.width || y >= board.height) {
+                    throw new ArrayIndexOutOfBoundsException();
+                }
+                if (currentChar == 'o') {
+                    //Runs of active cells next to each other are joined into one interval.
+                    if (count > 0 && row[count - 1] == column) {
+                        row[count - 1] = column + run;
+                    } else {
+                        if (count + 2 > row.length) {
+                            row = Arrays.copyOf(row, 2 * row.length);
+                        }
+                        row[count++] = column;
+                        row[count++] = column + run;
+                    }
+                }
+                column += run;
+            } else if (currentChar == '$' || currentChar == '!') {
+                if (count > 0) {
+                    board.rows[y] = Arrays.copyOf(row, count);
+                    count = 0;
+                }
+                if (currentChar == '!') {
+                    board.setCellsAlive(board.countCellsAlive());
+                    return board;
+                }
+                y += run;
+                column = 0;
+            } else if (currentChar != '\n' && currentChar != '\r') {
+                throw new PatternFormatException();
+            }
+            leadingNumber = 0;
+        }
+        throw new PatternFormatException();
+    }
+
+    /**
+     * Method that writes the board as the body of an RLE file, turning each interval straight into a run of
+     * active cells. Dead cells at the end of a row are left out, as are empty rows at the end of the board.
+     * @return rle - The body of the RLE file, ending with '!'.
+     * @see FileHandler#stringToRLE(String)
+     */
+    public String toRLE() {
+        StringBuilder rle = new StringBuilder();
+        int emptyRows = 0;
+        for (int[] row : rows) {
+            if (row.length == 0) {
+                emptyRows++;
+                continue;
+            }
+            if (rle.length() > 0 || emptyRows > 0) {
+                appendRun(rle, emptyRows + (rle.length() > 0 ? 1 : 0), '$');
+            }
+            emptyRows = 0;
+            int column = 0;
+            for (int i = 0; i < row.length; i += 2) {
+                appendRun(rle, row[i] - column, 'b');
+                appendRun(rle, row[i + 1] - row[i], 'o');
+                column = row[i + 1];
+            }
+        }
+        return rle.append('!').toString();
+    }
+
+    /**
+     * Method that appends a run of a character, with its length in front of it unless it is 1.
+     * @param rle The RLE being written.
+     * @param run The length of the run, nothing being appended if it is 0.
+     * @param c The character.
+     */
+    private static void appendRun(StringBuilder rle, int run, char c) {
+        if (run > 1) {
+            rle.append(run);
+        }
+        if (run > 0) {
+            rle.append(c);
+        }
+    }
+
+    /**
+     * Concrete implementation of clone in the Board class. As rows are never changed once made, only the array of
+     * rows is copied.
+     * @return intervalBoardClone - The copy of the board.
+     * @see Board#clone()
+     */
+    @Override
+    public Object clone() {
+        IntervalBoard intervalBoardClone = new IntervalBoard(width, height);
+        intervalBoardClone.rows = rows.clone();
+        intervalBoardClone.setCellsAlive(getCellsAlive());
+        return intervalBoardClone;
+    }
+}
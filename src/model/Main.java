@@ -7,10 +7,14 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
+import java.util.Arrays;
 
 /**
  * This is the driver class for this implementation of Game of Life. It contains the start method from
- * Application, and the main method for the application.
+ * Application, and the main method for the application. Started with "--census", followed by the rule, the seed,
+ * the number of soups and the checkpoint file, the main method runs a soup census without the user interface.
+ * Started with "--explore", followed by the first rule, the rule after the last rule, the number of soups, the number
+ * of generations, the seed and the CSV-file, it explores a range of rule numbers and writes the results to the file.
  *
  * @author Oscar Vladau-Husevold
  * @author Henrik Finnerud Larsen
@@ -36,7 +40,17 @@ public class Main extends Application {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> workers.shutDownExecutor()));
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        //Runs a soup census without the user interface when asked to on the command line.
+        if (args.length > 0 && args[0].equals("--census")) {
+            SoupCensus.runFromCommandLine(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        //Explores rules without the user interface when asked to on the command line.
+        if (args.length > 0 && args[0].equals("--explore")) {
+            RuleExplorer.runFromCommandLine(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         launch(args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package model;
+
+/**
+ * The MetricCollector interface is implemented by measurements of the game, such as the number of cells alive, that
+ * are calculated while the next generation is being made rather than by going through the board again afterwards.
+ * A GameOfLife with collectors added hands each collector every cell that is alive in either the current or the next
+ * generation, as it enforces the rules on that cell. Cells that are dead in both generations are not handed on, so
+ * a collector costs nothing for the empty parts of the board.<br><br>
+ * When the game runs concurrently, every thread fills its own partial collector, made by newPartial(), and the
+ * partials are merged into the collector once all threads are done, so the threads never share a collector.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ * @see GameOfLife#addMetricCollector(MetricCollector)
+ */
+public interface MetricCollector {
+
+    /**
+     * Method that creates an empty collector of the same kind, used by one thread to collect a part of the board.
+     * @return partial - An empty collector that can be merged into this one.
+     */
+    MetricCollector newPartial();
+
+    /**
+     * Method that empties the collector before the next generation is measured.
+     */
+    void reset();
+
+    /**
+     * Method that measures one cell that is alive in the current generation, the next generation or both.
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @param oldState The state of the cell in the current generation.
+     * @param newState The state of the cell in the next generation.
+     */
+    void accept(int x, int y, byte oldState, byte newState);
+
+    /**
+     * Method that adds the measurements of a partial collector to this one.
+     * @param partial A collector made by newPartial() of this collector.
+     */
+    void merge(MetricCollector partial);
+}
@@ -0,0 +1,144 @@
+package model;
+
+/**
+ * The PackedPattern class holds a decoded pattern in compact form, one bit per cell, together with the metadata and
+ * rules read from its file. A PackedPattern is immutable and not tied to any board, so it can be decoded on a
+ * background thread, kept in the PatternCache, and placed on a board later through FileHandler's applyPattern().
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PackedPattern {
+    private final int width;
+    private final int height;
+    private final long[] cells;
+    private final int cellsAlive;
+
+    //The formatted metadata and the rules of the pattern, rules is null if the file had none.
+    private final String metaTitle;
+    private final String metaData;
+    private final String rules;
+
+    /**
+     * Constructor that packs a pattern. The 2D-array is indexed [x][y], like the loaded pattern of the Board.
+     * @param pattern The pattern to pack.
+     * @param metaTitle The formatted title of the pattern.
+     * @param metaData The formatted metadata of the pattern.
+     * @param rules The rules read from the file, or null.
+     */
+    public PackedPattern(byte[][] pattern, String metaTitle, String metaData, String rules) {
+        this.width = pattern.length;
+        this.height = width == 0 ? 0 : pattern[0].length;
+        this.cells = new long[(int) (((long) width * height + 63) >>> 6)];
+        this.metaTitle = metaTitle;
+        this.metaData = metaData;
+        this.rules = rules;
+
+        //Sets one bit for every live cell, row by row.
+        int alive = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (pattern[x][y] == 1) {
+                    long index = (long) y * width + x;
+                    cells[(int) (index >>> 6)] |= 1L << index;
+                    alive++;
+                }
+            }
+        }
+        this.cellsAlive = alive;
+    }
+
+    /**
+     * Method that unpacks the pattern into a new 2D-array indexed [x][y].
+     * @return pattern - The unpacked pattern.
+     */
+    public byte[][] toArray() {
+        byte[][] pattern = new byte[width][height];
+        for (int word = 0; word < cells.length; word++) {
+            long bits = cells[word];
+            while (bits != 0) {
+                long index = ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+                pattern[(int) (index % width)][(int) (index / width)] = 1;
+                bits &= bits - 1;
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Method that returns the state of a cell.
+     * @param x The x coordinate of the cell.
+     * @param y The y coordinate of the cell.
+     * @return boolean - True if the cell is alive.
+     */
+    public boolean isAlive(int x, int y) {
+        long index = (long) y * width + x;
+        return (cells[(int) (index >>> 6)] >>> index & 1) == 1;
+    }
+
+    /**
+     * Method that returns the packed cells. Bit number y * width + x is set if the cell at (x, y) is alive, counting
+     * from the lowest bit of the first long.
+     * @return cells - The packed cells. The array must not be modified.
+     */
+    long[] getCells() {
+        return cells;
+    }
+
+    /**
+     * Method that returns an estimate of the memory used by the pattern, used by the PatternCache to limit its size.
+     * @return bytes - The estimated number of bytes used.
+     */
+    public long getSizeInBytes() {
+        return 8L * cells.length + 2L * (metaTitle.length() + metaData.length()) + 64;
+    }
+
+    /**
+     * Method that returns the width of the pattern.
+     * @return width - The width of the pattern.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Method that returns the height of the pattern.
+     * @return height - The height of the pattern.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Method that returns the number of live cells in the pattern.
+     * @return cellsAlive - The number of live cells.
+     */
+    public int getCellsAlive() {
+        return cellsAlive;
+    }
+
+    /**
+     * Method that returns the formatted title of the pattern.
+     * @return metaTitle - The title of the pattern.
+     */
+    public String getMetaTitle() {
+        return metaTitle;
+    }
+
+    /**
+     * Method that returns the formatted metadata of the pattern.
+     * @return metaData - The metadata of the pattern.
+     */
+    public String getMetaData() {
+        return metaData;
+    }
+
+    /**
+     * Method that returns the rules read from the file of the pattern.
+     * @return rules - The rules of the pattern, or null if the file had none.
+     */
+    public String getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,520 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The PatternAnalyser class finds out what kind of pattern is on the board: a still life, an oscillator, a
+ * spaceship or none of these. It runs a clone of the game and, for every generation, gets the population, the number
+ * of cells that changed and the bounding box from collectors filled while the generation is made, along with a hash
+ * of the shape of the pattern that does not depend on where the pattern is. When the hash of a shape is seen again,
+ * the shape is saved, and the pattern is confirmed to repeat only if the shape is exactly the same one period later.
+ * For oscillators, one more period is run to count the cells that change (the rotor) and those that are always alive
+ * (the stator).
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PatternAnalyser {
+
+    //The default number of generations to run before giving up.
+    private static final int DEFAULT_GENERATIONS = 1000;
+
+    /**
+     * Method that analyses the pattern of a game, running at most the default number of generations.
+     * @param game The game, which is cloned and not changed.
+     * @return analysis - The result of the analysis.
+     * @see #analyse(GameOfLife, int)
+     */
+    public Analysis analyse(GameOfLife game) {
+        return analyse(game, DEFAULT_GENERATIONS);
+    }
+
+    /**
+     * Method that analyses the pattern of a game. Runs a clone of the game until the shape of the pattern has
+     * repeated, the pattern has died, or the given number of generations has been run. Needs twice the period in
+     * generations to confirm a repeat, as the shape is compared one period after its hash was seen again.
+     * @param game The game, which is cloned and not changed.
+     * @param generations The number of generations to run at most.
+     * @return analysis - The result of the analysis.
+     * @see GameOfLife#addMetricCollector(MetricCollector)
+     * @see ShapeHashCollector
+     * @see #countRotor(GameOfLife, int)
+     */
+    public Analysis analyse(GameOfLife game, int generations) {
+        GameOfLife gameOfLife = (GameOfLife) game.clone();
+        Board board = gameOfLife.getPlayBoard();
+        if (board instanceof DynamicBoard) {
+            ((DynamicBoard) board).setShrinkable(true);
+        }
+        PopulationCollector population = new PopulationCollector();
+        BoundingBoxCollector boundingBox = new BoundingBoxCollector();
+        ShapeHashCollector shape = new ShapeHashCollector();
+        MetricCollector[] collectors = {population, boundingBox, shape};
+
+        //The first generation is measured by handing every active cell to the collectors.
+        for (MetricCollector collector : collectors) {
+            gameOfLife.addMetricCollector(collector);
+            collector.reset();
+        }
+        RowCursor cursor = board.rowCursor();
+        while (cursor.next()) {
+            for (int x = cursor.nextActive(0); x < board.getWidth(); x = cursor.nextActive(x + 1)) {
+                for (MetricCollector collector : collectors) {
+                    collector.accept(x, cursor.getY(), (byte) 1, (byte) 1);
+                }
+            }
+        }
+
+        //The position of the pattern on the endless plane and the number of cells changing, for every generation.
+        int[] left = new int[generations + 1];
+        int[] top = new int[generations + 1];
+        int[] changes = new int[generations + 1];
+        Map<Long, Integer> seen = new HashMap<>();
+
+        //The generation whose shape was seen again, waiting to be confirmed one period later.
+        int candidate = 0;
+        int candidatePeriod = 0;
+        long candidateHash = 0;
+        long[] candidateShape = null;
+
+        for (int generation = 0; generation <= generations; generation++) {
+            if (generation > 0) {
+                gameOfLife.nextGeneration();
+                changes[generation] = population.getBirths() + population.getDeaths();
+            }
+            int[] box = boundingBox.getBoundingBox();
+            if (box == null) {
+                return new Analysis(Analysis.Type.DIED, generation, 0, 0, 0, 0, 0, -1, -1);
+            }
+            left[generation] = box[0] + board.getWorldX();
+            top[generation] = box[2] + board.getWorldY();
+            long hash = shape.getHash(box[0], box[2]);
+
+            //Confirms the candidate if the shape is exactly the same one period later.
+            if (candidateShape != null && generation == candidate + candidatePeriod) {
+                if (hash == candidateHash && Arrays.equals(candidateShape, shapeOf(board, box))) {
+                    int dx = left[generation] - left[candidate];
+                    int dy = top[generation] - top[candidate];
+                    int heat = 0;
+                    for (int i = candidate + 1; i <= generation; i++) {
+                        heat += changes[i];
+                    }
+                    int cellsAlive = population.getPopulation();
+                    if (dx != 0 || dy != 0) {
+                        return new Analysis(Analysis.Type.SPACESHIP, candidate - candidatePeriod, candidatePeriod,
+                                dx, dy, (double) heat / candidatePeriod, cellsAlive, -1, -1);
+                    }
+                    int[] rotor = countRotor(gameOfLife, candidatePeriod);
+                    return new Analysis(candidatePeriod == 1 ? Analysis.Type.STILL_LIFE : Analysis.Type.OSCILLATOR,
+                            candidate - candidatePeriod, candidatePeriod, 0, 0, (double) heat / candidatePeriod,
+                            cellsAlive, rotor[0], rotor[1]);
+                }
+                candidateShape = null;
+            }
+
+            //Saves the shape as a candidate if its hash has been seen before.
+            Integer earlier = seen.put(hash, generation);
+            if (earlier != null && candidateShape == null) {
+                candidate = generation;
+                candidatePeriod = generation - earlier;
+                candidateHash = hash;
+                candidateShape = shapeOf(board, box);
+            }
+        }
+        return new Analysis(Analysis.Type.UNKNOWN, generations, 0, 0, 0, 0, 0, -1, -1);
+    }
+
+    /**
+     * Method that runs an oscillator for one more period, counting the cells that change at some point during the
+     * period, which make up the rotor, and the cells that are alive throughout, which make up the stator.
+     * @param gameOfLife The game, whose board holds an oscillator.
+     * @param period The period of the oscillator.
+     * @return rotor - The number of rotor cells and the number of stator cells.
+     * @see ActivityCollector
+     */
+    private int[] countRotor(GameOfLife gameOfLife, int period) {
+        Board board = gameOfLife.getPlayBoard();
+        Set<Long> alive = new HashSet<>();
+        RowCursor cursor = board.rowCursor();
+        while (cursor.next()) {
+            for (int x = cursor.nextActive(0); x < board.getWidth(); x = cursor.nextActive(x + 1)) {
+                alive.add(pack(x + board.getWorldX(), cursor.getY() + board.getWorldY()));
+            }
+        }
+
+        ActivityCollector activity = new ActivityCollector(board);
+        gameOfLife.addMetricCollector(activity);
+        Set<Long> changed = new HashSet<>();
+        for (int i = 0; i < period; i++) {
+            gameOfLife.nextGeneration();
+            changed.addAll(activity.changed);
+        }
+        gameOfLife.removeMetricCollector(activity);
+
+        alive.removeAll(changed);
+        return new int[]{changed.size(), alive.size()};
+    }
+
+    /**
+     * Method that returns the active cells within a bounding box, relative to its upper left corner and each packed
+     * into a long. The cells are found row by row, so two equal shapes give equal arrays.
+     * @param board The board to be considered.
+     * @param box The bounding box of the active cells.
+     * @return shape - The packed positions of the active cells.
+     */
+    private static long[] shapeOf(Board board, int[] box) {
+        long[] cells = new long[16];
+        int count = 0;
+        RowCursor cursor = board.rowCursor();
+        cursor.moveTo(box[2]);
+        while (cursor.next() && cursor.getY() <= box[3]) {
+            for (int x = cursor.nextActive(box[0]); x <= box[1]; x = cursor.nextActive(x + 1)) {
+                if (count == cells.length) {
+                    cells = Arrays.copyOf(cells, count * 2);
+                }
+                cells[count++] = pack(x - box[0], cursor.getY() - box[2]);
+            }
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * Method that packs two coordinates into a long.
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return packed - The x-coordinate in the upper and the y-coordinate in the lower half.
+     */
+    private static long pack(int x, int y) {
+        return (long) x << 32 | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The Analysis class holds the result of analysing a pattern. Analyses are immutable.
+     *
+     * @author Oscar Vladau-Husevold
+     * @author Henrik Finnerud Larsen
+     * @version 1.0
+     */
+    public static class Analysis {
+
+        /**
+         * The kinds of pattern the analysis tells apart. UNKNOWN is used for patterns that did not repeat within
+         * the generations run.
+         */
+        public enum Type {STILL_LIFE, OSCILLATOR, SPACESHIP, DIED, UNKNOWN}
+
+        private final Type type;
+        private final int start;
+        private final int period;
+        private final int dx;
+        private final int dy;
+        private final double heat;
+        private final int population;
+        private final int rotor;
+        private final int stator;
+
+        /**
+         * Constructor that creates an analysis.
+         * @param type The kind of pattern.
+         * @param start The first generation of the cycle, or the generation the pattern died or was given up in.
+         * @param period The number of generations before the shape repeats.
+         * @param dx The number of cells the pattern moves right per period.
+         * @param dy The number of cells the pattern moves down per period.
+         * @param heat The mean number of cells changing per generation.
+         * @param population The number of cells alive in the last generation run.
+         * @param rotor The number of cells of an oscillator that change, or -1 for other patterns.
+         * @param stator The number of cells of an oscillator that are always alive, or -1 for other patterns.
+         */
+        Analysis(Type type, int start, int period, int dx, int dy, double heat, int population, int rotor,
+                 int stator) {
+            this.type = type;
+            this.start = start;
+            this.period = period;
+            this.dx = dx;
+            this.dy = dy;
+            this.heat = heat;
+            this.population = population;
+            this.rotor = rotor;
+            this.stator = stator;
+        }
+
+        /**
+         * Method that returns the speed of a spaceship as it is usually written, such as "c/4 diagonal" for the
+         * glider, where c is one cell per generation.
+         * @return speed - The speed, or an empty string if the pattern does not move.
+         */
+        public String getSpeed() {
+            if (dx == 0 && dy == 0) {
+                return "";
+            }
+            int distance = Math.max(Math.abs(dx), Math.abs(dy));
+            int divisor = gcd(distance, period);
+            String speed = (distance / divisor == 1 ? "" : distance / divisor) + "c/" + period / divisor;
+            if (dx == 0 || dy == 0) {
+                return speed + " orthogonal";
+            } else if (Math.abs(dx) == Math.abs(dy)) {
+                return speed + " diagonal";
+            }
+            return "(" + Math.abs(dx) + "," + Math.abs(dy) + ")" + speed + " oblique";
+        }
+
+        /**
+         * Method that finds the greatest common divisor of two positive numbers.
+         * @param a The first number.
+         * @param b The second number.
+         * @return gcd - The greatest common divisor.
+         */
+        private static int gcd(int a, int b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+
+        /**
+         * Method that returns the kind of pattern.
+         * @return type - The kind of pattern.
+         */
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Method that returns the first generation of the cycle, or the generation the pattern died or was given up in.
+         * @return start - The number of the generation.
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Method that returns the number of generations before the shape repeats.
+         * @return period - The period, or 0 if the pattern does not repeat.
+         */
+        public int getPeriod() {
+            return period;
+        }
+
+        /**
+         * Method that returns the number of cells the pattern moves right per period.
+         * @return dx - The displacement along the x-axis.
+         */
+        public int getDx() {
+            return dx;
+        }
+
+        /**
+         * Method that returns the number of cells the pattern moves down per period.
+         * @return dy - The displacement along the y-axis.
+         */
+        public int getDy() {
+            return dy;
+        }
+
+        /**
+         * Method that returns the mean number of cells that change per generation.
+         * @return heat - The heat of the pattern.
+         */
+        public double getHeat() {
+            return heat;
+        }
+
+        /**
+         * Method that returns the number of cells alive in the last generation run.
+         * @return population - The number of cells alive.
+         */
+        public int getPopulation() {
+            return population;
+        }
+
+        /**
+         * Method that returns the number of cells of an oscillator that change during a period.
+         * @return rotor - The number of rotor cells, or -1 if the pattern is not an oscillator or still life.
+         */
+        public int getRotor() {
+            return rotor;
+        }
+
+        /**
+         * Method that returns the number of cells of an oscillator that are alive throughout a period.
+         * @return stator - The number of stator cells, or -1 if the pattern is not an oscillator or still life.
+         */
+        public int getStator() {
+            return stator;
+        }
+
+        /**
+         * Method that returns the analysis as lines of text, in the form used for the metadata of patterns.
+         * @return text - The analysis as text.
+         */
+        @Override
+        public String toString() {
+            switch (type) {
+                case DIED:
+                    return "Analysis: Dies out in generation " + start + ".";
+                case UNKNOWN:
+                    return "Analysis: Does not repeat within " + start + " generations.";
+                case SPACESHIP:
+                    return String.format("Analysis: Period %d spaceship, moving (%d, %d) per period at %s.%n" +
+                            "Population: %d. Heat: %.2f. Settles in generation %d.", period, dx, dy, getSpeed(),
+                            population, heat, start);
+                default:
+                    return String.format("Analysis: %s.%nPopulation: %d. Heat: %.2f. Rotor: %d cells. " +
+                            "Stator: %d cells. Settles in generation %d.", type == Type.STILL_LIFE ? "Still life" :
+                            "Period " + period + " oscillator", population, heat, rotor, stator, start);
+            }
+        }
+    }
+
+    /**
+     * ShapeHashCollector is a nested class within the PatternAnalyser that finds a hash of the shape of the active
+     * cells that does not depend on where they are. Each active cell at (x, y) adds A^x * B^y, so that moving the
+     * pattern multiplies the sum by a power of A and B, which is undone by getHash() using the inverses of A and
+     * B. The class is nested because it is only used within the PatternAnalyser.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    private static class ShapeHashCollector implements MetricCollector {
+        private long sum;
+
+        //The two odd numbers the positions are raised to the power of, and their inverses. Powers up to the table
+        //size are looked up, which covers the largest boards.
+        private static final long A = 0x9E3779B97F4A7C15L;
+        private static final long B = 0xC2B2AE3D27D4EB4FL;
+        private static final int TABLE_SIZE = 4096;
+        private static final long[] POWERS_A = powers(A);
+        private static final long[] POWERS_B = powers(B);
+        private static final long INVERSE_A = inverse(A);
+        private static final long INVERSE_B = inverse(B);
+        private static final long[] INVERSE_POWERS_A = powers(INVERSE_A);
+        private static final long[] INVERSE_POWERS_B = powers(INVERSE_B);
+
+        @Override
+        public MetricCollector newPartial() {
+            return new ShapeHashCollector();
+        }
+
+        @Override
+        public void reset() {
+            sum = 0;
+        }
+
+        @Override
+        public void accept(int x, int y, byte oldState, byte newState) {
+            if (newState == 1) {
+                sum += power(POWERS_A, A, x) * power(POWERS_B, B, y);
+            }
+        }
+
+        @Override
+        public void merge(MetricCollector partial) {
+            sum += ((ShapeHashCollector) partial).sum;
+        }
+
+        /**
+         * Method that returns the hash of the shape, as if the upper left corner of its bounding box was at (0, 0).
+         * @param left The leftmost column of the bounding box.
+         * @param top The upper row of the bounding box.
+         * @return hash - The hash of the shape.
+         */
+        long getHash(int left, int top) {
+            return sum * power(INVERSE_POWERS_A, INVERSE_A, left) * power(INVERSE_POWERS_B, INVERSE_B, top);
+        }
+
+        /**
+         * Method that returns a power, from the table if it is large enough.
+         * @param table The powers of the base.
+         * @param base The base.
+         * @param exponent The exponent, at least 0.
+         * @return power - The base to the power of the exponent.
+         */
+        private static long power(long[] table, long base, int exponent) {
+            if (exponent < table.length) {
+                return table[exponent];
+            }
+            long result = 1;
+            while (exponent > 0) {
+                if ((exponent & 1) == 1) {
+                    result *= base;
+                }
+                base *= base;
+                exponent >>= 1;
+            }
+            return result;
+        }
+
+        /**
+         * Method that makes a table of the powers of a number.
+         * @param base The number.
+         * @return powers - The powers from 0 up to the table size.
+         */
+        private static long[] powers(long base) {
+            long[] table = new long[TABLE_SIZE];
+            table[0] = 1;
+            for (int i = 1; i < TABLE_SIZE; i++) {
+                table[i] = table[i - 1] * base;
+            }
+            return table;
+        }
+
+        /**
+         * Method that finds the inverse of an odd number in the arithmetic of longs, such that the product of the
+         * two is 1. Each step of Newton's method doubles the number of correct bits.
+         * @param odd The odd number.
+         * @return inverse - The inverse of the number.
+         */
+        private static long inverse(long odd) {
+            long inverse = odd;
+            for (int i = 0; i < 5; i++) {
+                inverse *= 2 - odd * inverse;
+            }
+            return inverse;
+        }
+    }
+
+    /**
+     * ActivityCollector is a nested class within the PatternAnalyser that collects the positions on the endless
+     * plane of the cells that change in a generation. The class is nested because it is only used within the
+     * PatternAnalyser.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    private static class ActivityCollector implements MetricCollector {
+        private final Board board;
+        private final Set<Long> changed = new HashSet<>();
+
+        /**
+         * Constructor that sets the board whose position on the endless plane is used.
+         * @param board The board of the game.
+         */
+        ActivityCollector(Board board) {
+            this.board = board;
+        }
+
+        @Override
+        public MetricCollector newPartial() {
+            return new ActivityCollector(board);
+        }
+
+        @Override
+        public void reset() {
+            changed.clear();
+        }
+
+        @Override
+        public void accept(int x, int y, byte oldState, byte newState) {
+            if (oldState != newState) {
+                changed.add(pack(x + board.getWorldX(), y + board.getWorldY()));
+            }
+        }
+
+        @Override
+        public void merge(MetricCollector partial) {
+            changed.addAll(((ActivityCollector) partial).changed);
+        }
+    }
+}
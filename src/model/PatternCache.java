@@ -0,0 +1,412 @@
+package model;
+
+import java.io.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The PatternCache class keeps recently used patterns in decoded form, along with thumbnails rendered from them, so
+ * that a pattern only has to be decoded once no matter how many times it is viewed. Patterns are keyed by a hash of
+ * the content of their file, so the same pattern is found whether it is read from the resources, from disk or from
+ * a zip archive. The location each pattern was read from is remembered as well, so that viewing it again does not
+ * read its file at all. The least recently used patterns are evicted once the total size passes a limit. Decoding and
+ * rendering happens on background threads of the cache's own, so the user interface never waits for either.
+ * The class is a singleton, so that the cache outlives the windows using it.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PatternCache {
+    private final long maxSizeInBytes;
+    private long sizeInBytes;
+
+    //The cached patterns and thumbnails in access order, so the first entry is the least recently used.
+    private final LinkedHashMap<String, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+
+    //The content keys of the cached patterns, looked up by the pattern itself so that the patterns stay immutable.
+    private final Map<PackedPattern, String> keys = new IdentityHashMap<>();
+
+    //The content keys of the patterns last read from each location, so that cached patterns are found without
+    //reading their files.
+    private final Map<String, String> locations = new HashMap<>();
+
+    //The threads decoding patterns and rendering thumbnails.
+    private final ExecutorService renderer = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "PatternCache renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //The size limit of the shared cache.
+    private static final long DEFAULT_MAX_SIZE_IN_BYTES = 32L << 20;
+
+    //The colours of the thumbnails, matching the default colours of the board.
+    private static final int BACKGROUND_COLOR = 0xFFD3D3D3;
+    private static final int CELL_COLOR = 0xFF32CD32;
+    private static final int GRID_COLOR = 0xFF000000;
+
+    private static final PatternCache patternCache = new PatternCache(DEFAULT_MAX_SIZE_IN_BYTES);
+
+    /**
+     * Constructor that creates an empty cache.
+     * @param maxSizeInBytes The total size of the patterns and thumbnails kept in the cache.
+     */
+    public PatternCache(long maxSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * Method that returns the shared PatternCache object.
+     * @return patternCache - The shared PatternCache object.
+     */
+    public static PatternCache getInstance() {
+        return patternCache;
+    }
+
+    /**
+     * Method that computes the key of a pattern file, a SHA-256 hash of its content.
+     * @param content The content of the file, uncompressed.
+     * @return key - The hash as a hexadecimal string.
+     */
+    public static String contentKey(byte[] content) {
+        return toHex(newDigest().digest(content));
+    }
+
+    /**
+     * Method that returns the key of where a pattern file is found, made from its path, the member of the zip
+     * archive it is in, and the size and time of modification of the file. The key changes whenever the file does,
+     * so a pattern that has been viewed before is found by this key without reading the file again.
+     * @param file The file, or zip archive, holding the pattern.
+     * @param member The name of the pattern inside the zip archive, or null for plain files.
+     * @return key - The location key.
+     * @see #decode(String, Callable)
+     */
+    public static String locationKey(File file, String member) {
+        return file.getAbsolutePath() + (member == null ? "" : "!" + member) + "@" + file.lastModified() + ":"
+                + file.length();
+    }
+
+    /**
+     * Method that returns a new SHA-256 message digest.
+     * @return digest - The message digest.
+     */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException nsae) {
+            //Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(nsae);
+        }
+    }
+
+    /**
+     * Method that turns a hash into a hexadecimal string.
+     * @param digest The hash.
+     * @return hex - The hash as a hexadecimal string.
+     */
+    private static String toHex(byte[] digest) {
+        StringBuilder key = new StringBuilder(2 * digest.length);
+        for (byte b : digest) {
+            key.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Method that reads the rest of a stream into an array, and closes it.
+     * @param in The stream to read.
+     * @return content - The bytes read.
+     * @exception IOException - Thrown if the stream cannot be read.
+     */
+    public static byte[] readContent(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        }
+    }
+
+    /**
+     * Method that returns a pattern from the cache, marking it as recently used.
+     * @param key The content key of the pattern.
+     * @return pattern - The cached pattern, or null if it is not in the cache.
+     * @see #contentKey(byte[])
+     */
+    public synchronized PackedPattern get(String key) {
+        Slot slot = slots.get(key);
+        return slot == null ? null : slot.pattern;
+    }
+
+    /**
+     * Method that adds a pattern to the cache, evicting the least recently used patterns if the cache becomes too
+     * large.
+     * @param key The content key of the pattern.
+     * @param pattern The decoded pattern.
+     * @see #contentKey(byte[])
+     */
+    public synchronized void put(String key, PackedPattern pattern) {
+        Slot old = slots.put(key, new Slot(pattern));
+        if (old != null) {
+            sizeInBytes -= old.sizeInBytes();
+            keys.remove(old.pattern);
+        }
+        keys.put(pattern, key);
+        sizeInBytes += pattern.getSizeInBytes();
+        evict();
+    }
+
+    /**
+     * Method that returns the content key a pattern was cached with.
+     * @param pattern The pattern.
+     * @return key - The content key, or null if the pattern is not in the cache.
+     * @see #contentKey(byte[])
+     */
+    public synchronized String getKey(PackedPattern pattern) {
+        return keys.get(pattern);
+    }
+
+    /**
+     * Method that returns a cached thumbnail of a pattern.
+     * @param key The content key of the pattern.
+     * @param size The width and height of the thumbnail.
+     * @return thumbnail - The pixels of the thumbnail, or null if no thumbnail of that size is cached.
+     */
+    public synchronized int[] getThumbnail(String key, int size) {
+        Slot slot = slots.get(key);
+        return slot == null || slot.thumbnailSize != size ? null : slot.thumbnail;
+    }
+
+    /**
+     * Method that decodes a pattern on a background thread, unless it is already in the cache. A pattern that has
+     * been read from the same location before is found by the location key alone, without opening the file.
+     * Otherwise the content is streamed into the decoder on the background thread, hashing it on the way, and the
+     * decoded pattern is added to the cache under the hash of its content. Should another location have had the
+     * same content, the pattern cached from it is used rather than the one just decoded.
+     * @param location The key of where the pattern is read from, which must change whenever the content does.
+     * @param content Opens the uncompressed content of the pattern file.
+     * @return future - Completes with the pattern, or exceptionally with the exception thrown while reading or
+     *                  decoding.
+     * @see #locationKey(File, String)
+     * @see FileHandler#readPattern(Reader)
+     */
+    public CompletableFuture<PackedPattern> decode(String location, Callable<InputStream> content) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                PackedPattern pattern = getByLocation(location);
+                if (pattern != null) {
+                    return pattern;
+                }
+
+                MessageDigest digest = newDigest();
+                try (DigestInputStream in = new DigestInputStream(content.call(), digest)) {
+                    //The decoder closes its reader, so the stream is kept open to hash what is left after the pattern.
+                    pattern = FileHandler.readPattern(new InputStreamReader(new FilterInputStream(in) {
+                        @Override
+                        public void close() {
+                        }
+                    }));
+                    byte[] buffer = new byte[8192];
+                    while (in.read(buffer) != -1) {
+                        //Only read to be hashed.
+                    }
+                }
+                return putLocation(location, toHex(digest.digest()), pattern);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, renderer);
+    }
+
+    /**
+     * Method that returns the pattern last read from a location, if it is still in the cache.
+     * @param location The location key.
+     * @return pattern - The cached pattern, or null if it is not in the cache.
+     * @see #locations
+     */
+    private synchronized PackedPattern getByLocation(String location) {
+        String key = locations.get(location);
+        return key == null ? null : get(key);
+    }
+
+    /**
+     * Method that adds a pattern read from a location to the cache, unless a pattern with the same content is
+     * already cached, and records the content key of the location.
+     * @param location The location key.
+     * @param key The content key of the pattern.
+     * @param pattern The decoded pattern.
+     * @return pattern - The cached pattern with the content key.
+     * @see #locations
+     */
+    private synchronized PackedPattern putLocation(String location, String key, PackedPattern pattern) {
+        PackedPattern cached = get(key);
+        if (cached == null) {
+            put(key, pattern);
+            cached = pattern;
+        }
+        locations.put(location, key);
+        return cached;
+    }
+
+    /**
+     * Method that renders a thumbnail of a cached pattern on a background thread, unless one is already cached.
+     * @param pattern The pattern, which must have been added to the cache.
+     * @param size The width and height of the thumbnail.
+     * @return future - Completes with the pixels of the thumbnail.
+     * @see #renderThumbnail(PackedPattern, int)
+     */
+    public CompletableFuture<int[]> thumbnail(PackedPattern pattern, int size) {
+        String key = getKey(pattern);
+        int[] cached = getThumbnail(key, size);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            int[] pixels = renderThumbnail(pattern, size);
+            synchronized (this) {
+                Slot slot = key == null ? null : slots.get(key);
+                if (slot != null) {
+                    sizeInBytes -= slot.sizeInBytes();
+                    slot.thumbnail = pixels;
+                    slot.thumbnailSize = size;
+                    sizeInBytes += slot.sizeInBytes();
+                    evict();
+                }
+            }
+            return pixels;
+        }, renderer);
+    }
+
+    /**
+     * Method that renders a square thumbnail of a pattern, drawn in the style of the board with a border of one
+     * dead cell around the pattern. Grid lines are only drawn when the cells are large enough for them to be seen.
+     * Patterns larger than the thumbnail are scaled down, and a pixel is drawn as alive if any of its cells are.
+     * @param pattern The pattern to draw.
+     * @param size The width and height of the thumbnail.
+     * @return pixels - The pixels of the thumbnail as ARGB, row by row.
+     */
+    public static int[] renderThumbnail(PackedPattern pattern, int size) {
+        int[] pixels = new int[size * size];
+        Arrays.fill(pixels, BACKGROUND_COLOR);
+
+        //The pattern is centered in a square with room for one dead cell on every side.
+        int cells = Math.max(pattern.getWidth(), pattern.getHeight()) + 2;
+        double cellSize = (double) size / cells;
+        double xOffset = (cells - pattern.getWidth()) / 2 * cellSize;
+        double yOffset = (cells - pattern.getHeight()) / 2 * cellSize;
+
+        //Draws every live cell, going through the set bits only.
+        long[] packed = pattern.getCells();
+        int width = pattern.getWidth();
+        for (int word = 0; word < packed.length; word++) {
+            long bits = packed[word];
+            while (bits != 0) {
+                long index = ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+                int x = (int) (index % width);
+                int y = (int) (index / width);
+                int left = (int) (xOffset + x * cellSize);
+                int top = (int) (yOffset + y * cellSize);
+                int right = Math.max(left + 1, (int) (xOffset + (x + 1) * cellSize));
+                int bottom = Math.max(top + 1, (int) (yOffset + (y + 1) * cellSize));
+                for (int py = top; py < Math.min(bottom, size); py++) {
+                    Arrays.fill(pixels, py * size + left, py * size + Math.min(right, size), CELL_COLOR);
+                }
+                bits &= bits - 1;
+            }
+        }
+
+        //Draws the grid lines.
+        if (cellSize >= 4) {
+            for (int line = 0; line <= cells; line++) {
+                int position = Math.min(size - 1, (int) (line * cellSize));
+                for (int i = 0; i < size; i++) {
+                    pixels[position * size + i] = GRID_COLOR;
+                    pixels[i * size + position] = GRID_COLOR;
+                }
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Method that removes the least recently used slots until the cache is within its size limit. The most
+     * recently used slot is always kept, even if it is larger than the limit on its own.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Slot>> iterator = slots.entrySet().iterator();
+        while (sizeInBytes > maxSizeInBytes && slots.size() > 1) {
+            Map.Entry<String, Slot> eldest = iterator.next();
+            sizeInBytes -= eldest.getValue().sizeInBytes();
+            keys.remove(eldest.getValue().pattern);
+            locations.values().removeIf(eldest.getKey()::equals);
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Method that returns the total size of the patterns and thumbnails in the cache.
+     * @return sizeInBytes - The estimated size in bytes.
+     */
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Method that returns the number of patterns in the cache.
+     * @return size - The number of cached patterns.
+     */
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    /**
+     * Method that removes every pattern and thumbnail from the cache.
+     */
+    public synchronized void clear() {
+        slots.clear();
+        keys.clear();
+        locations.clear();
+        sizeInBytes = 0;
+    }
+
+    /**
+     * A Slot holds a cached pattern along with its thumbnail, if one has been rendered.
+     */
+    private static class Slot {
+        private final PackedPattern pattern;
+        private int[] thumbnail;
+        private int thumbnailSize;
+
+        /**
+         * Constructor that creates a slot without a thumbnail.
+         * @param pattern The cached pattern.
+         */
+        Slot(PackedPattern pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * Method that returns the size of the pattern and thumbnail of the slot.
+         * @return sizeInBytes - The estimated size in bytes.
+         */
+        long sizeInBytes() {
+            return pattern.getSizeInBytes() + (thumbnail == null ? 0 : 4L * thumbnail.length);
+        }
+    }
+}
@@ -0,0 +1,570 @@
+package model;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The PatternCatalog class keeps an index of a collection of RLE-files, either a directory or zip archives within
+ * a directory. Only the metadata lines and header of each file is read, along with a count of the live cells in the
+ * body, so no pattern is ever decoded into a grid while scanning. The index is stored in a compact binary file in
+ * the user's home directory, so that a collection that has been scanned once is available instantly the next time,
+ * and only files that have changed since the last scan are read again.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PatternCatalog {
+    private final File root;
+    private final File indexFile;
+    private volatile List<Entry> entries = new ArrayList<>();
+
+    //Identifies the index file format, and is increased whenever the format changes.
+    private static final int INDEX_MAGIC = 0x474F4C43;
+    private static final int INDEX_VERSION = 1;
+
+    //Comments longer than this are cut, to keep the index small.
+    private static final int MAX_COMMENT_LENGTH = 500;
+
+    //The directory holding the index files, and the file remembering the last opened collection.
+    private static final File CATALOG_DIRECTORY = new File(System.getProperty("user.home"), ".gameoflife");
+    private static final File LAST_COLLECTION_FILE = new File(CATALOG_DIRECTORY, "lastcollection");
+
+    /**
+     * Constructor that creates a catalog of the given collection, with its index stored in the user's home directory.
+     * @param root The directory holding the collection.
+     * @see #defaultIndexFile(File)
+     */
+    public PatternCatalog(File root) {
+        this(root, defaultIndexFile(root));
+    }
+
+    /**
+     * Constructor that creates a catalog of the given collection, with its index stored in the given file.
+     * @param root The directory holding the collection.
+     * @param indexFile The file to store the index in.
+     */
+    public PatternCatalog(File root, File indexFile) {
+        this.root = root.getAbsoluteFile();
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Method that returns the index file used for a collection when no other file is given. Every collection gets
+     * its own file in the .gameoflife directory in the user's home directory.
+     * @param root The directory holding the collection.
+     * @return indexFile - The default index file of the collection.
+     */
+    public static File defaultIndexFile(File root) {
+        String name = "catalog-" + Integer.toHexString(root.getAbsolutePath().hashCode()) + ".idx";
+        return new File(CATALOG_DIRECTORY, name);
+    }
+
+    /**
+     * Method that returns the collection that was opened the last time the application ran, if any.
+     * @return root - The directory of the last opened collection, or null if there is none.
+     */
+    public static File lastCollection() {
+        try (BufferedReader br = new BufferedReader(new FileReader(LAST_COLLECTION_FILE))) {
+            String path = br.readLine();
+            if (path != null && new File(path).isDirectory()) {
+                return new File(path);
+            }
+        } catch (IOException ioe) {
+            //No collection has been opened before.
+        }
+        return null;
+    }
+
+    /**
+     * Method that remembers a collection as the last opened one, so that it can be reopened the next time the
+     * application starts.
+     * @param root The directory of the collection.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    public static void setLastCollection(File root) throws IOException {
+        if (!CATALOG_DIRECTORY.isDirectory() && !CATALOG_DIRECTORY.mkdirs()) {
+            throw new IOException("Could not create " + CATALOG_DIRECTORY);
+        }
+        try (PrintWriter printWriter = new PrintWriter(LAST_COLLECTION_FILE)) {
+            printWriter.println(root.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Method that reads the entries from the index file, without touching the collection itself. An index that
+     * is missing, belongs to another collection or has an older format is ignored.
+     * @return boolean - True if the index was read.
+     */
+    public boolean load() {
+        if (!indexFile.isFile()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION || !in.readUTF().equals(root.getPath())) {
+                return false;
+            }
+            int count = in.readInt();
+            List<Entry> loaded = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loaded.add(Entry.read(in, root));
+            }
+            entries = loaded;
+            return true;
+        } catch (IOException ioe) {
+            return false;
+        }
+    }
+
+    /**
+     * Method that writes the entries to the index file. The index is written to a temporary file first, which then
+     * replaces the old index, so an interrupted save never leaves a broken index behind.
+     * @exception IOException - Thrown if the index cannot be written.
+     */
+    public void save() throws IOException {
+        File directory = indexFile.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        File temporary = new File(directory, indexFile.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeUTF(root.getPath());
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                entry.write(out, root);
+            }
+        }
+        if (!temporary.renameTo(indexFile)) {
+            if (!indexFile.delete() || !temporary.renameTo(indexFile)) {
+                throw new IOException("Could not replace " + indexFile);
+            }
+        }
+    }
+
+    /**
+     * Method that scans the collection and updates the index. Files and zip archives whose size and time of
+     * modification are unchanged since the last scan keep their entries from the index, and only new or changed
+     * files are read. Files that are not valid RLE-files are left out. The index file is saved unless the scan is
+     * cancelled.
+     * @param progress Called after every file with the number of files done and the total number of files,
+     *                 or null.
+     * @param cancelled Checked before every file, the scan stops if it returns true. May be null.
+     * @see #readHeader(Reader, String)
+     * @see #save()
+     * @exception IOException - Thrown if the index cannot be written.
+     */
+    public void scan(BiConsumer<Integer, Integer> progress, BooleanSupplier cancelled) throws IOException {
+
+        //Groups the previous entries by the file they came from, as a zip archive has several entries.
+        Map<String, List<Entry>> previous = new HashMap<>();
+        for (Entry entry : entries) {
+            previous.computeIfAbsent(entry.file.getPath(), k -> new ArrayList<>()).add(entry);
+        }
+
+        List<File> files = new ArrayList<>();
+        collectFiles(root, files);
+
+        List<Entry> scanned = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            if (cancelled != null && cancelled.getAsBoolean()) {
+                return;
+            }
+            File file = files.get(i);
+
+            //Reuses the previous entries if the file has not changed.
+            List<Entry> old = previous.get(file.getPath());
+            if (old != null && old.get(0).lastModified == file.lastModified()
+                    && old.get(0).length == file.length()) {
+                scanned.addAll(old);
+            } else if (file.getName().toLowerCase().endsWith(".zip")) {
+                scanZip(file, scanned);
+            } else {
+                try (Reader reader = new InputStreamReader(FileHandler.openPatternStream(new FileInputStream(file)))) {
+                    Entry entry = readHeader(reader, file.getName());
+                    if (entry != null) {
+                        scanned.add(entry.from(file, null));
+                    }
+                } catch (IOException ioe) {
+                    //Files that cannot be read are left out of the catalog.
+                }
+            }
+
+            if (progress != null) {
+                progress.accept(i + 1, files.size());
+            }
+        }
+
+        entries = scanned;
+        save();
+    }
+
+    /**
+     * Method that adds an entry for every RLE-file inside a zip archive. Archives that cannot be read are left out.
+     * @param zip The zip archive to scan.
+     * @param scanned The list to add the entries to.
+     */
+    private void scanZip(File zip, List<Entry> scanned) {
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry zipEntry = zipEntries.nextElement();
+                String name = zipEntry.getName();
+                if (zipEntry.isDirectory() || !isRLEFileName(name)) {
+                    continue;
+                }
+                try (Reader reader = new InputStreamReader(
+                        FileHandler.openPatternStream(zipFile.getInputStream(zipEntry)))) {
+                    Entry entry = readHeader(reader, name.substring(name.lastIndexOf('/') + 1));
+                    if (entry != null) {
+                        scanned.add(entry.from(zip, name));
+                    }
+                }
+            }
+        } catch (IOException ioe) {
+            //Archives that cannot be read are left out of the catalog.
+        }
+    }
+
+    /**
+     * Method that recursively collects all RLE-files and zip archives below a directory, in a stable order.
+     * @param directory The directory to search.
+     * @param files The list to add the files to.
+     */
+    private void collectFiles(File directory, List<File> files) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        Arrays.sort(children);
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collectFiles(child, files);
+            } else if (isRLEFileName(child.getName()) || child.getName().toLowerCase().endsWith(".zip")) {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * Method that checks whether a file name is an RLE-file, optionally gzip-compressed.
+     * @param name The file name to check.
+     * @return boolean - True if the name ends with .rle or .rle.gz.
+     */
+    private static boolean isRLEFileName(String name) {
+        String lower = name.toLowerCase();
+        return lower.endsWith(".rle") || lower.endsWith(".rle.gz");
+    }
+
+    /**
+     * Method that reads the metadata and header of an RLE-file, and counts the live cells of the body by adding up
+     * the runs of 'o' as they are read. The body is only scanned, never decoded into a grid.
+     * @param reader The reader for the file.
+     * @param fileName The name of the file, used as the name of the pattern if it has no #N line.
+     * @return entry - An entry without file information, or null if the file has no valid header.
+     * @exception IOException - Thrown if the file cannot be read.
+     */
+    static Entry readHeader(Reader reader, String fileName) throws IOException {
+        BufferedReader br = new BufferedReader(reader);
+        String name = null;
+        String author = "";
+        StringBuilder comment = new StringBuilder();
+        Matcher header = null;
+
+        //Reads the metadata lines up to and including the header line.
+        String line;
+        while ((line = br.readLine()) != null) {
+            if (line.startsWith("#N")) {
+                name = line.substring(2).trim();
+            } else if (line.startsWith("#O")) {
+                author = line.substring(2).trim();
+            } else if (line.startsWith("#C") || line.startsWith("#c")) {
+                if (comment.length() < MAX_COMMENT_LENGTH) {
+                    comment.append(line.substring(2).trim()).append(" ");
+                }
+            } else if (line.startsWith("x")) {
+                header = FileHandler.RLE_HEADER.matcher(line);
+                break;
+            }
+        }
+        if (header == null || !header.matches()) {
+            return null;
+        }
+
+        //Counts the live cells in the body.
+        long population = 0;
+        long leadingNumber = 0;
+        int c;
+        while ((c = br.read()) != -1 && c != '!') {
+            if (c >= '0' && c <= '9') {
+                leadingNumber = 10 * leadingNumber + (c - '0');
+            } else if (c != '\n' && c != '\r') {
+                if (c == 'o') {
+                    population += leadingNumber == 0 ? 1 : leadingNumber;
+                }
+                leadingNumber = 0;
+            }
+        }
+
+        if (name == null || name.isEmpty()) {
+            name = fileName.replaceAll("(?i)\\.rle(\\.gz)?$", "");
+        }
+        String commentString = comment.toString().trim();
+        if (commentString.length() > MAX_COMMENT_LENGTH) {
+            commentString = commentString.substring(0, MAX_COMMENT_LENGTH);
+        }
+        String rule = header.group(3) == null ? "B3/S23" : header.group(3);
+        return new Entry(name, author, commentString, Integer.parseInt(header.group(1)),
+                Integer.parseInt(header.group(2)), rule, population);
+    }
+
+    /**
+     * Method that searches the catalog. The query is split into words, and an entry matches if every word is part
+     * of its name, author, comment or rule, ignoring case.
+     * @param query The words to search for. An empty query matches every entry.
+     * @return matches - The matching entries, in the order of the catalog.
+     */
+    public List<Entry> search(String query) {
+        String[] words = query.trim().toLowerCase().split("\\s+");
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : entries) {
+            boolean match = true;
+            for (String word : words) {
+                if (!entry.searchText.contains(word)) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Method that returns all entries of the catalog.
+     * @return entries - An unmodifiable list of the entries.
+     */
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Method that returns the directory of the collection.
+     * @return root - The directory holding the collection.
+     */
+    public File getRoot() {
+        return root;
+    }
+
+    /**
+     * The Entry class holds the metadata of a single pattern in the catalog, along with where it is found.
+     * Entries are immutable.
+     *
+     * @author Oscar Vladau-Husevold
+     * @author Henrik Finnerud Larsen
+     * @version 1.0
+     */
+    public static class Entry {
+        private final String name;
+        private final String author;
+        private final String comment;
+        private final int width;
+        private final int height;
+        private final String rule;
+        private final long population;
+        private final String searchText;
+
+        //Where the pattern is found, and the size and time of modification of that file when it was scanned.
+        private final File file;
+        private final String member;
+        private final long lastModified;
+        private final long length;
+
+        /**
+         * Constructor that creates an entry from the metadata of a pattern.
+         * @param name The name of the pattern.
+         * @param author The author of the pattern.
+         * @param comment The comments of the pattern.
+         * @param width The width of the pattern.
+         * @param height The height of the pattern.
+         * @param rule The rule of the pattern.
+         * @param population The number of live cells in the pattern.
+         */
+        Entry(String name, String author, String comment, int width, int height, String rule, long population) {
+            this(name, author, comment, width, height, rule, population, null, null, 0, 0);
+        }
+
+        /**
+         * Constructor that creates an entry from the metadata of a pattern and where it is found.
+         * @param name The name of the pattern.
+         * @param author The author of the pattern.
+         * @param comment The comments of the pattern.
+         * @param width The width of the pattern.
+         * @param height The height of the pattern.
+         * @param rule The rule of the pattern.
+         * @param population The number of live cells in the pattern.
+         * @param file The file, or zip archive, holding the pattern.
+         * @param member The name of the pattern inside the zip archive, or null for plain files.
+         * @param lastModified The time of modification of the file when it was scanned.
+         * @param length The size of the file when it was scanned.
+         */
+        private Entry(String name, String author, String comment, int width, int height, String rule,
+                      long population, File file, String member, long lastModified, long length) {
+            this.name = name;
+            this.author = author;
+            this.comment = comment;
+            this.width = width;
+            this.height = height;
+            this.rule = rule;
+            this.population = population;
+            this.searchText = (name + "\n" + author + "\n" + comment + "\n" + rule).toLowerCase();
+            this.file = file;
+            this.member = member;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        /**
+         * Method that returns a copy of the entry with where the pattern was found, recording the size and time of
+         * modification of the file.
+         * @param file The file, or zip archive, holding the pattern.
+         * @param member The name of the pattern inside the zip archive, or null for plain files.
+         * @return entry - The entry with its location.
+         */
+        Entry from(File file, String member) {
+            return new Entry(name, author, comment, width, height, rule, population, file, member,
+                    file.lastModified(), file.length());
+        }
+
+        /**
+         * Method that writes the entry to an index. The path of the file is stored relative to the collection.
+         * @param out The stream to write to.
+         * @param root The directory of the collection.
+         * @exception IOException - Thrown if the index cannot be written.
+         */
+        void write(DataOutputStream out, File root) throws IOException {
+            out.writeUTF(root.toPath().relativize(file.toPath()).toString());
+            out.writeUTF(member == null ? "" : member);
+            out.writeLong(lastModified);
+            out.writeLong(length);
+            out.writeUTF(name);
+            out.writeUTF(author);
+            out.writeUTF(comment);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeUTF(rule);
+            out.writeLong(population);
+        }
+
+        /**
+         * Method that reads an entry written by write().
+         * @param in The stream to read from.
+         * @param root The directory of the collection.
+         * @return entry - The entry read.
+         * @exception IOException - Thrown if the index cannot be read.
+         */
+        static Entry read(DataInputStream in, File root) throws IOException {
+            File file = new File(root, in.readUTF());
+            String member = in.readUTF();
+            long lastModified = in.readLong();
+            long length = in.readLong();
+            return new Entry(in.readUTF(), in.readUTF(), in.readUTF(), in.readInt(), in.readInt(), in.readUTF(),
+                    in.readLong(), file, member.isEmpty() ? null : member, lastModified, length);
+        }
+
+        /**
+         * Method that returns the name of the pattern.
+         * @return name - The name of the pattern.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Method that returns the author of the pattern.
+         * @return author - The author of the pattern, or an empty string.
+         */
+        public String getAuthor() {
+            return author;
+        }
+
+        /**
+         * Method that returns the comments of the pattern.
+         * @return comment - The comments of the pattern, or an empty string.
+         */
+        public String getComment() {
+            return comment;
+        }
+
+        /**
+         * Method that returns the width of the pattern.
+         * @return width - The width from the header of the pattern.
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * Method that returns the height of the pattern.
+         * @return height - The height from the header of the pattern.
+         */
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Method that returns the rule of the pattern.
+         * @return rule - The rule of the pattern, B3/S23 if the header has none.
+         */
+        public String getRule() {
+            return rule;
+        }
+
+        /**
+         * Method that returns the number of live cells in the pattern.
+         * @return population - The number of live cells.
+         */
+        public long getPopulation() {
+            return population;
+        }
+
+        /**
+         * Method that returns the file holding the pattern.
+         * @return file - The RLE-file, or the zip archive if the pattern is inside one.
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Method that returns the name of the pattern inside its zip archive.
+         * @return member - The name inside the archive, or null if the pattern is a plain file.
+         */
+        public String getMember() {
+            return member;
+        }
+
+        /**
+         * Method that returns the name of the pattern, used when the entry is shown in a list.
+         * @return name - The name of the pattern.
+         */
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
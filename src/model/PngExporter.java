@@ -0,0 +1,290 @@
+package model;
+
+import javafx.scene.paint.Color;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * The PngExporter class writes a picture of the entire board to a PNG-file, with each cell drawn as a square of a
+ * given number of pixels. Boards too large for even one pixel per cell can be reduced instead, each pixel then
+ * covering a square of cells and being drawn as a cell if any of them is alive. The picture is never held in
+ * memory as a whole: the board is read one row of cells at a time, and each row is turned into a line of pixels
+ * that is compressed and written at once, so boards far too large for a BufferedImage or WritableImage can still
+ * be exported. The picture uses a palette of two colours and one bit per pixel.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PngExporter {
+    private final Board board;
+    private final int cellSize;
+    private final int cellsPerPixel;
+    private final int backgroundRGB;
+    private final int cellRGB;
+
+    //The PNG signature, and the largest amount of compressed data written in one chunk.
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    //The filter types used for the lines of pixels: none for the first line of a row of cells, and up for the rest,
+    //as they are equal to the line above them.
+    private static final byte FILTER_NONE = 0;
+    private static final byte FILTER_UP = 2;
+
+    /**
+     * Constructor that sets the board to be exported and how it should be drawn.
+     * @param board The board to be exported.
+     * @param cellSize The width and height of each cell in pixels.
+     * @param backgroundColor The color of inactive cells.
+     * @param cellColor The color of active cells.
+     * @exception IllegalArgumentException - Thrown if the cell size is not positive, or the picture would be larger
+     *                                       than a PNG-file allows.
+     */
+    public PngExporter(Board board, int cellSize, Color backgroundColor, Color cellColor) {
+        this(board, cellSize, 1, backgroundColor, cellColor);
+    }
+
+    /**
+     * Constructor that sets the board to be exported and how it should be drawn, with each pixel covering a square
+     * of cells. A pixel is drawn as a cell if any of the cells it covers is alive.
+     * @param board The board to be exported.
+     * @param cellSize The width and height in pixels of each square of cells.
+     * @param cellsPerPixel The width and height in cells of the square each pixel covers.
+     * @param backgroundColor The color of inactive cells.
+     * @param cellColor The color of active cells.
+     * @exception IllegalArgumentException - Thrown if the cell size or number of cells per pixel is not positive,
+     *                                       or the picture would be larger than a PNG-file allows.
+     */
+    public PngExporter(Board board, int cellSize, int cellsPerPixel, Color backgroundColor, Color cellColor) {
+        if (cellSize < 1 || cellsPerPixel < 1
+                || ((long) board.getWidth() + cellsPerPixel - 1) / cellsPerPixel * cellSize > Integer.MAX_VALUE
+                || ((long) board.getHeight() + cellsPerPixel - 1) / cellsPerPixel * cellSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid cell size " + cellSize + " with " + cellsPerPixel
+                    + " cells per pixel");
+        }
+        this.board = board;
+        this.cellSize = cellSize;
+        this.cellsPerPixel = cellsPerPixel;
+        this.backgroundRGB = toRGB(backgroundColor);
+        this.cellRGB = toRGB(cellColor);
+    }
+
+    /**
+     * Method that writes the picture of the board to a file. Reports the number of rows of cells written after each
+     * row, and stops as soon as it is cancelled, deleting the unfinished file.
+     * @param file The file to write.
+     * @param progress Receives the number of rows written and the total number of rows.
+     * @param cancelled Returns true when the export should stop.
+     * @return done - True if the file was written, false if the export was cancelled.
+     * @exception IOException - Thrown if the file cannot be written.
+     * @see #writeImage(OutputStream, BiConsumer, BooleanSupplier)
+     */
+    public boolean exportPng(File file, BiConsumer<Integer, Integer> progress, BooleanSupplier cancelled)
+            throws IOException {
+        boolean done = false;
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), CHUNK_SIZE)) {
+            done = writeImage(out, progress, cancelled);
+        } finally {
+            if (!done) {
+                file.delete();
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Method that writes the picture of the board as a PNG to a stream. The header and palette chunks are written
+     * first, then the lines of pixels through a Deflater into image data chunks, and finally the end chunk. When
+     * each pixel covers several cells, the rows of cells it covers are gathered into one line before it is written.
+     * @param out The stream to write to.
+     * @param progress Receives the number of rows written and the total number of rows.
+     * @param cancelled Returns true when the export should stop.
+     * @return done - True if the picture was written, false if the export was cancelled.
+     * @exception IOException - Thrown if the stream cannot be written to.
+     */
+    public boolean writeImage(OutputStream out, BiConsumer<Integer, Integer> progress, BooleanSupplier cancelled)
+            throws IOException {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        int pixelWidth = (int) (((long) width + cellsPerPixel - 1) / cellsPerPixel * cellSize);
+        int pixelHeight = (int) (((long) height + cellsPerPixel - 1) / cellsPerPixel * cellSize);
+
+        out.write(SIGNATURE);
+
+        //Header: the size of the picture, one bit per pixel, using a palette.
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(pixelWidth);
+        headerData.writeInt(pixelHeight);
+        headerData.write(new byte[]{1, 3, 0, 0, 0});
+        writeChunk(out, "IHDR", header.toByteArray(), header.size());
+
+        byte[] palette = {
+                (byte) (backgroundRGB >> 16), (byte) (backgroundRGB >> 8), (byte) backgroundRGB,
+                (byte) (cellRGB >> 16), (byte) (cellRGB >> 8), (byte) cellRGB};
+        writeChunk(out, "PLTE", palette, palette.length);
+
+        //Draws each row of cells, or the rows covered by one line of pixels, into a line which is written once and
+        //then repeated.
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        ChunkOutputStream chunks = new ChunkOutputStream(out);
+        try (DeflaterOutputStream imageData = new DeflaterOutputStream(chunks, deflater, CHUNK_SIZE)) {
+            byte[] line = new byte[1 + (int) (((long) pixelWidth + 7) / 8)];
+            byte[] repeat = new byte[line.length];
+            repeat[0] = FILTER_UP;
+            RowCursor cursor = board.rowCursor();
+            for (int y = 0; y < height; y++) {
+                if (cancelled.getAsBoolean()) {
+                    return false;
+                }
+                cursor.next();
+                if (y % cellsPerPixel == 0) {
+                    Arrays.fill(line, (byte) 0);
+                    line[0] = FILTER_NONE;
+                }
+                for (int x = cursor.nextActive(0); x < width; x = cursor.nextActive(x + 1)) {
+                    int pixel = x / cellsPerPixel;
+                    setBits(line, pixel * cellSize, (pixel + 1) * cellSize);
+                }
+                if (y % cellsPerPixel == cellsPerPixel - 1 || y == height - 1) {
+                    imageData.write(line);
+                    for (int i = 1; i < cellSize; i++) {
+                        imageData.write(repeat);
+                    }
+                }
+                progress.accept(y + 1, height);
+            }
+            imageData.finish();
+            chunks.flushChunk();
+        } finally {
+            deflater.end();
+        }
+
+        writeChunk(out, "IEND", new byte[0], 0);
+        return true;
+    }
+
+    /**
+     * Method that sets the bits of a line of pixels in a range, the first pixel being the highest bit of the first
+     * byte after the filter type.
+     * @param line The line of pixels, starting with the filter type.
+     * @param from The first pixel to set.
+     * @param to The pixel after the last pixel to set.
+     */
+    private static void setBits(byte[] line, int from, int to) {
+        while (from < to && (from & 7) != 0) {
+            line[1 + (from >> 3)] |= 0x80 >>> (from & 7);
+            from++;
+        }
+        while (to - from >= 8) {
+            line[1 + (from >> 3)] = (byte) 0xFF;
+            from += 8;
+        }
+        while (from < to) {
+            line[1 + (from >> 3)] |= 0x80 >>> (from & 7);
+            from++;
+        }
+    }
+
+    /**
+     * Method that writes a chunk, consisting of the length of the data, the type, the data and a checksum of the
+     * type and data.
+     * @param out The stream to write to.
+     * @param type The four letter type of the chunk.
+     * @param data The data of the chunk.
+     * @param length The number of bytes of data.
+     * @exception IOException - Thrown if the stream cannot be written to.
+     */
+    private static void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        DataOutputStream chunk = new DataOutputStream(out);
+        chunk.writeInt(length);
+        chunk.write(typeBytes);
+        chunk.write(data, 0, length);
+        chunk.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Method that converts a javafx color to an integer, by using the rgb values of the color.
+     * @param color The javafx color to be converted
+     * @return rgb - The color as RGB.
+     */
+    private static int toRGB(Color color) {
+        return (int) Math.round(color.getRed() * 255) << 16 | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+    }
+
+    /**
+     * ChunkOutputStream is a nested class within the PngExporter that collects the compressed picture and writes it
+     * as image data chunks of limited size. The class is nested because it is only used within the PngExporter.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    private static class ChunkOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final byte[] data = new byte[CHUNK_SIZE];
+        private int size;
+
+        /**
+         * Constructor that sets the stream the chunks are written to.
+         * @param out The stream to write to.
+         */
+        ChunkOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            data[size++] = (byte) b;
+            if (size == data.length) {
+                flushChunk();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int count = Math.min(len, data.length - size);
+                System.arraycopy(b, off, data, size, count);
+                size += count;
+                off += count;
+                len -= count;
+                if (size == data.length) {
+                    flushChunk();
+                }
+            }
+        }
+
+        /**
+         * Method that writes the collected data as a chunk, unless there is none.
+         * @exception IOException - Thrown if the stream cannot be written to.
+         */
+        void flushChunk() throws IOException {
+            if (size > 0) {
+                writeChunk(out, "IDAT", data, size);
+                size = 0;
+            }
+        }
+
+        /**
+         * Method that writes the remaining data, without closing the stream the chunks are written to.
+         * @exception IOException - Thrown if the stream cannot be written to.
+         */
+        @Override
+        public void close() throws IOException {
+            flushChunk();
+        }
+    }
+}
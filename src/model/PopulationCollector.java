@@ -0,0 +1,70 @@
+package model;
+
+/**
+ * The PopulationCollector class counts the number of cells alive in the next generation, and the number of cells
+ * that are born and that die when it is made.
+ *
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PopulationCollector implements MetricCollector {
+    private int population;
+    private int births;
+    private int deaths;
+
+    @Override
+    public MetricCollector newPartial() {
+        return new PopulationCollector();
+    }
+
+    @Override
+    public void reset() {
+        population = 0;
+        births = 0;
+        deaths = 0;
+    }
+
+    @Override
+    public void accept(int x, int y, byte oldState, byte newState) {
+        if (newState == 1) {
+            population++;
+            if (oldState == 0) {
+                births++;
+            }
+        } else {
+            deaths++;
+        }
+    }
+
+    @Override
+    public void merge(MetricCollector partial) {
+        PopulationCollector other = (PopulationCollector) partial;
+        population += other.population;
+        births += other.births;
+        deaths += other.deaths;
+    }
+
+    /**
+     * Method that returns the number of cells alive in the last generation made.
+     * @return population - The number of cells alive.
+     */
+    public int getPopulation() {
+        return population;
+    }
+
+    /**
+     * Method that returns the number of cells born in the last generation made.
+     * @return births - The number of cells that were dead and are now alive.
+     */
+    public int getBirths() {
+        return births;
+    }
+
+    /**
+     * Method that returns the number of cells that died in the last generation made.
+     * @return deaths - The number of cells that were alive and are now dead.
+     */
+    public int getDeaths() {
+        return deaths;
+    }
+}
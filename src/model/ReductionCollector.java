@@ -0,0 +1,78 @@
+package model;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * The ReductionCollector class is a user-defined measurement, where every cell handed to the collector is turned
+ * into a value that is combined with the values of the other cells. The combining function must be associative, and
+ * the identity must leave any value unchanged when combined with it, as the partials of each thread are combined in
+ * no particular grouping.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class ReductionCollector implements MetricCollector {
+    private final long identity;
+    private final CellFunction function;
+    private final LongBinaryOperator reducer;
+    private long value;
+
+    /**
+     * Constructor that sets how each cell is measured and how the measurements are combined.
+     * @param identity The value of a collector with no cells, such as 0 for a sum.
+     * @param function Turns a cell into a value.
+     * @param reducer Combines two values into one.
+     */
+    public ReductionCollector(long identity, CellFunction function, LongBinaryOperator reducer) {
+        this.identity = identity;
+        this.function = function;
+        this.reducer = reducer;
+        this.value = identity;
+    }
+
+    @Override
+    public MetricCollector newPartial() {
+        return new ReductionCollector(identity, function, reducer);
+    }
+
+    @Override
+    public void reset() {
+        value = identity;
+    }
+
+    @Override
+    public void accept(int x, int y, byte oldState, byte newState) {
+        value = reducer.applyAsLong(value, function.apply(x, y, oldState, newState));
+    }
+
+    @Override
+    public void merge(MetricCollector partial) {
+        value = reducer.applyAsLong(value, ((ReductionCollector) partial).value);
+    }
+
+    /**
+     * Method that returns the combined value of the cells of the last generation made.
+     * @return value - The combined value.
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * CellFunction is a functional interface nested within the ReductionCollector, turning a cell into a value.
+     * The interface is nested because it is only used within the ReductionCollector.
+     */
+    @FunctionalInterface
+    public interface CellFunction {
+
+        /**
+         * Method that turns a cell into a value.
+         * @param x The x-coordinate of the cell.
+         * @param y The y-coordinate of the cell.
+         * @param oldState The state of the cell in the current generation.
+         * @param newState The state of the cell in the next generation.
+         * @return value - The value of the cell.
+         */
+        long apply(int x, int y, byte oldState, byte newState);
+    }
+}
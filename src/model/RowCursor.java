@@ -0,0 +1,93 @@
+package model;
+
+/**
+ * The RowCursor class goes through the rows of a board from the top, reading each row into an array it holds.
+ * Scans of the whole board, such as counting the active cells, finding the bounding box and drawing, go through a
+ * row cursor, so that the cells of a row are read together in the order the boards store them, rather than one
+ * column at a time across every row. The boards copy each row straight from their cell grid.
+ *
+ * <p>A row cursor is made by the board it goes through, and is placed before the upper row. The array of the row is
+ * read again by every call to next(), and should not be changed.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ * @see Board#rowCursor()
+ */
+public class RowCursor {
+    private final Board board;
+    private final byte[] row;
+    private int y = -1;
+
+    /**
+     * Constructor used by the board, placing the cursor before the upper row of the board.
+     * @param board The board to go through.
+     * @see Board#rowCursor()
+     */
+    RowCursor(Board board) {
+        this.board = board;
+        this.row = new byte[board.getWidth()];
+    }
+
+    /**
+     * Method that moves the cursor to the next row and reads it.
+     * @return next - True if there was a next row, false if the cursor has passed the lower row.
+     * @see Board#readRow(int, byte[])
+     */
+    public boolean next() {
+        if (y + 1 >= board.getHeight()) {
+            y = board.getHeight();
+            return false;
+        }
+        y++;
+        board.readRow(y, row);
+        return true;
+    }
+
+    /**
+     * Method that places the cursor before a row, so that the next call to next() reads that row.
+     * @param y The y coordinate of the row.
+     */
+    public void moveTo(int y) {
+        this.y = y - 1;
+    }
+
+    /**
+     * Method that returns the y coordinate of the row the cursor is on.
+     * @return y - The y coordinate, -1 before the first call to next().
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Method that returns the states of the cells of the row the cursor is on, indexed by x.
+     * @return row - The array the row is read into, which is read again by the next call to next().
+     */
+    public byte[] getRow() {
+        return row;
+    }
+
+    /**
+     * Method that returns the first active cell of the row at or after a column.
+     * @param x The column to start from.
+     * @return x - The column of the active cell, or the width of the board if there is none.
+     */
+    public int nextActive(int x) {
+        while (x < row.length && row[x] == 0) {
+            x++;
+        }
+        return x;
+    }
+
+    /**
+     * Method that returns the last active cell of the row at or before a column.
+     * @param x The column to start from.
+     * @return x - The column of the active cell, or -1 if there is none.
+     */
+    public int previousActive(int x) {
+        while (x >= 0 && row[x] == 0) {
+            x--;
+        }
+        return x;
+    }
+}
@@ -0,0 +1,406 @@
+package model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The RuleCompiler class makes a RuleKernel of its own for each rule, as a class written byte by byte and loaded at
+ * run time. The rule is turned into a single expression of the cells and the bits of their neighbour counts, by
+ * choosing between the outcomes of the counts one bit of the count at a time and simplifying the choices that do not
+ * matter. The expression is then written as straight code, with the numbers of neighbours of the rule written into
+ * it, so the kernel has no loop, table or check of the rule left for the JIT to see through. For Life the expression
+ * comes down to ~s3 &amp; ~s2 &amp; s1 &amp; (s0 | cells).
+ *
+ * <p>Kernels are kept by rule string, so switching between rules only makes each kernel once. The classes are loaded
+ * by a class loader of the compiler's own, and are written for the class file format of Java 5, which needs no
+ * stack map frames.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ * @see RuleKernel
+ */
+public class RuleCompiler {
+
+    //The kernels made so far by rule string, and the class loader loading them.
+    private static final Map<String, RuleKernel> kernels = new ConcurrentHashMap<>();
+    private static final KernelLoader loader = new KernelLoader(RuleCompiler.class.getClassLoader());
+
+    //The local variables holding the cells and the bits of the neighbour counts in RuleKernel.nextCells().
+    private static final int CELLS = 1, S0 = 3, S1 = 5, S2 = 7, S3 = 9;
+
+    //The opcodes used by the kernels.
+    private static final int LCONST_0 = 0x09, LDC2_W = 0x14, LLOAD = 0x16, LAND = 0x7F, LOR = 0x81, LXOR = 0x83,
+            LRETURN = 0xAD, ALOAD_0 = 0x2A, INVOKESPECIAL = 0xB7, RETURN = 0xB1;
+
+    /**
+     * Private constructor, as the class only has static methods.
+     */
+    private RuleCompiler() {
+    }
+
+    /**
+     * Method that returns the kernel of a rule, making it if it has not been made before.
+     * @param rule The rule number.
+     * @return kernel - The kernel of the rule.
+     * @exception IllegalArgumentException - Thrown if the rule is not a rule number.
+     * @exception IllegalStateException - Thrown if the kernel cannot be loaded.
+     * @see RuleExplorer#toRule(String, String)
+     */
+    public static RuleKernel getKernel(int rule) {
+        if (rule < 0 || rule >= RuleExplorer.RULE_COUNT) {
+            throw new IllegalArgumentException("Invalid rule " + rule);
+        }
+        return kernels.computeIfAbsent(RuleExplorer.toRuleString(rule), ruleString -> {
+            String className = "model.CompiledRule_" + ruleString.replace('/', '_');
+            try {
+                byte[] bytes = writeClass(className.replace('.', '/'), toExpression(rule));
+                return (RuleKernel)loader.define(className, bytes).getConstructor().newInstance();
+            } catch (ReflectiveOperationException | IOException e) {
+                throw new IllegalStateException("Could not load the kernel of " + ruleString, e);
+            }
+        });
+    }
+
+    /**
+     * Method that returns the expression the kernel of a rule is made from, written out with the names of the
+     * arguments of RuleKernel.nextCells().
+     * @param rule The rule number.
+     * @return expression - The expression, such as "~s3 &amp; ~s2 &amp; s1 &amp; (s0 | cells)".
+     * @see RuleKernel#nextCells(long, long, long, long, long)
+     */
+    public static String describe(int rule) {
+        return toExpression(rule).toString();
+    }
+
+    /**
+     * Method that turns a rule into an expression. The outcome of each number of neighbours is either death, birth,
+     * survival or both, which is 0, ~cells, cells or all bits set. The outcomes of 0 to 7 neighbours are chosen
+     * between by s0, s1 and s2, and that of 8 neighbours by s3, as s0, s1 and s2 are all 0 for a count of 8.
+     * @param rule The rule number.
+     * @return expression - The expression of the rule.
+     */
+    private static Expression toExpression(int rule) {
+        Expression[] outcomes = new Expression[9];
+        for (int count = 0; count <= 8; count++) {
+            boolean born = (rule >> count & 1) != 0;
+            boolean survives = (rule >> (9 + count) & 1) != 0;
+            Expression cells = Expression.variable(CELLS);
+            outcomes[count] = born && survives ? Expression.ONES : born ? Expression.not(cells)
+                    : survives ? cells : Expression.ZERO;
+        }
+
+        Expression[] choices = outcomes;
+        int[] bits = {S0, S1, S2};
+        for (int bit : bits) {
+            Expression[] chosen = new Expression[choices.length / 2];
+            for (int i = 0; i < chosen.length; i++) {
+                chosen[i] = Expression.choose(Expression.variable(bit), choices[2 * i + 1], choices[2 * i]);
+            }
+            choices = chosen;
+        }
+        return Expression.choose(Expression.variable(S3), outcomes[8], choices[0]);
+    }
+
+    /**
+     * Method that writes the class file of a kernel. The constant pool is the same for every kernel, and the
+     * nextCells method evaluates the expression on the operand stack.
+     * @param className The internal name of the class, such as "model/CompiledRule_B3_S23".
+     * @param expression The expression of the rule.
+     * @return bytes - The class file.
+     * @exception IOException - Thrown if the class file cannot be written.
+     */
+    private static byte[] writeClass(String className, Expression expression) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(49);
+
+        //The constant pool, the long taking up two entries.
+        out.writeShort(16);
+        writeUtf8(out, className);
+        writeClassEntry(out, 1);
+        writeUtf8(out, "java/lang/Object");
+        writeClassEntry(out, 3);
+        writeUtf8(out, RuleKernel.class.getName().replace('.', '/'));
+        writeClassEntry(out, 5);
+        writeUtf8(out, "<init>");
+        writeUtf8(out, "()V");
+        out.writeByte(12);
+        out.writeShort(7);
+        out.writeShort(8);
+        out.writeByte(10);
+        out.writeShort(4);
+        out.writeShort(9);
+        writeUtf8(out, "nextCells");
+        writeUtf8(out, "(JJJJJ)J");
+        writeUtf8(out, "Code");
+        out.writeByte(5);
+        out.writeLong(-1L);
+
+        //A public final class extending Object and implementing RuleKernel, without fields.
+        out.writeShort(0x0031);
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(1);
+        out.writeShort(6);
+        out.writeShort(0);
+
+        //The constructor and nextCells.
+        out.writeShort(2);
+        writeMethod(out, 7, 8, 1, 1, new byte[]{(byte)ALOAD_0, (byte)INVOKESPECIAL, 0, 10, (byte)RETURN});
+        ByteArrayOutputStream code = new ByteArrayOutputStream();
+        expression.write(code);
+        code.write(LRETURN);
+        writeMethod(out, 11, 12, expression.getStackSize(), 11, code.toByteArray());
+
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Method that writes a public method with a Code attribute and no exceptions.
+     * @param out The class file being written.
+     * @param name The constant pool entry of the name of the method.
+     * @param descriptor The constant pool entry of the descriptor of the method.
+     * @param maxStack The largest size of the operand stack.
+     * @param maxLocals The number of local variables, including the arguments.
+     * @param code The code of the method.
+     * @exception IOException - Thrown if the method cannot be written.
+     */
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int maxStack, int maxLocals,
+                                    byte[] code) throws IOException {
+        out.writeShort(0x0001);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(13);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    /**
+     * Method that writes a string entry of the constant pool.
+     * @param out The class file being written.
+     * @param value The string.
+     * @exception IOException - Thrown if the entry cannot be written.
+     */
+    private static void writeUtf8(DataOutputStream out, String value) throws IOException {
+        out.writeByte(1);
+        out.writeUTF(value);
+    }
+
+    /**
+     * Method that writes a class entry of the constant pool.
+     * @param out The class file being written.
+     * @param name The constant pool entry of the name of the class.
+     * @exception IOException - Thrown if the entry cannot be written.
+     */
+    private static void writeClassEntry(DataOutputStream out, int name) throws IOException {
+        out.writeByte(7);
+        out.writeShort(name);
+    }
+
+    /**
+     * Expression is a nested class within the RuleCompiler that holds an expression of bitwise operations on the
+     * arguments of RuleKernel.nextCells(). Expressions are compared by how they are written, so that equal choices
+     * can be simplified away. The class is nested because it is only used within the RuleCompiler.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    private static class Expression {
+        private final String text;
+        private final int opcode;
+        private final int variable;
+        private final Expression left, right;
+
+        //The expressions with every bit cleared and every bit set.
+        static final Expression ZERO = new Expression("0", LCONST_0, 0, null, null);
+        static final Expression ONES = new Expression("-1", LDC2_W, 0, null, null);
+
+        /**
+         * Constructor that sets the parts of an expression.
+         * @param text The expression as it is written.
+         * @param opcode The opcode of the operation, or of loading the constant or variable.
+         * @param variable The local variable loaded, if any.
+         * @param left The left operand, if any.
+         * @param right The right operand, if any.
+         */
+        private Expression(String text, int opcode, int variable, Expression left, Expression right) {
+            this.text = text;
+            this.opcode = opcode;
+            this.variable = variable;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Method that makes an expression of one of the arguments of RuleKernel.nextCells().
+         * @param variable The local variable of the argument.
+         * @return expression - The argument.
+         */
+        static Expression variable(int variable) {
+            String[] names = {"cells", "s0", "s1", "s2", "s3"};
+            return new Expression(names[variable / 2], LLOAD, variable, null, null);
+        }
+
+        /**
+         * Method that makes the bitwise complement of an expression, written as XOR with every bit set.
+         * @param x The expression.
+         * @return expression - The complement.
+         */
+        static Expression not(Expression x) {
+            if (x.equals(ZERO)) {
+                return ONES;
+            } else if (x.equals(ONES)) {
+                return ZERO;
+            } else if (x.opcode == LXOR) {
+                return x.left;
+            }
+            return new Expression("~" + x.text, LXOR, 0, x, ONES);
+        }
+
+        /**
+         * Method that makes the bitwise AND of two expressions.
+         * @param x The left expression.
+         * @param y The right expression.
+         * @return expression - The AND of the expressions.
+         */
+        static Expression and(Expression x, Expression y) {
+            return new Expression(group(x, LAND) + " & " + group(y, LAND), LAND, 0, x, y);
+        }
+
+        /**
+         * Method that makes the bitwise OR of two expressions.
+         * @param x The left expression.
+         * @param y The right expression.
+         * @return expression - The OR of the expressions.
+         */
+        static Expression or(Expression x, Expression y) {
+            return new Expression(group(x, LOR) + " | " + group(y, LOR), LOR, 0, x, y);
+        }
+
+        /**
+         * Method that writes an operand in parentheses, unless it is a single value or of the same operation.
+         * @param x The operand.
+         * @param opcode The operation it is an operand of.
+         * @return text - The operand as it is written.
+         */
+        private static String group(Expression x, int opcode) {
+            return x.left == null || x.opcode == LXOR || x.opcode == opcode ? x.text : "(" + x.text + ")";
+        }
+
+        /**
+         * Method that makes an expression choosing, bit by bit, one expression where a bit is set and another where
+         * it is not. Choices with constant outcomes are written with fewer operations.
+         * @param bit The expression of the bit to choose by.
+         * @param set The expression chosen where the bit is set.
+         * @param clear The expression chosen where the bit is clear.
+         * @return expression - The choice.
+         */
+        static Expression choose(Expression bit, Expression set, Expression clear) {
+            if (set.equals(clear)) {
+                return set;
+            } else if (set.equals(ONES) && clear.equals(ZERO)) {
+                return bit;
+            } else if (set.equals(ZERO) && clear.equals(ONES)) {
+                return not(bit);
+            } else if (set.equals(ZERO)) {
+                return and(not(bit), clear);
+            } else if (clear.equals(ZERO)) {
+                return and(bit, set);
+            } else if (set.equals(ONES)) {
+                return or(bit, clear);
+            } else if (clear.equals(ONES)) {
+                return or(not(bit), set);
+            }
+            return or(and(bit, set), and(not(bit), clear));
+        }
+
+        /**
+         * Method that writes the code evaluating the expression, leaving its value on the operand stack.
+         * @param code The code being written.
+         */
+        void write(ByteArrayOutputStream code) {
+            if (left != null) {
+                left.write(code);
+                right.write(code);
+                code.write(opcode);
+            } else if (opcode == LLOAD) {
+                code.write(LLOAD);
+                code.write(variable);
+            } else if (opcode == LDC2_W) {
+                //The long -1 is entry 14 of the constant pool.
+                code.write(LDC2_W);
+                code.write(0);
+                code.write(14);
+            } else {
+                code.write(opcode);
+            }
+        }
+
+        /**
+         * Method that returns the largest size of the operand stack while the expression is evaluated, each long
+         * taking up two entries.
+         * @return stackSize - The size of the operand stack.
+         */
+        int getStackSize() {
+            if (left == null) {
+                return 2;
+            }
+            return Math.max(left.getStackSize(), 2 + right.getStackSize());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Expression && text.equals(((Expression)other).text);
+        }
+
+        @Override
+        public int hashCode() {
+            return text.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * KernelLoader is a nested class within the RuleCompiler that loads the classes of the kernels. The class is
+     * nested because it is only used within the RuleCompiler.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    private static class KernelLoader extends ClassLoader {
+
+        /**
+         * Constructor that sets the class loader finding RuleKernel.
+         * @param parent The class loader of the RuleCompiler.
+         */
+        KernelLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        /**
+         * Method that loads a class from its class file.
+         * @param name The binary name of the class.
+         * @param bytes The class file.
+         * @return loaded - The loaded class.
+         */
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
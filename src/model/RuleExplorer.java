@@ -0,0 +1,591 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The RuleExplorer class runs random soups under many Life-like rules, to find out how each rule behaves. A rule is
+ * given as a number of 18 bits, the lowest 9 telling which numbers of neighbours a dead cell is born with, and the
+ * highest 9 which numbers of neighbours a living cell survives with, so there are 2^18 rules to explore. Every rule
+ * in a range is given the same number of soups, each of which is classified as dying, stabilising, oscillating,
+ * exploding or chaotic by its population and the hashes of its generations.
+ *
+ * <p>The rules are shared out between the threads of the ThreadWorker. Rather than a Board, each thread has its own
+ * torus of 64 by 64 cells, stored as one long per row and stepped 64 cells at a time, along with a table of the
+ * hashes seen. These are created once and reused for every soup and every run of the explorer.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ * @see ThreadWorker
+ */
+public class RuleExplorer {
+    private final int soups;
+    private final int generations;
+    private final long seed;
+    private final SoupWorker[] workers = new SoupWorker[ThreadWorker.getInstance().getNumWorkers()];
+
+    //The number of rules, the size of the torus and the square in the middle of it that each soup fills.
+    public static final int RULE_COUNT = 1 << 18;
+    private static final int SIZE = 64;
+    private static final int SOUP_SIZE = 16;
+
+    //A soup explodes once more than a quarter of the torus is alive.
+    private static final int EXPLODE_POPULATION = SIZE * SIZE / 4;
+
+    /**
+     * The ways a soup can behave, which a rule is classified by.
+     */
+    public enum Behaviour {DIES, STABILISES, OSCILLATES, EXPLODES, CHAOTIC}
+
+    /**
+     * Constructor that sets how each rule should be explored.
+     * @param soups The number of soups to run for each rule.
+     * @param generations The largest number of generations to run each soup.
+     * @param seed The seed of the random soups, so that a run can be repeated.
+     * @exception IllegalArgumentException - Thrown if the number of soups or generations is less than 1.
+     */
+    public RuleExplorer(int soups, int generations, long seed) {
+        if (soups < 1 || generations < 1) {
+            throw new IllegalArgumentException("Invalid exploration of " + soups + " soups and " + generations
+                    + " generations");
+        }
+        this.soups = soups;
+        this.generations = generations;
+        this.seed = seed;
+    }
+
+    /**
+     * Method that explores a range of rules on every thread of the ThreadWorker. Each thread takes the next rule
+     * not yet taken until none are left, so the threads finish at about the same time. Reports the number of rules
+     * explored after each rule, and stops as soon as it is cancelled.
+     * @param from The first rule to explore.
+     * @param to The rule after the last rule to explore.
+     * @param progress Receives the number of rules explored and the total number of rules, from any thread.
+     * @param cancelled Returns true when the exploration should stop.
+     * @return results - The results of the rules explored, ordered by rule.
+     * @exception IllegalArgumentException - Thrown if the range is not within the rules.
+     * @see ThreadWorker#runWorkers(Callable)
+     */
+    public List<RuleResult> explore(int from, int to, BiConsumer<Integer, Integer> progress,
+                                    BooleanSupplier cancelled) {
+        if (from < 0 || to > RULE_COUNT || from > to) {
+            throw new IllegalArgumentException("Invalid range of rules " + from + " to " + to);
+        }
+        RuleResult[] results = new RuleResult[to - from];
+        AtomicInteger nextRule = new AtomicInteger(from);
+        AtomicInteger explored = new AtomicInteger();
+        AtomicInteger nextWorker = new AtomicInteger();
+
+        Callable<Void> task = () -> {
+            //Each task is given a worker of its own, which is kept for later runs.
+            int index = nextWorker.getAndIncrement();
+            if (workers[index] == null) {
+                workers[index] = new SoupWorker(generations);
+            }
+            SoupWorker worker = workers[index];
+            int rule;
+            while (!cancelled.getAsBoolean() && (rule = nextRule.getAndIncrement()) < to) {
+                results[rule - from] = worker.explore(rule);
+                progress.accept(explored.incrementAndGet(), to - from);
+            }
+            return null;
+        };
+        ThreadWorker.getInstance().runWorkers(task);
+
+        List<RuleResult> list = new ArrayList<>();
+        for (RuleResult result : results) {
+            if (result != null) {
+                list.add(result);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Method that writes results to a CSV-file, one rule per line, so they can be sorted by any column.
+     * @param file The file to write.
+     * @param results The results to write.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    public static void writeResults(Path file, List<RuleResult> results) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Rule,Behaviour,Dies,Stabilises,Oscillates,Explodes,Chaotic,Mean population");
+            writer.newLine();
+            for (RuleResult result : results) {
+                writer.write(result.getRuleString() + "," + result.getBehaviour());
+                for (Behaviour behaviour : Behaviour.values()) {
+                    writer.write("," + result.getCount(behaviour));
+                }
+                writer.write("," + result.getMeanPopulation());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Method that explores rules without the user interface, from the command line. Explores the range of rules on
+     * every thread, printing the number of rules explored now and then, and writes the results to a CSV-file.
+     * @param args The first rule, the rule after the last rule, the number of soups, the number of generations, the
+     * seed and the CSV-file, all of which may be left out.
+     * @exception IOException - Thrown if the CSV-file cannot be written.
+     * @exception IllegalArgumentException - Thrown if the range, soups or generations are invalid.
+     * @see #explore(int, int, BiConsumer, BooleanSupplier)
+     * @see #writeResults(Path, List)
+     */
+    public static void runFromCommandLine(String[] args) throws IOException {
+        int from = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int to = args.length > 1 ? Integer.parseInt(args[1]) : RULE_COUNT;
+        int soups = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int generations = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.currentTimeMillis();
+        Path file = Paths.get(args.length > 5 ? args[5] : "rules.csv");
+
+        try {
+            RuleExplorer explorer = new RuleExplorer(soups, generations, seed);
+            System.out.println("Exploring rules " + from + " to " + to + " with " + soups + " soups of "
+                    + generations + " generations and seed " + seed);
+            long start = System.nanoTime();
+            List<RuleResult> results = explorer.explore(from, to, (explored, total) -> {
+                //Prints the progress about a hundred times, whichever thread gets there.
+                if (explored % Math.max(1, total / 100) == 0 || explored.equals(total)) {
+                    System.out.println(explored + " of " + total + " rules explored");
+                }
+            }, () -> false);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            writeResults(file, results);
+            System.out.printf("%d rules written to %s, %.0f rules per second%n", results.size(), file,
+                    results.size() / seconds);
+        } finally {
+            ThreadWorker.getInstance().shutDownExecutor();
+        }
+    }
+
+    /**
+     * Method that turns the born and survive rules, as used by GameOfLife, into a rule number.
+     * @param bornRules The numbers of neighbours a dead cell is born with, such as "3".
+     * @param surviveRules The numbers of neighbours a living cell survives with, such as "23".
+     * @return rule - The rule number.
+     * @exception IllegalArgumentException - Thrown if the rules contain anything but the digits 0 to 8.
+     * @see GameOfLife#getBornRules()
+     * @see GameOfLife#getSurviveRules()
+     */
+    public static int toRule(String bornRules, String surviveRules) {
+        return toMask(bornRules) | toMask(surviveRules) << 9;
+    }
+
+    /**
+     * Method that turns a string of the digits 0 to 8 into a mask, with one bit for each digit.
+     * @param digits The digits.
+     * @return mask - The mask.
+     * @exception IllegalArgumentException - Thrown if the string contains anything but the digits 0 to 8.
+     */
+    private static int toMask(String digits) {
+        int mask = 0;
+        for (char c : digits.toCharArray()) {
+            if (c < '0' || c > '8') {
+                throw new IllegalArgumentException("Invalid neighbour count " + c);
+            }
+            mask |= 1 << (c - '0');
+        }
+        return mask;
+    }
+
+    /**
+     * Method that writes a rule number as a rule string, such as "B3/S23".
+     * @param rule The rule number.
+     * @return ruleString - The rule string.
+     */
+    public static String toRuleString(int rule) {
+        StringBuilder str = new StringBuilder("B");
+        for (int i = 0; i < 9; i++) {
+            if ((rule >> i & 1) != 0) {
+                str.append(i);
+            }
+        }
+        str.append("/S");
+        for (int i = 0; i < 9; i++) {
+            if ((rule >> (9 + i) & 1) != 0) {
+                str.append(i);
+            }
+        }
+        return str.toString();
+    }
+
+    /**
+     * Method that makes the next generation of a torus 64 cells wide, given as one long per row with the cell in
+     * column x being bit x.
+     * @param cells The rows of the current generation.
+     * @param next The rows of the next generation, of the same length as cells.
+     * @param rule The rule number.
+     * @see #nextGeneration(long[], long[], int, int, int, int)
+     */
+    public static void nextGeneration(long[] cells, long[] next, int rule) {
+        nextGeneration(cells, next, 1, 0, cells.length, rule);
+    }
+
+    /**
+     * Method that makes the next generation of some rows of a torus whose width is a multiple of 64 cells, given as
+     * a number of longs per row with the cell in column x being bit x % 64 of long x / 64 of the row, applying a rule
+     * by its number of neighbours. Used for rules that are only run briefly, such as when exploring every rule.
+     * @param cells The rows of the current generation.
+     * @param next The rows of the next generation, of the same length as cells.
+     * @param words The number of longs in each row.
+     * @param fromRow The first row to make.
+     * @param toRow The row after the last row to make.
+     * @param rule The rule number.
+     * @see #nextGeneration(long[], long[], int, int, int, RuleKernel)
+     */
+    public static void nextGeneration(long[] cells, long[] next, int words, int fromRow, int toRow, int rule) {
+        nextGeneration(cells, next, words, fromRow, toRow, new CountingKernel(rule));
+    }
+
+    /**
+     * Method that makes the next generation of some rows of a torus whose width is a multiple of 64 cells, given as
+     * a number of longs per row with the cell in column x being bit x % 64 of long x / 64 of the row. The eight
+     * neighbours of 64 cells are added at once with bitwise full adders, giving the count of neighbours as four bits
+     * per cell, which are then handed to the kernel of the rule. Longs with no living cells in or around them are
+     * skipped, unless the rule gives birth to cells without neighbours. Rows outside the range are left as they are
+     * in next.
+     * @param cells The rows of the current generation.
+     * @param next The rows of the next generation, of the same length as cells.
+     * @param words The number of longs in each row.
+     * @param fromRow The first row to make.
+     * @param toRow The row after the last row to make.
+     * @param kernel The kernel of the rule.
+     * @see RuleCompiler#getKernel(int)
+     */
+    public static void nextGeneration(long[] cells, long[] next, int words, int fromRow, int toRow,
+                                      RuleKernel kernel) {
+        int height = cells.length / words;
+        boolean emptyStaysEmpty = kernel.nextCells(0, 0, 0, 0, 0) == 0;
+
+        for (int y = fromRow; y < toRow; y++) {
+            int up = (y == 0 ? height - 1 : y - 1) * words;
+            int row = y * words;
+            int down = (y == height - 1 ? 0 : y + 1) * words;
+            for (int w = 0; w < words; w++) {
+                //The cells to the west and east of each cell, carried over from the neighbouring longs.
+                int west = w == 0 ? words - 1 : w - 1;
+                int east = w == words - 1 ? 0 : w + 1;
+                long cell = cells[row + w];
+                long north = cells[up + w];
+                long south = cells[down + w];
+                long northWest = north << 1 | cells[up + west] >>> 63;
+                long northEast = north >>> 1 | cells[up + east] << 63;
+                long westCell = cell << 1 | cells[row + west] >>> 63;
+                long eastCell = cell >>> 1 | cells[row + east] << 63;
+                long southWest = south << 1 | cells[down + west] >>> 63;
+                long southEast = south >>> 1 | cells[down + east] << 63;
+
+                //Empty space stays empty, unless cells are born without neighbours.
+                if (emptyStaysEmpty && (cell | north | south | northWest | northEast | westCell | eastCell
+                        | southWest | southEast) == 0) {
+                    next[row + w] = 0;
+                    continue;
+                }
+
+                //Adds the neighbours of each row with full adders, then the sums and carries of the three rows,
+                //giving the count of neighbours as four bits.
+                long northSum = northWest ^ north ^ northEast;
+                long northCarry = (northWest & north) | (northEast & (northWest ^ north));
+                long middleSum = westCell ^ eastCell;
+                long middleCarry = westCell & eastCell;
+                long southSum = southWest ^ south ^ southEast;
+                long southCarry = (southWest & south) | (southEast & (southWest ^ south));
+
+                long s0 = northSum ^ middleSum ^ southSum;
+                long onesCarry = (northSum & middleSum) | (southSum & (northSum ^ middleSum));
+                long pairA = northCarry ^ middleCarry;
+                long pairB = southCarry ^ onesCarry;
+                long s1 = pairA ^ pairB;
+                long bothA = northCarry & middleCarry;
+                long bothB = southCarry & onesCarry;
+                long s2 = (bothA ^ bothB) | (pairA & pairB);
+                long s3 = bothA & bothB;
+
+                next[row + w] = kernel.nextCells(cell, s0, s1, s2, s3);
+            }
+        }
+    }
+
+    /**
+     * CountingKernel is a nested class within the RuleExplorer that applies a rule by going through the numbers of
+     * neighbours that matter to it, rather than being compiled for the rule. It is made in no time, so it suits rules
+     * that are only run for a few generations. The class is nested because it is only used within the RuleExplorer.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    private static class CountingKernel implements RuleKernel {
+        private final int rule;
+
+        //The numbers of neighbours that give births, survivals or both.
+        private final int[] counts = new int[9];
+        private final int matters;
+
+        /**
+         * Constructor that finds the numbers of neighbours that matter to a rule.
+         * @param rule The rule number.
+         */
+        CountingKernel(int rule) {
+            this.rule = rule;
+            int matters = 0;
+            for (int count = 0; count <= 8; count++) {
+                if ((rule >> count & 0x201) != 0) {
+                    counts[matters++] = count;
+                }
+            }
+            this.matters = matters;
+        }
+
+        @Override
+        public long nextCells(long cells, long s0, long s1, long s2, long s3) {
+            long born = 0;
+            long survive = 0;
+            for (int i = 0; i < matters; i++) {
+                int count = counts[i];
+                long equal = ((count & 1) != 0 ? s0 : ~s0) & ((count & 2) != 0 ? s1 : ~s1)
+                        & ((count & 4) != 0 ? s2 : ~s2) & ((count & 8) != 0 ? s3 : ~s3);
+                if ((rule >> count & 1) != 0) {
+                    born |= equal;
+                }
+                if ((rule >> (9 + count) & 1) != 0) {
+                    survive |= equal;
+                }
+            }
+            return (cells & survive) | (~cells & born);
+        }
+    }
+
+    /**
+     * RuleResult is a nested class within the RuleExplorer that holds how the soups of one rule behaved. The class
+     * is nested because it is only made by the RuleExplorer.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    public static class RuleResult {
+        private final int rule;
+        private final int[] counts;
+        private final double meanPopulation;
+
+        /**
+         * Constructor that sets the result of a rule.
+         * @param rule The rule number.
+         * @param counts The number of soups that behaved in each way, in the order of the behaviours.
+         * @param meanPopulation The mean population of the soups when they stopped.
+         */
+        RuleResult(int rule, int[] counts, double meanPopulation) {
+            this.rule = rule;
+            this.counts = counts;
+            this.meanPopulation = meanPopulation;
+        }
+
+        /**
+         * Method that returns the rule number.
+         * @return rule - The rule number.
+         */
+        public int getRule() {
+            return rule;
+        }
+
+        /**
+         * Method that returns the rule as a rule string.
+         * @return ruleString - The rule string, such as "B3/S23".
+         * @see #toRuleString(int)
+         */
+        public String getRuleString() {
+            return toRuleString(rule);
+        }
+
+        /**
+         * Method that returns the number of soups that behaved in a given way.
+         * @param behaviour The behaviour.
+         * @return count - The number of soups.
+         */
+        public int getCount(Behaviour behaviour) {
+            return counts[behaviour.ordinal()];
+        }
+
+        /**
+         * Method that returns the way most of the soups behaved, the first in the order of the behaviours being
+         * chosen should there be a tie.
+         * @return behaviour - The behaviour of the rule.
+         */
+        public Behaviour getBehaviour() {
+            Behaviour behaviour = Behaviour.DIES;
+            for (Behaviour b : Behaviour.values()) {
+                if (counts[b.ordinal()] > counts[behaviour.ordinal()]) {
+                    behaviour = b;
+                }
+            }
+            return behaviour;
+        }
+
+        /**
+         * Method that returns the mean population of the soups when they stopped.
+         * @return meanPopulation - The mean population.
+         */
+        public double getMeanPopulation() {
+            return meanPopulation;
+        }
+    }
+
+    /**
+     * SoupWorker is a nested class within the RuleExplorer that holds the torus and hash table of one thread, and
+     * runs the soups of one rule at a time on them. The class is nested because it is only used within the
+     * RuleExplorer.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    private class SoupWorker {
+        private long[] cells = new long[SIZE];
+        private long[] next = new long[SIZE];
+
+        //A table of the hashes seen in the current soup and their generations. Entries of earlier soups are told
+        //apart by the number of the soup they were added in, so the table never has to be cleared.
+        private final long[] hashes;
+        private final int[] hashGenerations;
+        private final int[] hashSoups;
+        private int soupNumber = 0;
+
+        /**
+         * Constructor that creates the torus and a hash table large enough for the given number of generations.
+         * @param generations The largest number of generations a soup is run.
+         */
+        SoupWorker(int generations) {
+            int capacity = Integer.highestOneBit(Math.max(generations, 8)) << 2;
+            hashes = new long[capacity];
+            hashGenerations = new int[capacity];
+            hashSoups = new int[capacity];
+        }
+
+        /**
+         * Method that runs every soup of a rule, and sums up how they behaved.
+         * @param rule The rule number.
+         * @return result - The result of the rule.
+         */
+        RuleResult explore(int rule) {
+            int[] counts = new int[Behaviour.values().length];
+            long population = 0;
+            for (int soup = 0; soup < soups; soup++) {
+                fillSoup(seed + (long) rule * soups + soup);
+                counts[runSoup(rule).ordinal()]++;
+                population += population();
+            }
+            return new RuleResult(rule, counts, (double) population / soups);
+        }
+
+        /**
+         * Method that clears the torus and fills the square in its middle with random cells, half of them alive.
+         * @param soupSeed The seed of the soup.
+         */
+        private void fillSoup(long soupSeed) {
+            Arrays.fill(cells, 0);
+            long state = soupSeed;
+            int offset = (SIZE - SOUP_SIZE) / 2;
+            for (int y = offset; y < offset + SOUP_SIZE; y++) {
+                state += 0x9E3779B97F4A7C15L;
+                cells[y] = (mix(state) & ((1L << SOUP_SIZE) - 1)) << offset;
+            }
+        }
+
+        /**
+         * Method that runs the soup until it dies, explodes or repeats a generation, or the generations run out.
+         * A repeat is found by the hash of the torus, a period of 1 meaning it has stabilised.
+         * @param rule The rule number.
+         * @return behaviour - The behaviour of the soup.
+         */
+        private Behaviour runSoup(int rule) {
+            soupNumber++;
+            remember(hash(), 0);
+            for (int generation = 1; generation <= generations; generation++) {
+                nextGeneration(cells, next, rule);
+                long[] swap = cells;
+                cells = next;
+                next = swap;
+
+                int population = population();
+                if (population == 0) {
+                    return Behaviour.DIES;
+                }
+                if (population > EXPLODE_POPULATION) {
+                    return Behaviour.EXPLODES;
+                }
+                int seen = remember(hash(), generation);
+                if (seen >= 0) {
+                    return generation - seen == 1 ? Behaviour.STABILISES : Behaviour.OSCILLATES;
+                }
+            }
+            return Behaviour.CHAOTIC;
+        }
+
+        /**
+         * Method that adds a hash to the table, unless it has been seen before in this soup.
+         * @param hash The hash of the generation.
+         * @param generation The number of the generation.
+         * @return seen - The generation the hash was first seen in, or -1 if it is new.
+         */
+        private int remember(long hash, int generation) {
+            int mask = hashes.length - 1;
+            int i = (int) hash & mask;
+            while (hashSoups[i] == soupNumber) {
+                if (hashes[i] == hash) {
+                    return hashGenerations[i];
+                }
+                i = (i + 1) & mask;
+            }
+            hashes[i] = hash;
+            hashGenerations[i] = generation;
+            hashSoups[i] = soupNumber;
+            return -1;
+        }
+
+        /**
+         * Method that returns the hash of the torus, mixing each row with its number.
+         * @return hash - The hash.
+         */
+        private long hash() {
+            long hash = 0;
+            for (int y = 0; y < SIZE; y++) {
+                hash = hash * 31 + mix(cells[y] + y);
+            }
+            return hash;
+        }
+
+        /**
+         * Method that returns the number of cells alive on the torus.
+         * @return population - The number of cells alive.
+         */
+        private int population() {
+            int population = 0;
+            for (long row : cells) {
+                population += Long.bitCount(row);
+            }
+            return population;
+        }
+    }
+
+    /**
+     * Method that mixes the bits of a number, giving the random cells of the soups and the hashes of the rows.
+     * @param z The number to mix.
+     * @return mixed - The mixed number.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
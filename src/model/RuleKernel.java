@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * The RuleKernel interface is implemented by the rules of the bitwise kernels, which add up the neighbours of 64
+ * cells at once as four bits per cell. Given the cells and the bits of their neighbour counts, a kernel returns which
+ * of the cells are alive in the next generation. RuleCompiler makes a kernel of its own for each rule, with the
+ * numbers of neighbours of the rule written into the code.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ * @see RuleCompiler#getKernel(int)
+ * @see RuleExplorer#nextGeneration(long[], long[], int, int, int, RuleKernel)
+ */
+public interface RuleKernel {
+
+    /**
+     * Method that applies the rule to 64 cells, the neighbour count of the cell in bit i being made up of bit i of
+     * s0, s1, s2 and s3, from the lowest to the highest bit of the count.
+     * @param cells The cells of the current generation.
+     * @param s0 The lowest bit of each neighbour count.
+     * @param s1 The second bit of each neighbour count.
+     * @param s2 The third bit of each neighbour count.
+     * @param s3 The highest bit of each neighbour count, only set for a count of eight.
+     * @return next - The cells of the next generation.
+     */
+    long nextCells(long cells, long s0, long s1, long s2, long s3);
+}
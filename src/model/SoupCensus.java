@@ -0,0 +1,826 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The SoupCensus class searches random soups for the objects they leave behind, in the manner of apgsearch. Each
+ * soup is a square of 16 by 16 random cells, made from the seed of the census and the number of the soup, so any
+ * soup can be made again. A soup is run on a torus of 256 by 256 cells until its population repeats with a period
+ * of at most 60 generations, after which the ash is split into objects that are connected in the current or the
+ * next generation. Each object is run on its own to find its period and how far it moves, and is counted under its
+ * apgcode: "xs" for still lifes, "xp" for oscillators and "xq" for spaceships, followed by the number of cells or
+ * the period and the extended Wechsler format of its smallest phase and orientation. Soups that do not settle are
+ * counted as pathological, and objects that cannot be identified as unidentified.
+ *
+ * <p>The soups are shared out between the threads of the ThreadWorker. Each thread has its own tori and counts the
+ * objects it finds on its own, merging its counts into the census without locking once it is done. The census can
+ * be saved to and loaded from a checkpoint file, so a search can be split into batches and carried on after a
+ * restart. The rule is set through GameOfLife, so the same rule names and strings are accepted.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ * @see RuleExplorer#nextGeneration(long[], long[], int, int, int, int)
+ */
+public class SoupCensus {
+    private final RuleKernel kernel;
+    private final String ruleString;
+    private final String seed;
+    private final long seedHash;
+    private long soupCount = 0;
+    private final Map<String, LongAdder> census = new ConcurrentHashMap<>();
+    private final CensusWorker[] workers = new CensusWorker[ThreadWorker.getInstance().getNumWorkers()];
+
+    //The names used for soups that do not settle, and for objects that cannot be identified.
+    public static final String PATHOLOGICAL = "PATHOLOGICAL";
+    public static final String UNIDENTIFIED = "zz_UNIDENTIFIED";
+
+    //The size of the torus the soups are run on, and of the square each soup fills in its middle.
+    private static final int SIZE = 256;
+    private static final int SOUP_SIZE = 16;
+
+    //A soup settles once its population has repeated with a period of at most MAX_PERIOD for STABLE_WINDOW
+    //generations, which is checked every CHECK_INTERVAL generations. Soups that have not settled after
+    //MAX_GENERATIONS generations, or that fill a quarter of the torus, are pathological.
+    private static final int MAX_PERIOD = 60;
+    private static final int STABLE_WINDOW = 2 * MAX_PERIOD;
+    private static final int HISTORY = 256;
+    private static final int CHECK_INTERVAL = 30;
+    private static final int MAX_GENERATIONS = 1 << 14;
+
+    //The size of the torus objects are run on, and the widest an object may be.
+    private static final int OBJECT_SIZE = 128;
+    private static final int MAX_OBJECT_EXTENT = 64;
+
+    //The number of objects each thread remembers the code of, and the number of soups in each batch searched from
+    //the command line.
+    private static final int CACHE_SIZE = 4096;
+    private static final int BATCH = 10000;
+
+    //The characters of the extended Wechsler format.
+    private static final String CHARS = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    /**
+     * Constructor that sets the rule and the seed of the census.
+     * @param ruleString The rule, either by name or formatted after RLE standards (Bxxx/Sxxx).
+     * @param seed The seed every soup is made from.
+     * @exception RulesFormatException - Thrown if the rule is formatted wrong.
+     * @exception IllegalArgumentException - Thrown if the rule gives birth to cells without neighbours, which a
+     *                                       torus of dead cells cannot be run with.
+     * @see GameOfLife#parseRule(String)
+     */
+    public SoupCensus(String ruleString, String seed) throws RulesFormatException {
+        String[] rules = GameOfLife.parseRule(ruleString);
+        int rule = RuleExplorer.toRule(rules[0], rules[1]);
+        if ((rule & 1) != 0) {
+            throw new IllegalArgumentException("B0 rules cannot be searched");
+        }
+        this.kernel = RuleCompiler.getKernel(rule);
+        this.ruleString = "B" + rules[0] + "/S" + rules[1];
+        this.seed = seed;
+
+        //Hashes the seed with FNV-1a, so the soups only depend on the seed and their number.
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : seed.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        this.seedHash = hash;
+    }
+
+    /**
+     * Method that searches the next soups on every thread of the ThreadWorker, carrying on from the soups already
+     * searched. Each thread takes the next soup not yet taken until none are left, and merges its counts into the
+     * census once it is done. Reports the number of soups searched after each soup, and stops as soon as it is
+     * cancelled, every soup taken so far having been searched.
+     * @param soups The number of soups to search.
+     * @param progress Receives the number of soups searched and the number of soups to search, from any thread.
+     * @param cancelled Returns true when the search should stop.
+     * @return searched - The number of soups searched.
+     * @see ThreadWorker#runWorkers(Callable)
+     */
+    public int search(int soups, BiConsumer<Integer, Integer> progress, BooleanSupplier cancelled) {
+        long first = soupCount;
+        long end = first + soups;
+        AtomicLong nextSoup = new AtomicLong(first);
+        AtomicInteger searched = new AtomicInteger();
+        AtomicInteger nextWorker = new AtomicInteger();
+
+        Callable<Void> task = () -> {
+            //Each task is given a worker of its own, which is kept for later searches.
+            int index = nextWorker.getAndIncrement();
+            if (workers[index] == null) {
+                workers[index] = new CensusWorker();
+            }
+            CensusWorker worker = workers[index];
+            long soup;
+            while (!cancelled.getAsBoolean() && (soup = nextSoup.getAndIncrement()) < end) {
+                worker.searchSoup(soup);
+                progress.accept(searched.incrementAndGet(), soups);
+            }
+            worker.mergeInto(census);
+            return null;
+        };
+        ThreadWorker.getInstance().runWorkers(task);
+
+        soupCount = Math.min(nextSoup.get(), end);
+        return (int) (soupCount - first);
+    }
+
+    /**
+     * Method that returns the number of times each object has been found, the most common first.
+     * @return census - The objects by their apgcode, along with their counts.
+     */
+    public Map<String, Long> getCensus() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        census.forEach((code, count) -> entries.add(new AbstractMap.SimpleEntry<>(code, count.sum())));
+        entries.sort((a, b) -> a.getValue().equals(b.getValue()) ? a.getKey().compareTo(b.getKey())
+                : Long.compare(b.getValue(), a.getValue()));
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+        return sorted;
+    }
+
+    /**
+     * Method that returns the number of times an object has been found.
+     * @param code The apgcode of the object.
+     * @return count - The number of times it has been found.
+     */
+    public long getCount(String code) {
+        LongAdder count = census.get(code);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Method that returns the number of soups searched.
+     * @return soupCount - The number of soups.
+     */
+    public long getSoupCount() {
+        return soupCount;
+    }
+
+    /**
+     * Method that returns the rule of the census.
+     * @return ruleString - The rule, formatted after RLE standards.
+     */
+    public String getRuleString() {
+        return ruleString;
+    }
+
+    /**
+     * Method that returns the seed of the census.
+     * @return seed - The seed.
+     */
+    public String getSeed() {
+        return seed;
+    }
+
+    /**
+     * Method that saves the census to a checkpoint file, by writing a temporary file next to it and moving it in
+     * place, so an earlier checkpoint is never left half written. The file holds the rule, the seed and the number
+     * of soups searched, followed by each object and its count.
+     * @param file The checkpoint file.
+     * @exception IOException - Thrown if the file cannot be written.
+     */
+    public void saveCheckpoint(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            writer.write("#SoupCensus");
+            writer.newLine();
+            writer.write("rule " + ruleString);
+            writer.newLine();
+            writer.write("seed " + seed);
+            writer.newLine();
+            writer.write("soups " + soupCount);
+            writer.newLine();
+            for (Map.Entry<String, Long> entry : getCensus().entrySet()) {
+                writer.write(entry.getKey() + " " + entry.getValue());
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Method that loads a census from a checkpoint file, so the search can be carried on where it was saved.
+     * @param file The checkpoint file.
+     * @return census - The census.
+     * @exception IOException - Thrown if the file cannot be read, or is not a checkpoint.
+     * @see #saveCheckpoint(Path)
+     */
+    public static SoupCensus loadCheckpoint(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            String ruleLine = reader.readLine();
+            String seedLine = reader.readLine();
+            String soupsLine = reader.readLine();
+            if (!"#SoupCensus".equals(header) || ruleLine == null || !ruleLine.startsWith("rule ")
+                    || seedLine == null || !seedLine.startsWith("seed ") || soupsLine == null
+                    || !soupsLine.startsWith("soups ")) {
+                throw new IOException("Not a census checkpoint");
+            }
+            SoupCensus soupCensus = new SoupCensus(ruleLine.substring(5), seedLine.substring(5));
+            soupCensus.soupCount = Long.parseLong(soupsLine.substring(6));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length != 2) {
+                    throw new IOException("Invalid census line " + line);
+                }
+                soupCensus.census.computeIfAbsent(parts[0], code -> new LongAdder()).add(Long.parseLong(parts[1]));
+            }
+            return soupCensus;
+        } catch (RulesFormatException | IllegalArgumentException e) {
+            throw new IOException("Invalid census checkpoint", e);
+        }
+    }
+
+    /**
+     * Method that runs a census without the user interface, from the command line. Loads the checkpoint file if
+     * there is one, and searches soups in batches until the given number of soups has been searched, saving the
+     * checkpoint and printing the number of soups searched per second after each batch.
+     * @param args The rule, the seed, the number of soups and the checkpoint file, all of which may be left out.
+     * @exception IOException - Thrown if the checkpoint cannot be read or written.
+     * @exception RulesFormatException - Thrown if the rule is formatted wrong.
+     */
+    public static void runFromCommandLine(String[] args) throws IOException, RulesFormatException {
+        String ruleString = args.length > 0 ? args[0] : "B3/S23";
+        String seed = args.length > 1 ? args[1] : Long.toString(System.currentTimeMillis());
+        long soups = args.length > 2 ? Long.parseLong(args[2]) : 100000;
+        Path checkpoint = Paths.get(args.length > 3 ? args[3] : "census.txt");
+
+        try {
+            SoupCensus soupCensus = Files.exists(checkpoint) ? loadCheckpoint(checkpoint)
+                    : new SoupCensus(ruleString, seed);
+            System.out.println("Searching " + soupCensus.getRuleString() + " with seed " + soupCensus.getSeed()
+                    + " from soup " + soupCensus.getSoupCount());
+            while (soupCensus.getSoupCount() < soups) {
+                long start = System.nanoTime();
+                int searched = soupCensus.search((int) Math.min(BATCH, soups - soupCensus.getSoupCount()),
+                        (done, total) -> {}, () -> false);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                soupCensus.saveCheckpoint(checkpoint);
+                System.out.printf("%d soups, %.0f soups per second%n", soupCensus.getSoupCount(), searched / seconds);
+            }
+        } finally {
+            ThreadWorker.getInstance().shutDownExecutor();
+        }
+    }
+
+    /**
+     * Method that mixes the bits of a number, giving the random cells of the soups.
+     * @param z The number to mix.
+     * @return mixed - The mixed number.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Method that writes a shape in the extended Wechsler format. The shape is split into strips of five rows, and
+     * each column of a strip is written as one character, the top cell being the lowest bit. Strips are separated
+     * by 'z', the zeros at the end of a strip are left out, and runs of zeros are shortened to 'w' for two, 'x' for
+     * three and 'y' followed by a character for four to 39.
+     * @param xs The columns of the cells, from 0.
+     * @param ys The rows of the cells, from 0.
+     * @param width The width of the shape.
+     * @param height The height of the shape.
+     * @return code - The shape in the extended Wechsler format.
+     */
+    private static String wechsler(int[] xs, int[] ys, int width, int height) {
+        int strips = (height + 4) / 5;
+        int[] columns = new int[strips * width];
+        for (int i = 0; i < xs.length; i++) {
+            columns[ys[i] / 5 * width + xs[i]] |= 1 << (ys[i] % 5);
+        }
+
+        StringBuilder code = new StringBuilder();
+        for (int strip = 0; strip < strips; strip++) {
+            if (strip > 0) {
+                code.append('z');
+            }
+            int zeros = 0;
+            for (int x = 0; x < width; x++) {
+                int value = columns[strip * width + x];
+                if (value == 0) {
+                    zeros++;
+                    continue;
+                }
+                while (zeros > 0) {
+                    if (zeros == 1) {
+                        code.append('0');
+                    } else if (zeros == 2) {
+                        code.append('w');
+                    } else if (zeros == 3) {
+                        code.append('x');
+                    } else {
+                        int run = Math.min(zeros, 39);
+                        code.append('y').append(CHARS.charAt(run - 4));
+                        zeros -= run;
+                        continue;
+                    }
+                    zeros = 0;
+                }
+                code.append(CHARS.charAt(value));
+            }
+        }
+        return code.toString();
+    }
+
+    /**
+     * Torus is a nested class within the SoupCensus that holds a torus of cells, stored as a number of longs per row,
+     * and keeps track of the rows that may hold living cells, so only the rows around them are stepped. The class is
+     * nested because it is only used within the SoupCensus.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    private static class Torus {
+        private final int size;
+        private final int words;
+        private long[] cells;
+        private long[] next;
+
+        //The rows of cells holding living cells, and the rows of next that may not have been cleared.
+        private int low, high;
+        private int nextLow, nextHigh;
+
+        //The bounding box of the cells, found by shape().
+        private int minX, minY, maxX, maxY;
+
+        /**
+         * Constructor that creates an empty torus.
+         * @param size The width and height of the torus, a multiple of 64.
+         */
+        Torus(int size) {
+            this.size = size;
+            this.words = size / 64;
+            this.cells = new long[size * words];
+            this.next = new long[size * words];
+            this.low = size;
+            this.high = -1;
+            this.nextLow = size;
+            this.nextHigh = -1;
+        }
+
+        /**
+         * Method that kills every cell, clearing only the rows that may hold living cells.
+         */
+        void clear() {
+            clearRows(cells, low, high);
+            clearRows(next, nextLow, nextHigh);
+            low = size;
+            high = -1;
+            nextLow = size;
+            nextHigh = -1;
+        }
+
+        /**
+         * Method that clears a range of rows.
+         * @param rows The rows to clear.
+         * @param from The first row.
+         * @param to The last row.
+         */
+        private void clearRows(long[] rows, int from, int to) {
+            if (from <= to) {
+                Arrays.fill(rows, from * words, (to + 1) * words, 0);
+            }
+        }
+
+        /**
+         * Method that brings a cell to life.
+         * @param x The column of the cell.
+         * @param y The row of the cell.
+         */
+        void set(int x, int y) {
+            cells[y * words + (x >>> 6)] |= 1L << x;
+            low = Math.min(low, y);
+            high = Math.max(high, y);
+        }
+
+        /**
+         * Method that returns whether a cell is alive.
+         * @param x The column of the cell.
+         * @param y The row of the cell.
+         * @return alive - True if the cell is alive.
+         */
+        boolean get(int x, int y) {
+            return (cells[y * words + (x >>> 6)] >>> x & 1) != 0;
+        }
+
+        /**
+         * Method that makes the next generation, stepping only the rows next to living cells, unless they reach the
+         * edge of the torus.
+         * @param kernel The kernel of the rule.
+         * @return population - The number of cells alive in the next generation.
+         */
+        int step(RuleKernel kernel) {
+            if (low > high) {
+                return 0;
+            }
+            int from = low - 1;
+            int to = high + 2;
+            if (from < 0 || to > size) {
+                from = 0;
+                to = size;
+            }
+            clearRows(next, nextLow, Math.min(nextHigh, from - 1));
+            clearRows(next, Math.max(nextLow, to), nextHigh);
+            RuleExplorer.nextGeneration(cells, next, words, from, to, kernel);
+
+            int population = 0;
+            int newLow = size;
+            int newHigh = -1;
+            for (int y = from; y < to; y++) {
+                int count = 0;
+                for (int w = y * words; w < (y + 1) * words; w++) {
+                    count += Long.bitCount(next[w]);
+                }
+                if (count > 0) {
+                    population += count;
+                    newLow = Math.min(newLow, y);
+                    newHigh = y;
+                }
+            }
+
+            long[] swap = cells;
+            cells = next;
+            next = swap;
+            nextLow = low;
+            nextHigh = high;
+            low = newLow;
+            high = newHigh;
+            return population;
+        }
+
+        /**
+         * Method that returns the living cells relative to their bounding box, each packed as the row above the
+         * column, in order of rows and then columns, and sets the bounding box.
+         * @return shape - The packed cells.
+         */
+        int[] shape() {
+            int count = 0;
+            minX = size;
+            maxX = -1;
+            for (int y = low; y <= high; y++) {
+                for (int w = 0; w < words; w++) {
+                    long word = cells[y * words + w];
+                    if (word != 0) {
+                        count += Long.bitCount(word);
+                        minX = Math.min(minX, w * 64 + Long.numberOfTrailingZeros(word));
+                        maxX = Math.max(maxX, w * 64 + 63 - Long.numberOfLeadingZeros(word));
+                    }
+                }
+            }
+            minY = low;
+            maxY = high;
+
+            int[] shape = new int[count];
+            int i = 0;
+            for (int y = low; y <= high; y++) {
+                for (int w = 0; w < words; w++) {
+                    long word = cells[y * words + w];
+                    while (word != 0) {
+                        int x = w * 64 + Long.numberOfTrailingZeros(word);
+                        shape[i++] = (y - minY) << 16 | (x - minX);
+                        word &= word - 1;
+                    }
+                }
+            }
+            return shape;
+        }
+
+        /**
+         * Method that returns whether the living cells touch the edge of the torus, after shape() has been called.
+         * @return edge - True if a living cell is on the edge.
+         */
+        boolean touchesEdge() {
+            return minX == 0 || minY == 0 || maxX == size - 1 || maxY == size - 1;
+        }
+    }
+
+    /**
+     * CensusWorker is a nested class within the SoupCensus that holds the tori, the buffers and the counts of one
+     * thread, and searches one soup at a time with them. The class is nested because it is only used within the
+     * SoupCensus.
+     *
+     * @author Oscar Vladau-Husevold
+     * @version 1.0
+     */
+    private class CensusWorker {
+        private final Torus soup = new Torus(SIZE);
+        private final Torus object = new Torus(OBJECT_SIZE);
+        private final int[] populations = new int[HISTORY];
+
+        //The cells of the settled generation and of it together with the next, and the marks and stack used when
+        //splitting them into objects. Marks of earlier soups are told apart by the number they were made with.
+        private final long[] phase = new long[SIZE * SIZE / 64];
+        private final long[] union = new long[SIZE * SIZE / 64];
+        private final int[] marks = new int[SIZE * SIZE];
+        private final int[] stack = new int[SIZE * SIZE];
+        private int mark = 0;
+
+        //The objects found by this thread since it last merged, and the codes of the shapes it has identified.
+        private final Map<String, int[]> counts = new HashMap<>();
+        private final Map<String, String> codes = new HashMap<>();
+
+        /**
+         * Method that makes a soup, runs it until it settles, and counts the objects it leaves behind.
+         * @param soupNumber The number of the soup.
+         */
+        void searchSoup(long soupNumber) {
+            soup.clear();
+            long state = mix(seedHash + soupNumber * 0x9E3779B97F4A7C15L);
+            int offset = (SIZE - SOUP_SIZE) / 2;
+            for (int y = 0; y < SOUP_SIZE; y++) {
+                state += 0x9E3779B97F4A7C15L;
+                long bits = mix(state);
+                for (int x = 0; x < SOUP_SIZE; x++) {
+                    if ((bits >>> x & 1) != 0) {
+                        soup.set(offset + x, offset + y);
+                    }
+                }
+            }
+
+            for (int generation = 1; generation <= MAX_GENERATIONS; generation++) {
+                int population = soup.step(kernel);
+                if (population == 0) {
+                    return;
+                }
+                if (population > SIZE * SIZE / 4) {
+                    break;
+                }
+                populations[generation % HISTORY] = population;
+                if (generation % CHECK_INTERVAL == 0 && generation >= MAX_PERIOD + STABLE_WINDOW
+                        && isSettled(generation)) {
+                    countObjects();
+                    return;
+                }
+            }
+            count(PATHOLOGICAL);
+        }
+
+        /**
+         * Method that checks whether the population has repeated with a period of at most MAX_PERIOD for the last
+         * STABLE_WINDOW generations.
+         * @param generation The current generation.
+         * @return settled - True if the population repeats.
+         */
+        private boolean isSettled(int generation) {
+            for (int period = 1; period <= MAX_PERIOD; period++) {
+                int i = 0;
+                while (i < STABLE_WINDOW && populations[(generation - i) % HISTORY]
+                        == populations[(generation - i - period) % HISTORY]) {
+                    i++;
+                }
+                if (i == STABLE_WINDOW) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Method that splits the settled soup into objects and counts each of them. The cells of the current
+         * generation are saved and the soup is stepped once more, and the objects are found as the groups of cells
+         * that touch in either of the two generations, so that objects are not split in a phase where they come
+         * apart.
+         * @see #identify(int[], int[], int)
+         */
+        private void countObjects() {
+            int words = SIZE / 64;
+            int low = soup.low;
+            int high = soup.high;
+            System.arraycopy(soup.cells, low * words, phase, low * words, (high - low + 1) * words);
+            soup.step(kernel);
+            int unionLow = Math.min(low, soup.low);
+            int unionHigh = Math.max(high, soup.high);
+            for (int i = unionLow * words; i < (unionHigh + 1) * words; i++) {
+                union[i] = phase[i] | soup.cells[i];
+            }
+
+            mark++;
+            int[] xs = new int[64];
+            int[] ys = new int[64];
+            for (int y = unionLow; y <= unionHigh; y++) {
+                for (int w = 0; w < words; w++) {
+                    long word = union[y * words + w];
+                    while (word != 0) {
+                        int start = y * SIZE + w * 64 + Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                        if (marks[start] == mark) {
+                            continue;
+                        }
+
+                        //Finds every cell touching the first, keeping those alive in the settled generation.
+                        int cells = 0;
+                        int top = 0;
+                        marks[start] = mark;
+                        stack[top++] = start;
+                        while (top > 0) {
+                            int cell = stack[--top];
+                            int cx = cell % SIZE;
+                            int cy = cell / SIZE;
+                            if ((phase[cy * words + (cx >>> 6)] >>> cx & 1) != 0) {
+                                if (cells == xs.length) {
+                                    xs = Arrays.copyOf(xs, cells * 2);
+                                    ys = Arrays.copyOf(ys, cells * 2);
+                                }
+                                xs[cells] = cx;
+                                ys[cells] = cy;
+                                cells++;
+                            }
+                            for (int dy = -1; dy <= 1; dy++) {
+                                for (int dx = -1; dx <= 1; dx++) {
+                                    int nx = (cx + dx + SIZE) % SIZE;
+                                    int ny = (cy + dy + SIZE) % SIZE;
+                                    int neighbour = ny * SIZE + nx;
+                                    if (marks[neighbour] != mark
+                                            && (union[ny * words + (nx >>> 6)] >>> nx & 1) != 0) {
+                                        marks[neighbour] = mark;
+                                        stack[top++] = neighbour;
+                                    }
+                                }
+                            }
+                        }
+                        if (cells > 0) {
+                            count(identify(xs, ys, cells));
+                        }
+                    }
+                }
+            }
+            Arrays.fill(phase, low * words, (high + 1) * words, 0);
+            Arrays.fill(union, unionLow * words, (unionHigh + 1) * words, 0);
+        }
+
+        /**
+         * Method that finds the apgcode of an object. The object is moved to the middle of its own torus, and run
+         * until its shape repeats, giving its period and whether it moves. Every phase before the repeat is written
+         * in all eight orientations, and the shortest code is chosen, the first in alphabetical order should there be
+         * a tie. The codes are remembered by the shape of the object, so common objects are only run once.
+         * @param xs The columns of the cells of the object on the soup torus.
+         * @param ys The rows of the cells of the object on the soup torus.
+         * @param cells The number of cells of the object.
+         * @return code - The apgcode, or UNIDENTIFIED if the object does not repeat in time.
+         * @see #wechsler(int[], int[], int, int)
+         */
+        private String identify(int[] xs, int[] ys, int cells) {
+            //Finds the cells relative to the first, as the object may lie across the edge of the torus.
+            int[] rx = new int[cells];
+            int[] ry = new int[cells];
+            int minX = 0, minY = 0, maxX = 0, maxY = 0;
+            for (int i = 0; i < cells; i++) {
+                rx[i] = Math.floorMod(xs[i] - xs[0] + SIZE / 2, SIZE) - SIZE / 2;
+                ry[i] = Math.floorMod(ys[i] - ys[0] + SIZE / 2, SIZE) - SIZE / 2;
+                minX = Math.min(minX, rx[i]);
+                minY = Math.min(minY, ry[i]);
+                maxX = Math.max(maxX, rx[i]);
+                maxY = Math.max(maxY, ry[i]);
+            }
+            if (maxX - minX >= MAX_OBJECT_EXTENT || maxY - minY >= MAX_OBJECT_EXTENT) {
+                return UNIDENTIFIED;
+            }
+
+            object.clear();
+            int offsetX = (OBJECT_SIZE - (maxX - minX + 1)) / 2 - minX;
+            int offsetY = (OBJECT_SIZE - (maxY - minY + 1)) / 2 - minY;
+            for (int i = 0; i < cells; i++) {
+                object.set(rx[i] + offsetX, ry[i] + offsetY);
+            }
+            int[] first = object.shape();
+            String key = shapeKey(first);
+            String code = codes.get(key);
+            if (code != null) {
+                return code;
+            }
+
+            List<int[]> phases = new ArrayList<>();
+            phases.add(first);
+            int firstX = object.minX;
+            int firstY = object.minY;
+            code = UNIDENTIFIED;
+            for (int generation = 1; generation <= MAX_PERIOD; generation++) {
+                if (object.step(kernel) == 0) {
+                    break;
+                }
+                int[] shape = object.shape();
+                if (object.touchesEdge() || object.maxX - object.minX >= MAX_OBJECT_EXTENT
+                        || object.maxY - object.minY >= MAX_OBJECT_EXTENT) {
+                    break;
+                }
+                if (Arrays.equals(shape, first)) {
+                    String prefix = generation == 1 ? "xs" + first.length
+                            : object.minX == firstX && object.minY == firstY ? "xp" + generation : "xq" + generation;
+                    code = prefix + "_" + smallestCode(phases);
+                    break;
+                }
+                phases.add(shape);
+            }
+
+            if (codes.size() >= CACHE_SIZE) {
+                codes.clear();
+            }
+            codes.put(key, code);
+            return code;
+        }
+
+        /**
+         * Method that adds one to the count of an object found by this thread.
+         * @param code The apgcode of the object.
+         */
+        private void count(String code) {
+            counts.computeIfAbsent(code, c -> new int[1])[0]++;
+        }
+
+        /**
+         * Method that adds the counts of this thread to the census and starts counting again.
+         * @param census The counts of the census, which other threads may be adding to at the same time.
+         */
+        void mergeInto(Map<String, LongAdder> census) {
+            counts.forEach((code, count) -> census.computeIfAbsent(code, c -> new LongAdder()).add(count[0]));
+            counts.clear();
+        }
+    }
+
+    /**
+     * Method that turns a packed shape into a string, so it can be used as a key.
+     * @param shape The packed cells.
+     * @return key - The key.
+     */
+    private static String shapeKey(int[] shape) {
+        char[] key = new char[shape.length * 2];
+        for (int i = 0; i < shape.length; i++) {
+            key[2 * i] = (char) (shape[i] >>> 16);
+            key[2 * i + 1] = (char) shape[i];
+        }
+        return new String(key);
+    }
+
+    /**
+     * Method that writes every phase in all eight orientations in the extended Wechsler format, and returns the
+     * shortest, the first in alphabetical order should there be a tie.
+     * @param phases The packed cells of each phase.
+     * @return code - The smallest code.
+     * @see #wechsler(int[], int[], int, int)
+     */
+    private static String smallestCode(List<int[]> phases) {
+        String best = null;
+        for (int[] shape : phases) {
+            int[] xs = new int[shape.length];
+            int[] ys = new int[shape.length];
+            for (int orientation = 0; orientation < 8; orientation++) {
+                int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+                int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+                for (int i = 0; i < shape.length; i++) {
+                    int x = shape[i] & 0xFFFF;
+                    int y = shape[i] >>> 16;
+                    if ((orientation & 4) != 0) {
+                        int swap = x;
+                        x = y;
+                        y = swap;
+                    }
+                    xs[i] = (orientation & 1) != 0 ? -x : x;
+                    ys[i] = (orientation & 2) != 0 ? -y : y;
+                    minX = Math.min(minX, xs[i]);
+                    minY = Math.min(minY, ys[i]);
+                    maxX = Math.max(maxX, xs[i]);
+                    maxY = Math.max(maxY, ys[i]);
+                }
+                for (int i = 0; i < shape.length; i++) {
+                    xs[i] -= minX;
+                    ys[i] -= minY;
+                }
+                String code = wechsler(xs, ys, maxX - minX + 1, maxY - minY + 1);
+                if (best == null || code.length() < best.length()
+                        || (code.length() == best.length() && code.compareTo(best) < 0)) {
+                    best = code;
+                }
+            }
+        }
+        return best;
+    }
+}
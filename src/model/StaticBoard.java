@@ -4,6 +4,9 @@ package model;
  * StaticBoard is a concrete implementation of the abstract Board class. It handles the playing board of the game,
  * containing the current cell grid and is responsible for manipulating the current cell grid.
  * StaticBoard's cellGrid is static in width and height, meaning that its width and height is final.
+ * The cells are stored row by row in one array, with an inactive row above and below the board and an inactive
+ * column on either side of it, so that the neighbours of every cell on the board can be read without checking the
+ * borders.
  *
  * @author Oscar Vladau-Husevold
  * @author Henrik Finnerud Larsen
@@ -13,18 +16,25 @@ package model;
 @Deprecated
 public class StaticBoard extends Board {
     private final int WIDTH, HEIGHT;
-    private final byte[][] cellGrid;
+
+    //The cell (x, y) is stored at (y + 1) * STRIDE + x + 1 of the cell grid, the rest being the inactive border.
+    private final int STRIDE;
+    private final byte[] cellGrid;
+
+    //The number of columns countNeighbours() goes through at a time.
+    private static final int NEIGHBOUR_BAND = 32;
 
     /**
-     * Sole constructor, takes parameters x and y for width and height respectively, and creates a new 2D-array
-     * with those dimensions which is set as the cellGrid.
+     * Sole constructor, takes parameters x and y for width and height respectively, and creates a new array for
+     * the rows of the board and its border, which is set as the cellGrid.
      * @param x The width of the playing board.
      * @param y The width of the playing board.
      */
     public StaticBoard(int x, int y) {
         WIDTH = x;
         HEIGHT = y;
-        this.cellGrid = new byte[WIDTH][HEIGHT];
+        STRIDE = x + 2;
+        this.cellGrid = new byte[STRIDE * (y + 2)];
     }
 
     /**
@@ -60,8 +70,8 @@ public class StaticBoard extends Board {
      */
     @Override
     public byte getCellState(int x, int y) {
-        if (x < getWidth() && y < getHeight()) {
-            return cellGrid[x][y];
+        if (x >= 0 && y >= 0 && x < getWidth() && y < getHeight()) {
+            return cellGrid[(y + 1) * STRIDE + x + 1];
         } else {
             throw new ArrayIndexOutOfBoundsException();
         }
@@ -79,14 +89,122 @@ public class StaticBoard extends Board {
     @Override
     public void setCellState(int x, int y, byte state) {
         if (state == 1 || state == 0) {
-            if (x < getWidth() && y < getHeight()) {
-                cellGrid[x][y] = state;
+            if (x >= 0 && y >= 0 && x < getWidth() && y < getHeight()) {
+                cellGrid[(y + 1) * STRIDE + x + 1] = state;
+                invalidateHash();
             } else {
                 throw new ArrayIndexOutOfBoundsException();
             }
         }
     }
 
+    /**
+     * Method that sets the active cells of a pattern into the cell grid, working directly on the cell grid array
+     * one row at a time. Overrides the orPattern method in the Board class.
+     * @param pattern The pattern to be placed, indexed [x][y].
+     * @param xStart The x coordinate of the upper left corner in the cell grid.
+     * @param yStart The y coordinate of the upper left corner in the cell grid.
+     * @param width The number of columns of the pattern to place.
+     * @param height The number of rows of the pattern to place.
+     * @return born - The number of cells that became active.
+     * @exception ArrayIndexOutOfBoundsException - If the pattern is not within the bounds of the grid.
+     * @see Board#orPattern(byte[][], int, int, int, int)
+     */
+    @Override
+    protected int orPattern(byte[][] pattern, int xStart, int yStart, int width, int height) {
+        if (xStart < 0 || yStart < 0 || xStart + width > WIDTH || yStart + height > HEIGHT) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        int born = 0;
+        for (int y = 0; y < height; y++) {
+            int index = (yStart + y + 1) * STRIDE + xStart + 1;
+            for (int x = 0; x < width; x++, index++) {
+                if (pattern[x][y] == 1) {
+                    born += 1 - cellGrid[index];
+                    cellGrid[index] = 1;
+                }
+            }
+        }
+        return born;
+    }
+
+    /**
+     * Method that counts the neighbours of every cell, reading the neighbours of each cell from the rows above and
+     * below it without checking the borders, as the border around the board is inactive. The cells are read row by
+     * row within bands of NEIGHBOUR_BAND columns, so that both the rows of the cell grid and the columns of the
+     * returned array are gone through in the order they are stored. Overrides the countNeighbours method in the
+     * Board class.
+     * @return neighbours - 2D-array with neighbours counted for each cell.
+     * @see Board#countNeighbours()
+     */
+    @Override
+    public byte[][] countNeighbours() {
+        byte[][] neighbours = new byte[WIDTH][HEIGHT];
+        for (int xStart = 0; xStart < WIDTH; xStart += NEIGHBOUR_BAND) {
+            int xEnd = Math.min(WIDTH, xStart + NEIGHBOUR_BAND);
+            for (int y = 0; y < HEIGHT; y++) {
+                int index = (y + 1) * STRIDE + xStart + 1;
+                for (int x = xStart; x < xEnd; x++, index++) {
+                    neighbours[x][y] = (byte)(cellGrid[index - STRIDE - 1] + cellGrid[index - STRIDE]
+                            + cellGrid[index - STRIDE + 1] + cellGrid[index - 1] + cellGrid[index + 1]
+                            + cellGrid[index + STRIDE - 1] + cellGrid[index + STRIDE]
+                            + cellGrid[index + STRIDE + 1]);
+                }
+            }
+        }
+        return neighbours;
+    }
+
+    /**
+     * Method that copies a row of the cell grid into an array. Overrides the readRow method in the Board class.
+     * @param y The y coordinate of the row.
+     * @param row The array to read the row into.
+     * @see Board#readRow(int, byte[])
+     */
+    @Override
+    protected void readRow(int y, byte[] row) {
+        System.arraycopy(cellGrid, (y + 1) * STRIDE + 1, row, 0, WIDTH);
+    }
+
+    /**
+     * Method that packs the cells of the cell grid into rows of bits, going through the cell grid in the order it
+     * is stored. Overrides the packRows method in the Board class.
+     * @param rows The rows to pack the cells into.
+     * @param words The number of longs in each row, at least (width + 63) / 64.
+     * @param firstRow The row the upper row of the cell grid is packed into.
+     * @see Board#packRows(long[], int, int)
+     */
+    @Override
+    protected void packRows(long[] rows, int words, int firstRow) {
+        for (int y = 0; y < HEIGHT; y++) {
+            int index = (y + 1) * STRIDE + 1;
+            int row = (firstRow + y) * words;
+            for (int x = 0; x < WIDTH; x++) {
+                rows[row + (x >>> 6)] |= (long)cellGrid[index + x] << x;
+            }
+        }
+    }
+
+    /**
+     * Method that sets every cell of the cell grid from rows of bits, going through the cell grid in the order it is
+     * stored. Overrides the unpackRows method in the Board class.
+     * @param rows The rows to set the cells from.
+     * @param words The number of longs in each row.
+     * @param firstRow The row holding the upper row of the cell grid.
+     * @see Board#unpackRows(long[], int, int)
+     */
+    @Override
+    protected void unpackRows(long[] rows, int words, int firstRow) {
+        for (int y = 0; y < HEIGHT; y++) {
+            int index = (y + 1) * STRIDE + 1;
+            int row = (firstRow + y) * words;
+            for (int x = 0; x < WIDTH; x++) {
+                cellGrid[index + x] = (byte)(rows[row + (x >>> 6)] >>> x & 1);
+            }
+        }
+        invalidateHash();
+    }
+
     /**
      * Concrete implementation of clone in the Board class. Does a deep copy of the current StaticBoard and
      * returns it. Overrides the clone method in the Object class.
@@ -96,14 +214,8 @@ public class StaticBoard extends Board {
      */
     @Override
     public Object clone(){
-        byte[][] cellGrid = new byte[this.cellGrid.length][this.cellGrid[0].length];
-        for (int i = 0; i < this.cellGrid.length; i++) {
-            for (int j = 0; j < this.cellGrid[0].length; j++) {
-                cellGrid[i][j] = this.cellGrid[i][j];
-            }
-        }
         StaticBoard staticBoardClone = new StaticBoard(WIDTH, HEIGHT);
-        staticBoardClone.setBoard(cellGrid);
+        System.arraycopy(cellGrid, 0, staticBoardClone.cellGrid, 0, cellGrid.length);
         return staticBoardClone;
     }
 }
\ No newline at end of file
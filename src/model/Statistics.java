@@ -1,8 +1,16 @@
 package model;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjIntConsumer;
+
 /**
  * Statistics is a implementation of the statistics in the game.
  * containing the a clone of the current board and calculates and saves the data from the board.
+ * The statistics are gathered in a single run of the game, and each generation can be handed on as soon as it has
+ * been measured, so that it can be shown while the rest are being calculated.
  *
  * @author Henrik Finnerud Larsen
  * @version 1.0
@@ -24,63 +32,190 @@ public class Statistics{
      * @param game The game.
      * @param iterations Number of iteration to return.
      * @return statistics A nested byte array containing the data to the statistics.
-     * @see GameOfLife#clone()
-     * @see GameOfLife#getPlayBoard()
-     * @see Board#countCellsAlive()
-     * @see Board#getSumXYCoordinates()
+     * @see #getStatistics(GameOfLife, int, ObjIntConsumer, BooleanSupplier)
      */
     public int[][] getStatistics(GameOfLife game, int iterations) {
+        return getStatistics(game, iterations, (row, generation) -> {}, () -> false);
+    }
+
+    /**
+     * Method to get the statistics data, handing on each generation as soon as it has been measured. Stops as soon
+     * as it is cancelled, returning the generations measured so far.
+     * @param game The game.
+     * @param iterations Number of iteration to return.
+     * @param rows Receives the cells alive, cells difference and similarity measure of each generation, along with
+     *             the number of the generation.
+     * @param cancelled Returns true when the calculation should stop.
+     * @return statistics A nested byte array containing the data to the statistics.
+     * @see #runStatistics(GameOfLife, int, ObjIntConsumer, BooleanSupplier)
+     */
+    public int[][] getStatistics(GameOfLife game, int iterations, ObjIntConsumer<int[]> rows,
+                                 BooleanSupplier cancelled) {
+        statistics = new int[3][iterations + 1];
+        int measured = runStatistics(game, iterations, (row, generation) -> {
+            for (int i = 0; i < statistics.length; i++) {
+                statistics[i][generation] = row[i];
+            }
+            rows.accept(row, generation);
+        }, cancelled);
+
+        if (measured < statistics[0].length) {
+            for (int i = 0; i < statistics.length; i++) {
+                statistics[i] = Arrays.copyOf(statistics[i], measured);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Method that records the statistics of each generation into a store, without keeping them in memory, so runs
+     * far longer than an array could hold can be measured. The store must have three columns, and each generation
+     * is appended to it as soon as it has been measured, before being handed on. Stops as soon as it is cancelled.
+     * @param game The game.
+     * @param iterations Number of iteration to record.
+     * @param store The store to append the cells alive, cells difference and similarity measure of each generation
+     *              to.
+     * @param rows Receives each generation once it has been recorded, along with the number of the generation.
+     * @param cancelled Returns true when the calculation should stop.
+     * @return measured - The number of generations recorded.
+     * @exception IOException - Thrown if the store cannot be written to.
+     * @exception IllegalArgumentException - Thrown if the store does not have three columns.
+     * @see StatisticsStore#append(int...)
+     */
+    public int recordStatistics(GameOfLife game, int iterations, StatisticsStore store, ObjIntConsumer<int[]> rows,
+                                BooleanSupplier cancelled) throws IOException {
+        if (store.getColumns() != 3) {
+            throw new IllegalArgumentException("Expected a store of 3 columns, got " + store.getColumns());
+        }
+        try {
+            return runStatistics(game, iterations, (row, generation) -> {
+                try {
+                    store.append(row);
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+                rows.accept(row, generation);
+            }, cancelled);
+        } catch (UncheckedIOException uioe) {
+            throw uioe.getCause();
+        }
+    }
+
+    /**
+     * Method that runs a clone of the game once, with collectors measuring the number of cells alive and the sum of
+     * their coordinates while each generation is made, so only the first generation is measured by going through
+     * the board. Each generation is handed on as soon as it has been measured, and nothing else is kept.
+     * @param game The game.
+     * @param iterations Number of iteration to measure.
+     * @param rows Receives the cells alive, cells difference and similarity measure of each generation, along with
+     *             the number of the generation.
+     * @param cancelled Returns true when the calculation should stop.
+     * @return measured - The number of generations measured.
+     * @see GameOfLife#clone()
+     * @see #measure(Board)
+     * @see PopulationCollector
+     * @see CentroidCollector
+     */
+    private int runStatistics(GameOfLife game, int iterations, ObjIntConsumer<int[]> rows,
+                              BooleanSupplier cancelled) {
         // Clones the current game
         GameOfLife gameOfLife = (GameOfLife) game.clone();
 
         if (gameOfLife.getPlayBoard() instanceof DynamicBoard) {
             ((DynamicBoard) gameOfLife.getPlayBoard()).setNonExpandable();
         }
-        statistics = new int[3][iterations + 1];
-        if(gameOfLife.getPlayBoard() instanceof DynamicBoard){
-            ((DynamicBoard) gameOfLife.getPlayBoard()).expandBoardDuringRunTime();
-        }
+        PopulationCollector population = new PopulationCollector();
+        CentroidCollector centroid = new CentroidCollector();
+        gameOfLife.addMetricCollector(population);
+        gameOfLife.addMetricCollector(centroid);
 
         // First playBoard to be measured with
-        int firstXYSum = gameOfLife.getPlayBoard().getSumXYCoordinates();
-        int firstCellsAlive = gameOfLife.getPlayBoard().countCellsAlive();
-        int firstCellsDifference = 0;
-        double firstReducedBoard = 0.5 * firstCellsAlive + 3.0 * firstCellsDifference + 0.25 * firstXYSum;
+        int[] first = measure(gameOfLife.getPlayBoard());
+        int firstCellsAlive = first[0];
+        double firstReducedBoard = 0.5 * firstCellsAlive + 0.25 * first[1];
+        int previousCellsAlive = 0;
 
         // Loops through the number of generations given from the parameter.
-        for(int j = 0; j < statistics[0].length; j++){
+        for(int j = 0; j <= iterations; j++){
+            if (cancelled.getAsBoolean()) {
+                return j;
+            }
+
             // the playBoard from current generation to be measured with the first board.
-            int xySum = gameOfLife.getPlayBoard().getSumXYCoordinates();
-            int cellsAlive = gameOfLife.getPlayBoard().countCellsAlive();
+            int cellsAlive = j == 0 ? first[0] : population.getPopulation();
+            int xySum = j == 0 ? first[1] : (int) centroid.getSumXY();
 
             int cellsDifference;
             if(j == 0){
                 cellsDifference = 0;
             }else{
-                cellsDifference = cellsAlive - statistics[0][j-1];
+                cellsDifference = cellsAlive - previousCellsAlive;
             }
+            previousCellsAlive = cellsAlive;
             double reducedBoard = 0.5 * cellsAlive + 3.0 * cellsDifference + 0.25 * xySum;
 
             // Calculates the similarity measure
             double similarity = Math.min(firstReducedBoard, reducedBoard)/Math.max(firstReducedBoard, reducedBoard)*100;
             double similarityFloored =  Math.floor(similarity);
 
-            // Entering statistics into the statistics array
+            // Hands on the statistics of the generation
             if(j == 0 || firstCellsAlive == 0){
-                statistics[0][j] = cellsAlive;
-                statistics[1][j] = 0;
-                statistics[2][j] = 100;
+                rows.accept(new int[]{cellsAlive, 0, 100}, j);
             }else{
-                statistics[0][j] = cellsAlive;
-                statistics[1][j] = cellsDifference;
-                statistics[2][j] = (int)similarityFloored;
+                rows.accept(new int[]{cellsAlive, cellsDifference, (int)similarityFloored}, j);
             }
 
-            // Loads the next generation
-            gameOfLife.nextGeneration();
+            // Loads the next generation, unless this was the last one measured.
+            if (j < iterations) {
+                gameOfLife.nextGeneration();
+            }
         }
+        return iterations + 1;
+    }
 
-        return statistics;
+    /**
+     * Method that measures the number of cells alive and the sum of their x and y coordinates in one pass over the
+     * board, giving the same values as countCellsAlive() and getSumXYCoordinates() in half the time. Only used for
+     * the first generation, as the rest are measured by the collectors while they are made.
+     * @param board The board to measure.
+     * @return measure - The number of cells alive and the sum of their coordinates.
+     * @see Board#countCellsAlive()
+     * @see Board#getSumXYCoordinates()
+     */
+    private static int[] measure(Board board) {
+        int count = 0;
+        int xySum = 0;
+        RowCursor cursor = board.rowCursor();
+        while (cursor.next()) {
+            for (int x = cursor.nextActive(0); x < board.getWidth(); x = cursor.nextActive(x + 1)) {
+                count++;
+                xySum += x + cursor.getY();
+            }
+        }
+        return new int[]{count, xySum};
+    }
+
+    /**
+     * Method that runs a clone of the game to find out if the board returns exactly to its current state, such as
+     * an oscillator does. Unlike getHighestSimilarity(), the answer is exact, as the boards are compared cell by
+     * cell. Needs twice the period in iterations to confirm a repeat.
+     * @param game The game.
+     * @param iterations The number of iterations to run at most.
+     * @return period - The number of iterations before the board repeats, or 0 if it does not repeat in time.
+     * @see CycleDetector#update(Board, int)
+     * @see GameOfLife#clone()
+     */
+    public int getRepeatPeriod(GameOfLife game, int iterations) {
+        GameOfLife gameOfLife = (GameOfLife) game.clone();
+        CycleDetector cycleDetector = new CycleDetector(iterations + 1);
+        cycleDetector.update(gameOfLife.getPlayBoard(), 0);
+        for (int i = 1; i <= iterations; i++) {
+            gameOfLife.nextGeneration();
+            if (cycleDetector.update(gameOfLife.getPlayBoard(), i)) {
+                return cycleDetector.getCycleStart() == 0 ? cycleDetector.getPeriod() : 0;
+            }
+        }
+        return 0;
     }
 
     /**
@@ -108,21 +243,17 @@ public class Statistics{
      * @see #statistics
      */
     public String statToString(){
-        String CellsAlive = "CellsAlive:";
-        for (int j = 0; j < statistics[0].length; j++) {
-            CellsAlive += " " + statistics[0][j];
-        }
-
-        String cellsDiff = "cellsDiff: ";
-        for (int j = 0; j < statistics[0].length; j++) {
-            cellsDiff += " " + statistics[1][j];
-        }
-
-        String similarityMeasure = "similarityMeasure: ";
-        for (int j = 0; j < statistics[0].length; j++) {
-            similarityMeasure += " " + statistics[2][j];
+        StringBuilder str = new StringBuilder();
+        String[] names = {"CellsAlive:", "cellsDiff: ", "similarityMeasure: "};
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                str.append('\n');
+            }
+            str.append(names[i]);
+            for (int j = 0; j < statistics[0].length; j++) {
+                str.append(' ').append(statistics[i][j]);
+            }
         }
-
-        return CellsAlive + "\n" + cellsDiff + "\n" + similarityMeasure;
+        return str.toString();
     }
 }
\ No newline at end of file
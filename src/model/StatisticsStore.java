@@ -0,0 +1,393 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The StatisticsStore class records numbers for each generation of a run, such as the statistics, into a
+ * memory-mapped file that is only ever appended to, so runs of millions of generations take no room on the heap and
+ * are still there after the application is restarted. The rows are kept in chunks of a fixed number of generations.
+ * Within a chunk each column is stored on its own, and a small summary of the lowest, highest and total value of
+ * each column comes first. A range of generations can therefore be read a column at a time, and the lowest, highest
+ * and mean value of a window of generations is found from the summaries of the whole chunks in it, only reading
+ * the rows of the chunks at its ends.
+ *
+ * <p>The file starts with a header holding a magic number, the version, the number of columns, the number of rows
+ * in each chunk, the first generation and the number of rows, so an existing file can be opened again and appended
+ * to. The number of rows is written after each row, so a row is only part of the store once it is complete.
+ *
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class StatisticsStore implements Closeable {
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private final int columns;
+    private final int chunkRows;
+    private final long firstGeneration;
+    private long size;
+
+    //The layout of the file.
+    private static final int MAGIC = 0x474F4C53;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SIZE_OFFSET = 24;
+    private static final int SUMMARY_SIZE = 16;
+
+    //The number of generations in each chunk, unless another is given.
+    private static final int DEFAULT_CHUNK_ROWS = 1 << 16;
+
+    /**
+     * Constructor that maps the header of a file and checks that it belongs to a store.
+     * @param channel The open file.
+     * @param create True if the header should be written, false if it should be read.
+     * @param columns The number of columns, if the header should be written.
+     * @param chunkRows The number of rows in each chunk, if the header should be written.
+     * @param firstGeneration The first generation, if the header should be written.
+     * @exception IOException - Thrown if the file cannot be mapped, or is not a store.
+     */
+    private StatisticsStore(FileChannel channel, boolean create, int columns, int chunkRows, long firstGeneration)
+            throws IOException {
+        this.channel = channel;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (create) {
+            header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, columns).putInt(12, chunkRows)
+                    .putLong(16, firstGeneration).putLong(SIZE_OFFSET, 0);
+        } else if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) < 1
+                || header.getInt(12) < 1 || header.getLong(SIZE_OFFSET) < 0) {
+            throw new IOException("Not a statistics file");
+        }
+        this.columns = header.getInt(8);
+        this.chunkRows = header.getInt(12);
+        this.firstGeneration = header.getLong(16);
+        this.size = header.getLong(SIZE_OFFSET);
+    }
+
+    /**
+     * Method that creates a new store, replacing any file already there.
+     * @param file The file to create.
+     * @param columns The number of numbers recorded for each generation.
+     * @param firstGeneration The number of the first generation to be recorded.
+     * @return store - The empty store.
+     * @exception IOException - Thrown if the file cannot be created.
+     * @see #create(Path, int, long, int)
+     */
+    public static StatisticsStore create(Path file, int columns, long firstGeneration) throws IOException {
+        return create(file, columns, firstGeneration, DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * Method that creates a new store with a given number of generations in each chunk, replacing any file already
+     * there.
+     * @param file The file to create.
+     * @param columns The number of numbers recorded for each generation.
+     * @param firstGeneration The number of the first generation to be recorded.
+     * @param chunkRows The number of generations in each chunk.
+     * @return store - The empty store.
+     * @exception IOException - Thrown if the file cannot be created.
+     * @exception IllegalArgumentException - Thrown if the number of columns or generations in each chunk is less
+     *                                       than 1.
+     */
+    public static StatisticsStore create(Path file, int columns, long firstGeneration, int chunkRows)
+            throws IOException {
+        if (columns < 1 || chunkRows < 1 || (long) chunkRows * columns * Integer.BYTES > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Invalid store of " + columns + " columns and " + chunkRows
+                    + " rows per chunk");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new StatisticsStore(channel, true, columns, chunkRows, firstGeneration);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method that opens a store written earlier, so it can be read or appended to.
+     * @param file The file to open.
+     * @return store - The store.
+     * @exception IOException - Thrown if the file cannot be opened, or is not a store.
+     */
+    public static StatisticsStore open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a statistics file");
+            }
+            return new StatisticsStore(channel, false, 0, 0, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method that returns the number of bytes taken by each chunk, the summaries followed by the columns.
+     * @return bytes - The size of a chunk.
+     */
+    private int chunkBytes() {
+        return columns * SUMMARY_SIZE + chunkRows * columns * Integer.BYTES;
+    }
+
+    /**
+     * Method that returns a chunk, mapping it and any chunk before it that has not been mapped yet. A chunk is mapped
+     * as a whole, growing the file if it is new.
+     * @param chunk The number of the chunk.
+     * @return buffer - The mapped chunk.
+     * @exception IOException - Thrown if the chunk cannot be mapped.
+     */
+    private MappedByteBuffer chunk(int chunk) throws IOException {
+        while (chunks.size() <= chunk) {
+            long offset = HEADER_SIZE + (long) chunks.size() * chunkBytes();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, offset, chunkBytes());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            chunks.add(buffer);
+        }
+        return chunks.get(chunk);
+    }
+
+    /**
+     * Method that adds the numbers of the next generation, updating the summaries of its chunk.
+     * @param row The numbers of the generation, one for each column.
+     * @exception IOException - Thrown if the file cannot grow.
+     * @exception IllegalArgumentException - Thrown if the row does not have one number for each column.
+     */
+    public void append(int... row) throws IOException {
+        if (row.length != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " columns, got " + row.length);
+        }
+        MappedByteBuffer buffer = chunk((int) (size / chunkRows));
+        int index = (int) (size % chunkRows);
+        for (int c = 0; c < columns; c++) {
+            int summary = c * SUMMARY_SIZE;
+            boolean first = index == 0;
+            buffer.putInt(summary, first ? row[c] : Math.min(buffer.getInt(summary), row[c]));
+            buffer.putInt(summary + 4, first ? row[c] : Math.max(buffer.getInt(summary + 4), row[c]));
+            buffer.putLong(summary + 8, (first ? 0 : buffer.getLong(summary + 8)) + row[c]);
+            buffer.putInt(valueOffset(c, index), row[c]);
+        }
+        size++;
+        header.putLong(SIZE_OFFSET, size);
+    }
+
+    /**
+     * Method that returns where a value is found within its chunk.
+     * @param column The column of the value.
+     * @param index The row of the value within the chunk.
+     * @return offset - The offset of the value from the start of the chunk.
+     */
+    private int valueOffset(int column, int index) {
+        return columns * SUMMARY_SIZE + (column * chunkRows + index) * Integer.BYTES;
+    }
+
+    /**
+     * Method that returns the number of a generation as a row of the store.
+     * @param generation The generation.
+     * @return row - The row of the generation.
+     * @exception IndexOutOfBoundsException - Thrown if the generation has not been recorded.
+     */
+    private long row(long generation) {
+        long row = generation - firstGeneration;
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Generation " + generation + " has not been recorded");
+        }
+        return row;
+    }
+
+    /**
+     * Method that returns one number of a generation.
+     * @param column The column of the number.
+     * @param generation The generation.
+     * @return value - The number.
+     * @exception IOException - Thrown if the chunk cannot be mapped.
+     * @exception IndexOutOfBoundsException - Thrown if the generation has not been recorded.
+     */
+    public int get(int column, long generation) throws IOException {
+        long row = row(generation);
+        return chunk((int) (row / chunkRows)).getInt(valueOffset(column, (int) (row % chunkRows)));
+    }
+
+    /**
+     * Method that reads one column for a range of generations into an array, a chunk at a time.
+     * @param column The column to read.
+     * @param from The first generation to read.
+     * @param values The array to fill, its length being the number of generations to read.
+     * @exception IOException - Thrown if a chunk cannot be mapped.
+     * @exception IndexOutOfBoundsException - Thrown if any of the generations have not been recorded.
+     */
+    public void read(int column, long from, int[] values) throws IOException {
+        if (values.length == 0) {
+            return;
+        }
+        long row = row(from);
+        row(from + values.length - 1);
+        int read = 0;
+        while (read < values.length) {
+            int index = (int) (row % chunkRows);
+            int count = Math.min(values.length - read, chunkRows - index);
+            MappedByteBuffer buffer = chunk((int) (row / chunkRows));
+            IntBuffer ints = buffer.asIntBuffer();
+            ints.position(valueOffset(column, index) / Integer.BYTES);
+            ints.get(values, read, count);
+            read += count;
+            row += count;
+        }
+    }
+
+    /**
+     * Method that finds the lowest, highest and mean value of a column in a window of generations. The summaries
+     * are used for every chunk that lies wholly within the window, so only the chunks at its ends are read.
+     * @param column The column to consider.
+     * @param from The first generation of the window.
+     * @param to The last generation of the window.
+     * @return aggregate - The lowest, highest and mean value, in that order.
+     * @exception IOException - Thrown if a chunk cannot be mapped.
+     * @exception IndexOutOfBoundsException - Thrown if any of the generations have not been recorded, or the window
+     *                                        is empty.
+     */
+    public double[] aggregate(int column, long from, long to) throws IOException {
+        if (to < from) {
+            throw new IndexOutOfBoundsException("Empty window of generations " + from + " to " + to);
+        }
+        long row = row(from);
+        long last = row(to);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum = 0;
+        while (row <= last) {
+            MappedByteBuffer buffer = chunk((int) (row / chunkRows));
+            int index = (int) (row % chunkRows);
+            int count = (int) Math.min(last - row + 1, chunkRows - index);
+            if (index == 0 && (count == chunkRows || row + count == size)) {
+                //The whole chunk, as far as it has been written, is within the window.
+                int summary = column * SUMMARY_SIZE;
+                min = Math.min(min, buffer.getInt(summary));
+                max = Math.max(max, buffer.getInt(summary + 4));
+                sum += buffer.getLong(summary + 8);
+            } else {
+                for (int i = index; i < index + count; i++) {
+                    int value = buffer.getInt(valueOffset(column, i));
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                    sum += value;
+                }
+            }
+            row += count;
+        }
+        return new double[]{min, max, (double) sum / (to - from + 1)};
+    }
+
+    /**
+     * Method that writes every generation to a CSV-file, with the number of the generation in the first column.
+     * The store is read a chunk at a time, so it is never loaded into the heap as a whole.
+     * @param file The file to write.
+     * @param names The names of the columns, written as the first line after the name of the generation column.
+     * @exception IOException - Thrown if the store cannot be read, or the file cannot be written.
+     * @see #exportCsv(Writer, String...)
+     */
+    public void exportCsv(Path file, String... names) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            exportCsv(out, names);
+        }
+    }
+
+    /**
+     * Method that writes every generation as CSV to a writer, with the number of the generation in the first column.
+     * @param out The writer to write to.
+     * @param names The names of the columns, written as the first line after the name of the generation column.
+     * @exception IOException - Thrown if the store cannot be read, or the writer cannot be written to.
+     * @exception IllegalArgumentException - Thrown if there is not one name for each column.
+     */
+    public void exportCsv(Writer out, String... names) throws IOException {
+        if (names.length != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " names, got " + names.length);
+        }
+        BufferedWriter writer = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out);
+        writer.write("Generation");
+        for (String name : names) {
+            writer.write(',');
+            writer.write(name);
+        }
+        writer.newLine();
+
+        int[][] values = new int[columns][];
+        for (long row = 0; row < size; row += chunkRows) {
+            int count = (int) Math.min(chunkRows, size - row);
+            for (int c = 0; c < columns; c++) {
+                values[c] = new int[count];
+                read(c, firstGeneration + row, values[c]);
+            }
+            for (int i = 0; i < count; i++) {
+                writer.write(Long.toString(firstGeneration + row + i));
+                for (int c = 0; c < columns; c++) {
+                    writer.write(',');
+                    writer.write(Integer.toString(values[c][i]));
+                }
+                writer.newLine();
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Method that returns the number of generations recorded.
+     * @return size - The number of generations.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Method that returns the number of numbers recorded for each generation.
+     * @return columns - The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Method that returns the number of the first generation recorded.
+     * @return firstGeneration - The first generation.
+     */
+    public long getFirstGeneration() {
+        return firstGeneration;
+    }
+
+    /**
+     * Method that writes every change to the store to the disk.
+     */
+    public void flush() {
+        header.force();
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    /**
+     * Method that writes the store to the disk and closes the file. The mapped chunks are released once they are
+     * no longer referenced.
+     * @exception IOException - Thrown if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        chunks.clear();
+        channel.close();
+    }
+}
@@ -0,0 +1,298 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The TileEngine class makes generations of a board of fixed size by looking up tiles in a table, rather than by
+ * counting the neighbours of each cell. For every 4 by 4 square of cells, the table holds the next generation of the
+ * 2 by 2 cells in its middle, so the board is made 2 by 2 cells at a time. The cells are packed as bits, one long
+ * for 64 cells of a row, and each square is read from four rows as four nibbles that together index the table.
+ * This does the same amount of work however many cells are alive, so it pays off for dense and chaotic rules such as
+ * Day &amp; Night and Anneal.
+ *
+ * <p>The table of a rule has 65536 entries, and is made the first time a board is stepped with the rule. Tables are
+ * kept for every rule string used, and shared between engines. As on a StaticBoard, the cells outside of the board
+ * are always dead.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ * @see GameOfLife#setRuleString(String)
+ */
+public class TileEngine {
+    private final int width, height;
+    private String ruleString;
+    private byte[] table;
+
+    //The rows of the current and next generation. Row y of the board is stored at row y + 1, with a dead row above
+    //it and dead rows below it up to an even height. Each row has a long more than it needs, which is always dead.
+    private final int words;
+    private final long lastWordMask;
+    private long[][] rows, next;
+
+    //The tables of every rule used, by rule string.
+    private static final Map<String, byte[]> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that copies the cells of a board and sets the rule the board is stepped with.
+     * @param board The board to copy the cells of, which decides the size of the engine.
+     * @param ruleString The rule, either by name or formatted after RLE standards (Bxxx/Sxxx).
+     * @exception RulesFormatException - Thrown if the rule is formatted wrong.
+     * @see #setRuleString(String)
+     */
+    public TileEngine(Board board, String ruleString) throws RulesFormatException {
+        this.width = board.getWidth();
+        this.height = board.getHeight();
+        this.words = (width + 63) / 64 + 1;
+        this.lastWordMask = width % 64 == 0 ? -1L : (1L << width % 64) - 1;
+        this.rows = new long[height + height % 2 + 2][words];
+        this.next = new long[rows.length][words];
+        setRuleString(ruleString);
+        load(board);
+    }
+
+    /**
+     * Method that sets the rule the board is stepped with. The table of the rule is made when it is first needed.
+     * @param ruleString The rule, either by name or formatted after RLE standards (Bxxx/Sxxx).
+     * @exception RulesFormatException - Thrown if the rule is formatted wrong.
+     * @see GameOfLife#parseRule(String)
+     */
+    public void setRuleString(String ruleString) throws RulesFormatException {
+        String[] rules = GameOfLife.parseRule(ruleString);
+        this.ruleString = "B" + rules[0] + "/S" + rules[1];
+        this.table = null;
+    }
+
+    /**
+     * Method that returns the rule string of the rule the board is stepped with.
+     * @return ruleString - The rule string, such as "B3/S23".
+     */
+    public String getRuleString() {
+        return ruleString;
+    }
+
+    /**
+     * Method that copies the cells of a board into the engine. Cells outside of the engine are left out.
+     * @param board The board to copy the cells of.
+     */
+    public void load(Board board) {
+        for (long[] row : rows) {
+            Arrays.fill(row, 0);
+        }
+        int columns = Math.min(width, board.getWidth());
+        RowCursor cursor = board.rowCursor();
+        while (cursor.next() && cursor.getY() < height) {
+            for (int x = cursor.nextActive(0); x < columns; x = cursor.nextActive(x + 1)) {
+                rows[cursor.getY() + 1][x >>> 6] |= 1L << x;
+            }
+        }
+    }
+
+    /**
+     * Method that copies the cells of the engine into a board, setting every cell the two have in common.
+     * @param board The board to copy the cells into.
+     */
+    public void store(Board board) {
+        for (int y = 0; y < Math.min(height, board.getHeight()); y++) {
+            for (int x = 0; x < Math.min(width, board.getWidth()); x++) {
+                board.setCellState(x, y, getCellState(x, y));
+            }
+        }
+    }
+
+    /**
+     * Method that makes the next generation of the board. Each pair of rows is made from the two rows and the rows
+     * above and below them, 64 columns at a time. The four rows are shifted along two columns at a time, and the
+     * lowest four bits of each give the 4 by 4 square around the next 2 by 2 cells.
+     * @see #getTable(String)
+     */
+    public void nextGeneration() {
+        if (table == null) {
+            table = getTable(ruleString);
+        }
+        boolean emptyStaysEmpty = (table[0] & 1) == 0;
+        int dataWords = words - 1;
+
+        for (int y = 1; y < rows.length - 1; y += 2) {
+            long[] above = rows[y - 1], upper = rows[y], lower = rows[y + 1], below = rows[y + 2];
+            long[] nextUpper = next[y], nextLower = next[y + 1];
+            for (int w = 0; w < dataWords; w++) {
+                //Empty space stays empty, unless cells are born without neighbours.
+                if (emptyStaysEmpty && (around(above, w) | around(upper, w) | around(lower, w)
+                        | around(below, w)) == 0) {
+                    nextUpper[w] = 0;
+                    nextLower[w] = 0;
+                    continue;
+                }
+
+                //Each row as 66 bits starting one column to the left of the long, split into a low and high part.
+                long aboveLow = shifted(above, w), aboveHigh = carried(above, w);
+                long upperLow = shifted(upper, w), upperHigh = carried(upper, w);
+                long lowerLow = shifted(lower, w), lowerHigh = carried(lower, w);
+                long belowLow = shifted(below, w), belowHigh = carried(below, w);
+
+                long upperCells = 0;
+                long lowerCells = 0;
+                for (int column = 0; column < 64; column += 2) {
+                    int tile = table[(int)(aboveLow & 0xF) | (int)(upperLow & 0xF) << 4
+                            | (int)(lowerLow & 0xF) << 8 | (int)(belowLow & 0xF) << 12];
+                    upperCells |= (long)(tile & 3) << column;
+                    lowerCells |= (long)(tile >>> 2) << column;
+
+                    aboveLow = aboveLow >>> 2 | aboveHigh << 62;
+                    aboveHigh >>>= 2;
+                    upperLow = upperLow >>> 2 | upperHigh << 62;
+                    upperHigh >>>= 2;
+                    lowerLow = lowerLow >>> 2 | lowerHigh << 62;
+                    lowerHigh >>>= 2;
+                    belowLow = belowLow >>> 2 | belowHigh << 62;
+                    belowHigh >>>= 2;
+                }
+                nextUpper[w] = upperCells;
+                nextLower[w] = lowerCells;
+            }
+
+            //Cells to the right of the board stay dead.
+            nextUpper[dataWords - 1] &= lastWordMask;
+            nextLower[dataWords - 1] &= lastWordMask;
+        }
+
+        //As does the row below the board, when the height is odd.
+        if (height % 2 != 0) {
+            Arrays.fill(next[height + 1], 0);
+        }
+
+        long[][] swap = rows;
+        rows = next;
+        next = swap;
+    }
+
+    /**
+     * Method that makes a number of generations of the board.
+     * @param generations The number of generations to make.
+     * @see #nextGeneration()
+     */
+    public void run(int generations) {
+        for (int i = 0; i < generations; i++) {
+            nextGeneration();
+        }
+    }
+
+    /**
+     * Method that returns the cells of a row that can affect a long of the next generation: the long itself and the
+     * nearest cells of the longs on either side.
+     * @param row The row.
+     * @param w The index of the long.
+     * @return cells - The cells, which are 0 if they are all dead.
+     */
+    private static long around(long[] row, int w) {
+        return row[w] | (w == 0 ? 0 : row[w - 1] >>> 63) | (row[w + 1] & 3);
+    }
+
+    /**
+     * Method that returns the 64 cells of a row starting one column to the left of a long.
+     * @param row The row.
+     * @param w The index of the long.
+     * @return cells - The cells, with the column to the left as the lowest bit.
+     */
+    private static long shifted(long[] row, int w) {
+        return row[w] << 1 | (w == 0 ? 0 : row[w - 1] >>> 63);
+    }
+
+    /**
+     * Method that returns the cells of a row that follow those given by shifted.
+     * @param row The row.
+     * @param w The index of the long.
+     * @return cells - The last column of the long followed by the columns of the next long.
+     * @see #shifted(long[], int)
+     */
+    private static long carried(long[] row, int w) {
+        return row[w] >>> 63 | row[w + 1] << 1;
+    }
+
+    /**
+     * Method that returns the table of a rule, making it if it has not been made before. The index of the table is
+     * a 4 by 4 square of cells, with the cell in column x and row y being bit 4 * y + x. The entry holds the next
+     * generation of the 2 by 2 cells in its middle, the cell in column x and row y being bit 2 * (y - 1) + x - 1.
+     * @param ruleString The rule string, formatted after RLE standards (Bxxx/Sxxx).
+     * @return table - The table of the rule.
+     * @exception IllegalArgumentException - Thrown if the rule string is not formatted after RLE standards.
+     * @see RuleExplorer#toRule(String, String)
+     */
+    public static byte[] getTable(String ruleString) {
+        return tables.computeIfAbsent(ruleString, key -> {
+            String[] parts = key.split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid rule string " + key);
+            }
+            int rule = RuleExplorer.toRule(parts[0].substring(1), parts[1].substring(1));
+            byte[] table = new byte[1 << 16];
+            for (int square = 0; square < table.length; square++) {
+                int tile = 0;
+                for (int y = 1; y <= 2; y++) {
+                    for (int x = 1; x <= 2; x++) {
+                        int neighbours = 0;
+                        for (int dy = -1; dy <= 1; dy++) {
+                            for (int dx = -1; dx <= 1; dx++) {
+                                if (dx != 0 || dy != 0) {
+                                    neighbours += square >>> (4 * (y + dy) + x + dx) & 1;
+                                }
+                            }
+                        }
+                        boolean alive = (square >>> (4 * y + x) & 1) != 0;
+                        if ((rule >>> (alive ? 9 + neighbours : neighbours) & 1) != 0) {
+                            tile |= 1 << (2 * (y - 1) + x - 1);
+                        }
+                    }
+                }
+                table[square] = (byte)tile;
+            }
+            return table;
+        });
+    }
+
+    /**
+     * Method that returns the state of a cell.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return state - 1 if the cell is alive, 0 if not.
+     * @exception IndexOutOfBoundsException - Thrown if the cell is outside of the board.
+     */
+    public byte getCellState(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Cell " + x + "," + y + " is outside of " + width + "x" + height);
+        }
+        return (byte)(rows[y + 1][x >>> 6] >>> x & 1);
+    }
+
+    /**
+     * Method that counts the living cells of the board.
+     * @return population - The number of living cells.
+     */
+    public int getPopulation() {
+        int population = 0;
+        for (long[] row : rows) {
+            for (long cells : row) {
+                population += Long.bitCount(cells);
+            }
+        }
+        return population;
+    }
+
+    /**
+     * Method that returns the width of the board.
+     * @return width - The width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Method that returns the height of the board.
+     * @return height - The height.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,180 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The TimeSeries class holds rows of numbers, such as the statistics of each generation, in one primitive array per
+ * column, so that long runs take little memory and can be searched and read quickly. The first column is normally
+ * the number of the generation, and rows are added in the order they are made. A column can be downsampled to a
+ * given number of points with the Largest-Triangle-Three-Buckets algorithm, which keeps the peaks and shape of the
+ * line, so a chart only has to draw as many points as it has pixels.
+ *
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class TimeSeries {
+    private final int[][] columns;
+    private int size = 0;
+
+    //The number of rows there is room for before the columns have to grow.
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Constructor that creates an empty series with the given number of columns.
+     * @param columns The number of numbers in each row.
+     * @exception IllegalArgumentException - Thrown if the number of columns is less than 1.
+     */
+    public TimeSeries(int columns) {
+        if (columns < 1) {
+            throw new IllegalArgumentException("Invalid number of columns " + columns);
+        }
+        this.columns = new int[columns][INITIAL_CAPACITY];
+    }
+
+    /**
+     * Method that adds a row to the end of the series, growing the columns if they are full.
+     * @param row The numbers of the row, one for each column.
+     * @exception IllegalArgumentException - Thrown if the row does not have one number for each column.
+     */
+    public void add(int... row) {
+        if (row.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " columns, got " + row.length);
+        }
+        if (size == columns[0].length) {
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = Arrays.copyOf(columns[c], size * 2);
+            }
+        }
+        for (int c = 0; c < columns.length; c++) {
+            columns[c][size] = row[c];
+        }
+        size++;
+    }
+
+    /**
+     * Method that removes every row from the series, keeping the memory already used.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Method that returns the number of rows in the series.
+     * @return size - The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method that returns the number of columns in each row.
+     * @return columns - The number of columns.
+     */
+    public int getColumns() {
+        return columns.length;
+    }
+
+    /**
+     * Method that returns one number of the series.
+     * @param column The column of the number.
+     * @param index The row of the number.
+     * @return value - The number.
+     * @exception IndexOutOfBoundsException - Thrown if the row is not in the series.
+     */
+    public int get(int column, int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " outside series of size " + size);
+        }
+        return columns[column][index];
+    }
+
+    /**
+     * Method that finds the first row where a column is at least the given value. The column must be in ascending
+     * order, as the number of the generation is.
+     * @param column The column to search, in ascending order.
+     * @param value The value to search for.
+     * @return index - The first row with a value not below the given one, or the size if there is none.
+     */
+    public int lowerBound(int column, double value) {
+        int[] values = columns[column];
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Method that picks the rows that best keep the shape of a column plotted against another, using the
+     * Largest-Triangle-Three-Buckets algorithm. The first and last rows are always kept. The rows in between are
+     * split into buckets, and from each bucket the row making the largest triangle with the row picked before it
+     * and the average of the next bucket is kept. Every row is returned if there are no more than asked for.
+     * @param xColumn The column of the horizontal axis, usually the number of the generation.
+     * @param yColumn The column to be downsampled.
+     * @param from The first row to consider.
+     * @param to The row after the last row to consider.
+     * @param threshold The largest number of rows to return.
+     * @return indexes - The picked rows, in ascending order.
+     * @exception IllegalArgumentException - Thrown if the threshold is less than 3, or the rows are not in the
+     *                                       series.
+     */
+    public int[] downsample(int xColumn, int yColumn, int from, int to, int threshold) {
+        if (threshold < 3 || from < 0 || to > size || from > to) {
+            throw new IllegalArgumentException("Invalid downsampling of rows " + from + " to " + to
+                    + " into " + threshold);
+        }
+        int count = to - from;
+        int[] indexes = new int[Math.min(count, threshold)];
+        if (count <= threshold) {
+            for (int i = 0; i < count; i++) {
+                indexes[i] = from + i;
+            }
+            return indexes;
+        }
+
+        int[] xs = columns[xColumn];
+        int[] ys = columns[yColumn];
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int picked = from;
+        indexes[0] = from;
+        for (int i = 0; i < threshold - 2; i++) {
+            //The average of the next bucket, which for the last bucket is the last row.
+            int nextStart = from + (int) ((i + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(from + (int) ((i + 2) * bucketSize) + 1, to);
+            double averageX = 0;
+            double averageY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                averageX += xs[j];
+                averageY += ys[j];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            //Keeps the row of this bucket that makes the largest triangle.
+            int start = from + (int) (i * bucketSize) + 1;
+            int end = nextStart;
+            double pickedX = xs[picked];
+            double pickedY = ys[picked];
+            double largestArea = -1;
+            int largest = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((pickedX - averageX) * (ys[j] - pickedY)
+                        - (pickedX - xs[j]) * (averageY - pickedY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = j;
+                }
+            }
+            indexes[i + 1] = largest;
+            picked = largest;
+        }
+        indexes[threshold - 1] = to - 1;
+        return indexes;
+    }
+}
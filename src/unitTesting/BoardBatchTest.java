@@ -0,0 +1,127 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * JUnit class for unit testing of methods in the BoardBatch class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class BoardBatchTest {
+
+    @Test
+    public void nextGenerationTest() throws RulesFormatException {
+        //Every lane is compared with GameOfLife on a StaticBoard of the same size, whose edges are also dead.
+        String[] rules = {"B3/S23", "B36/S23", "B368/S245", "B2/S"};
+        Random random = new Random(3);
+        for (String ruleString : rules) {
+            GameOfLife[] games = new GameOfLife[BoardBatch.LANES];
+            String[] ruleDigits = GameOfLife.parseRule(ruleString);
+            BoardBatch batch = new BoardBatch(12, 10, RuleExplorer.toRule(ruleDigits[0], ruleDigits[1]));
+            for (int lane = 0; lane < BoardBatch.LANES; lane++) {
+                Board board = new StaticBoard(12, 10);
+                for (int x = 0; x < 12; x++) {
+                    for (int y = 0; y < 10; y++) {
+                        if (random.nextInt(3) == 0) {
+                            board.setCellState(x, y, (byte)1);
+                        }
+                    }
+                }
+                batch.setLane(lane, board);
+                games[lane] = new GameOfLife(board);
+                games[lane].setRuleString(ruleString);
+            }
+
+            for (int generation = 0; generation < 8; generation++) {
+                batch.nextGeneration();
+                int[] populations = batch.getPopulations();
+                for (int lane = 0; lane < BoardBatch.LANES; lane++) {
+                    if (batch.isStopped(lane) && batch.getStopGeneration(lane) < batch.getGeneration()) {
+                        continue;
+                    }
+                    games[lane].nextGeneration();
+                    Board board = games[lane].getPlayBoard();
+                    org.junit.Assert.assertEquals(board.countCellsAlive(), populations[lane]);
+                    org.junit.Assert.assertEquals(populations[lane], batch.getPopulation(lane));
+                    for (int x = 0; x < 12; x++) {
+                        for (int y = 0; y < 10; y++) {
+                            org.junit.Assert.assertEquals(ruleString, board.getCellState(x, y),
+                                    batch.getCellState(lane, x, y));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void stopTest() {
+        BoardBatch batch = new BoardBatch(8, 8, RuleExplorer.toRule("3", "23"));
+        //A block, a blinker, a single cell that dies and a glider that keeps running.
+        batch.setCellState(0, 1, 1, (byte)1);
+        batch.setCellState(0, 2, 1, (byte)1);
+        batch.setCellState(0, 1, 2, (byte)1);
+        batch.setCellState(0, 2, 2, (byte)1);
+        batch.setCellState(1, 3, 2, (byte)1);
+        batch.setCellState(1, 3, 3, (byte)1);
+        batch.setCellState(1, 3, 4, (byte)1);
+        batch.setCellState(2, 4, 4, (byte)1);
+        batch.setCellState(3, 1, 0, (byte)1);
+        batch.setCellState(3, 2, 1, (byte)1);
+        batch.setCellState(3, 0, 2, (byte)1);
+        batch.setCellState(3, 1, 2, (byte)1);
+        batch.setCellState(3, 2, 2, (byte)1);
+
+        org.junit.Assert.assertEquals(4, batch.run(4, () -> false));
+        org.junit.Assert.assertEquals(1, batch.getStopPeriod(0));
+        org.junit.Assert.assertEquals(1, batch.getStopGeneration(0));
+        org.junit.Assert.assertEquals(2, batch.getStopPeriod(1));
+        org.junit.Assert.assertEquals(2, batch.getStopGeneration(1));
+        org.junit.Assert.assertEquals(0, batch.getPopulation(2));
+        org.junit.Assert.assertEquals(2, batch.getStopGeneration(2));
+        org.junit.Assert.assertFalse(batch.isStopped(3));
+        org.junit.Assert.assertEquals(5, batch.getPopulation(3));
+
+        //Empty lanes stop at once, so the batch runs until the glider has crashed into the corner.
+        int generations = batch.run(100, () -> false);
+        org.junit.Assert.assertTrue(generations < 100);
+        org.junit.Assert.assertEquals(-1L, batch.getStoppedLanes());
+        org.junit.Assert.assertEquals(4, batch.getPopulation(0));
+        org.junit.Assert.assertEquals(3, batch.getPopulation(1));
+    }
+
+    @Test
+    public void laneTest() {
+        Board board = new DynamicBoard(5, 4);
+        board.setCellState(0, 0, (byte)1);
+        board.setCellState(4, 3, (byte)1);
+        board.setCellState(2, 1, (byte)1);
+        BoardBatch batch = new BoardBatch(6, 6, RuleExplorer.toRule("3", "23"));
+        batch.setLane(63, board);
+        batch.setCellState(0, 5, 5, (byte)1);
+
+        Board lane = batch.getLane(63);
+        org.junit.Assert.assertEquals(6, lane.getWidth());
+        org.junit.Assert.assertEquals(3, lane.countCellsAlive());
+        org.junit.Assert.assertEquals(1, lane.getCellState(4, 3));
+        org.junit.Assert.assertEquals(1, batch.getLane(0).countCellsAlive());
+
+        batch.clearLane(63);
+        org.junit.Assert.assertEquals(0, batch.getPopulation(63));
+        org.junit.Assert.assertEquals(1, batch.getPopulation(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSetLaneTest() {
+        new BoardBatch(4, 4, 0).setLane(0, new DynamicBoard(5, 4));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void negativeLaneTest() {
+        new BoardBatch(4, 4, 0).getPopulation(64);
+    }
+}
@@ -0,0 +1,77 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * JUnit class for unit testing of methods in the ChangeListEngine class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class ChangeListEngineTest {
+
+    @Test
+    public void nextGenerationTest() throws RulesFormatException {
+        //Compared with GameOfLife on StaticBoards, whose edges are also dead, including a rule where cells are born
+        //without neighbours.
+        String[] rules = {"Life", "Day & Night", "Seeds", "B1357/S1357", "B0123478/S01234678"};
+        Random random = new Random(13);
+        for (String ruleString : rules) {
+            Board board = new StaticBoard(37, 23);
+            for (int x = 0; x < 37; x++) {
+                for (int y = 0; y < 23; y++) {
+                    if (random.nextInt(3) == 0) {
+                        board.setCellState(x, y, (byte)1);
+                    }
+                }
+            }
+            ChangeListEngine engine = new ChangeListEngine(board, ruleString);
+            GameOfLife gameOfLife = new GameOfLife(board);
+            gameOfLife.setRuleString(ruleString);
+
+            for (int generation = 0; generation < 15; generation++) {
+                engine.nextGeneration();
+                gameOfLife.nextGeneration();
+            }
+            org.junit.Assert.assertEquals(board.countCellsAlive(), engine.getPopulation());
+            Board stored = new StaticBoard(37, 23);
+            engine.store(stored);
+            org.junit.Assert.assertEquals(ruleString, board.toString(), stored.toString());
+        }
+    }
+
+    @Test
+    public void getChangeCountTest() throws RulesFormatException {
+        //A block stays still and a blinker changes four cells a generation, so only the blinker is looked at.
+        Board board = new StaticBoard(20, 20);
+        board.setCellState(2, 2, (byte)1);
+        board.setCellState(3, 2, (byte)1);
+        board.setCellState(2, 3, (byte)1);
+        board.setCellState(3, 3, (byte)1);
+        board.setCellState(10, 9, (byte)1);
+        board.setCellState(10, 10, (byte)1);
+        board.setCellState(10, 11, (byte)1);
+        ChangeListEngine engine = new ChangeListEngine(board, "B3/S23");
+
+        engine.nextGeneration();
+        org.junit.Assert.assertEquals(4, engine.getChangeCount());
+        engine.run(2);
+        org.junit.Assert.assertEquals(4, engine.getChangeCount());
+        org.junit.Assert.assertEquals(1, engine.getCellState(9, 10));
+        org.junit.Assert.assertEquals(7, engine.getPopulation());
+
+        //A new rule looks at every cell again, so the block dies under Seeds along with the blinker.
+        engine.setRuleString("Seeds");
+        engine.nextGeneration();
+        org.junit.Assert.assertEquals(0, engine.getCellState(9, 10));
+        org.junit.Assert.assertEquals(0, engine.getCellState(2, 2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void negativeGetCellStateTest() throws RulesFormatException {
+        new ChangeListEngine(new StaticBoard(4, 4), "Life").getCellState(4, 0);
+    }
+}
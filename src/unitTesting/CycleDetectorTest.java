@@ -0,0 +1,154 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * JUnit class for unit testing of the CycleDetector class, and the hash of the board it depends on.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class CycleDetectorTest {
+    private final byte[][] glider = {
+            {0, 0, 1},
+            {1, 0, 1},
+            {0, 1, 1}};
+
+    @Test
+    public void hashTest1() {
+        //The hash kept up to date while running is equal to the hash calculated from the whole board.
+        Random random = new Random(3);
+        Board board = new DynamicBoard(40, 40);
+        for (int x = 5; x < 35; x++) {
+            for (int y = 5; y < 35; y++) {
+                board.setCellState(x, y, (byte) random.nextInt(2));
+            }
+        }
+        GameOfLife gol = new GameOfLife(board);
+        board.getHash();
+
+        for (int i = 0; i < 100; i++) {
+            gol.nextGeneration();
+            Board copy = (Board) board.clone();
+            org.junit.Assert.assertEquals(copy.getHash(), board.getHash());
+        }
+    }
+
+    @Test
+    public void hashTest2() {
+        Random random = new Random(5);
+        Board board = new StaticBoard(97, 61);
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                board.setCellState(x, y, (byte) random.nextInt(2));
+            }
+        }
+        GameOfLife gol = new GameOfLife(board);
+        gol.setThreadWorkers(ThreadWorker.getInstance());
+        board.getHash();
+
+        for (int i = 0; i < 10; i++) {
+            gol.nextGenerationConcurrent();
+            Board copy = (Board) board.clone();
+            org.junit.Assert.assertEquals(copy.getHash(), board.getHash());
+        }
+    }
+
+    @Test
+    public void hashTest3() {
+        //Growing the board to the left and up keeps the hash, as the cells keep their position on the plane.
+        DynamicBoard board = new DynamicBoard(10, 10);
+        board.setBoardFromRLE(glider);
+        board.finalizeBoard();
+        long hash = board.getHash();
+
+        board.expandWidthLeft(7);
+        board.expandHeightUp(3);
+
+        org.junit.Assert.assertEquals(hash, board.getHash());
+        board.setCellState(0, 0, (byte)1);
+        org.junit.Assert.assertNotEquals(hash, board.getHash());
+    }
+
+    @Test
+    public void cycleDetectorTest1() {
+        //A blinker has a period of 2, repeating the first time in generation 2.
+        Board board = new StaticBoard(5, 5);
+        board.setCellState(1, 2, (byte)1);
+        board.setCellState(2, 2, (byte)1);
+        board.setCellState(3, 2, (byte)1);
+        GameOfLife gol = new GameOfLife(board);
+        CycleDetector cycleDetector = new CycleDetector();
+
+        int generation = 0;
+        while (!cycleDetector.update(board, generation)) {
+            gol.nextGeneration();
+            generation++;
+        }
+
+        org.junit.Assert.assertEquals(4, generation);
+        org.junit.Assert.assertEquals(2, cycleDetector.getPeriod());
+        org.junit.Assert.assertEquals(2, cycleDetector.getFirstRepeat());
+        org.junit.Assert.assertEquals(0, cycleDetector.getCycleStart());
+        org.junit.Assert.assertFalse(cycleDetector.isStillLife());
+    }
+
+    @Test
+    public void cycleDetectorTest2() {
+        //A pre-block becomes a block in generation 1.
+        Board board = new StaticBoard(6, 6);
+        board.setCellState(2, 2, (byte)1);
+        board.setCellState(3, 2, (byte)1);
+        board.setCellState(2, 3, (byte)1);
+        GameOfLife gol = new GameOfLife(board);
+        CycleDetector cycleDetector = new CycleDetector();
+
+        cycleDetector.update(board, 10);
+        for (int generation = 11; !cycleDetector.isCycleFound(); generation++) {
+            gol.nextGeneration();
+            cycleDetector.update(board, generation);
+        }
+
+        org.junit.Assert.assertTrue(cycleDetector.isStillLife());
+        org.junit.Assert.assertEquals(11, cycleDetector.getCycleStart());
+        org.junit.Assert.assertEquals(12, cycleDetector.getFirstRepeat());
+
+        cycleDetector.reset();
+        org.junit.Assert.assertFalse(cycleDetector.isCycleFound());
+        org.junit.Assert.assertEquals(-1, cycleDetector.getFirstRepeat());
+    }
+
+    @Test
+    public void cycleDetectorTest3() {
+        //A glider never returns to the same cells, and a period longer than the history is not found.
+        Board board = new DynamicBoard(10, 10);
+        board.setBoardFromRLE(glider);
+        board.finalizeBoard();
+        GameOfLife gol = new GameOfLife(board);
+        CycleDetector cycleDetector = new CycleDetector();
+        for (int generation = 0; generation < 200; generation++) {
+            org.junit.Assert.assertFalse(cycleDetector.update(board, generation));
+            gol.nextGeneration();
+        }
+
+        board = new StaticBoard(5, 5);
+        board.setCellState(1, 2, (byte)1);
+        board.setCellState(2, 2, (byte)1);
+        board.setCellState(3, 2, (byte)1);
+        gol = new GameOfLife(board);
+        cycleDetector = new CycleDetector(1);
+        for (int generation = 0; generation < 20; generation++) {
+            org.junit.Assert.assertFalse(cycleDetector.update(board, generation));
+            gol.nextGeneration();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeHistorySizeTest() {
+        new CycleDetector(0);
+    }
+}
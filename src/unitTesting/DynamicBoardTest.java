@@ -1,9 +1,12 @@
 package unitTesting;
 
 import model.Board;
+import model.GameOfLife;
 import org.junit.Test;
 import model.DynamicBoard;
 
+import java.util.Random;
+
 /**
  * JUnit class for unit testing of methods in the DynamicBoard class.
  *
@@ -79,6 +82,26 @@ public class DynamicBoardTest {
         org.junit.Assert.assertEquals(expectedNeighbours, actualNeighbours);
     }
 
+    @Test
+    public void countNeighboursConcurrentTest() {
+        //Bands of rows counted one after another give the same neighbours as the whole board, including bands
+        //that only partly cover the board or lie past it.
+        board = new DynamicBoard(23, 17);
+        Random random = new Random(8);
+        for (int x = 0; x < 23; x++) {
+            for (int y = 0; y < 17; y++) {
+                if (random.nextInt(3) == 0) {
+                    board.setCellState(x, y, (byte)1);
+                }
+            }
+        }
+        byte[][] neighbourCount = new byte[23][17];
+        for (int band = 0; band < 5; band++) {
+            board.countNeighboursConcurrent(neighbourCount, band, 5);
+        }
+        org.junit.Assert.assertEquals(array2DToString(board.countNeighbours()), array2DToString(neighbourCount));
+    }
+
     @Test
     public void resetBoardTest1() {
         board = new DynamicBoard(6,6);
@@ -242,8 +265,8 @@ public class DynamicBoardTest {
 
         org.junit.Assert.assertEquals(1000, board.getHeight());
         org.junit.Assert.assertEquals(1000, board.getWidth());
-        org.junit.Assert.assertTrue(((DynamicBoard)board).getHasExpandedLeft());
-        org.junit.Assert.assertTrue(((DynamicBoard)board).getHasExpandedUp());
+        org.junit.Assert.assertEquals(-1, ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(-1, ((DynamicBoard)board).getShrunkUp());
     }
 
     @Test
@@ -256,6 +279,72 @@ public class DynamicBoardTest {
         org.junit.Assert.assertEquals(1200, board.getWidth());
         org.junit.Assert.assertFalse(((DynamicBoard)board).getHasExpandedLeft());
         org.junit.Assert.assertFalse(((DynamicBoard)board).getHasExpandedUp());
+        org.junit.Assert.assertEquals(0, ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(0, ((DynamicBoard)board).getShrunkUp());
+    }
+
+    @Test
+    public void expandBoardTest6() {
+        //A glider flying up and left from the corner expands the board several times between two drawings, and
+        //every expansion is counted for the CanvasDrawer.
+        board = new DynamicBoard(10, 10);
+        board.setCellState(0,0, (byte)1);
+        board.setCellState(1,0, (byte)1);
+        board.setCellState(2,0, (byte)1);
+        board.setCellState(0,1, (byte)1);
+        board.setCellState(1,2, (byte)1);
+        GameOfLife gameOfLife = new GameOfLife(board);
+        for (int i = 0; i < 12; i++) {
+            gameOfLife.nextGeneration();
+        }
+
+        org.junit.Assert.assertTrue(board.getWorldX() < -1);
+        org.junit.Assert.assertEquals(board.getWorldX(), ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(board.getWorldY(), ((DynamicBoard)board).getShrunkUp());
+    }
+
+    @Test
+    public void expandBoardChunkTest() {
+        board = new DynamicBoard(10, 10);
+        ((DynamicBoard)board).setExpansionChunk(8);
+        board.setCellState(0,5, (byte)1);
+        board.setCellState(9,9, (byte)1);
+        ((DynamicBoard)board).expandBoardDuringRunTime();
+
+        //Grows a chunk on the borders the cells are on, and is not marked to grow again until a cell reaches one.
+        org.junit.Assert.assertEquals(26, board.getWidth());
+        org.junit.Assert.assertEquals(18, board.getHeight());
+        org.junit.Assert.assertEquals(-8, ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(0, ((DynamicBoard)board).getShrunkUp());
+        org.junit.Assert.assertEquals(1, board.getCellState(8,5));
+        ((DynamicBoard)board).expandBoardDuringRunTime();
+        org.junit.Assert.assertEquals(26, board.getWidth());
+
+        //Stops at the run-time expansion limit.
+        board = new DynamicBoard(1195, 10);
+        ((DynamicBoard)board).setExpansionChunk(8);
+        board.setCellState(1194,5, (byte)1);
+        ((DynamicBoard)board).expandBoardDuringRunTime();
+        org.junit.Assert.assertEquals(1200, board.getWidth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSetExpansionChunkTest() {
+        new DynamicBoard(5, 5).setExpansionChunk(0);
+    }
+
+    @Test
+    public void setGridSizeTest() {
+        //Expansions and shrinks the CanvasDrawer has not adjusted for are forgotten along with the old board.
+        board = new DynamicBoard(10, 10);
+        board.setCellState(0,0, (byte)1);
+        ((DynamicBoard)board).expandBoardDuringRunTime();
+        ((DynamicBoard)board).setGridSize(50);
+
+        org.junit.Assert.assertEquals(0, ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(0, ((DynamicBoard)board).getShrunkUp());
+        org.junit.Assert.assertEquals(0, board.getWorldX());
+        org.junit.Assert.assertEquals(50, board.getWidth());
     }
 
     @Test
@@ -798,6 +887,44 @@ public class DynamicBoardTest {
     }
 
 
+    @Test
+    public void rotateTest5() {
+        board = new DynamicBoard(10,10);
+        byte[][] rleBoard = {
+                {0, 0, 0},
+                {0, 1, 0},
+                {1, 1, 1}};
+        board.setBoardFromRLE(rleBoard);
+        board.rotate(true);
+        String expectedPattern = "000010111";
+        String actualPattern = array2DToString(board.getLoadedPattern());
+
+        org.junit.Assert.assertEquals(expectedPattern, actualPattern);
+
+        board.rotate(false);
+        org.junit.Assert.assertEquals(array2DToString(rleBoard), array2DToString(board.getLoadedPattern()));
+    }
+
+    @Test
+    public void finalizeBoardTest() {
+        board = new DynamicBoard(10,10);
+        board.setCellState(4, 4, (byte)1);
+        board.finalizeBoard();
+        org.junit.Assert.assertEquals(1, board.getCellsAlive());
+
+        byte[][] rleBoard = {
+                {0, 0, 1},
+                {1, 1, 1},
+                {0, 1, 1}};
+        board.setBoardFromRLE(rleBoard);
+        board.finalizeBoard();
+
+        //The cell at (4, 4) was already active, so only 5 new cells are counted.
+        org.junit.Assert.assertEquals(6, board.getCellsAlive());
+        org.junit.Assert.assertEquals(6, board.countCellsAlive());
+        org.junit.Assert.assertNull(board.getLoadedPattern());
+    }
+
     @Test
     public void cloneTest() {
         board = new DynamicBoard(10,10);
@@ -818,6 +945,177 @@ public class DynamicBoardTest {
                 board.getCellState(15,15));
     }
 
+    @Test
+    public void cloneOnEdgeTest() {
+        //A glider flying up and left from the corner, marking the board for expansion on the left and upper borders.
+        board = new DynamicBoard(10, 10);
+        board.setCellState(0,0, (byte)1);
+        board.setCellState(1,0, (byte)1);
+        board.setCellState(2,0, (byte)1);
+        board.setCellState(0,1, (byte)1);
+        board.setCellState(1,2, (byte)1);
+        Board clonedBoard = (Board)board.clone();
+
+        //The clone expands before its next generation like the board, rather than keeping its borders as walls.
+        new GameOfLife(board).nextGeneration();
+        new GameOfLife(clonedBoard).nextGeneration();
+        org.junit.Assert.assertEquals(11, clonedBoard.getWidth());
+        org.junit.Assert.assertEquals(11, clonedBoard.getHeight());
+        org.junit.Assert.assertEquals(board.getWorldX(), clonedBoard.getWorldX());
+        org.junit.Assert.assertEquals(board.getWorldY(), clonedBoard.getWorldY());
+        org.junit.Assert.assertEquals(board.toString(), clonedBoard.toString());
+        org.junit.Assert.assertEquals(board.countCellsAlive(), clonedBoard.countCellsAlive());
+    }
+
+    @Test
+    public void cloneShrinkableTest() {
+        //The clone shrinks like the board, down to the same smallest size.
+        board = new DynamicBoard(10, 10);
+        ((DynamicBoard)board).setShrinkable(true);
+        ((DynamicBoard)board).expandWidthLeft(100);
+        board.setCellState(105,5, (byte)1);
+        DynamicBoard clonedBoard = (DynamicBoard)board.clone();
+
+        for (int i = 0; i < 64; i++) {
+            ((DynamicBoard)board).expandBoardDuringRunTime();
+            clonedBoard.expandBoardDuringRunTime();
+        }
+        org.junit.Assert.assertEquals(21, clonedBoard.getWidth());
+        org.junit.Assert.assertEquals(board.getWidth(), clonedBoard.getWidth());
+        org.junit.Assert.assertEquals(board.getWorldX(), clonedBoard.getWorldX());
+    }
+
+    @Test
+    public void expandRepeatedlyTest() {
+        board = new DynamicBoard(3, 3);
+        board.setCellState(1,1, (byte)1);
+
+        //Grows one cell at a time on every side, like a pattern expanding during run time.
+        for (int i = 0; i < 100; i++) {
+            ((DynamicBoard)board).expandWidthLeft(1);
+            ((DynamicBoard)board).expandHeightUp(1);
+            ((DynamicBoard)board).expandWidthRight(1);
+            ((DynamicBoard)board).expandHeightDown(1);
+        }
+
+        org.junit.Assert.assertEquals(203, board.getWidth());
+        org.junit.Assert.assertEquals(203, board.getHeight());
+        org.junit.Assert.assertEquals(1, board.getCellState(101,101));
+        org.junit.Assert.assertEquals(1, board.countCellsAlive());
+        org.junit.Assert.assertEquals(0, board.getCellState(-1,101));
+        org.junit.Assert.assertEquals(0, board.getCellState(203,101));
+    }
+
+    @Test
+    public void shrinkToFitTest1() {
+        board = new DynamicBoard(10, 10);
+        ((DynamicBoard)board).expandWidthRight(30);
+        ((DynamicBoard)board).expandHeightUp(30);
+        board.setCellState(35,35, (byte)1);
+
+        ((DynamicBoard)board).shrinkToFit(2);
+
+        //Cut down to the minimum size, taking columns from the left and rows from the top first.
+        org.junit.Assert.assertEquals(10, board.getWidth());
+        org.junit.Assert.assertEquals(10, board.getHeight());
+        org.junit.Assert.assertEquals(30, ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(30, ((DynamicBoard)board).getShrunkUp());
+        org.junit.Assert.assertEquals(0, ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(1, board.getCellState(5,5));
+        org.junit.Assert.assertEquals(1, board.countCellsAlive());
+    }
+
+    @Test
+    public void shrinkToFitTest2() {
+        board = new DynamicBoard(4, 4);
+        ((DynamicBoard)board).expandWidthRight(40);
+        ((DynamicBoard)board).expandHeightDown(40);
+        board.setCellState(20,20, (byte)1);
+        board.setCellState(22,21, (byte)1);
+
+        ((DynamicBoard)board).shrinkToFit(3);
+
+        org.junit.Assert.assertEquals(9, board.getWidth());
+        org.junit.Assert.assertEquals(8, board.getHeight());
+        org.junit.Assert.assertEquals(17, ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(17, ((DynamicBoard)board).getShrunkUp());
+        org.junit.Assert.assertEquals(1, board.getCellState(3,3));
+        org.junit.Assert.assertEquals(1, board.getCellState(5,4));
+        org.junit.Assert.assertEquals(0, board.getCellState(9,4));
+    }
+
+    @Test
+    public void shrinkToFitTest3() {
+        board = new DynamicBoard(10, 10);
+        ((DynamicBoard)board).expandWidthRight(20);
+
+        //An empty board is left as it is.
+        ((DynamicBoard)board).shrinkToFit(1);
+
+        org.junit.Assert.assertEquals(30, board.getWidth());
+        org.junit.Assert.assertEquals(10, board.getHeight());
+    }
+
+    @Test
+    public void shrinkDuringRunTimeTest() {
+        board = new DynamicBoard(10, 10);
+        ((DynamicBoard)board).setShrinkable(true);
+        ((DynamicBoard)board).expandWidthLeft(100);
+        board.setCellState(105,5, (byte)1);
+
+        for (int i = 0; i < 63; i++) {
+            ((DynamicBoard)board).expandBoardDuringRunTime();
+        }
+        org.junit.Assert.assertEquals(110, board.getWidth());
+
+        //Keeps a margin of 16 inactive columns to the left of the active cell.
+        ((DynamicBoard)board).expandBoardDuringRunTime();
+        org.junit.Assert.assertEquals(21, board.getWidth());
+        org.junit.Assert.assertEquals(89, ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(1, board.getCellState(16,5));
+    }
+
+    @Test
+    public void expandForGenerationsTest1() {
+        board = new DynamicBoard(10, 10);
+        board.setCellState(0,1, (byte)1);
+        board.setCellState(7,9, (byte)1);
+
+        //Leaves at least 3 inactive columns and rows between the active cells and every border.
+        org.junit.Assert.assertTrue(((DynamicBoard)board).expandForGenerations(3));
+        org.junit.Assert.assertEquals(14, board.getWidth());
+        org.junit.Assert.assertEquals(15, board.getHeight());
+        org.junit.Assert.assertEquals(-3, board.getWorldX());
+        org.junit.Assert.assertEquals(-2, board.getWorldY());
+        org.junit.Assert.assertEquals(-3, ((DynamicBoard)board).getShrunkLeft());
+        org.junit.Assert.assertEquals(-2, ((DynamicBoard)board).getShrunkUp());
+        org.junit.Assert.assertEquals(1, board.getCellState(3,3));
+        org.junit.Assert.assertEquals(1, board.getCellState(10,11));
+        org.junit.Assert.assertEquals(2, board.countCellsAlive());
+
+        //Already has the room it needs.
+        org.junit.Assert.assertTrue(((DynamicBoard)board).expandForGenerations(3));
+        org.junit.Assert.assertEquals(14, board.getWidth());
+        org.junit.Assert.assertEquals(15, board.getHeight());
+    }
+
+    @Test
+    public void expandForGenerationsTest2() {
+        //Would grow past the run-time expansion limit, so the board is left as it is.
+        board = new DynamicBoard(1199, 10);
+        board.setCellState(0,5, (byte)1);
+        org.junit.Assert.assertFalse(((DynamicBoard)board).expandForGenerations(2));
+        org.junit.Assert.assertEquals(1199, board.getWidth());
+        org.junit.Assert.assertEquals(0, board.getWorldX());
+
+        //A board that is not expandable keeps its borders.
+        board = new DynamicBoard(10, 10);
+        board.setCellState(0,0, (byte)1);
+        ((DynamicBoard)board).setNonExpandable();
+        org.junit.Assert.assertTrue(((DynamicBoard)board).expandForGenerations(4));
+        org.junit.Assert.assertEquals(10, board.getWidth());
+    }
+
     private String array2DToString(byte[][] neighbour) {
         StringBuilder str = new StringBuilder();
         for (int y = 0; y < neighbour[0].length; y++) {
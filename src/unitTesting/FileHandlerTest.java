@@ -5,6 +5,8 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * JUnit class for unit testing of methods in the FileHandler class.
@@ -329,6 +331,120 @@ public class FileHandlerTest {
         }
     }
 
+    @Test
+    public void readGameBoardFromDiskGzipTest() {
+        board = new DynamicBoard(8,8);
+        gol = new GameOfLife(board);
+        fileHandler.setBoard(board);
+        fileHandler.setGol(gol);
+
+        File file = new File("src/resources/testfiles/gliderTest.rle.gz");
+
+        try{
+            fileHandler.readGameBoardFromDisk(file);
+        } catch (IOException ioe) {
+            org.junit.Assert.fail();
+        }
+
+        String loadedPattern = array2DToString(board.getLoadedPattern());
+        String expectedPattern = "010001111";
+        int[] loadedPatternBoundingBox = board.getLoadedPatternBoundingBox();
+        int[] expectedBoundingBox = {2, 4, 2, 4};
+
+        org.junit.Assert.assertEquals(expectedPattern, loadedPattern);
+        org.junit.Assert.assertArrayEquals(expectedBoundingBox, loadedPatternBoundingBox);
+        org.junit.Assert.assertEquals("Title: Glider", fileHandler.getMetaTitle());
+    }
+
+    @Test
+    public void readGameBoardFromDiskZipTest() {
+        board = new DynamicBoard(8,8);
+        gol = new GameOfLife(board);
+        fileHandler.setBoard(board);
+        fileHandler.setGol(gol);
+
+        File file = new File("src/resources/testfiles/gliderTest.zip");
+
+        try{
+            fileHandler.readGameBoardFromDisk(file);
+        } catch (IOException ioe) {
+            org.junit.Assert.fail();
+        }
+
+        String loadedPattern = array2DToString(board.getLoadedPattern());
+        String expectedPattern = "010001111";
+
+        org.junit.Assert.assertEquals(expectedPattern, loadedPattern);
+        org.junit.Assert.assertEquals("Title: Glider", fileHandler.getMetaTitle());
+    }
+
+    @Test
+    public void readGameBoardFromZipTest() {
+        board = new DynamicBoard(8,8);
+        gol = new GameOfLife(board);
+        fileHandler.setBoard(board);
+        fileHandler.setGol(gol);
+
+        File file = new File("src/resources/testfiles/gliderTest.zip");
+
+        try{
+            fileHandler.readGameBoardFromZip(file, "acorn.rle");
+        } catch (IOException ioe) {
+            org.junit.Assert.fail();
+        }
+
+        String loadedPattern = array2DToString(board.getLoadedPattern());
+        String expectedPattern = "010000000010001100111";
+        int[] loadedPatternBoundingBox = board.getLoadedPatternBoundingBox();
+        int[] expectedBoundingBox = {0, 6, 2, 4};
+
+        org.junit.Assert.assertEquals(expectedPattern, loadedPattern);
+        org.junit.Assert.assertArrayEquals(expectedBoundingBox, loadedPatternBoundingBox);
+        org.junit.Assert.assertEquals("Title: Acorn", fileHandler.getMetaTitle());
+    }
+
+    @Test
+    public void listZipPatternsTest() {
+        File file = new File("src/resources/testfiles/gliderTest.zip");
+        List<String> patterns = null;
+
+        try{
+            patterns = FileHandler.listZipPatterns(file);
+        } catch (IOException ioe) {
+            org.junit.Assert.fail();
+        }
+
+        org.junit.Assert.assertEquals(Arrays.asList("glider.rle", "acorn.rle"), patterns);
+    }
+
+    @Test
+    public void readGameBoardFromDiskMacrocellTest() {
+        board = new DynamicBoard(8,8);
+        gol = new GameOfLife(board);
+        fileHandler.setBoard(board);
+        fileHandler.setGol(gol);
+
+        File file = new File("src/resources/testfiles/gliderTest.mc");
+
+        try{
+            fileHandler.readGameBoardFromDisk(file);
+        } catch (IOException ioe) {
+            org.junit.Assert.fail();
+        }
+
+        String loadedPattern = array2DToString(board.getLoadedPattern());
+        String expectedPattern = "010001111";
+        int[] loadedPatternBoundingBox = board.getLoadedPatternBoundingBox();
+        int[] expectedBoundingBox = {2, 4, 2, 4};
+
+        String expectedMetaData = "Glider stored as a Macrocell quadtree. \n\nx = 3, y = 3, rule = B3/S23";
+
+        org.junit.Assert.assertEquals(expectedPattern, loadedPattern);
+        org.junit.Assert.assertArrayEquals(expectedBoundingBox, loadedPatternBoundingBox);
+        org.junit.Assert.assertEquals(expectedMetaData, fileHandler.getMetaData());
+        org.junit.Assert.assertEquals("B3/S23", gol.getRuleString());
+    }
+
     @Test
     public void patternExportToStringTest1 () {
         board = new DynamicBoard(8,8);
@@ -4,6 +4,7 @@ import model.*;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
 
 /**
@@ -127,6 +128,172 @@ public class GameOfLifeTest {
         org.junit.Assert.assertEquals(12, board.getHeight());
     }
 
+    @Test
+    public void nextGenerationPackedTest() throws RulesFormatException {
+        //Generations made on rows of bits equal those made one cell at a time, across several longs per row.
+        String[] rules = {"Life", "Day & Night", "Seeds", "B0123478/S01234678"};
+        java.util.Random random = new java.util.Random(5);
+        for (String ruleString : rules) {
+            Board packedBoard = new DynamicBoard(70, 20);
+            Board cellBoard = new DynamicBoard(70, 20);
+            for (int x = 0; x < 70; x++) {
+                for (int y = 0; y < 20; y++) {
+                    byte state = (byte)(random.nextInt(3) == 0 ? 1 : 0);
+                    packedBoard.setCellState(x, y, state);
+                    cellBoard.setCellState(x, y, state);
+                }
+            }
+            GameOfLife packed = new GameOfLife(packedBoard);
+            GameOfLife cells = new GameOfLife(cellBoard);
+            packed.setRuleString(ruleString);
+            cells.setRuleString(ruleString);
+            cells.setPackedKernel(false);
+            PopulationCollector packedPopulation = new PopulationCollector();
+            PopulationCollector cellPopulation = new PopulationCollector();
+            packed.addMetricCollector(packedPopulation);
+            cells.addMetricCollector(cellPopulation);
+            packedBoard.getHash();
+            cellBoard.getHash();
+
+            for (int generation = 0; generation < 10; generation++) {
+                packed.nextGeneration();
+                cells.nextGeneration();
+                org.junit.Assert.assertEquals(ruleString, cellBoard.toString(), packedBoard.toString());
+                org.junit.Assert.assertEquals(cellBoard.getWidth(), packedBoard.getWidth());
+                org.junit.Assert.assertEquals(cellBoard.getCellsAlive(), packedBoard.getCellsAlive());
+                org.junit.Assert.assertEquals(cellBoard.getHash(), packedBoard.getHash());
+                org.junit.Assert.assertEquals(cellPopulation.getPopulation(), packedPopulation.getPopulation());
+                org.junit.Assert.assertEquals(cellPopulation.getBirths(), packedPopulation.getBirths());
+            }
+        }
+    }
+
+    @Test
+    public void nextGenerationPackedConcurrentTest() throws RulesFormatException {
+        //Bands of rows of bits made by the threads equal the generations made concurrently one cell at a time, on a
+        //board wider than the timeline makes concurrently.
+        java.util.Random random = new java.util.Random(6);
+        Board packedBoard = new DynamicBoard(650, 90);
+        Board cellBoard = new DynamicBoard(650, 90);
+        for (int x = 0; x < 650; x++) {
+            for (int y = 0; y < 90; y++) {
+                byte state = (byte)(random.nextInt(3) == 0 ? 1 : 0);
+                packedBoard.setCellState(x, y, state);
+                cellBoard.setCellState(x, y, state);
+            }
+        }
+        GameOfLife packed = new GameOfLife(packedBoard);
+        GameOfLife cells = new GameOfLife(cellBoard);
+        packed.setThreadWorkers(threadWorker);
+        cells.setThreadWorkers(threadWorker);
+        cells.setPackedKernel(false);
+        PopulationCollector packedPopulation = new PopulationCollector();
+        PopulationCollector cellPopulation = new PopulationCollector();
+        packed.addMetricCollector(packedPopulation);
+        cells.addMetricCollector(cellPopulation);
+        packedBoard.getHash();
+        cellBoard.getHash();
+
+        for (int generation = 0; generation < 10; generation++) {
+            packed.nextGenerationConcurrent();
+            cells.nextGenerationConcurrent();
+            org.junit.Assert.assertEquals(cellBoard.toString(), packedBoard.toString());
+            org.junit.Assert.assertEquals(cellBoard.getCellsAlive(), packedBoard.getCellsAlive());
+            org.junit.Assert.assertEquals(cellBoard.getHash(), packedBoard.getHash());
+            org.junit.Assert.assertEquals(cellPopulation.getPopulation(), packedPopulation.getPopulation());
+            org.junit.Assert.assertEquals(cellPopulation.getBirths(), packedPopulation.getBirths());
+        }
+    }
+
+    @Test
+    public void nextGenerationsTest() throws RulesFormatException {
+        //Bands made several generations at a time equal the same number of single generations, for numbers of
+        //generations that do and do not divide into passes, on boards taller than a band.
+        String[] rules = {"Life", "Day & Night", "B0123478/S01234678"};
+        int[] blockGenerations = {1, 3, 8, 40};
+        java.util.Random random = new java.util.Random(8);
+        for (String ruleString : rules) {
+            for (int block : blockGenerations) {
+                Board blockedBoard = new StaticBoard(130, 75);
+                Board singleBoard = new StaticBoard(130, 75);
+                for (int x = 0; x < 130; x++) {
+                    for (int y = 0; y < 75; y++) {
+                        byte state = (byte)(random.nextInt(3) == 0 ? 1 : 0);
+                        blockedBoard.setCellState(x, y, state);
+                        singleBoard.setCellState(x, y, state);
+                    }
+                }
+                GameOfLife blocked = new GameOfLife(blockedBoard);
+                GameOfLife single = new GameOfLife(singleBoard);
+                blocked.setRuleString(ruleString);
+                single.setRuleString(ruleString);
+                blocked.setBlockGenerations(block);
+                blockedBoard.getHash();
+
+                blocked.nextGenerations(25);
+                for (int generation = 0; generation < 25; generation++) {
+                    single.nextGeneration();
+                }
+                String message = ruleString + " in passes of " + block;
+                org.junit.Assert.assertEquals(message, singleBoard.toString(), blockedBoard.toString());
+                org.junit.Assert.assertEquals(message, singleBoard.countCellsAlive(), blockedBoard.getCellsAlive());
+                org.junit.Assert.assertEquals(message, ((Board)singleBoard.clone()).getHash(),
+                        blockedBoard.getHash());
+            }
+        }
+    }
+
+    @Test
+    public void nextGenerationsDynamicTest() throws IOException, PatternFormatException, RulesFormatException {
+        //A DynamicBoard expanded before each pass has the same cells on the plane as one expanded before each
+        //generation, though the boards may differ in size. The gun fires gliders past the borders it starts with.
+        byte[][] pattern = FileHandler.readPattern(new FileReader("src/resources/rlefiles/gosperglidergun.rle"))
+                .toArray();
+        String[] rules = {"Life", "Highlife"};
+        for (String ruleString : rules) {
+            for (boolean shrinkable : new boolean[]{false, true}) {
+                DynamicBoard blockedBoard = new DynamicBoard(pattern.length, pattern[0].length);
+                DynamicBoard singleBoard = new DynamicBoard(pattern.length, pattern[0].length);
+                for (int x = 0; x < pattern.length; x++) {
+                    for (int y = 0; y < pattern[0].length; y++) {
+                        blockedBoard.setCellState(x, y, pattern[x][y]);
+                        singleBoard.setCellState(x, y, pattern[x][y]);
+                    }
+                }
+                blockedBoard.setShrinkable(shrinkable);
+                singleBoard.setShrinkable(shrinkable);
+                GameOfLife blocked = new GameOfLife(blockedBoard);
+                GameOfLife single = new GameOfLife(singleBoard);
+                blocked.setRuleString(ruleString);
+                single.setRuleString(ruleString);
+                blockedBoard.getHash();
+
+                blocked.nextGenerations(150);
+                for (int generation = 0; generation < 150; generation++) {
+                    single.nextGeneration();
+                }
+                String message = ruleString + (shrinkable ? " shrinkable" : "");
+                org.junit.Assert.assertEquals(message, singleBoard.countCellsAlive(), blockedBoard.getCellsAlive());
+                org.junit.Assert.assertEquals(message, ((Board)singleBoard.clone()).getHash(),
+                        blockedBoard.getHash());
+                org.junit.Assert.assertEquals(message, singleBoard.getHash(), ((Board)blockedBoard.clone()).getHash());
+                for (int y = 0; y < singleBoard.getHeight(); y++) {
+                    for (int x = 0; x < singleBoard.getWidth(); x++) {
+                        int blockedX = x + singleBoard.getWorldX() - blockedBoard.getWorldX();
+                        int blockedY = y + singleBoard.getWorldY() - blockedBoard.getWorldY();
+                        org.junit.Assert.assertEquals(message, singleBoard.getCellState(x, y),
+                                blockedBoard.getCellState(blockedX, blockedY));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSetBlockGenerationsTest() {
+        new GameOfLife(new StaticBoard(5, 5)).setBlockGenerations(0);
+    }
+
     @Test
     public void nextGenerationConcurrentTest1() {
         board = new DynamicBoard(8,8);
@@ -596,6 +763,28 @@ public class GameOfLifeTest {
         gol.setRuleSet("B3/S9");
     }
 
+    @Test
+    public void isValidRuleTest() {
+        org.junit.Assert.assertTrue(GameOfLife.isValidRule("Highlife"));
+        org.junit.Assert.assertTrue(GameOfLife.isValidRule("b36/s23"));
+        org.junit.Assert.assertTrue(GameOfLife.isValidRule("B/S"));
+        org.junit.Assert.assertFalse(GameOfLife.isValidRule("B3/S9"));
+        org.junit.Assert.assertFalse(GameOfLife.isValidRule("Highlifes"));
+        org.junit.Assert.assertFalse(GameOfLife.isValidRule(null));
+    }
+
+    @Test
+    public void parseRuleTest() throws RulesFormatException {
+        org.junit.Assert.assertArrayEquals(new String[]{"36", "23"}, GameOfLife.parseRule("Highlife"));
+        org.junit.Assert.assertArrayEquals(new String[]{"136", "2"}, GameOfLife.parseRule("b631/s22"));
+        org.junit.Assert.assertArrayEquals(new String[]{"2", ""}, GameOfLife.parseRule("Seeds"));
+    }
+
+    @Test(expected = RulesFormatException.class)
+    public void negativeParseRuleTest() throws RulesFormatException {
+        GameOfLife.parseRule("B3/S9");
+    }
+
     @Test
     public void cloneTest() {
         board = new DynamicBoard(8,8);
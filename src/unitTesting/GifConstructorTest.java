@@ -0,0 +1,270 @@
+package unitTesting;
+
+import javafx.scene.paint.Color;
+import model.*;
+import org.junit.Test;
+
+import org.w3c.dom.Element;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JUnit class for unit testing of methods in the GifConstructor and GifEncoder classes.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class GifConstructorTest {
+    private final byte[][] glider = {
+            {0, 0, 1},
+            {1, 0, 1},
+            {0, 1, 1}};
+
+
+    @Test
+    public void rasteriseTest1() {
+        byte[][] cells = {
+                {1, 0},
+                {0, 1}};
+
+        //Cells of 4 pixels, centered with an offset of 1 pixel.
+        byte[] pixels = GifConstructor.rasterise(cells, 10);
+
+        org.junit.Assert.assertEquals(100, pixels.length);
+        org.junit.Assert.assertEquals(0, pixels[0]);
+        org.junit.Assert.assertEquals(1, pixels[1 * 10 + 1]);
+        org.junit.Assert.assertEquals(1, pixels[4 * 10 + 4]);
+        org.junit.Assert.assertEquals(0, pixels[1 * 10 + 5]);
+        org.junit.Assert.assertEquals(1, pixels[5 * 10 + 5]);
+        org.junit.Assert.assertEquals(1, pixels[8 * 10 + 8]);
+        org.junit.Assert.assertEquals(0, pixels[9 * 10 + 9]);
+        org.junit.Assert.assertEquals(32, countActive(pixels));
+    }
+
+    @Test
+    public void rasteriseTest2() {
+        //A board larger than the image draws every cell as one pixel, cutting off what does not fit.
+        byte[][] cells = new byte[40][20];
+        cells[25][10] = 1;
+        cells[39][19] = 1;
+
+        byte[] pixels = GifConstructor.rasterise(cells, 20);
+
+        org.junit.Assert.assertEquals(1, countActive(pixels));
+        org.junit.Assert.assertEquals(1, pixels[10 * 20 + 15]);
+        org.junit.Assert.assertEquals(0, countActive(GifConstructor.rasterise(new byte[0][0], 4)));
+    }
+
+    @Test
+    public void exportGifTest() throws IOException {
+        Board board = new DynamicBoard(10, 10);
+        board.setBoardFromRLE(glider);
+        board.finalizeBoard();
+        GameOfLife gameOfLife = new GameOfLife(board);
+        int[] boundingBox = board.getBoundingBox();
+        File file = File.createTempFile("export", ".gif");
+        AtomicInteger written = new AtomicInteger();
+
+        GifConstructor gifConstructor = new GifConstructor(gameOfLife, 12, 10, true, Color.LIGHTGRAY,
+                Color.LIMEGREEN, 100);
+        boolean done = gifConstructor.exportGif(file.getPath(), (frame, total) -> {
+            org.junit.Assert.assertEquals(written.incrementAndGet(), (int) frame);
+            org.junit.Assert.assertEquals(12, (int) total);
+        }, () -> false);
+
+        org.junit.Assert.assertTrue(done);
+        org.junit.Assert.assertEquals(12, written.get());
+
+        //Reads the gif back, checking the number of frames and the colours of the first one.
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            reader.setInput(in);
+            org.junit.Assert.assertEquals(12, reader.getNumImages(true));
+            BufferedImage first = reader.read(0);
+            org.junit.Assert.assertEquals(100, first.getWidth());
+            org.junit.Assert.assertEquals(0xFFD3D3D3, first.getRGB(0, 0));
+            org.junit.Assert.assertEquals(0xFF32CD32, first.getRGB(50, 50));
+        } finally {
+            reader.dispose();
+            file.delete();
+        }
+
+        //The game has been stepped once for every frame, moving the glider three cells.
+        org.junit.Assert.assertEquals(5, board.countCellsAlive());
+        org.junit.Assert.assertEquals(array2DToString(glider), array2DToString(board.trim()));
+        org.junit.Assert.assertEquals(boundingBox[0] + 3, board.getBoundingBox()[0]);
+    }
+
+    @Test
+    public void exportGifGenerationsTest() throws IOException {
+        Board board = new DynamicBoard(10, 10);
+        board.setBoardFromRLE(glider);
+        board.finalizeBoard();
+        int[] boundingBox = board.getBoundingBox();
+        int left = board.getWorldX() + boundingBox[0];
+        File file = File.createTempFile("export", ".gif");
+
+        GifConstructor gifConstructor = new GifConstructor(new GameOfLife(board), 3, 10, false, Color.WHITE,
+                Color.BLACK, 100);
+        gifConstructor.setGenerationsPerFrame(4);
+        boolean done = gifConstructor.exportGif(file.getPath(), (frame, total) -> { }, () -> false);
+        file.delete();
+
+        //Four generations for each of the three frames move the glider three cells, as far as twelve frames of one.
+        org.junit.Assert.assertTrue(done);
+        org.junit.Assert.assertEquals(5, board.countCellsAlive());
+        org.junit.Assert.assertEquals(array2DToString(glider), array2DToString(board.trim()));
+        org.junit.Assert.assertEquals(left + 3, board.getWorldX() + board.getBoundingBox()[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSetGenerationsPerFrameTest() {
+        new GifConstructor(new GameOfLife(new DynamicBoard(5, 5)), 1, 1, true, Color.WHITE, Color.BLACK, 10)
+                .setGenerationsPerFrame(0);
+    }
+
+    @Test
+    public void exportGifCancelTest() throws IOException {
+        Board board = new DynamicBoard(10, 10);
+        board.setBoardFromRLE(glider);
+        board.finalizeBoard();
+        File file = File.createTempFile("export", ".gif");
+        AtomicInteger written = new AtomicInteger();
+
+        GifConstructor gifConstructor = new GifConstructor(new GameOfLife(board), 400, 10, false, Color.WHITE,
+                Color.BLACK, 200);
+        boolean done = gifConstructor.exportGif(file.getPath(), (frame, total) -> written.incrementAndGet(),
+                () -> written.get() >= 3);
+
+        org.junit.Assert.assertFalse(done);
+        org.junit.Assert.assertEquals(3, written.get());
+        org.junit.Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void gifEncoderTest1() throws IOException {
+        File file = File.createTempFile("encoder", ".gif");
+        Random random = new Random(42);
+        List<byte[]> frames = new ArrayList<>();
+
+        //A noisy frame, long enough to fill the string table, followed by small changes and an unchanged frame.
+        byte[] pixels = new byte[120 * 90];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = (byte) random.nextInt(2);
+        }
+        frames.add(pixels.clone());
+        pixels[45 * 120 + 60] ^= 1;
+        pixels[80 * 120 + 7] ^= 1;
+        frames.add(pixels.clone());
+        frames.add(pixels.clone());
+        java.util.Arrays.fill(pixels, (byte) 0);
+        frames.add(pixels.clone());
+
+        try (GifEncoder encoder = new GifEncoder(file.toPath(), 120, 90, 0xD3D3D3, 0x32CD32, 100)) {
+            for (byte[] frame : frames) {
+                encoder.writeFrame(frame);
+            }
+            org.junit.Assert.assertEquals(4, encoder.getFrames());
+        }
+
+        try {
+            List<int[]> decoded = decodeGif(file, 120, 90);
+            org.junit.Assert.assertEquals(4, decoded.size());
+            for (int f = 0; f < frames.size(); f++) {
+                for (int i = 0; i < pixels.length; i++) {
+                    int expected = frames.get(f)[i] == 1 ? 0xFF32CD32 : 0xFFD3D3D3;
+                    org.junit.Assert.assertEquals(expected, decoded.get(f)[i]);
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void gifEncoderTest2() throws IOException {
+        Board board = new DynamicBoard(40, 40);
+        board.setBoardFromRLE(glider);
+        board.finalizeBoard();
+        File file = File.createTempFile("export", ".gif");
+
+        //Only the rectangle around the glider changes, so each frame after the first is small.
+        GifConstructor gifConstructor = new GifConstructor(new GameOfLife(board), 50, 10, true, Color.LIGHTGRAY,
+                Color.LIMEGREEN, 400);
+        gifConstructor.exportGif(file.getPath(), (frame, total) -> {}, () -> false);
+
+        try {
+            org.junit.Assert.assertEquals(50, decodeGif(file, 400, 400).size());
+            org.junit.Assert.assertTrue(file.length() < 50 * 400);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void gifEncoderNegativeTest() throws IOException {
+        File file = File.createTempFile("encoder", ".gif");
+        file.deleteOnExit();
+        try (GifEncoder encoder = new GifEncoder(file.toPath(), 10, 10, 0, 0xFFFFFF, 100)) {
+            encoder.writeFrame(new byte[99]);
+        }
+    }
+
+    private List<int[]> decodeGif(File file, int width, int height) throws IOException {
+        List<int[]> frames = new ArrayList<>();
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            reader.setInput(in);
+
+            //Draws each frame over the previous one, leaving transparent pixels as they were.
+            int[] canvas = new int[width * height];
+            for (int f = 0; f < reader.getNumImages(true); f++) {
+                BufferedImage image = reader.read(f);
+                Element descriptor = (Element) ((Element) reader.getImageMetadata(f)
+                        .getAsTree("javax_imageio_gif_image_1.0")).getElementsByTagName("ImageDescriptor").item(0);
+                int left = Integer.parseInt(descriptor.getAttribute("imageLeftPosition"));
+                int top = Integer.parseInt(descriptor.getAttribute("imageTopPosition"));
+                for (int y = 0; y < image.getHeight(); y++) {
+                    for (int x = 0; x < image.getWidth(); x++) {
+                        int argb = image.getRGB(x, y);
+                        if (argb >>> 24 != 0) {
+                            canvas[(top + y) * width + left + x] = argb;
+                        }
+                    }
+                }
+                frames.add(canvas.clone());
+            }
+        } finally {
+            reader.dispose();
+        }
+        return frames;
+    }
+
+    private int countActive(byte[] pixels) {
+        int active = 0;
+        for (byte pixel : pixels) {
+            active += pixel;
+        }
+        return active;
+    }
+
+    private String array2DToString(byte[][] neighbour) {
+        StringBuilder str = new StringBuilder();
+        for (int y = 0; y < neighbour[0].length; y++) {
+            for (byte[] aNeighbour : neighbour) {
+                str.append(aNeighbour[y]);
+            }
+        }
+        return str.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * JUnit class for unit testing of methods in the HybridBoard class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class HybridBoardTest {
+
+    @Test
+    public void nextGenerationTest() throws IOException, PatternFormatException {
+        //The sidecar gun stepped on a HybridBoard and on a StaticBoard, with room for its gliders to fly off.
+        byte[][] pattern = FileHandler.readPattern(new FileReader("src/resources/rlefiles/sidecargun.rle")).toArray();
+        Board staticBoard = new StaticBoard(pattern.length + 150, pattern[0].length + 150);
+        HybridBoard hybridBoard = new HybridBoard(pattern.length + 150, pattern[0].length + 150);
+        for (int x = 0; x < pattern.length; x++) {
+            for (int y = 0; y < pattern[0].length; y++) {
+                staticBoard.setCellState(x + 10, y + 10, pattern[x][y]);
+                hybridBoard.setCellState(x + 10, y + 10, pattern[x][y]);
+            }
+        }
+        GameOfLife staticGame = new GameOfLife(staticBoard);
+        GameOfLife hybridGame = new GameOfLife(hybridBoard);
+
+        for (int generation = 0; generation < 100; generation++) {
+            staticGame.nextGeneration();
+            hybridGame.nextGeneration();
+        }
+        org.junit.Assert.assertEquals(staticBoard.toString(), hybridBoard.toString());
+        org.junit.Assert.assertEquals(staticBoard.countCellsAlive(), hybridBoard.countCellsAlive());
+        org.junit.Assert.assertEquals(staticBoard.toString(), ((Board)hybridBoard.clone()).toString());
+    }
+
+    @Test
+    public void tileCountTest() {
+        //A tile turns dense past 256 cells, and only turns sparse again below 64.
+        HybridBoard board = new HybridBoard(130, 70);
+        org.junit.Assert.assertEquals(6, board.getEmptyTileCount());
+        for (int i = 0; i < 257; i++) {
+            board.setCellState(i % 64, i / 64, (byte)1);
+        }
+        board.setCellState(100, 5, (byte)1);
+        org.junit.Assert.assertEquals(1, board.getDenseTileCount());
+        org.junit.Assert.assertEquals(1, board.getSparseTileCount());
+        org.junit.Assert.assertEquals(4, board.getEmptyTileCount());
+
+        for (int i = 256; i >= 64; i--) {
+            board.setCellState(i % 64, i / 64, (byte)0);
+        }
+        org.junit.Assert.assertEquals(1, board.getDenseTileCount());
+        board.setCellState(63, 0, (byte)0);
+        org.junit.Assert.assertEquals(0, board.getDenseTileCount());
+        org.junit.Assert.assertEquals(2, board.getSwitchCount());
+        org.junit.Assert.assertEquals(64, board.countCellsAlive());
+        org.junit.Assert.assertEquals(1, board.getCellState(62, 0));
+        org.junit.Assert.assertEquals(0, board.getCellState(63, 0));
+
+        board.setCellState(100, 5, (byte)0);
+        org.junit.Assert.assertEquals(5, board.getEmptyTileCount());
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void negativeSetCellStateTest() {
+        new HybridBoard(10, 10).setCellState(10, 0, (byte)1);
+    }
+}
@@ -0,0 +1,98 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+/**
+ * JUnit class for unit testing of methods in the IntervalBoard class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class IntervalBoardTest {
+
+    @Test
+    public void nextGenerationTest1() throws RulesFormatException {
+        //Compared with GameOfLife on StaticBoards, whose edges are also dead, including rules where nothing is born
+        //from nothing.
+        String[] rules = {"Life", "Day & Night", "Highlife", "B1357/S1357", "B0123478/S01234678"};
+        Random random = new Random(5);
+        for (String ruleString : rules) {
+            Board staticBoard = new StaticBoard(45, 30);
+            IntervalBoard intervalBoard = new IntervalBoard(45, 30);
+            for (int x = 0; x < 45; x++) {
+                for (int y = 0; y < 30; y++) {
+                    if (random.nextInt(3) == 0) {
+                        staticBoard.setCellState(x, y, (byte)1);
+                        intervalBoard.setCellState(x, y, (byte)1);
+                    }
+                }
+            }
+            GameOfLife staticGame = new GameOfLife(staticBoard);
+            GameOfLife intervalGame = new GameOfLife(intervalBoard);
+            staticGame.setRuleString(ruleString);
+            intervalGame.setRuleString(ruleString);
+
+            for (int generation = 0; generation < 20; generation++) {
+                staticGame.nextGeneration();
+                intervalGame.nextGeneration();
+            }
+            org.junit.Assert.assertEquals(ruleString, staticBoard.toString(), intervalBoard.toString());
+            org.junit.Assert.assertEquals(staticBoard.countCellsAlive(), intervalBoard.getCellsAlive());
+        }
+    }
+
+    @Test
+    public void nextGenerationTest2() throws IOException, PatternFormatException {
+        //The star gate stepped on intervals and on a StaticBoard, with the hash kept up to date from the changes.
+        PackedPattern pattern = FileHandler.readPattern(new FileReader("src/resources/rlefiles/stargate.rle"));
+        IntervalBoard intervalBoard = IntervalBoard.readRLE(new FileReader("src/resources/rlefiles/stargate.rle"));
+        byte[][] cells = pattern.toArray();
+        Board staticBoard = new StaticBoard(cells.length, cells[0].length);
+        staticBoard.setBoard(cells);
+        org.junit.Assert.assertEquals(staticBoard.toString(), intervalBoard.toString());
+
+        GameOfLife staticGame = new GameOfLife(staticBoard);
+        GameOfLife intervalGame = new GameOfLife(intervalBoard);
+        intervalBoard.getHash();
+        for (int generation = 0; generation < 30; generation++) {
+            staticGame.nextGeneration();
+            intervalGame.nextGeneration();
+        }
+        org.junit.Assert.assertEquals(staticBoard.toString(), intervalBoard.toString());
+        org.junit.Assert.assertEquals(((Board)intervalBoard.clone()).getHash(), intervalBoard.getHash());
+    }
+
+    @Test
+    public void rleTest() throws IOException, PatternFormatException {
+        IntervalBoard board = IntervalBoard.readRLE(new StringReader("x = 3, y = 3, rule = B3/S23\nbo$2bo$3o!"));
+
+        org.junit.Assert.assertArrayEquals(new int[]{1, 2}, board.getRow(0));
+        org.junit.Assert.assertArrayEquals(new int[]{0, 3}, board.getRow(2));
+        org.junit.Assert.assertEquals(5, board.getCellsAlive());
+        org.junit.Assert.assertEquals("bo$2bo$3o!", board.toRLE());
+
+        //Rows left empty are written as one run of row ends.
+        board = new IntervalBoard(10, 6);
+        board.setRow(1, new int[]{0, 2, 5, 9});
+        board.setRow(4, new int[]{9, 10});
+        org.junit.Assert.assertEquals("$2o3b4o3$9bo!", board.toRLE());
+        IntervalBoard copy = IntervalBoard.readRLE(new StringReader("x = 10, y = 6\n" + board.toRLE()));
+        org.junit.Assert.assertEquals(board.toString(), copy.toString());
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void negativeReadRLETest() throws IOException, PatternFormatException {
+        IntervalBoard.readRLE(new StringReader("x = 3, y = 3\n4o!"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSetRowTest() {
+        new IntervalBoard(10, 1).setRow(0, new int[]{4, 2});
+    }
+}
@@ -0,0 +1,158 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * JUnit class for unit testing of the MetricCollector implementations, and how GameOfLife hands cells to them.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class MetricCollectorTest {
+    private final byte[][] glider = {
+            {0, 0, 1},
+            {1, 0, 1},
+            {0, 1, 1}};
+
+    @Test
+    public void collectorsTest1() {
+        Board board = new StaticBoard(10, 10);
+        board.setBoardFromRLE(glider);
+        board.finalizeBoard();
+        GameOfLife gol = new GameOfLife(board);
+        PopulationCollector population = new PopulationCollector();
+        BoundingBoxCollector boundingBox = new BoundingBoxCollector();
+        CentroidCollector centroid = new CentroidCollector();
+        gol.addMetricCollector(population);
+        gol.addMetricCollector(boundingBox);
+        gol.addMetricCollector(centroid);
+
+        //Every generation of a glider has two cells born and two cells dying.
+        for (int i = 0; i < 8; i++) {
+            gol.nextGeneration();
+            org.junit.Assert.assertEquals(5, population.getPopulation());
+            org.junit.Assert.assertEquals(2, population.getBirths());
+            org.junit.Assert.assertEquals(2, population.getDeaths());
+            org.junit.Assert.assertArrayEquals(board.getBoundingBox(), boundingBox.getBoundingBox());
+            org.junit.Assert.assertEquals(board.getSumXYCoordinates(), centroid.getSumXY());
+        }
+    }
+
+    @Test
+    public void collectorsTest2() {
+        //A blinker centered at (2, 2) is a vertical line after one generation.
+        Board board = new StaticBoard(5, 5);
+        board.setCellState(1, 2, (byte)1);
+        board.setCellState(2, 2, (byte)1);
+        board.setCellState(3, 2, (byte)1);
+        GameOfLife gol = new GameOfLife(board);
+        BoundingBoxCollector boundingBox = new BoundingBoxCollector();
+        CentroidCollector centroid = new CentroidCollector();
+        gol.addMetricCollector(boundingBox);
+        gol.addMetricCollector(centroid);
+
+        gol.nextGeneration();
+
+        org.junit.Assert.assertArrayEquals(new int[]{2, 2, 1, 3}, boundingBox.getBoundingBox());
+        org.junit.Assert.assertEquals(2.0, centroid.getCentroidX(), 0);
+        org.junit.Assert.assertEquals(2.0, centroid.getCentroidY(), 0);
+
+        //A single cell dies, leaving nothing to measure.
+        board = new StaticBoard(5, 5);
+        board.setCellState(2, 2, (byte)1);
+        gol = new GameOfLife(board);
+        gol.addMetricCollector(boundingBox);
+        gol.addMetricCollector(centroid);
+        gol.nextGeneration();
+
+        org.junit.Assert.assertNull(boundingBox.getBoundingBox());
+        org.junit.Assert.assertTrue(Double.isNaN(centroid.getCentroidX()));
+    }
+
+    @Test
+    public void reductionCollectorTest() {
+        Board board = new StaticBoard(10, 10);
+        board.setBoardFromRLE(glider);
+        board.finalizeBoard();
+        GameOfLife gol = new GameOfLife(board);
+
+        //The rightmost column in which a cell is born, and the number of cells surviving.
+        ReductionCollector rightmostBirth = new ReductionCollector(-1,
+                (x, y, oldState, newState) -> oldState == 0 && newState == 1 ? x : -1, Math::max);
+        ReductionCollector survivors = new ReductionCollector(0,
+                (x, y, oldState, newState) -> oldState & newState, Long::sum);
+        gol.addMetricCollector(rightmostBirth);
+        gol.addMetricCollector(survivors);
+        byte[][] before = copyBoard(board);
+
+        gol.nextGeneration();
+
+        int expectedRightmost = -1;
+        int expectedSurvivors = 0;
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                if (before[x][y] == 0 && board.getCellState(x, y) == 1) {
+                    expectedRightmost = Math.max(expectedRightmost, x);
+                }
+                expectedSurvivors += before[x][y] & board.getCellState(x, y);
+            }
+        }
+        org.junit.Assert.assertEquals(expectedRightmost, rightmostBirth.getValue());
+        org.junit.Assert.assertEquals(expectedSurvivors, survivors.getValue());
+
+        //A removed collector is no longer updated.
+        gol.removeMetricCollector(survivors);
+        gol.nextGeneration();
+        org.junit.Assert.assertEquals(expectedSurvivors, survivors.getValue());
+    }
+
+    @Test
+    public void collectorsConcurrentTest() {
+        Random random = new Random(7);
+        Board board = new StaticBoard(97, 61);
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                board.setCellState(x, y, (byte) (random.nextInt(3) == 0 ? 1 : 0));
+            }
+        }
+        GameOfLife sequential = new GameOfLife(board);
+        GameOfLife concurrent = (GameOfLife) sequential.clone();
+        concurrent.setThreadWorkers(ThreadWorker.getInstance());
+        PopulationCollector sequentialPopulation = new PopulationCollector();
+        PopulationCollector concurrentPopulation = new PopulationCollector();
+        BoundingBoxCollector concurrentBoundingBox = new BoundingBoxCollector();
+        CentroidCollector concurrentCentroid = new CentroidCollector();
+        sequential.addMetricCollector(sequentialPopulation);
+        concurrent.addMetricCollector(concurrentPopulation);
+        concurrent.addMetricCollector(concurrentBoundingBox);
+        concurrent.addMetricCollector(concurrentCentroid);
+
+        //The partials of every thread add up to the same values as when running on one thread.
+        for (int i = 0; i < 10; i++) {
+            sequential.nextGeneration();
+            concurrent.nextGenerationConcurrent();
+            Board concurrentBoard = concurrent.getPlayBoard();
+            org.junit.Assert.assertEquals(sequentialPopulation.getPopulation(), concurrentPopulation.getPopulation());
+            org.junit.Assert.assertEquals(sequentialPopulation.getBirths(), concurrentPopulation.getBirths());
+            org.junit.Assert.assertEquals(sequentialPopulation.getDeaths(), concurrentPopulation.getDeaths());
+            org.junit.Assert.assertEquals(concurrentBoard.countCellsAlive(), concurrentPopulation.getPopulation());
+            org.junit.Assert.assertArrayEquals(concurrentBoard.getBoundingBox(),
+                    concurrentBoundingBox.getBoundingBox());
+            org.junit.Assert.assertEquals(concurrentBoard.getSumXYCoordinates(), concurrentCentroid.getSumXY());
+        }
+    }
+
+    private byte[][] copyBoard(Board board) {
+        byte[][] copy = new byte[board.getWidth()][board.getHeight()];
+        for (int x = 0; x < copy.length; x++) {
+            for (int y = 0; y < copy[x].length; y++) {
+                copy[x][y] = board.getCellState(x, y);
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,123 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * JUnit class for unit testing of methods in the PatternAnalyser class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PatternAnalyserTest {
+    private final PatternAnalyser analyser = new PatternAnalyser();
+
+    @Test
+    public void analyseStillLifeTest() {
+        //A pre-block settles into a block in generation 1.
+        GameOfLife gol = game(new byte[][]{{1, 1}, {1, 0}}, 10);
+
+        PatternAnalyser.Analysis analysis = analyser.analyse(gol);
+
+        org.junit.Assert.assertEquals(PatternAnalyser.Analysis.Type.STILL_LIFE, analysis.getType());
+        org.junit.Assert.assertEquals(1, analysis.getPeriod());
+        org.junit.Assert.assertEquals(1, analysis.getStart());
+        org.junit.Assert.assertEquals(4, analysis.getPopulation());
+        org.junit.Assert.assertEquals(0.0, analysis.getHeat(), 0);
+        org.junit.Assert.assertEquals(0, analysis.getRotor());
+        org.junit.Assert.assertEquals(4, analysis.getStator());
+    }
+
+    @Test
+    public void analyseOscillatorTest() {
+        //A blinker has a rotor of four cells around a single stator cell, and four cells change every generation.
+        GameOfLife gol = game(new byte[][]{{1, 1, 1}}, 10);
+
+        PatternAnalyser.Analysis analysis = analyser.analyse(gol);
+
+        org.junit.Assert.assertEquals(PatternAnalyser.Analysis.Type.OSCILLATOR, analysis.getType());
+        org.junit.Assert.assertEquals(2, analysis.getPeriod());
+        org.junit.Assert.assertEquals(0, analysis.getStart());
+        org.junit.Assert.assertEquals(4.0, analysis.getHeat(), 0);
+        org.junit.Assert.assertEquals(4, analysis.getRotor());
+        org.junit.Assert.assertEquals(1, analysis.getStator());
+        org.junit.Assert.assertEquals("", analysis.getSpeed());
+    }
+
+    @Test
+    public void analyseSpaceshipTest() {
+        byte[][] glider = {
+                {0, 0, 1},
+                {1, 0, 1},
+                {0, 1, 1}};
+        GameOfLife gol = game(glider, 10);
+        String before = gol.getPlayBoard().toString();
+
+        PatternAnalyser.Analysis analysis = analyser.analyse(gol);
+
+        org.junit.Assert.assertEquals(PatternAnalyser.Analysis.Type.SPACESHIP, analysis.getType());
+        org.junit.Assert.assertEquals(4, analysis.getPeriod());
+        org.junit.Assert.assertEquals(1, Math.abs(analysis.getDx()));
+        org.junit.Assert.assertEquals(1, Math.abs(analysis.getDy()));
+        org.junit.Assert.assertEquals("c/4 diagonal", analysis.getSpeed());
+        org.junit.Assert.assertEquals(-1, analysis.getRotor());
+
+        //The game itself has not been run.
+        org.junit.Assert.assertEquals(before, gol.getPlayBoard().toString());
+    }
+
+    @Test
+    public void analyseDiedTest() {
+        GameOfLife gol = game(new byte[][]{{1, 0, 1}}, 10);
+
+        PatternAnalyser.Analysis analysis = analyser.analyse(gol);
+
+        org.junit.Assert.assertEquals(PatternAnalyser.Analysis.Type.DIED, analysis.getType());
+        org.junit.Assert.assertEquals(1, analysis.getStart());
+        org.junit.Assert.assertEquals(PatternAnalyser.Analysis.Type.UNKNOWN,
+                analyser.analyse(game(new byte[][]{{1, 1, 1}}, 10), 3).getType());
+    }
+
+    @Test
+    public void analyseFileTest1() throws IOException, PatternFormatException {
+        PatternAnalyser.Analysis analysis = analyser.analyse(gameFromFile("src/resources/rlefiles/56p6h1v0.rle"));
+
+        org.junit.Assert.assertEquals(PatternAnalyser.Analysis.Type.SPACESHIP, analysis.getType());
+        org.junit.Assert.assertEquals(6, analysis.getPeriod());
+        org.junit.Assert.assertEquals(0, analysis.getDx());
+        org.junit.Assert.assertEquals(1, Math.abs(analysis.getDy()));
+        org.junit.Assert.assertEquals("c/6 orthogonal", analysis.getSpeed());
+        org.junit.Assert.assertEquals(56, analysis.getPopulation());
+    }
+
+    @Test
+    public void analyseFileTest2() throws IOException, PatternFormatException {
+        PatternAnalyser.Analysis analysis = analyser.analyse(gameFromFile("src/resources/rlefiles/112p51.rle"));
+
+        org.junit.Assert.assertEquals(PatternAnalyser.Analysis.Type.OSCILLATOR, analysis.getType());
+        org.junit.Assert.assertEquals(51, analysis.getPeriod());
+        org.junit.Assert.assertEquals(0, analysis.getStart());
+        org.junit.Assert.assertTrue(analysis.getRotor() > 0);
+        org.junit.Assert.assertTrue(analysis.toString().contains("Period 51 oscillator"));
+    }
+
+    private GameOfLife game(byte[][] pattern, int size) {
+        Board board = new DynamicBoard(size, size);
+        board.setBoardFromRLE(pattern);
+        board.finalizeBoard();
+        return new GameOfLife(board);
+    }
+
+    private GameOfLife gameFromFile(String path) throws IOException, PatternFormatException {
+        PackedPattern pattern;
+        try (FileReader reader = new FileReader(path)) {
+            pattern = FileHandler.readPattern(reader);
+        }
+        byte[][] cells = pattern.toArray();
+        return game(cells, Math.max(cells.length, cells[0].length) + 20);
+    }
+}
@@ -0,0 +1,136 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * JUnit class for unit testing of methods in the PatternCache and PackedPattern classes.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PatternCacheTest {
+    private final byte[][] glider = {
+            {0, 0, 1},
+            {1, 0, 1},
+            {0, 1, 1}};
+
+
+    @Test
+    public void packedPatternTest() {
+        PackedPattern pattern = new PackedPattern(glider, "Title: Glider", "", "B3/S23");
+
+        org.junit.Assert.assertEquals(3, pattern.getWidth());
+        org.junit.Assert.assertEquals(3, pattern.getHeight());
+        org.junit.Assert.assertEquals(5, pattern.getCellsAlive());
+        org.junit.Assert.assertTrue(pattern.isAlive(1, 0));
+        org.junit.Assert.assertFalse(pattern.isAlive(0, 0));
+        org.junit.Assert.assertEquals(array2DToString(glider), array2DToString(pattern.toArray()));
+    }
+
+    @Test
+    public void contentKeyTest() throws IOException {
+        byte[] plain = PatternCache.readContent(new FileInputStream("src/resources/rlefiles/glider.rle"));
+        byte[] compressed = PatternCache.readContent(FileHandler.openPatternStream(
+                new FileInputStream("src/resources/testfiles/gliderTest.rle.gz")));
+        byte[] other = PatternCache.readContent(new FileInputStream("src/resources/rlefiles/acorn.rle"));
+
+        org.junit.Assert.assertEquals(PatternCache.contentKey(plain), PatternCache.contentKey(compressed));
+        org.junit.Assert.assertNotEquals(PatternCache.contentKey(plain), PatternCache.contentKey(other));
+    }
+
+    @Test
+    public void evictionTest() {
+        PackedPattern first = new PackedPattern(glider, "", "", null);
+        PackedPattern second = new PackedPattern(glider, "", "", null);
+        PackedPattern third = new PackedPattern(glider, "", "", null);
+        PatternCache cache = new PatternCache(2 * first.getSizeInBytes());
+
+        cache.put("first", first);
+        cache.put("second", second);
+
+        //Using the first pattern makes the second the least recently used.
+        cache.get("first");
+        cache.put("third", third);
+
+        org.junit.Assert.assertEquals(2, cache.size());
+        org.junit.Assert.assertSame(first, cache.get("first"));
+        org.junit.Assert.assertNull(cache.get("second"));
+        org.junit.Assert.assertSame(third, cache.get("third"));
+        org.junit.Assert.assertEquals(2 * first.getSizeInBytes(), cache.getSizeInBytes());
+        org.junit.Assert.assertEquals("first", cache.getKey(first));
+        org.junit.Assert.assertNull(cache.getKey(second));
+    }
+
+    @Test
+    public void decodeTest() throws InterruptedException, ExecutionException {
+        PatternCache cache = new PatternCache(1 << 20);
+
+        File plain = new File("src/resources/rlefiles/glider.rle");
+        File compressed = new File("src/resources/testfiles/gliderTest.rle.gz");
+        PackedPattern decoded = cache.decode(PatternCache.locationKey(plain, null),
+                () -> new FileInputStream(plain)).get();
+        PackedPattern cached = cache.decode(PatternCache.locationKey(compressed, null),
+                () -> FileHandler.openPatternStream(new FileInputStream(compressed))).get();
+
+        //The same content read from another file is found by its hash, and a file viewed before is not read again.
+        org.junit.Assert.assertSame(decoded, cached);
+        org.junit.Assert.assertEquals(1, cache.size());
+        org.junit.Assert.assertSame(decoded, cache.decode(PatternCache.locationKey(plain, null), () -> {
+            throw new IOException("The file should not be read again");
+        }).get());
+        org.junit.Assert.assertEquals("010001111", array2DToString(decoded.toArray()));
+        org.junit.Assert.assertEquals("Title: Glider", decoded.getMetaTitle());
+        org.junit.Assert.assertEquals("B3/S23", decoded.getRules());
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void decodeNegativeTest() throws InterruptedException, ExecutionException {
+        PatternCache cache = new PatternCache(1 << 20);
+        File file = new File("src/resources/testfiles/negativeFormatTest.rle");
+        cache.decode(PatternCache.locationKey(file, null), () -> new FileInputStream(file)).get();
+    }
+
+    @Test
+    public void thumbnailTest() throws InterruptedException, ExecutionException {
+        PatternCache cache = new PatternCache(1 << 20);
+        PackedPattern pattern = new PackedPattern(glider, "", "", null);
+        cache.put("glider", pattern);
+
+        int[] thumbnail = cache.thumbnail(pattern, 200).get();
+
+        //The glider is drawn in a 5x5 grid of 40 pixel cells, with one dead cell on every side.
+        org.junit.Assert.assertEquals(200 * 200, thumbnail.length);
+        org.junit.Assert.assertEquals(0xFFD3D3D3, thumbnail[60 * 200 + 60]);
+        org.junit.Assert.assertEquals(0xFF32CD32, thumbnail[60 * 200 + 100]);
+        org.junit.Assert.assertEquals(0xFF32CD32, thumbnail[140 * 200 + 60]);
+        org.junit.Assert.assertEquals(0xFF000000, thumbnail[40 * 200 + 100]);
+        org.junit.Assert.assertSame(thumbnail, cache.getThumbnail("glider", 200));
+    }
+
+    @Test
+    public void readPatternTest() throws IOException, PatternFormatException {
+        PackedPattern pattern = FileHandler.readPattern(new StringReader("#N Blinker\nx = 3, y = 1\n3o!"));
+
+        org.junit.Assert.assertEquals("Title: Blinker", pattern.getMetaTitle());
+        org.junit.Assert.assertNull(pattern.getRules());
+        org.junit.Assert.assertEquals("111", array2DToString(pattern.toArray()));
+    }
+
+    private String array2DToString(byte[][] neighbour) {
+        StringBuilder str = new StringBuilder();
+        for (int y = 0; y < neighbour[0].length; y++) {
+            for (byte[] aNeighbour : neighbour) {
+                str.append(aNeighbour[y]);
+            }
+        }
+        return str.toString();
+    }
+}
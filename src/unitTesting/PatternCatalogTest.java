@@ -0,0 +1,101 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * JUnit class for unit testing of methods in the PatternCatalog class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PatternCatalogTest {
+    private final File rleFiles = new File("src/resources/rlefiles");
+    private final File testFiles = new File("src/resources/testfiles");
+
+
+    @Test
+    public void scanTest1() throws IOException {
+        File index = File.createTempFile("catalog", ".idx");
+        index.deleteOnExit();
+        PatternCatalog catalog = new PatternCatalog(rleFiles, index);
+
+        catalog.scan(null, null);
+
+        org.junit.Assert.assertEquals(16, catalog.getEntries().size());
+
+        PatternCatalog.Entry glider = catalog.search("glider richard").get(0);
+        org.junit.Assert.assertEquals("Glider", glider.getName());
+        org.junit.Assert.assertEquals("Richard K. Guy", glider.getAuthor());
+        org.junit.Assert.assertEquals(3, glider.getWidth());
+        org.junit.Assert.assertEquals(3, glider.getHeight());
+        org.junit.Assert.assertEquals("B3/S23", glider.getRule());
+        org.junit.Assert.assertEquals(5, glider.getPopulation());
+        org.junit.Assert.assertNull(glider.getMember());
+    }
+
+    @Test
+    public void scanTest2() throws IOException {
+        File index = File.createTempFile("catalog", ".idx");
+        index.deleteOnExit();
+        PatternCatalog catalog = new PatternCatalog(testFiles, index);
+
+        catalog.scan(null, null);
+
+        List<PatternCatalog.Entry> acorn = catalog.search("acorn");
+        org.junit.Assert.assertEquals(1, acorn.size());
+        org.junit.Assert.assertEquals("acorn.rle", acorn.get(0).getMember());
+        org.junit.Assert.assertEquals(7, acorn.get(0).getPopulation());
+
+        //The gzip-compressed glider and the glider in the zip archive are both found.
+        org.junit.Assert.assertEquals(2, catalog.search("Richard K. Guy").size());
+    }
+
+    @Test
+    public void loadTest() throws IOException {
+        File index = File.createTempFile("catalog", ".idx");
+        index.deleteOnExit();
+        PatternCatalog scanned = new PatternCatalog(rleFiles, index);
+        scanned.scan(null, null);
+
+        PatternCatalog loaded = new PatternCatalog(rleFiles, index);
+        org.junit.Assert.assertTrue(loaded.load());
+        org.junit.Assert.assertEquals(scanned.getEntries().size(), loaded.getEntries().size());
+
+        PatternCatalog.Entry gun = loaded.search("gosper").get(0);
+        org.junit.Assert.assertEquals("Gosper glider gun", gun.getName());
+        org.junit.Assert.assertEquals(36, gun.getWidth());
+        org.junit.Assert.assertEquals(9, gun.getHeight());
+        org.junit.Assert.assertEquals(36, gun.getPopulation());
+        org.junit.Assert.assertEquals(new File(rleFiles, "gosperglidergun.rle").getAbsoluteFile(), gun.getFile());
+    }
+
+    @Test
+    public void loadNegativeTest() throws IOException {
+        File index = File.createTempFile("catalog", ".idx");
+        index.deleteOnExit();
+        new PatternCatalog(rleFiles, index).scan(null, null);
+
+        //An index belonging to another collection is ignored.
+        PatternCatalog other = new PatternCatalog(testFiles, index);
+        org.junit.Assert.assertFalse(other.load());
+        org.junit.Assert.assertEquals(0, other.getEntries().size());
+    }
+
+    @Test
+    public void searchTest() throws IOException {
+        File index = File.createTempFile("catalog", ".idx");
+        index.deleteOnExit();
+        PatternCatalog catalog = new PatternCatalog(rleFiles, index);
+        catalog.scan(null, null);
+
+        org.junit.Assert.assertEquals(16, catalog.search("").size());
+        org.junit.Assert.assertEquals(0, catalog.search("glider nonexistent").size());
+        org.junit.Assert.assertTrue(catalog.search("GUN").size() >= 4);
+    }
+}
@@ -0,0 +1,137 @@
+package unitTesting;
+
+import javafx.scene.paint.Color;
+import model.*;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * JUnit class for unit testing of methods in the PngExporter class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class PngExporterTest {
+    private final byte[][] glider = {
+            {0, 0, 1},
+            {1, 0, 1},
+            {0, 1, 1}};
+
+
+    @Test
+    public void writeImageTest1() throws IOException {
+        Board board = new DynamicBoard(5, 4);
+        board.setBoardFromRLE(glider);
+        board.finalizeBoard();
+
+        BufferedImage image = export(board, 1);
+
+        org.junit.Assert.assertEquals(5, image.getWidth());
+        org.junit.Assert.assertEquals(4, image.getHeight());
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 4; y++) {
+                int expected = board.getCellState(x, y) == 1 ? 0xFF32CD32 : 0xFFD3D3D3;
+                org.junit.Assert.assertEquals(expected, image.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void writeImageTest2() throws IOException {
+        //A cell size that does not line up with whole bytes.
+        Board board = new DynamicBoard(7, 3);
+        board.setCellState(0, 0, (byte)1);
+        board.setCellState(3, 1, (byte)1);
+        board.setCellState(6, 2, (byte)1);
+
+        BufferedImage image = export(board, 3);
+
+        org.junit.Assert.assertEquals(21, image.getWidth());
+        org.junit.Assert.assertEquals(9, image.getHeight());
+        for (int px = 0; px < 21; px++) {
+            for (int py = 0; py < 9; py++) {
+                int expected = board.getCellState(px / 3, py / 3) == 1 ? 0xFF32CD32 : 0xFFD3D3D3;
+                org.junit.Assert.assertEquals(expected, image.getRGB(px, py));
+            }
+        }
+    }
+
+    @Test
+    public void writeImageTest3() throws IOException {
+        //Each pixel covers three by three cells, the last column and row of pixels covering fewer.
+        Board board = new DynamicBoard(7, 4);
+        board.setCellState(2, 2, (byte)1);
+        board.setCellState(6, 3, (byte)1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PngExporter(board, 1, 3, Color.LIGHTGRAY, Color.LIMEGREEN).writeImage(out, (row, total) -> {},
+                () -> false);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+
+        org.junit.Assert.assertEquals(3, image.getWidth());
+        org.junit.Assert.assertEquals(2, image.getHeight());
+        org.junit.Assert.assertEquals(0xFF32CD32, image.getRGB(0, 0));
+        org.junit.Assert.assertEquals(0xFFD3D3D3, image.getRGB(1, 0));
+        org.junit.Assert.assertEquals(0xFFD3D3D3, image.getRGB(2, 0));
+        org.junit.Assert.assertEquals(0xFFD3D3D3, image.getRGB(0, 1));
+        org.junit.Assert.assertEquals(0xFF32CD32, image.getRGB(2, 1));
+    }
+
+    @Test
+    public void exportPngTest() throws IOException {
+        Board board = new DynamicBoard(600, 600);
+        board.setCellState(599, 599, (byte)1);
+        File file = File.createTempFile("export", ".png");
+
+        boolean done = new PngExporter(board, 2, Color.WHITE, Color.BLACK).exportPng(file, (row, total) -> {},
+                () -> false);
+
+        try {
+            org.junit.Assert.assertTrue(done);
+            BufferedImage image = ImageIO.read(file);
+            org.junit.Assert.assertEquals(1200, image.getWidth());
+            org.junit.Assert.assertEquals(0xFF000000, image.getRGB(1199, 1199));
+            org.junit.Assert.assertEquals(0xFFFFFFFF, image.getRGB(1197, 1199));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void exportPngCancelTest() throws IOException {
+        Board board = new DynamicBoard(50, 50);
+        File file = File.createTempFile("export", ".png");
+        int[] rows = new int[1];
+
+        boolean done = new PngExporter(board, 1, Color.WHITE, Color.BLACK).exportPng(file,
+                (row, total) -> rows[0] = row, () -> rows[0] >= 10);
+
+        org.junit.Assert.assertFalse(done);
+        org.junit.Assert.assertEquals(10, rows[0]);
+        org.junit.Assert.assertFalse(file.exists());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeCellSizeTest() {
+        new PngExporter(new DynamicBoard(10, 10), 0, Color.WHITE, Color.BLACK);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeCellsPerPixelTest() {
+        new PngExporter(new DynamicBoard(10, 10), 1, 0, Color.WHITE, Color.BLACK);
+    }
+
+    private BufferedImage export(Board board, int cellSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PngExporter(board, cellSize, Color.LIGHTGRAY, Color.LIMEGREEN).writeImage(out, (row, total) -> {},
+                () -> false);
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
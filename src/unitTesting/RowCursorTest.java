@@ -0,0 +1,67 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * JUnit class for unit testing of methods in the RowCursor class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class RowCursorTest {
+
+    @Test
+    public void nextTest() {
+        //Every kind of board reads the same rows as its cells, in order from the top.
+        Board[] boards = {new StaticBoard(70, 9), new DynamicBoard(70, 9), new IntervalBoard(70, 9),
+                new HybridBoard(70, 9)};
+        Random random = new Random(4);
+        for (int x = 0; x < 70; x++) {
+            for (int y = 1; y < 8; y++) {
+                if (random.nextInt(3) == 0) {
+                    for (Board board : boards) {
+                        board.setCellState(x, y, (byte)1);
+                    }
+                }
+            }
+        }
+
+        for (Board board : boards) {
+            RowCursor cursor = board.rowCursor();
+            org.junit.Assert.assertEquals(-1, cursor.getY());
+            for (int y = 0; y < 9; y++) {
+                org.junit.Assert.assertTrue(cursor.next());
+                org.junit.Assert.assertEquals(y, cursor.getY());
+                for (int x = 0; x < 70; x++) {
+                    org.junit.Assert.assertEquals(board.getClass().getName(), board.getCellState(x, y),
+                            cursor.getRow()[x]);
+                }
+            }
+            org.junit.Assert.assertFalse(cursor.next());
+        }
+    }
+
+    @Test
+    public void nextActiveTest() {
+        Board board = new StaticBoard(10, 4);
+        board.setCellState(2, 2, (byte)1);
+        board.setCellState(7, 2, (byte)1);
+        RowCursor cursor = board.rowCursor();
+        cursor.moveTo(2);
+        cursor.next();
+
+        org.junit.Assert.assertEquals(2, cursor.getY());
+        org.junit.Assert.assertEquals(2, cursor.nextActive(0));
+        org.junit.Assert.assertEquals(7, cursor.nextActive(3));
+        org.junit.Assert.assertEquals(10, cursor.nextActive(8));
+        org.junit.Assert.assertEquals(7, cursor.previousActive(9));
+        org.junit.Assert.assertEquals(-1, cursor.previousActive(1));
+
+        //An empty row has no active cells.
+        cursor.next();
+        org.junit.Assert.assertEquals(10, cursor.nextActive(0));
+    }
+}
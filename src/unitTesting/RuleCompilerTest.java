@@ -0,0 +1,67 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * JUnit class for unit testing of methods in the RuleCompiler class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class RuleCompilerTest {
+
+    @Test
+    public void getKernelTest1() {
+        //Compiled kernels make the same generations as the rule applied by its numbers of neighbours.
+        Random random = new Random(9);
+        int[] rules = new int[200];
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = random.nextInt(RuleExplorer.RULE_COUNT);
+        }
+        rules[0] = 0;
+        rules[1] = RuleExplorer.RULE_COUNT - 1;
+        rules[2] = RuleExplorer.toRule("3", "23");
+        rules[3] = RuleExplorer.toRule("3678", "34678");
+
+        for (int rule : rules) {
+            RuleKernel kernel = RuleCompiler.getKernel(rule);
+            long[] cells = new long[2 * 32];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = random.nextLong() & random.nextLong();
+            }
+            long[] counted = new long[cells.length];
+            long[] compiled = new long[cells.length];
+            RuleExplorer.nextGeneration(cells, counted, 2, 0, 32, rule);
+            RuleExplorer.nextGeneration(cells, compiled, 2, 0, 32, kernel);
+            org.junit.Assert.assertArrayEquals(RuleExplorer.toRuleString(rule), counted, compiled);
+        }
+    }
+
+    @Test
+    public void getKernelTest2() {
+        //Kernels are made once for each rule.
+        int rule = RuleExplorer.toRule("36", "23");
+        RuleKernel kernel = RuleCompiler.getKernel(rule);
+
+        org.junit.Assert.assertSame(kernel, RuleCompiler.getKernel(rule));
+        org.junit.Assert.assertNotSame(kernel, RuleCompiler.getKernel(RuleExplorer.toRule("3", "23")));
+        org.junit.Assert.assertEquals("model.CompiledRule_B36_S23", kernel.getClass().getName());
+    }
+
+    @Test
+    public void describeTest() {
+        org.junit.Assert.assertEquals("~s3 & ~s2 & s1 & (s0 | cells)", RuleCompiler.describe(
+                RuleExplorer.toRule("3", "23")));
+        org.junit.Assert.assertEquals("0", RuleCompiler.describe(0));
+        org.junit.Assert.assertEquals("-1", RuleCompiler.describe(RuleExplorer.RULE_COUNT - 1));
+        org.junit.Assert.assertEquals("cells", RuleCompiler.describe(RuleExplorer.toRule("", "012345678")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeGetKernelTest() {
+        RuleCompiler.getKernel(RuleExplorer.RULE_COUNT);
+    }
+}
@@ -0,0 +1,132 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * JUnit class for unit testing of methods in the RuleExplorer class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class RuleExplorerTest {
+
+    @Test
+    public void ruleStringTest() {
+        int life = RuleExplorer.toRule("3", "23");
+
+        org.junit.Assert.assertEquals(8 | (4 | 8) << 9, life);
+        org.junit.Assert.assertEquals("B3/S23", RuleExplorer.toRuleString(life));
+        org.junit.Assert.assertEquals("B/S", RuleExplorer.toRuleString(0));
+        org.junit.Assert.assertEquals("B012345678/S012345678", RuleExplorer.toRuleString(RuleExplorer.RULE_COUNT - 1));
+    }
+
+    @Test
+    public void nextGenerationTest() throws RulesFormatException {
+        //Compares the torus with GameOfLife for soups that stay clear of the edges.
+        String[] rules = {"B3/S23", "B36/S23", "B36/S125", "B368/S245", "B1357/S1357", "B2/S"};
+        Random random = new Random(7);
+        for (String ruleString : rules) {
+            long[] cells = new long[64];
+            Board board = new StaticBoard(64, 64);
+            for (int y = 24; y < 40; y++) {
+                for (int x = 24; x < 40; x++) {
+                    if (random.nextBoolean()) {
+                        cells[y] |= 1L << x;
+                        board.setCellState(x, y, (byte)1);
+                    }
+                }
+            }
+            GameOfLife gameOfLife = new GameOfLife(board);
+            gameOfLife.setRuleString(ruleString);
+            int rule = RuleExplorer.toRule(gameOfLife.getBornRules(), gameOfLife.getSurviveRules());
+
+            long[] next = new long[64];
+            for (int generation = 0; generation < 10; generation++) {
+                gameOfLife.nextGeneration();
+                RuleExplorer.nextGeneration(cells, next, rule);
+                long[] swap = cells;
+                cells = next;
+                next = swap;
+            }
+
+            for (int y = 0; y < 64; y++) {
+                for (int x = 0; x < 64; x++) {
+                    org.junit.Assert.assertEquals(ruleString, board.getCellState(x, y), cells[y] >>> x & 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void exploreTest1() {
+        RuleExplorer explorer = new RuleExplorer(4, 200, 1);
+        int full = RuleExplorer.RULE_COUNT - 1;
+
+        List<RuleExplorer.RuleResult> results = explorer.explore(full - 1, full + 1, (done, total) -> {}, () -> false);
+
+        //B01234567/S012345678 and B012345678/S012345678 fill the torus at once.
+        org.junit.Assert.assertEquals(2, results.size());
+        org.junit.Assert.assertEquals(full, results.get(1).getRule());
+        org.junit.Assert.assertEquals(RuleExplorer.Behaviour.EXPLODES, results.get(1).getBehaviour());
+        org.junit.Assert.assertEquals(4, results.get(1).getCount(RuleExplorer.Behaviour.EXPLODES));
+
+        //Without births or survivals every soup dies, and with survivals alone every soup stays as it is.
+        List<RuleExplorer.RuleResult> still = explorer.explore(0, 1, (done, total) -> {}, () -> false);
+        org.junit.Assert.assertEquals(RuleExplorer.Behaviour.DIES, still.get(0).getBehaviour());
+        int survive = RuleExplorer.toRule("", "012345678");
+        still = explorer.explore(survive, survive + 1, (done, total) -> {}, () -> false);
+        org.junit.Assert.assertEquals(RuleExplorer.Behaviour.STABILISES, still.get(0).getBehaviour());
+        org.junit.Assert.assertTrue(still.get(0).getMeanPopulation() > 0);
+    }
+
+    @Test
+    public void exploreTest2() {
+        //The same seed gives the same results on any number of threads, in the order of the rules.
+        int[] progress = new int[1];
+        List<RuleExplorer.RuleResult> first = new RuleExplorer(3, 300, 42).explore(1000, 1200,
+                (done, total) -> {
+                    synchronized (progress) {
+                        progress[0] = Math.max(progress[0], done);
+                    }
+                }, () -> false);
+        List<RuleExplorer.RuleResult> second = new RuleExplorer(3, 300, 42).explore(1000, 1200,
+                (done, total) -> {}, () -> false);
+
+        org.junit.Assert.assertEquals(200, progress[0]);
+        org.junit.Assert.assertEquals(200, first.size());
+        for (int i = 0; i < first.size(); i++) {
+            org.junit.Assert.assertEquals(1000 + i, first.get(i).getRule());
+            org.junit.Assert.assertEquals(first.get(i).getBehaviour(), second.get(i).getBehaviour());
+            org.junit.Assert.assertEquals(first.get(i).getMeanPopulation(), second.get(i).getMeanPopulation(), 0);
+        }
+    }
+
+    @Test
+    public void writeResultsTest() throws IOException {
+        Path file = Files.createTempFile("rules", ".csv");
+        try {
+            List<RuleExplorer.RuleResult> results = new RuleExplorer(2, 50, 0).explore(0, 3, (done, total) -> {},
+                    () -> false);
+            RuleExplorer.writeResults(file, results);
+
+            List<String> lines = Files.readAllLines(file);
+            org.junit.Assert.assertEquals(4, lines.size());
+            org.junit.Assert.assertTrue(lines.get(0).startsWith("Rule,Behaviour"));
+            org.junit.Assert.assertEquals("B/S,DIES,2,0,0,0,0,0.0", lines.get(1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeExploreTest() {
+        new RuleExplorer(1, 1, 0).explore(0, RuleExplorer.RULE_COUNT + 1, (done, total) -> {}, () -> false);
+    }
+}
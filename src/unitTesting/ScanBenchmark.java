@@ -0,0 +1,130 @@
+package unitTesting;
+
+import model.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark of the scans of a whole board, comparing the reads of one cell at a time, column by column, with the
+ * reads of a row cursor, and of the generations made one cell at a time and on rows of bits, by one thread and by
+ * the threads of the ThreadWorker. It is not a JUnit test, as its timings depend on the machine, and is run on its own:
+ *
+ * <pre>java unitTesting.ScanBenchmark [size] [repeats]</pre>
+ *
+ * Each scan is run a few times first, so that it has been compiled, and the median of the repeats is printed. The
+ * boards are a third full of random cells, from the same seed every run.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class ScanBenchmark {
+    private static final int WARMUP = 5;
+
+    //Keeps the results of the scans, so that they cannot be left out as unused.
+    private static long sink;
+
+    /**
+     * Method that runs every scan on a DynamicBoard and a StaticBoard.
+     * @param args The size of the boards and the number of runs of each scan, 1200 and 15 if not given.
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1200;
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        System.out.println("Board of " + size + "x" + size + ", median of " + repeats + " runs in ms");
+
+        ThreadWorker threadWorker = ThreadWorker.getInstance();
+        try {
+            for (Board board : new Board[]{new DynamicBoard(size, size), new StaticBoard(size, size)}) {
+                fill(board, size);
+                String name = board.getClass().getSimpleName();
+                run(name + " column scan", repeats, () -> columnScan(board));
+                run(name + " row cursor scan", repeats, board::countCellsAlive);
+
+                GameOfLife gameOfLife = new GameOfLife(board);
+                gameOfLife.setPackedKernel(false);
+                gameOfLife.setThreadWorkers(threadWorker);
+                run(name + " nextGeneration per cell", repeats, () -> {
+                    gameOfLife.nextGeneration();
+                    return board.getCellsAlive();
+                });
+                run(name + " nextGenerationConcurrent per cell", repeats, () -> {
+                    gameOfLife.nextGenerationConcurrent();
+                    return board.getCellsAlive();
+                });
+
+                gameOfLife.setPackedKernel(true);
+                run(name + " nextGeneration packed", repeats, () -> {
+                    gameOfLife.nextGeneration();
+                    return board.getCellsAlive();
+                });
+                run(name + " nextGenerationConcurrent packed", repeats, () -> {
+                    gameOfLife.nextGenerationConcurrent();
+                    return board.getCellsAlive();
+                });
+            }
+        } finally {
+            threadWorker.shutDownExecutor();
+        }
+        System.out.println("Checksum " + sink);
+    }
+
+    /**
+     * Method that fills a board a third full with random cells.
+     * @param board The board to fill.
+     * @param size The width and height of the board.
+     */
+    private static void fill(Board board, int size) {
+        Random random = new Random(1);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (random.nextInt(3) == 0) {
+                    board.setCellState(x, y, (byte)1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that counts the active cells one cell at a time, column by column, the order the scans read the
+     * boards in before they went through a row cursor.
+     * @param board The board to count the active cells of.
+     * @return count - The number of active cells.
+     */
+    private static int columnScan(Board board) {
+        int count = 0;
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                count += board.getCellState(x, y);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method that times a scan and prints the median of its runs.
+     * @param name The name of the scan.
+     * @param repeats The number of runs to take the median of.
+     * @param scan The scan, returning a result that is kept.
+     */
+    private static void run(String name, int repeats, Scan scan) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink += scan.run();
+        }
+        long[] times = new long[repeats];
+        for (int i = 0; i < repeats; i++) {
+            long start = System.nanoTime();
+            sink += scan.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        System.out.printf("%-45s %8.2f%n", name, times[repeats / 2] / 1e6);
+    }
+
+    /**
+     * A scan of a board, as timed by run().
+     */
+    private interface Scan {
+        long run();
+    }
+}
@@ -0,0 +1,114 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * JUnit class for unit testing of methods in the SoupCensus class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class SoupCensusTest {
+
+    @Test
+    public void searchTest1() throws RulesFormatException {
+        SoupCensus soupCensus = new SoupCensus("Life", "census");
+
+        org.junit.Assert.assertEquals(100, soupCensus.search(100, (done, total) -> {}, () -> false));
+        org.junit.Assert.assertEquals(100, soupCensus.getSoupCount());
+        org.junit.Assert.assertEquals("B3/S23", soupCensus.getRuleString());
+
+        //The block and the blinker are by far the most common objects.
+        Map<String, Long> census = soupCensus.getCensus();
+        String[] codes = census.keySet().toArray(new String[0]);
+        org.junit.Assert.assertTrue(codes[0].equals("xs4_33") || codes[0].equals("xp2_7"));
+        org.junit.Assert.assertTrue(soupCensus.getCount("xs6_696") > 0);
+        org.junit.Assert.assertTrue(soupCensus.getCount("xq4_153") > 0);
+        for (String code : codes) {
+            org.junit.Assert.assertTrue(code, code.matches("x[spq]\\d+_[0-9a-z]+|" + SoupCensus.UNIDENTIFIED + "|"
+                    + SoupCensus.PATHOLOGICAL));
+        }
+    }
+
+    @Test
+    public void searchTest2() throws RulesFormatException {
+        //Searching in batches gives the same census as searching all at once.
+        SoupCensus whole = new SoupCensus("B3/S23", "batches");
+        whole.search(60, (done, total) -> {}, () -> false);
+        SoupCensus batches = new SoupCensus("B3/S23", "batches");
+        batches.search(25, (done, total) -> {}, () -> false);
+        batches.search(35, (done, total) -> {}, () -> false);
+
+        org.junit.Assert.assertEquals(60, batches.getSoupCount());
+        org.junit.Assert.assertEquals(whole.getCensus(), batches.getCensus());
+    }
+
+    @Test
+    public void searchCancelTest() throws RulesFormatException {
+        SoupCensus soupCensus = new SoupCensus("B3/S23", "cancel");
+        int[] searched = new int[1];
+
+        int done = soupCensus.search(1000, (count, total) -> {
+            synchronized (searched) {
+                searched[0]++;
+            }
+        }, () -> {
+            synchronized (searched) {
+                return searched[0] >= 5;
+            }
+        });
+
+        org.junit.Assert.assertTrue(done >= 5 && done < 1000);
+        org.junit.Assert.assertEquals(done, soupCensus.getSoupCount());
+    }
+
+    @Test
+    public void checkpointTest() throws IOException, RulesFormatException {
+        Path file = Files.createTempFile("census", ".txt");
+        try {
+            SoupCensus soupCensus = new SoupCensus("Highlife", "checkpoint");
+            soupCensus.search(20, (done, total) -> {}, () -> false);
+            soupCensus.saveCheckpoint(file);
+
+            SoupCensus loaded = SoupCensus.loadCheckpoint(file);
+            org.junit.Assert.assertEquals("B36/S23", loaded.getRuleString());
+            org.junit.Assert.assertEquals("checkpoint", loaded.getSeed());
+            org.junit.Assert.assertEquals(20, loaded.getSoupCount());
+            org.junit.Assert.assertEquals(soupCensus.getCensus(), loaded.getCensus());
+
+            //Carries on with the next soups, as if it had not been stopped.
+            soupCensus.search(10, (done, total) -> {}, () -> false);
+            loaded.search(10, (done, total) -> {}, () -> false);
+            org.junit.Assert.assertEquals(soupCensus.getCensus(), loaded.getCensus());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = RulesFormatException.class)
+    public void negativeRuleTest() throws RulesFormatException {
+        new SoupCensus("B3/S2x", "seed");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeB0Test() throws RulesFormatException {
+        new SoupCensus("B01/S23", "seed");
+    }
+
+    @Test(expected = IOException.class)
+    public void negativeCheckpointTest() throws IOException {
+        Path file = Files.createTempFile("census", ".txt");
+        try {
+            Files.write(file, "not a census".getBytes());
+            SoupCensus.loadCheckpoint(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -202,6 +202,14 @@ public class StaticBoardTest {
         org.junit.Assert.assertEquals(expected, actual);
     }
 
+    @Test (expected = ArrayIndexOutOfBoundsException.class)
+    public void getCellStateNegativeTest3() {
+        //The inactive border around the cells is not part of the board.
+        board = new StaticBoard(10, 10);
+
+        board.getCellState(-1, 5);
+    }
+
     @Test
     public void countCellsAliveTest1() {
         board = new StaticBoard(6,6);
@@ -618,6 +626,44 @@ public class StaticBoardTest {
         org.junit.Assert.assertEquals(expectedPattern, actualPattern);
     }
 
+    @Test
+    public void rotateTest5() {
+        board = new StaticBoard(10,10);
+        byte[][] rleBoard = {
+                {0, 0, 0},
+                {0, 1, 0},
+                {1, 1, 1}};
+        board.setBoardFromRLE(rleBoard);
+        board.rotate(true);
+        String expectedPattern = "000010111";
+        String actualPattern = array2DToString(board.getLoadedPattern());
+
+        org.junit.Assert.assertEquals(expectedPattern, actualPattern);
+
+        board.rotate(false);
+        org.junit.Assert.assertEquals(array2DToString(rleBoard), array2DToString(board.getLoadedPattern()));
+    }
+
+    @Test
+    public void finalizeBoardTest() {
+        board = new StaticBoard(10,10);
+        board.setCellState(4, 4, (byte)1);
+        board.finalizeBoard();
+        org.junit.Assert.assertEquals(1, board.getCellsAlive());
+
+        byte[][] rleBoard = {
+                {0, 0, 1},
+                {1, 1, 1},
+                {0, 1, 1}};
+        board.setBoardFromRLE(rleBoard);
+        board.finalizeBoard();
+
+        //The cell at (4, 4) was already active, so only 5 new cells are counted.
+        org.junit.Assert.assertEquals(6, board.getCellsAlive());
+        org.junit.Assert.assertEquals(6, board.countCellsAlive());
+        org.junit.Assert.assertNull(board.getLoadedPattern());
+    }
+
     @Test
     public void cloneTest() {
         board = new StaticBoard(10,10);
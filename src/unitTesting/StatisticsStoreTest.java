@@ -0,0 +1,156 @@
+package unitTesting;
+
+import model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * JUnit class for unit testing of methods in the StatisticsStore class.
+ *
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class StatisticsStoreTest {
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("statistics", ".gols");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void appendTest() throws IOException {
+        try (StatisticsStore store = StatisticsStore.create(file, 2, 10, 8)) {
+            //Several chunks, the last one partly filled.
+            for (int i = 0; i < 30; i++) {
+                store.append(i, -i);
+            }
+
+            org.junit.Assert.assertEquals(30, store.size());
+            org.junit.Assert.assertEquals(10, store.getFirstGeneration());
+            org.junit.Assert.assertEquals(17, store.get(0, 27));
+            org.junit.Assert.assertEquals(-29, store.get(1, 39));
+
+            int[] values = new int[20];
+            store.read(1, 13, values);
+            for (int i = 0; i < values.length; i++) {
+                org.junit.Assert.assertEquals(-(i + 3), values[i]);
+            }
+        }
+    }
+
+    @Test
+    public void openTest() throws IOException {
+        try (StatisticsStore store = StatisticsStore.create(file, 3, 0, 4)) {
+            for (int i = 0; i < 6; i++) {
+                store.append(i, i * 2, i * 3);
+            }
+        }
+
+        //Opened again, the store can be read and appended to.
+        try (StatisticsStore store = StatisticsStore.open(file)) {
+            org.junit.Assert.assertEquals(6, store.size());
+            org.junit.Assert.assertEquals(3, store.getColumns());
+            org.junit.Assert.assertEquals(15, store.get(2, 5));
+            store.append(100, 200, 300);
+        }
+        try (StatisticsStore store = StatisticsStore.open(file)) {
+            org.junit.Assert.assertEquals(7, store.size());
+            org.junit.Assert.assertEquals(200, store.get(1, 6));
+        }
+    }
+
+    @Test
+    public void aggregateTest() throws IOException {
+        try (StatisticsStore store = StatisticsStore.create(file, 1, 0, 16)) {
+            int[] values = new int[100];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (i * 37) % 101 - 50;
+                store.append(values[i]);
+            }
+
+            //Windows within a chunk, across whole chunks and reaching the partly filled last chunk.
+            int[][] windows = {{3, 9}, {0, 15}, {5, 70}, {16, 99}, {0, 99}, {42, 42}};
+            for (int[] window : windows) {
+                int min = Integer.MAX_VALUE;
+                int max = Integer.MIN_VALUE;
+                long sum = 0;
+                for (int i = window[0]; i <= window[1]; i++) {
+                    min = Math.min(min, values[i]);
+                    max = Math.max(max, values[i]);
+                    sum += values[i];
+                }
+                double[] aggregate = store.aggregate(0, window[0], window[1]);
+                org.junit.Assert.assertEquals(min, aggregate[0], 0);
+                org.junit.Assert.assertEquals(max, aggregate[1], 0);
+                org.junit.Assert.assertEquals((double) sum / (window[1] - window[0] + 1), aggregate[2], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void exportCsvTest() throws IOException {
+        StringWriter out = new StringWriter();
+        try (StatisticsStore store = StatisticsStore.create(file, 2, 5, 2)) {
+            store.append(1, 2);
+            store.append(3, 4);
+            store.append(5, -6);
+            store.exportCsv(out, "a", "b");
+        }
+
+        String separator = System.lineSeparator();
+        org.junit.Assert.assertEquals("Generation,a,b" + separator + "5,1,2" + separator + "6,3,4" + separator
+                + "7,5,-6" + separator, out.toString());
+    }
+
+    @Test
+    public void recordStatisticsTest() throws IOException {
+        Board board = new DynamicBoard(10, 10);
+        board.setBoardFromRLE(new byte[][]{
+                {0, 0, 1},
+                {1, 0, 1},
+                {0, 1, 1}});
+        board.finalizeBoard();
+        GameOfLife gameOfLife = new GameOfLife(board);
+        int[][] expected = new Statistics().getStatistics(gameOfLife, 5);
+        int[] rows = new int[1];
+
+        try (StatisticsStore store = StatisticsStore.create(file, 3, 0)) {
+            int measured = new Statistics().recordStatistics(gameOfLife, 5, store, (row, generation) -> rows[0]++,
+                    () -> false);
+
+            org.junit.Assert.assertEquals(6, measured);
+            org.junit.Assert.assertEquals(6, rows[0]);
+            for (int i = 0; i < 3; i++) {
+                int[] values = new int[6];
+                store.read(i, 0, values);
+                org.junit.Assert.assertArrayEquals(expected[i], values);
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void negativeOpenTest() throws IOException {
+        Files.write(file, new byte[100]);
+        StatisticsStore.open(file);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void negativeGetTest() throws IOException {
+        try (StatisticsStore store = StatisticsStore.create(file, 1, 0)) {
+            store.append(1);
+            store.get(0, 1);
+        }
+    }
+}
@@ -235,6 +235,28 @@ public class StatisticsTest {
         org.junit.Assert.assertEquals(expected, actual);
     }
 
+    @Test
+    public void getRepeatPeriodTest() {
+        board = new DynamicBoard(10, 10);
+        gol = new GameOfLife(board);
+        byte[][] rleBoard = {{1, 1, 1}};
+        board.setBoardFromRLE(rleBoard);
+        board.finalizeBoard();
+
+        org.junit.Assert.assertEquals(2, stats.getRepeatPeriod(gol, 10));
+        org.junit.Assert.assertEquals(0, stats.getRepeatPeriod(gol, 3));
+
+        //A glider moves away instead of repeating, and the game itself is not run.
+        board = new DynamicBoard(10, 10);
+        gol = new GameOfLife(board);
+        board.setBoardFromRLE(new byte[][]{{0, 0, 1}, {1, 0, 1}, {0, 1, 1}});
+        board.finalizeBoard();
+        String before = board.toString();
+
+        org.junit.Assert.assertEquals(0, stats.getRepeatPeriod(gol, 40));
+        org.junit.Assert.assertEquals(before, board.toString());
+    }
+
     @Test
     public void statToStringTest1() {
         board = new DynamicBoard(10,10);
@@ -279,4 +301,60 @@ public class StatisticsTest {
 
         org.junit.Assert.assertEquals(expectedOutput, actualOutput);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getStatisticsStreamTest() {
+        board = new DynamicBoard(10,10);
+        gol = new GameOfLife(board);
+        byte[][] rleBoard = {
+                {0, 0, 1, 1, 1, 0, 0, 1},
+                {1, 0, 0, 0, 0, 1, 0, 0},
+                {1, 0, 1, 1, 0, 0, 0, 1},
+                {0, 0, 0, 1, 0, 0, 0, 1},
+                {0, 0, 0, 0, 1, 0, 1, 1},
+                {1, 0, 0, 0, 0, 1, 0, 0},
+                {1, 0, 0, 0, 0, 1, 0, 1},
+                {1, 0, 1, 1, 1, 0, 0, 0}};
+        board.setBoardFromRLE(rleBoard);
+        board.finalizeBoard();
+        java.util.List<int[]> rows = new java.util.ArrayList<>();
+
+        int[][] statistics = stats.getStatistics(gol, 7, (row, generation) -> {
+            org.junit.Assert.assertEquals(rows.size(), generation);
+            rows.add(row);
+        }, () -> false);
+
+        //Every generation is handed on, with the same values as returned.
+        org.junit.Assert.assertEquals(8, rows.size());
+        for (int j = 0; j < rows.size(); j++) {
+            org.junit.Assert.assertEquals(statistics[0][j], rows.get(j)[0]);
+            org.junit.Assert.assertEquals(statistics[1][j], rows.get(j)[1]);
+            org.junit.Assert.assertEquals(statistics[2][j], rows.get(j)[2]);
+        }
+        org.junit.Assert.assertEquals(30, rows.get(1)[0]);
+        org.junit.Assert.assertEquals(31, rows.get(7)[2]);
+
+        //The game itself is not changed.
+        org.junit.Assert.assertEquals(24, board.countCellsAlive());
+    }
+
+    @Test
+    public void getStatisticsCancelTest() {
+        board = new DynamicBoard(10,10);
+        gol = new GameOfLife(board);
+        byte[][] rleBoard = {
+                {0, 0, 1},
+                {1, 0, 1},
+                {0, 1, 1}};
+        board.setBoardFromRLE(rleBoard);
+        board.finalizeBoard();
+        int[] rows = new int[1];
+
+        int[][] statistics = stats.getStatistics(gol, 10000, (row, generation) -> rows[0]++,
+                () -> rows[0] >= 3);
+
+        org.junit.Assert.assertEquals(3, rows[0]);
+        org.junit.Assert.assertEquals(3, statistics[0].length);
+        org.junit.Assert.assertEquals(3, statistics[2].length);
+    }
+}
@@ -0,0 +1,91 @@
+package unitTesting;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * JUnit class for unit testing of methods in the TileEngine class.
+ *
+ * @author Oscar Vladau-Husevold
+ * @version 1.0
+ */
+public class TileEngineTest {
+
+    @Test
+    public void nextGenerationTest() throws RulesFormatException {
+        //Compared with GameOfLife on StaticBoards, whose edges are also dead, of odd and even sizes across longs.
+        String[] rules = {"Life", "Day & Night", "Anneal", "B1357/S1357", "B0123478/S01234678"};
+        int[][] sizes = {{70, 33}, {64, 64}, {5, 7}, {130, 12}};
+        Random random = new Random(11);
+        for (String ruleString : rules) {
+            for (int[] size : sizes) {
+                Board board = new StaticBoard(size[0], size[1]);
+                for (int x = 0; x < size[0]; x++) {
+                    for (int y = 0; y < size[1]; y++) {
+                        if (random.nextBoolean()) {
+                            board.setCellState(x, y, (byte)1);
+                        }
+                    }
+                }
+                TileEngine engine = new TileEngine(board, ruleString);
+                GameOfLife gameOfLife = new GameOfLife(board);
+                gameOfLife.setRuleString(ruleString);
+
+                for (int generation = 0; generation < 12; generation++) {
+                    engine.nextGeneration();
+                    gameOfLife.nextGeneration();
+                }
+                org.junit.Assert.assertEquals(board.countCellsAlive(), engine.getPopulation());
+                for (int x = 0; x < size[0]; x++) {
+                    for (int y = 0; y < size[1]; y++) {
+                        org.junit.Assert.assertEquals(ruleString, board.getCellState(x, y),
+                                engine.getCellState(x, y));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void storeTest() throws RulesFormatException {
+        //A blinker turns on its side every other generation.
+        Board board = new DynamicBoard(5, 5);
+        board.setCellState(2, 1, (byte)1);
+        board.setCellState(2, 2, (byte)1);
+        board.setCellState(2, 3, (byte)1);
+        TileEngine engine = new TileEngine(board, "B3/S23");
+
+        engine.nextGeneration();
+        Board stored = new DynamicBoard(5, 5);
+        engine.store(stored);
+        org.junit.Assert.assertEquals(1, stored.getCellState(1, 2));
+        org.junit.Assert.assertEquals(1, stored.getCellState(3, 2));
+        org.junit.Assert.assertEquals(0, stored.getCellState(2, 1));
+
+        engine.run(2);
+        engine.store(stored);
+        org.junit.Assert.assertEquals(1, stored.getCellState(1, 2));
+        org.junit.Assert.assertEquals(3, engine.getPopulation());
+    }
+
+    @Test
+    public void getTableTest() throws RulesFormatException {
+        //Tables are shared between engines with the same rule, whatever the rule was called.
+        byte[] life = TileEngine.getTable("B3/S23");
+        org.junit.Assert.assertSame(life, TileEngine.getTable("B3/S23"));
+        TileEngine engine = new TileEngine(new DynamicBoard(4, 4), "Life");
+        org.junit.Assert.assertEquals("B3/S23", engine.getRuleString());
+
+        //Three cells above the upper left centre cell give it a birth, and a block stays a block.
+        org.junit.Assert.assertEquals(1, life[0x7]);
+        org.junit.Assert.assertEquals(0xF, life[0x660]);
+        org.junit.Assert.assertEquals(0, life[0]);
+    }
+
+    @Test(expected = RulesFormatException.class)
+    public void negativeRuleTest() throws RulesFormatException {
+        new TileEngine(new DynamicBoard(4, 4), "B9/S23");
+    }
+}
@@ -0,0 +1,91 @@
+package unitTesting;
+
+import model.TimeSeries;
+import org.junit.Test;
+
+/**
+ * JUnit class for unit testing of methods in the TimeSeries class.
+ *
+ * @author Henrik Finnerud Larsen
+ * @version 1.0
+ */
+public class TimeSeriesTest {
+
+    @Test
+    public void addTest() {
+        TimeSeries timeSeries = new TimeSeries(2);
+        //More rows than the initial capacity.
+        for (int i = 0; i < 5000; i++) {
+            timeSeries.add(i, i * 3);
+        }
+
+        org.junit.Assert.assertEquals(5000, timeSeries.size());
+        org.junit.Assert.assertEquals(4999, timeSeries.get(0, 4999));
+        org.junit.Assert.assertEquals(3 * 2500, timeSeries.get(1, 2500));
+
+        timeSeries.clear();
+        org.junit.Assert.assertEquals(0, timeSeries.size());
+    }
+
+    @Test
+    public void lowerBoundTest() {
+        TimeSeries timeSeries = new TimeSeries(1);
+        for (int i = 10; i < 20; i += 2) {
+            timeSeries.add(i);
+        }
+
+        org.junit.Assert.assertEquals(0, timeSeries.lowerBound(0, 3));
+        org.junit.Assert.assertEquals(1, timeSeries.lowerBound(0, 12));
+        org.junit.Assert.assertEquals(2, timeSeries.lowerBound(0, 12.5));
+        org.junit.Assert.assertEquals(5, timeSeries.lowerBound(0, 100));
+    }
+
+    @Test
+    public void downsampleTest1() {
+        TimeSeries timeSeries = new TimeSeries(2);
+        for (int i = 0; i < 10; i++) {
+            timeSeries.add(i, i);
+        }
+
+        //Fewer rows than asked for gives every row.
+        org.junit.Assert.assertArrayEquals(new int[]{2, 3, 4, 5}, timeSeries.downsample(0, 1, 2, 6, 10));
+    }
+
+    @Test
+    public void downsampleTest2() {
+        TimeSeries timeSeries = new TimeSeries(2);
+        for (int i = 0; i < 100000; i++) {
+            timeSeries.add(i, i == 31337 ? 1000 : i == 70000 ? -1000 : 0);
+        }
+
+        int[] indexes = timeSeries.downsample(0, 1, 0, 100000, 800);
+
+        //Keeps the ends and both spikes, in ascending order.
+        org.junit.Assert.assertEquals(800, indexes.length);
+        org.junit.Assert.assertEquals(0, indexes[0]);
+        org.junit.Assert.assertEquals(99999, indexes[799]);
+        boolean high = false;
+        boolean low = false;
+        for (int i = 0; i < indexes.length; i++) {
+            high |= indexes[i] == 31337;
+            low |= indexes[i] == 70000;
+            if (i > 0) {
+                org.junit.Assert.assertTrue(indexes[i] > indexes[i - 1]);
+            }
+        }
+        org.junit.Assert.assertTrue(high);
+        org.junit.Assert.assertTrue(low);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeAddTest() {
+        new TimeSeries(3).add(1, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeDownsampleTest() {
+        TimeSeries timeSeries = new TimeSeries(2);
+        timeSeries.add(0, 0);
+        timeSeries.downsample(0, 1, 0, 2, 10);
+    }
+}